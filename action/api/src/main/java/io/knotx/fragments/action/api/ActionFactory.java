@@ -42,4 +42,24 @@ public interface ActionFactory {
    */
   Action create(String alias, JsonObject config, Vertx vertx, Action doAction);
 
+  /**
+   * Creates an instance of {@link Action} class that may be shared by all verticle instances of
+   * the Vert.x instance. A shared action is created outside of any verticle context, so Vert.x does
+   * not close the resources it creates (e.g. clients) and it should own them, closing them when it
+   * is closed (see {@link AutoCloseable}). By default it calls
+   * {@link #create(String, JsonObject, Vertx, Action)}.
+   *
+   * @param alias - action alias / name
+   * @param config - JSON configuration
+   * @param vertx - vertx instance
+   * @param doAction action to be applied, if no action should be called in chain then it is
+   * <pre>null</pre>
+   * @param shared - whether the action is shared by all verticle instances
+   * @return function to execute
+   */
+  default Action create(String alias, JsonObject config, Vertx vertx, Action doAction,
+      boolean shared) {
+    return create(alias, config, vertx, doAction);
+  }
+
 }
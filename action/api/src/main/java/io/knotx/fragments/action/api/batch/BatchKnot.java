@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.batch;
+
+import io.knotx.fragments.action.api.Knot;
+import io.knotx.fragments.action.api.codec.BinaryKnotBinder;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Base class for Knots that process a whole {@link FragmentBatch} at once, e.g. with a single bulk
+ * call to the backend service. It is registered with {@link BinaryKnotBinder}, single calls are
+ * processed as one element batches.
+ */
+public abstract class BatchKnot implements Knot {
+
+  @Override
+  public void apply(FragmentContext fragmentContext,
+      Handler<AsyncResult<FragmentResult>> resultHandler) {
+    applyBatch(Collections.singletonList(fragmentContext), results -> {
+      if (results.failed()) {
+        resultHandler.handle(Future.failedFuture(results.cause()));
+      } else if (results.result().size() != 1) {
+        resultHandler.handle(Future.failedFuture(new IllegalStateException(
+            "Expected 1 result, got " + results.result().size())));
+      } else {
+        resultHandler.handle(Future.succeededFuture(results.result().get(0)));
+      }
+    });
+  }
+
+  /**
+   * Processes the fragment contexts. A failure fails every context of the batch.
+   *
+   * @param fragmentContexts fragment contexts of the batch
+   * @param resultHandler handler notified with results in the order of the fragment contexts
+   */
+  public abstract void applyBatch(List<FragmentContext> fragmentContexts,
+      Handler<AsyncResult<List<FragmentResult>>> resultHandler);
+}
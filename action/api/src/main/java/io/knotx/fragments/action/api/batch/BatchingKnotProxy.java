@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.batch;
+
+import io.knotx.fragments.action.api.Knot;
+import io.knotx.fragments.action.api.codec.BinaryKnotBinder;
+import io.knotx.fragments.action.api.codec.FragmentCodecs;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Knot proxy that collects calls to the same address and sends them as one {@link FragmentBatch}
+ * message. A batch is sent when it reaches the maximum size or when the batch window, started by
+ * its first call, passes. Every result is delivered on the context its call was made on. The Knot
+ * has to be registered with {@link BinaryKnotBinder}.
+ */
+public class BatchingKnotProxy implements Knot {
+
+  private final Vertx vertx;
+  private final String address;
+  private final DeliveryOptions deliveryOptions;
+  private final int maxBatchSize;
+  private final long batchWindowMs;
+
+  private final Object lock = new Object();
+  private List<PendingCall> batch = new ArrayList<>();
+
+  /**
+   * @param maxBatchSize the number of calls that sends the batch immediately
+   * @param batchWindowMs the time in milliseconds the first call of a batch waits for others
+   */
+  public BatchingKnotProxy(Vertx vertx, String address, DeliveryOptions deliveryOptions,
+      int maxBatchSize, long batchWindowMs) {
+    FragmentCodecs.register(vertx);
+    this.vertx = vertx;
+    this.address = address;
+    this.deliveryOptions = deliveryOptions;
+    this.maxBatchSize = maxBatchSize;
+    this.batchWindowMs = batchWindowMs;
+  }
+
+  @Override
+  public void apply(FragmentContext fragmentContext,
+      Handler<AsyncResult<FragmentResult>> resultHandler) {
+    List<PendingCall> current;
+    int size;
+    synchronized (lock) {
+      current = batch;
+      current.add(new PendingCall(Vertx.currentContext(), fragmentContext, resultHandler));
+      size = current.size();
+      if (size >= maxBatchSize) {
+        batch = new ArrayList<>();
+      }
+    }
+    if (size >= maxBatchSize) {
+      send(current);
+    } else if (size == 1) {
+      vertx.setTimer(batchWindowMs, timerId -> flush(current));
+    }
+  }
+
+  private void flush(List<PendingCall> expired) {
+    synchronized (lock) {
+      // the batch could already be sent when it reached the maximum size
+      if (batch != expired) {
+        return;
+      }
+      batch = new ArrayList<>();
+    }
+    send(expired);
+  }
+
+  private void send(List<PendingCall> calls) {
+    if (calls.size() == 1) {
+      sendSingle(calls.get(0));
+      return;
+    }
+    List<FragmentContext> contexts = new ArrayList<>(calls.size());
+    calls.forEach(call -> contexts.add(call.fragmentContext));
+    vertx.eventBus().<FragmentBatchReply>request(address, new FragmentBatch(contexts),
+        deliveryOptions, reply -> {
+          if (reply.failed()) {
+            calls.forEach(call -> call.complete(Future.failedFuture(reply.cause())));
+          } else if (reply.result().body().size() != calls.size()) {
+            IllegalStateException error = new IllegalStateException(
+                "Expected " + calls.size() + " results, got " + reply.result().body().size());
+            calls.forEach(call -> call.complete(Future.failedFuture(error)));
+          } else {
+            List<AsyncResult<FragmentResult>> results = reply.result().body().getResults();
+            for (int i = 0; i < calls.size(); i++) {
+              calls.get(i).complete(results.get(i));
+            }
+          }
+        });
+  }
+
+  private void sendSingle(PendingCall call) {
+    vertx.eventBus().<FragmentResult>request(address, call.fragmentContext, deliveryOptions,
+        reply -> {
+          if (reply.succeeded()) {
+            call.complete(Future.succeededFuture(reply.result().body()));
+          } else {
+            call.complete(Future.failedFuture(reply.cause()));
+          }
+        });
+  }
+
+  private static final class PendingCall {
+
+    private final Context context;
+    private final FragmentContext fragmentContext;
+    private final Handler<AsyncResult<FragmentResult>> resultHandler;
+
+    private PendingCall(Context context, FragmentContext fragmentContext,
+        Handler<AsyncResult<FragmentResult>> resultHandler) {
+      this.context = context;
+      this.fragmentContext = fragmentContext;
+      this.resultHandler = resultHandler;
+    }
+
+    // the reply of a batch arrives on the context of its first call
+    private void complete(AsyncResult<FragmentResult> result) {
+      if (context == null) {
+        resultHandler.handle(result);
+      } else {
+        context.runOnContext(v -> resultHandler.handle(result));
+      }
+    }
+  }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.batch;
+
+import io.knotx.fragments.api.FragmentContext;
+import java.util.List;
+
+/**
+ * Fragment contexts sent to a Knot in a single event bus message.
+ */
+public final class FragmentBatch {
+
+  private final List<FragmentContext> contexts;
+
+  public FragmentBatch(List<FragmentContext> contexts) {
+    this.contexts = contexts;
+  }
+
+  public List<FragmentContext> getContexts() {
+    return contexts;
+  }
+
+  public int size() {
+    return contexts.size();
+  }
+
+  @Override
+  public String toString() {
+    return "FragmentBatch{" +
+        "contexts=" + contexts +
+        '}';
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.batch;
+
+import io.knotx.fragments.action.api.codec.FragmentContextCodec;
+import io.knotx.fragments.api.FragmentContext;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event bus codec for {@link FragmentBatch}, writing the batch size followed by the contexts
+ * encoded with {@link FragmentContextCodec}.
+ */
+public class FragmentBatchCodec implements MessageCodec<FragmentBatch, FragmentBatch> {
+
+  public static final String NAME = "knotx.fragments.FragmentBatch";
+
+  private final FragmentContextCodec contextCodec = new FragmentContextCodec();
+
+  @Override
+  public void encodeToWire(Buffer buffer, FragmentBatch batch) {
+    buffer.appendInt(batch.size());
+    batch.getContexts().forEach(context -> contextCodec.encodeToWire(buffer, context));
+  }
+
+  @Override
+  public FragmentBatch decodeFromWire(int position, Buffer buffer) {
+    int size = buffer.getInt(position);
+    int current = position + Integer.BYTES;
+    List<FragmentContext> contexts = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      contexts.add(contextCodec.decodeFromWire(current, buffer));
+      current += Integer.BYTES + buffer.getInt(current);
+    }
+    return new FragmentBatch(contexts);
+  }
+
+  @Override
+  public FragmentBatch transform(FragmentBatch batch) {
+    List<FragmentContext> contexts = new ArrayList<>(batch.size());
+    batch.getContexts().forEach(context -> contexts.add(contextCodec.transform(context)));
+    return new FragmentBatch(contexts);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.batch;
+
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import java.util.List;
+
+/**
+ * Results of a {@link FragmentBatch}, in the order of the batch contexts. A failed entry is
+ * delivered to its caller as a {@link ReplyException}, like a failure of a single Knot call.
+ */
+public final class FragmentBatchReply {
+
+  static final int FAILURE_CODE = -1;
+
+  private final List<AsyncResult<FragmentResult>> results;
+
+  public FragmentBatchReply(List<AsyncResult<FragmentResult>> results) {
+    this.results = results;
+  }
+
+  public List<AsyncResult<FragmentResult>> getResults() {
+    return results;
+  }
+
+  public int size() {
+    return results.size();
+  }
+
+  static AsyncResult<FragmentResult> failure(String message) {
+    return Future.failedFuture(
+        new ReplyException(ReplyFailure.RECIPIENT_FAILURE, FAILURE_CODE, message));
+  }
+
+  @Override
+  public String toString() {
+    return "FragmentBatchReply{" +
+        "results=" + results +
+        '}';
+  }
+}
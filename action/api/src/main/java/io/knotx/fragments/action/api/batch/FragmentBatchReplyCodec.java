@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.batch;
+
+import io.knotx.fragments.action.api.codec.FragmentResultCodec;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event bus codec for {@link FragmentBatchReply}. Every entry is a flag followed by a result
+ * encoded with {@link FragmentResultCodec} or by the failure message.
+ */
+public class FragmentBatchReplyCodec implements
+    MessageCodec<FragmentBatchReply, FragmentBatchReply> {
+
+  public static final String NAME = "knotx.fragments.FragmentBatchReply";
+
+  private static final byte SUCCESS = 0;
+  private static final byte FAILURE = 1;
+
+  private final FragmentResultCodec resultCodec = new FragmentResultCodec();
+
+  @Override
+  public void encodeToWire(Buffer buffer, FragmentBatchReply reply) {
+    buffer.appendInt(reply.size());
+    for (AsyncResult<FragmentResult> result : reply.getResults()) {
+      if (result.succeeded()) {
+        buffer.appendByte(SUCCESS);
+        resultCodec.encodeToWire(buffer, result.result());
+      } else {
+        byte[] message = String.valueOf(result.cause().getMessage())
+            .getBytes(StandardCharsets.UTF_8);
+        buffer.appendByte(FAILURE).appendInt(message.length).appendBytes(message);
+      }
+    }
+  }
+
+  @Override
+  public FragmentBatchReply decodeFromWire(int position, Buffer buffer) {
+    int size = buffer.getInt(position);
+    int current = position + Integer.BYTES;
+    List<AsyncResult<FragmentResult>> results = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      byte flag = buffer.getByte(current++);
+      int length = buffer.getInt(current);
+      if (flag == SUCCESS) {
+        results.add(Future.succeededFuture(resultCodec.decodeFromWire(current, buffer)));
+      } else {
+        results.add(FragmentBatchReply.failure(buffer.getString(current + Integer.BYTES,
+            current + Integer.BYTES + length, StandardCharsets.UTF_8.name())));
+      }
+      current += Integer.BYTES + length;
+    }
+    return new FragmentBatchReply(results);
+  }
+
+  @Override
+  public FragmentBatchReply transform(FragmentBatchReply reply) {
+    List<AsyncResult<FragmentResult>> results = new ArrayList<>(reply.size());
+    for (AsyncResult<FragmentResult> result : reply.getResults()) {
+      results.add(result.succeeded()
+          ? Future.succeededFuture(resultCodec.transform(result.result()))
+          : FragmentBatchReply.failure(result.cause().getMessage()));
+    }
+    return new FragmentBatchReply(results);
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
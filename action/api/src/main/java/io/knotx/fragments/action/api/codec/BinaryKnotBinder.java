@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.codec;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.batch.BatchKnot;
+import io.knotx.fragments.action.api.batch.FragmentBatch;
+import io.knotx.fragments.action.api.batch.FragmentBatchReply;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Registers a Knot on the event bus for {@link BinaryKnotProxy} calls, the counterpart of the
+ * <code>ServiceBinder</code> registration used with the generated proxy. Batches sent by {@link
+ * io.knotx.fragments.action.api.batch.BatchingKnotProxy} are passed to a {@link BatchKnot} at
+ * once, any other Knot is called for every fragment context of the batch.
+ */
+public final class BinaryKnotBinder {
+
+  static final int FAILURE_CODE = -1;
+
+  private BinaryKnotBinder() {
+    // utility class
+  }
+
+  /**
+   * @param vertx vertx instance
+   * @param address event bus address
+   * @param knot Knot implementation
+   * @return consumer, that can be unregistered to remove the Knot
+   */
+  public static MessageConsumer<Object> register(Vertx vertx, String address, Action knot) {
+    FragmentCodecs.register(vertx);
+    return vertx.eventBus().consumer(address, message -> {
+      if (message.body() instanceof FragmentBatch) {
+        applyBatch(knot, message, ((FragmentBatch) message.body()).getContexts());
+      } else {
+        apply(knot, message, (FragmentContext) message.body());
+      }
+    });
+  }
+
+  private static void apply(Action knot, Message<Object> message, FragmentContext context) {
+    try {
+      knot.apply(context, result -> {
+        if (result.succeeded()) {
+          message.reply(result.result());
+        } else {
+          message.fail(FAILURE_CODE, result.cause().getMessage());
+        }
+      });
+    } catch (RuntimeException e) {
+      message.fail(FAILURE_CODE, e.getMessage());
+    }
+  }
+
+  private static void applyBatch(Action knot, Message<Object> message,
+      List<FragmentContext> contexts) {
+    if (knot instanceof BatchKnot) {
+      applyBulk((BatchKnot) knot, message, contexts);
+    } else {
+      applyEach(knot, message, contexts);
+    }
+  }
+
+  private static void applyBulk(BatchKnot knot, Message<Object> message,
+      List<FragmentContext> contexts) {
+    try {
+      knot.applyBatch(contexts, results -> {
+        if (results.failed()) {
+          message.fail(FAILURE_CODE, results.cause().getMessage());
+        } else if (results.result().size() != contexts.size()) {
+          message.fail(FAILURE_CODE,
+              "Expected " + contexts.size() + " results, got " + results.result().size());
+        } else {
+          List<AsyncResult<FragmentResult>> replies = new ArrayList<>(contexts.size());
+          results.result().forEach(result -> replies.add(Future.succeededFuture(result)));
+          message.reply(new FragmentBatchReply(replies));
+        }
+      });
+    } catch (RuntimeException e) {
+      message.fail(FAILURE_CODE, e.getMessage());
+    }
+  }
+
+  private static void applyEach(Action knot, Message<Object> message,
+      List<FragmentContext> contexts) {
+    AtomicReferenceArray<AsyncResult<FragmentResult>> results =
+        new AtomicReferenceArray<>(contexts.size());
+    AtomicInteger remaining = new AtomicInteger(contexts.size());
+    for (int i = 0; i < contexts.size(); i++) {
+      int index = i;
+      applySafely(knot, contexts.get(i), result -> {
+        results.set(index, result);
+        if (remaining.decrementAndGet() == 0) {
+          List<AsyncResult<FragmentResult>> replies = new ArrayList<>(contexts.size());
+          for (int r = 0; r < results.length(); r++) {
+            replies.add(results.get(r));
+          }
+          message.reply(new FragmentBatchReply(replies));
+        }
+      });
+    }
+  }
+
+  private static void applySafely(Action knot, FragmentContext context,
+      Handler<AsyncResult<FragmentResult>> handler) {
+    try {
+      knot.apply(context, handler);
+    } catch (RuntimeException e) {
+      handler.handle(Future.failedFuture(e));
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.codec;
+
+import io.knotx.fragments.action.api.Knot;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+
+/**
+ * Knot proxy sending {@link FragmentContext} with {@link FragmentContextCodec} instead of the
+ * JSON representation used by the generated proxy. The Knot has to be registered with
+ * {@link BinaryKnotBinder}.
+ */
+public class BinaryKnotProxy implements Knot {
+
+  private final Vertx vertx;
+  private final String address;
+  private final DeliveryOptions deliveryOptions;
+
+  public BinaryKnotProxy(Vertx vertx, String address, DeliveryOptions deliveryOptions) {
+    FragmentCodecs.register(vertx);
+    this.vertx = vertx;
+    this.address = address;
+    this.deliveryOptions = deliveryOptions;
+  }
+
+  @Override
+  public void apply(FragmentContext fragmentContext,
+      Handler<AsyncResult<FragmentResult>> result) {
+    vertx.eventBus().<FragmentResult>request(address, fragmentContext, deliveryOptions, reply -> {
+      if (reply.succeeded()) {
+        result.handle(Future.succeededFuture(reply.result().body()));
+      } else {
+        result.handle(Future.failedFuture(reply.cause()));
+      }
+    });
+  }
+}
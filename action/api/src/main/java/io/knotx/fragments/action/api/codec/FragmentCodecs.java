@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.codec;
+
+import io.knotx.fragments.action.api.batch.FragmentBatch;
+import io.knotx.fragments.action.api.batch.FragmentBatchCodec;
+import io.knotx.fragments.action.api.batch.FragmentBatchReply;
+import io.knotx.fragments.action.api.batch.FragmentBatchReplyCodec;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Registers {@link FragmentContextCodec} and {@link FragmentResultCodec} as default event bus
+ * codecs, so {@link FragmentContext} and {@link FragmentResult} can be sent as they are. The
+ * codecs of {@link FragmentBatch} and {@link FragmentBatchReply} are registered as well.
+ */
+public final class FragmentCodecs {
+
+  private FragmentCodecs() {
+    // utility class
+  }
+
+  /**
+   * Registers the codecs unless they are already registered in the event bus.
+   *
+   * @param vertx vertx instance
+   */
+  public static void register(Vertx vertx) {
+    EventBus eventBus = vertx.eventBus();
+    synchronized (eventBus) {
+      registerDefault(eventBus, FragmentContext.class, new FragmentContextCodec());
+      registerDefault(eventBus, FragmentResult.class, new FragmentResultCodec());
+      registerDefault(eventBus, FragmentBatch.class, new FragmentBatchCodec());
+      registerDefault(eventBus, FragmentBatchReply.class, new FragmentBatchReplyCodec());
+    }
+  }
+
+  private static <T> void registerDefault(EventBus eventBus, Class<T> type,
+      MessageCodec<T, ?> codec) {
+    try {
+      eventBus.registerDefaultCodec(type, codec);
+    } catch (IllegalStateException e) {
+      // already registered
+    }
+  }
+}
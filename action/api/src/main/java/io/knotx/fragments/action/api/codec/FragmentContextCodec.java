@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.codec;
+
+import io.knotx.fragments.action.api.codec.FragmentWire.Reader;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.server.api.context.ClientRequest;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Event bus codec for {@link FragmentContext}. Local delivery passes the client request by
+ * reference and shares the fragment body and configuration, copying only the payload. Clustered
+ * delivery uses the {@link FragmentWire} binary layout.
+ */
+public class FragmentContextCodec implements MessageCodec<FragmentContext, FragmentContext> {
+
+  public static final String NAME = "knotx.fragments.FragmentContext";
+
+  @Override
+  public void encodeToWire(Buffer buffer, FragmentContext context) {
+    int lengthPosition = buffer.length();
+    buffer.appendInt(0);
+    FragmentWire.writeFragment(buffer, context.getFragment());
+    FragmentWire.writeJson(buffer, context.getClientRequest().toJson());
+    buffer.setInt(lengthPosition, buffer.length() - lengthPosition - Integer.BYTES);
+  }
+
+  @Override
+  public FragmentContext decodeFromWire(int position, Buffer buffer) {
+    Reader reader = new Reader(buffer, position + Integer.BYTES);
+    return new FragmentContext(FragmentWire.readFragment(reader),
+        new ClientRequest(reader.readJson()));
+  }
+
+  @Override
+  public FragmentContext transform(FragmentContext context) {
+    return new FragmentContext(FragmentWire.localCopy(context.getFragment()),
+        context.getClientRequest());
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
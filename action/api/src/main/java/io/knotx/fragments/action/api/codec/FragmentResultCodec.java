@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.codec;
+
+import io.knotx.fragments.action.api.codec.FragmentWire.Reader;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Event bus codec for {@link FragmentResult}. Local delivery shares the fragment body and
+ * configuration, copying only the payload. Clustered delivery uses the {@link FragmentWire}
+ * binary layout.
+ */
+public class FragmentResultCodec implements MessageCodec<FragmentResult, FragmentResult> {
+
+  public static final String NAME = "knotx.fragments.FragmentResult";
+
+  private static final String FRAGMENT_KEY = "fragment";
+  private static final String TRANSITION_KEY = "transition";
+  private static final String LOG_KEY = "log";
+  private static final String FAILURE_KEY = "error";
+
+  @Override
+  public void encodeToWire(Buffer buffer, FragmentResult result) {
+    int lengthPosition = buffer.length();
+    buffer.appendInt(0);
+    FragmentWire.writeFragment(buffer, result.getFragment());
+    FragmentWire.writeString(buffer, result.getTransition());
+    FragmentWire.writeJson(buffer, result.getLog());
+    FragmentWire.writeJson(buffer, result.getError() == null ? null : result.getError().toJson());
+    buffer.setInt(lengthPosition, buffer.length() - lengthPosition - Integer.BYTES);
+  }
+
+  @Override
+  public FragmentResult decodeFromWire(int position, Buffer buffer) {
+    Reader reader = new Reader(buffer, position + Integer.BYTES);
+    JsonObject fragment = FragmentWire.readFragmentJson(reader);
+    return newResult(fragment, reader.readString(), reader.readJson(), reader.readJson());
+  }
+
+  @Override
+  public FragmentResult transform(FragmentResult result) {
+    return newResult(FragmentWire.localCopy(result.getFragment()).toJson(),
+        result.getTransition(), result.getLog(),
+        result.getError() == null ? null : result.getError().toJson());
+  }
+
+  private static FragmentResult newResult(JsonObject fragment, String transition, JsonObject log,
+      JsonObject failure) {
+    return new FragmentResult(new JsonObject()
+        .put(FRAGMENT_KEY, fragment)
+        .put(TRANSITION_KEY, transition)
+        .put(LOG_KEY, log)
+        .put(FAILURE_KEY, failure));
+  }
+
+  @Override
+  public String name() {
+    return NAME;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
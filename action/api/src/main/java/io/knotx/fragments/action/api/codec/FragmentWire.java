@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.codec;
+
+import io.knotx.fragments.api.Fragment;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout shared by the fragment codecs. Strings are written as length-prefixed UTF-8, so
+ * the fragment body, usually the largest part, is neither escaped nor parsed. JSON values are
+ * written as length-prefixed JSON. A length of -1 stands for null.
+ */
+final class FragmentWire {
+
+  private static final int NULL_LENGTH = -1;
+  private static final String ID_KEY = "id";
+  private static final String TYPE_KEY = "type";
+  private static final String CONFIGURATION_KEY = "configuration";
+  private static final String BODY_KEY = "body";
+  private static final String PAYLOAD_KEY = "payload";
+
+  private FragmentWire() {
+    // utility class
+  }
+
+  /**
+   * Copies the fragment for a local consumer. The body is an immutable string and the
+   * configuration is never modified during processing, so both are shared. Only the payload is
+   * copied, so the consumer cannot modify the fragment of the sender.
+   */
+  static Fragment localCopy(Fragment fragment) {
+    return new Fragment(new JsonObject()
+        .put(ID_KEY, fragment.getId())
+        .put(TYPE_KEY, fragment.getType())
+        .put(CONFIGURATION_KEY, fragment.peekConfiguration())
+        .put(BODY_KEY, fragment.getBody())
+        .put(PAYLOAD_KEY, fragment.getPayload()));
+  }
+
+  static void writeFragment(Buffer buffer, Fragment fragment) {
+    writeString(buffer, fragment.getId());
+    writeString(buffer, fragment.getType());
+    writeJson(buffer, fragment.getConfiguration());
+    writeString(buffer, fragment.getBody());
+    writeJson(buffer, fragment.getPayload());
+  }
+
+  static Fragment readFragment(Reader reader) {
+    return new Fragment(readFragmentJson(reader));
+  }
+
+  static JsonObject readFragmentJson(Reader reader) {
+    return new JsonObject()
+        .put(ID_KEY, reader.readString())
+        .put(TYPE_KEY, reader.readString())
+        .put(CONFIGURATION_KEY, reader.readJson())
+        .put(BODY_KEY, reader.readString())
+        .put(PAYLOAD_KEY, reader.readJson());
+  }
+
+  static void writeString(Buffer buffer, String value) {
+    if (value == null) {
+      buffer.appendInt(NULL_LENGTH);
+    } else {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      buffer.appendInt(bytes.length).appendBytes(bytes);
+    }
+  }
+
+  static void writeJson(Buffer buffer, JsonObject value) {
+    if (value == null) {
+      buffer.appendInt(NULL_LENGTH);
+    } else {
+      Buffer json = value.toBuffer();
+      buffer.appendInt(json.length()).appendBuffer(json);
+    }
+  }
+
+  /**
+   * Reads values in the order they were written, starting from the given buffer position.
+   */
+  static final class Reader {
+
+    private final Buffer buffer;
+    private int position;
+
+    Reader(Buffer buffer, int position) {
+      this.buffer = buffer;
+      this.position = position;
+    }
+
+    String readString() {
+      int length = readLength();
+      if (length == NULL_LENGTH) {
+        return null;
+      }
+      String value = buffer.getString(position, position + length, StandardCharsets.UTF_8.name());
+      position += length;
+      return value;
+    }
+
+    JsonObject readJson() {
+      int length = readLength();
+      if (length == NULL_LENGTH) {
+        return null;
+      }
+      JsonObject value = new JsonObject(buffer.getBuffer(position, position + length));
+      position += length;
+      return value;
+    }
+
+    private int readLength() {
+      int length = buffer.getInt(position);
+      position += Integer.BYTES;
+      return length;
+    }
+  }
+}
@@ -15,13 +15,17 @@
  */
 package io.knotx.fragments.action.api.invoker;
 
-import static java.time.Instant.now;
-
 import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.FutureAction;
+import io.knotx.fragments.action.api.SingleAction;
+import io.knotx.fragments.action.api.SyncAction;
 import io.knotx.fragments.api.FragmentContext;
 import io.knotx.fragments.api.FragmentResult;
 import io.knotx.reactivex.fragments.api.FragmentOperation;
 import io.reactivex.Single;
+import io.reactivex.exceptions.Exceptions;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 public final class ActionInvoker {
 
@@ -74,17 +78,78 @@ public final class ActionInvoker {
    * There is also a possibility of a broken ReactiveX stream in case of a fatal VM exception.
    * In this case, the thread executing the stream will be propagated with an exception instead of populating it downstream.
    * This is very unlikely to happen. For reference, see {@link io.reactivex.exceptions.Exceptions#throwIfFatal(Throwable)}
+   * <p>
+   * {@link SyncAction}, {@link FutureAction} and {@link SingleAction} are called directly through
+   * their own interfaces, only other actions are adapted to the ReactiveX interface. The action is
+   * applied when the returned <code>Single</code> is subscribed.
    *
    * @param action  the action to be executed
    * @param context the context with which action will be applied.
    * @return Single representing invocation, that either succeeds or halts.
    */
   public static Single<ActionInvocation> rxApply(Action action, FragmentContext context) {
+    if (action instanceof SyncAction) {
+      return Single.fromCallable(() -> applySync((SyncAction) action, context));
+    } else if (action instanceof FutureAction) {
+      return Single.create(
+          emitter -> applyFuture((FutureAction) action, context, emitter::onSuccess));
+    } else if (action instanceof SingleAction) {
+      return Single.defer(() -> rxApplySingle((SingleAction) action, context));
+    }
     Timer timer = new Timer();
     return rxApply(action, context, timer)
         .onErrorReturn(e -> ActionInvocation.exception(timer.duration(), e, context));
   }
 
+  private static ActionInvocation applySync(SyncAction action, FragmentContext context) {
+    long startTime = System.nanoTime();
+    try {
+      return resultDelivered(startTime, action.applySync(context), action, context);
+    } catch (Throwable e) {
+      Exceptions.throwIfFatal(e);
+      return ActionInvocation.exception(millisSince(startTime), e, context);
+    }
+  }
+
+  private static void applyFuture(FutureAction action, FragmentContext context,
+      Consumer<ActionInvocation> invocationHandler) {
+    long startTime = System.nanoTime();
+    // tryApply handles both a thrown exception and a null Future
+    action.tryApply(context).onComplete(result -> invocationHandler.accept(result.succeeded()
+        ? resultDelivered(startTime, result.result(), action, context)
+        : ActionInvocation.exception(millisSince(startTime), result.cause(), context)));
+  }
+
+  private static Single<ActionInvocation> rxApplySingle(SingleAction action,
+      FragmentContext context) {
+    long startTime = System.nanoTime();
+    Single<FragmentResult> result;
+    try {
+      result = action.apply(context);
+    } catch (Throwable e) {
+      Exceptions.throwIfFatal(e);
+      return Single.just(ActionInvocation.exception(millisSince(startTime), e, context));
+    }
+    if (result == null) {
+      return Single.just(ActionInvocation.exception(millisSince(startTime),
+          new IllegalStateException(
+              "Null Single<FragmentResult> returned by action: " + action.getClass().getName()),
+          context));
+    }
+    return result
+        .map(fr -> resultDelivered(startTime, fr, action, context))
+        .onErrorReturn(e -> ActionInvocation.exception(millisSince(startTime), e, context));
+  }
+
+  private static ActionInvocation resultDelivered(long startTime, FragmentResult result,
+      Action action, FragmentContext context) {
+    long duration = millisSince(startTime);
+    if (result == null) {
+      return ActionInvocation.exception(duration, nullResult(action), context);
+    }
+    return ActionInvocation.resultDelivered(duration, result);
+  }
+
   private static Single<ActionInvocation> rxApply(Action action, FragmentContext context,
       Timer timer) {
     if (action == null) {
@@ -104,26 +169,34 @@ public final class ActionInvoker {
 
   private static void requireNonNull(FragmentResult result, Action action) {
     if (result == null) {
-      throw new IllegalStateException(
-          "Null FragmentResult delivered by action: " + action.getClass().getName());
+      throw nullResult(action);
     }
   }
 
+  private static IllegalStateException nullResult(Action action) {
+    return new IllegalStateException(
+        "Null FragmentResult delivered by action: " + action.getClass().getName());
+  }
+
+  private static long millisSince(long startTime) {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+  }
+
   private static class Timer {
 
     private long startTime;
     private long endTime;
 
     void start() {
-      startTime = now().toEpochMilli();
+      startTime = System.nanoTime();
     }
 
     void end() {
-      endTime = now().toEpochMilli();
+      endTime = System.nanoTime();
     }
 
     long duration() {
-      return endTime - startTime;
+      return TimeUnit.NANOSECONDS.toMillis(endTime - startTime);
     }
   }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.batch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.knotx.fragments.action.api.Knot;
+import io.knotx.fragments.action.api.SyncAction;
+import io.knotx.fragments.action.api.codec.BinaryKnotBinder;
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.knotx.server.api.context.ClientRequest;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@Timeout(value = 5, timeUnit = SECONDS)
+@ExtendWith(VertxExtension.class)
+class BatchingKnotProxyTest {
+
+  private static final String ADDRESS = "knotx.knot.batch";
+
+  @Test
+  @DisplayName("Expect calls sent in one batch when the maximum batch size is reached.")
+  void batchSentWhenFull(VertxTestContext testContext, Vertx vertx) {
+    // given
+    RecordingBatchKnot knot = new RecordingBatchKnot();
+    BinaryKnotBinder.register(vertx, ADDRESS, knot);
+    Knot tested = new BatchingKnotProxy(vertx, ADDRESS, new DeliveryOptions(), 3, 4000L);
+    Checkpoint delivered = testContext.checkpoint(3);
+
+    // when
+    for (int i = 0; i < 3; i++) {
+      String id = "fragment-" + i;
+      tested.apply(someContext(id), testContext.succeeding(result -> testContext.verify(() -> {
+        // then
+        assertEquals(id, result.getFragment().getPayload().getString("processed"));
+        assertEquals(1, knot.batchSizes.size());
+        assertEquals(3, (int) knot.batchSizes.get(0));
+        delivered.flag();
+      })));
+    }
+  }
+
+  @Test
+  @DisplayName("Expect incomplete batch sent when the batch window passes.")
+  void batchSentAfterWindow(VertxTestContext testContext, Vertx vertx) {
+    // given
+    RecordingBatchKnot knot = new RecordingBatchKnot();
+    BinaryKnotBinder.register(vertx, ADDRESS, knot);
+    Knot tested = new BatchingKnotProxy(vertx, ADDRESS, new DeliveryOptions(), 10, 50L);
+    Checkpoint delivered = testContext.checkpoint(2);
+
+    // when
+    for (int i = 0; i < 2; i++) {
+      tested.apply(someContext("fragment-" + i),
+          testContext.succeeding(result -> testContext.verify(() -> {
+            // then
+            assertEquals(1, knot.batchSizes.size());
+            assertEquals(2, (int) knot.batchSizes.get(0));
+            delivered.flag();
+          })));
+    }
+  }
+
+  @Test
+  @DisplayName("Expect plain Knot called per fragment and its failure delivered to one caller.")
+  void batchFannedOutToSingleKnot(VertxTestContext testContext, Vertx vertx) {
+    // given
+    BinaryKnotBinder.register(vertx, ADDRESS, (SyncAction) context -> {
+      if ("failing".equals(context.getFragment().getBody())) {
+        throw new IllegalStateException("Knot failed");
+      }
+      return FragmentResult.success(context.getFragment());
+    });
+    Knot tested = new BatchingKnotProxy(vertx, ADDRESS, new DeliveryOptions(), 2, 4000L);
+    Checkpoint delivered = testContext.checkpoint(2);
+
+    // when
+    tested.apply(someContext("body"), testContext.succeeding(result -> testContext.verify(() -> {
+      // then
+      assertEquals(FragmentResult.SUCCESS_TRANSITION, result.getTransition());
+      delivered.flag();
+    })));
+    tested.apply(someContext("failing"), testContext.failing(error -> testContext.verify(() -> {
+      // then
+      assertEquals(ReplyException.class, error.getClass());
+      assertEquals("Knot failed", error.getMessage());
+      delivered.flag();
+    })));
+  }
+
+  @Test
+  @DisplayName("Expect every result of a batch delivered on the context of its call.")
+  void resultsDeliveredOnCallerContexts(VertxTestContext testContext, Vertx vertx) {
+    // given
+    BinaryKnotBinder.register(vertx, ADDRESS, new RecordingBatchKnot());
+    Knot tested = new BatchingKnotProxy(vertx, ADDRESS, new DeliveryOptions(), 2, 4000L);
+    Checkpoint delivered = testContext.checkpoint(2);
+
+    // when
+    for (int i = 0; i < 2; i++) {
+      Context caller = vertx.getOrCreateContext();
+      caller.runOnContext(v -> tested.apply(someContext("body"),
+          testContext.succeeding(result -> testContext.verify(() -> {
+            // then
+            assertSame(caller, Vertx.currentContext());
+            delivered.flag();
+          }))));
+    }
+  }
+
+  private static FragmentContext someContext(String body) {
+    return new FragmentContext(new Fragment("snippet", new JsonObject(), body),
+        new ClientRequest());
+  }
+
+  private static class RecordingBatchKnot extends BatchKnot {
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void applyBatch(List<FragmentContext> fragmentContexts,
+        Handler<AsyncResult<List<FragmentResult>>> resultHandler) {
+      batchSizes.add(fragmentContexts.size());
+      List<FragmentResult> results = new ArrayList<>();
+      fragmentContexts.forEach(context -> results.add(FragmentResult.success(
+          context.getFragment().appendPayload("processed", context.getFragment().getBody()))));
+      resultHandler.handle(Future.succeededFuture(results));
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.batch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.knotx.server.api.context.ClientRequest;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FragmentBatchCodecTest {
+
+  @Test
+  @DisplayName("Expect batch decoded from wire equal to the original one.")
+  void batchWireRoundTrip() {
+    FragmentBatchCodec tested = new FragmentBatchCodec();
+    FragmentBatch original = new FragmentBatch(
+        Arrays.asList(someContext("first"), someContext("second")));
+    Buffer buffer = Buffer.buffer().appendString("prefix");
+
+    tested.encodeToWire(buffer, original);
+    FragmentBatch decoded = tested.decodeFromWire("prefix".length(), buffer);
+
+    assertEquals(original.getContexts(), decoded.getContexts());
+  }
+
+  @Test
+  @DisplayName("Expect batch reply decoded from wire with results and failures in order.")
+  void replyWireRoundTrip() {
+    FragmentBatchReplyCodec tested = new FragmentBatchReplyCodec();
+    FragmentResult success = FragmentResult.success(someContext("first").getFragment());
+    FragmentBatchReply original = new FragmentBatchReply(
+        Arrays.<AsyncResult<FragmentResult>>asList(Future.succeededFuture(success),
+            Future.failedFuture(new IllegalStateException("Knot failed"))));
+    Buffer buffer = Buffer.buffer();
+
+    tested.encodeToWire(buffer, original);
+    FragmentBatchReply decoded = tested.decodeFromWire(0, buffer);
+
+    assertEquals(2, decoded.size());
+    assertEquals(success.toJson(), decoded.getResults().get(0).result().toJson());
+    assertTrue(decoded.getResults().get(1).failed());
+    assertTrue(decoded.getResults().get(1).cause() instanceof ReplyException);
+    assertEquals("Knot failed", decoded.getResults().get(1).cause().getMessage());
+  }
+
+  private static FragmentContext someContext(String body) {
+    return new FragmentContext(new Fragment("snippet", new JsonObject(), body),
+        new ClientRequest());
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.codec;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.Knot;
+import io.knotx.fragments.action.api.SyncAction;
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.knotx.server.api.context.ClientRequest;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@Timeout(value = 5, timeUnit = SECONDS)
+@ExtendWith(VertxExtension.class)
+class BinaryKnotProxyTest {
+
+  private static final String ADDRESS = "knotx.knot.binary";
+
+  @Test
+  @DisplayName("Expect Knot result delivered and the sender fragment not modified.")
+  void resultDelivered(VertxTestContext testContext, Vertx vertx) {
+    // given
+    BinaryKnotBinder.register(vertx, ADDRESS, (SyncAction) context -> FragmentResult
+        .success(context.getFragment().appendPayload("knot", "done"), "next"));
+    Knot tested = new BinaryKnotProxy(vertx, ADDRESS, new DeliveryOptions());
+    FragmentContext context = new FragmentContext(
+        new Fragment("snippet", new JsonObject(), "body"), new ClientRequest());
+
+    // when
+    tested.apply(context, testContext.succeeding(result -> testContext.verify(() -> {
+      // then
+      assertEquals("next", result.getTransition());
+      assertEquals("done", result.getFragment().getPayload().getString("knot"));
+      assertEquals(context.getFragment().getId(), result.getFragment().getId());
+      assertFalse(context.getFragment().getPayload().containsKey("knot"));
+      testContext.completeNow();
+    })));
+  }
+
+  @Test
+  @DisplayName("Expect failure delivered when Knot fails.")
+  void failureDelivered(VertxTestContext testContext, Vertx vertx) {
+    // given
+    Action failing = (context, handler) -> {
+      throw new IllegalStateException("Knot failed");
+    };
+    BinaryKnotBinder.register(vertx, ADDRESS, failing);
+    Knot tested = new BinaryKnotProxy(vertx, ADDRESS, new DeliveryOptions());
+    FragmentContext context = new FragmentContext(
+        new Fragment("snippet", new JsonObject(), "body"), new ClientRequest());
+
+    // when
+    tested.apply(context, testContext.failing(error -> testContext.verify(() -> {
+      // then
+      assertEquals(ReplyException.class, error.getClass());
+      assertEquals("Knot failed", error.getMessage());
+      testContext.completeNow();
+    })));
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.api.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.knotx.server.api.context.ClientRequest;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class FragmentCodecsTest {
+
+  private static final String BODY = "<div class=\"product\" data-id=\"1\">\"quoted\" content</div>";
+
+  @Test
+  @DisplayName("Expect fragment context decoded from wire equal to the original one.")
+  void contextWireRoundTrip() {
+    FragmentContextCodec tested = new FragmentContextCodec();
+    FragmentContext original = someContext();
+    Buffer buffer = Buffer.buffer().appendString("prefix");
+
+    tested.encodeToWire(buffer, original);
+    FragmentContext decoded = tested.decodeFromWire("prefix".length(), buffer);
+
+    assertEquals(original, decoded);
+  }
+
+  @Test
+  @DisplayName("Expect fragment result decoded from wire equal to the original one.")
+  void resultWireRoundTrip() {
+    FragmentResultCodec tested = new FragmentResultCodec();
+    FragmentResult original = FragmentResult.fail(someContext().getFragment(),
+        new JsonObject().put("log", "entry"), new IllegalStateException("failure"));
+    Buffer buffer = Buffer.buffer();
+
+    tested.encodeToWire(buffer, original);
+    FragmentResult decoded = tested.decodeFromWire(0, buffer);
+
+    assertEquals(original.toJson(), decoded.toJson());
+  }
+
+  @Test
+  @DisplayName("Expect local delivery shares the body and the request, but not the payload.")
+  void localDeliveryCopiesPayloadOnly() {
+    FragmentContextCodec tested = new FragmentContextCodec();
+    FragmentContext original = someContext();
+
+    FragmentContext delivered = tested.transform(original);
+    delivered.getFragment().appendPayload("added", "value");
+
+    assertSame(original.getFragment().getBody(), delivered.getFragment().getBody());
+    assertSame(original.getClientRequest(), delivered.getClientRequest());
+    assertNotSame(original.getFragment(), delivered.getFragment());
+    assertEquals(original.getFragment().getId(), delivered.getFragment().getId());
+    assertTrue(!original.getFragment().getPayload().containsKey("added"));
+  }
+
+  @Test
+  @DisplayName("Expect local delivery shares the configuration instance and copies the payload.")
+  void localDeliverySharesConfiguration() {
+    FragmentContextCodec tested = new FragmentContextCodec();
+    FragmentContext original = someContext();
+
+    FragmentContext delivered = tested.transform(original);
+
+    assertSame(original.getFragment().peekConfiguration(),
+        delivered.getFragment().peekConfiguration());
+    assertNotSame(original.getFragment().peekPayload(), delivered.getFragment().peekPayload());
+    assertEquals(original.getFragment().peekPayload(), delivered.getFragment().peekPayload());
+  }
+
+  @Test
+  @DisplayName("Expect binary encoding smaller than the JSON one for a markup body.")
+  void binarySmallerThanJson() {
+    FragmentContext context = someContext();
+    Buffer binary = Buffer.buffer();
+
+    new FragmentContextCodec().encodeToWire(binary, context);
+
+    assertTrue(binary.length() < context.toJson().toBuffer().length());
+  }
+
+  private static FragmentContext someContext() {
+    Fragment fragment = new Fragment("snippet", new JsonObject().put("data-knotx-task", "task"),
+        BODY);
+    fragment.appendPayload("product", new JsonObject().put("id", 1));
+    return new FragmentContext(fragment, new ClientRequest());
+  }
+}
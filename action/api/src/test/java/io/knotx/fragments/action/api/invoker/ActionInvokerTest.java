@@ -19,15 +19,20 @@ import static io.knotx.fragments.action.api.invoker.TestUtils.someContext;
 import static io.knotx.fragments.action.api.invoker.TestUtils.successResult;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import io.knotx.fragments.action.api.Action;
 import io.knotx.fragments.action.api.FutureAction;
+import io.knotx.fragments.action.api.SingleAction;
+import io.knotx.fragments.action.api.SyncAction;
 import io.knotx.fragments.action.api.invoker.ActionInvocation.Status;
 import io.knotx.fragments.api.FragmentResult;
+import io.reactivex.Single;
 import io.vertx.core.Future;
 import io.vertx.junit5.Timeout;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -96,6 +101,104 @@ class ActionInvokerTest {
     });
   }
 
+  @Test
+  @DisplayName("Expect ActionInvocation with RESULT_DELIVERED status when SyncAction returns FragmentResult")
+  void syncActionResult(VertxTestContext testContext) {
+    FragmentResult result = successResult();
+    Action action = (SyncAction) context -> result;
+
+    verifyCompletion(testContext, action, invocation -> {
+      assertEquals(Status.RESULT_DELIVERED, invocation.getStatus());
+      assertEquals(result, invocation.getFragmentResult());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect ActionInvocation with EXCEPTION status when SyncAction returns null")
+  void syncActionNullResult(VertxTestContext testContext) {
+    Action action = (SyncAction) context -> null;
+
+    verifyCompletion(testContext, action, invocation -> {
+      assertEquals(Status.EXCEPTION, invocation.getStatus());
+      assertEquals(IllegalStateException.class, invocation.getError().getClass());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect ActionInvocation with EXCEPTION status when SyncAction throws")
+  void syncActionThrows(VertxTestContext testContext) {
+    RuntimeException exception = new RuntimeException();
+    Action action = (SyncAction) context -> {
+      throw exception;
+    };
+
+    verifyCompletion(testContext, action, invocation -> {
+      assertEquals(Status.EXCEPTION, invocation.getStatus());
+      assertEquals(exception, invocation.getError());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect SyncAction not applied until the invocation is subscribed")
+  void syncActionAppliedOnSubscribe(VertxTestContext testContext) {
+    AtomicBoolean applied = new AtomicBoolean();
+    Action action = (SyncAction) context -> {
+      applied.set(true);
+      return successResult();
+    };
+
+    Single<ActionInvocation> invocation = ActionInvoker.rxApply(action, someContext());
+
+    testContext.verify(() -> assertFalse(applied.get()));
+    invocation.subscribe(result -> testContext.completeNow(), testContext::failNow);
+  }
+
+  @Test
+  @DisplayName("Expect ActionInvocation with EXCEPTION status when FutureAction returns null Future")
+  void futureActionNullFuture(VertxTestContext testContext) {
+    Action action = (FutureAction) context -> null;
+
+    verifyCompletion(testContext, action, invocation -> {
+      assertEquals(Status.EXCEPTION, invocation.getStatus());
+      assertEquals(IllegalStateException.class, invocation.getError().getClass());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect ActionInvocation with RESULT_DELIVERED status when SingleAction emits FragmentResult")
+  void singleActionResult(VertxTestContext testContext) {
+    FragmentResult result = successResult();
+    Action action = (SingleAction) context -> Single.just(result);
+
+    verifyCompletion(testContext, action, invocation -> {
+      assertEquals(Status.RESULT_DELIVERED, invocation.getStatus());
+      assertEquals(result, invocation.getFragmentResult());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect ActionInvocation with EXCEPTION status when SingleAction emits error")
+  void singleActionError(VertxTestContext testContext) {
+    RuntimeException exception = new RuntimeException();
+    Action action = (SingleAction) context -> Single.error(exception);
+
+    verifyCompletion(testContext, action, invocation -> {
+      assertEquals(Status.EXCEPTION, invocation.getStatus());
+      assertEquals(exception, invocation.getError());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect ActionInvocation with EXCEPTION status when SingleAction returns null Single")
+  void singleActionNullSingle(VertxTestContext testContext) {
+    Action action = (SingleAction) context -> null;
+
+    verifyCompletion(testContext, action, invocation -> {
+      assertEquals(Status.EXCEPTION, invocation.getStatus());
+      assertEquals(IllegalStateException.class, invocation.getError().getClass());
+    });
+  }
+
   void verifyCompletion(VertxTestContext testContext, Action action,
       Consumer<ActionInvocation> assertions) {
     ActionInvoker.rxApply(action, someContext())
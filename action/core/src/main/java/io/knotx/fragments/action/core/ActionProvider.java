@@ -16,37 +16,66 @@
 package io.knotx.fragments.action.core;
 
 
+import com.google.common.hash.Hashing;
 import io.knotx.fragments.action.api.Action;
 import io.knotx.fragments.action.api.ActionFactory;
 import io.knotx.fragments.action.api.Cacheable;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.reactivex.core.Vertx;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.Supplier;
 
 /**
  * Action provider initializes {@link Action}, combines actions with behaviours and caches stateful
- * ones.
+ * ones. Stateful actions are released when the provider is closed, which happens when the verticle
+ * that created the provider is undeployed.
  */
 public class ActionProvider {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(ActionProvider.class);
 
   private final Map<String, ActionFactory> factories;
-  private final Map<String, Action> cache;
+  private final ActionRegistry registry;
+  private final Map<String, String> registryKeys = new ConcurrentHashMap<>();
+  private final Map<String, Action> acquired = new ConcurrentHashMap<>();
+  private final Queue<String> references = new ConcurrentLinkedQueue<>();
 
   private final Map<String, ActionFactoryOptions> aliasToOptions;
   private final Vertx vertx;
 
   public ActionProvider(Supplier<Iterable<ActionFactory>> supplier,
       Map<String, ActionFactoryOptions> aliasToOptions, Vertx vertx) {
+    this(supplier, aliasToOptions, vertx, new ActionRegistry());
+  }
+
+  /**
+   * @param registry registry of stateful actions, providers using the same registry share actions
+   * with the same alias and configuration
+   */
+  public ActionProvider(Supplier<Iterable<ActionFactory>> supplier,
+      Map<String, ActionFactoryOptions> aliasToOptions, Vertx vertx, ActionRegistry registry) {
     this.aliasToOptions = aliasToOptions;
     this.vertx = vertx;
     this.factories = loadFactories(supplier);
-    this.cache = new HashMap<>();
+    this.registry = registry;
+    if (Context.isOnVertxThread()) {
+      Context context = vertx.getDelegate().getOrCreateContext();
+      if (context.deploymentID() != null) {
+        context.addCloseHook(completion -> {
+          close();
+          completion.handle(Future.succeededFuture());
+        });
+      }
+    }
   }
 
   /**
@@ -72,27 +101,118 @@ public class ActionProvider {
     }
 
     if (isCacheable(factory)) {
-      return Optional.ofNullable(cache.get(alias))
-          .map(Optional::of)
-          .orElseGet(() -> Optional.ofNullable(createAction(alias, actionFactoryOptions, factory)))
-          .map(createdAction -> cacheIfAbsent(alias, createdAction));
+      return Optional.ofNullable(acquire(alias, actionFactoryOptions, factory));
     } else {
-      return Optional.of(createAction(alias, actionFactoryOptions, factory));
+      return Optional.of(createAction(alias, actionFactoryOptions, factory, null, false));
+    }
+  }
+
+  /**
+   * Releases the stateful actions provided so far.
+   */
+  public void close() {
+    acquired.clear();
+    String key;
+    while ((key = references.poll()) != null) {
+      registry.release(key);
     }
   }
 
-  private Action cacheIfAbsent(String key, Action action) {
-    cache.putIfAbsent(key, action);
+  private Action acquire(String alias, ActionFactoryOptions actionFactoryOptions,
+      ActionFactory factory) {
+    String key = registryKey(alias);
+    Action action = acquired.get(key);
+    if (action != null) {
+      return action;
+    }
+    action = acquireReference(alias, actionFactoryOptions, factory);
+    if (action != null) {
+      references.add(key);
+      Action previous = acquired.putIfAbsent(key, action);
+      if (previous != null) {
+        references.remove(key);
+        registry.release(key);
+        return previous;
+      }
+    }
     return action;
   }
 
-  private Action createAction(String action, ActionFactoryOptions actionFactoryOptions,
+  /**
+   * Takes a registry reference to the stateful action, the caller is responsible for releasing it.
+   */
+  private Action acquireReference(String alias, ActionFactoryOptions actionFactoryOptions,
       ActionFactory factory) {
+    List<String> dependencies = new ArrayList<>();
+    return registry.acquire(registryKey(alias),
+        () -> createAction(alias, actionFactoryOptions, factory, dependencies,
+            registry.isShared()), dependencies);
+  }
+
+  /**
+   * Resolves a doAction. References to stateful doActions are added to the owner references, so
+   * they are released together with the action wrapping them. Actions that are not cached have no
+   * references of their own (<code>null</code>), their stateful doActions are acquired once by the
+   * provider, so creating them for every task does not take new references.
+   */
+  private Optional<Action> getDoAction(String alias, Collection<String> ownerReferences,
+      boolean shared) {
+    ActionFactoryOptions actionFactoryOptions = aliasToOptions.get(alias);
+    ActionFactory factory = actionFactoryOptions == null ? null
+        : factories.get(actionFactoryOptions.getFactory());
+    if (factory == null) {
+      return get(alias);
+    }
+    if (isCacheable(factory) && ownerReferences == null) {
+      return Optional.ofNullable(acquire(alias, actionFactoryOptions, factory));
+    }
+    if (isCacheable(factory)) {
+      Action action = acquireReference(alias, actionFactoryOptions, factory);
+      if (action != null) {
+        ownerReferences.add(registryKey(alias));
+      }
+      return Optional.ofNullable(action);
+    }
+    return Optional.of(createAction(alias, actionFactoryOptions, factory, ownerReferences,
+        shared));
+  }
+
+  private String registryKey(String alias) {
+    return registryKeys.computeIfAbsent(alias, key -> key + "@" + Hashing.sha256()
+        .hashString(configChain(key).encode(), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The action's options followed by the options of its doAction chain, so actions wrapping
+   * differently configured doActions get different registry keys.
+   */
+  private JsonArray configChain(String alias) {
+    JsonArray chain = new JsonArray();
+    Set<String> visited = new HashSet<>();
+    String current = alias;
+    while (current != null && visited.add(current) && aliasToOptions.containsKey(current)) {
+      ActionFactoryOptions options = aliasToOptions.get(current);
+      chain.add(options.toJson());
+      current = options.getDoAction();
+    }
+    return chain;
+  }
+
+  /**
+   * @param shared whether the action is a part of an action shared by all providers of the Vert.x
+   * instance
+   */
+  private Action createAction(String action, ActionFactoryOptions actionFactoryOptions,
+      ActionFactory factory, Collection<String> ownerReferences, boolean shared) {
     // recurrence here :)
     Action operation = Optional.ofNullable(actionFactoryOptions.getDoAction())
-        .flatMap(this::get)
+        .flatMap(doAction -> getDoAction(doAction, ownerReferences, shared))
         .orElse(null);
 
+    if (shared) {
+      return factory.create(action, actionFactoryOptions.getConfig(), vertx.getDelegate(),
+          operation, true);
+    }
     return factory.create(action, actionFactoryOptions.getConfig(), vertx.getDelegate(), operation);
   }
 
@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.core;
+
+import io.knotx.fragments.action.api.Action;
+import io.vertx.core.Context;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
+import io.vertx.reactivex.core.Vertx;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe registry of stateful actions created by {@link ActionProvider}. A registry can be
+ * used by a single provider or, via {@link ActionRegistry#shared(Vertx)}, by all providers of a
+ * Vert.x instance, so every verticle instance uses the same actions (e.g. the same circuit breaker
+ * state and cache content). Lookups of registered actions do not lock.
+ * <p>
+ * Registered actions are reference counted. An action is removed when its last reference is
+ * released and closed when it implements {@link AutoCloseable}. Shared actions are created outside
+ * of any verticle context, so Vert.x resources they own (clients, timers, event bus consumers) are
+ * not closed when the verticle that happened to create them is undeployed. When a shared action is
+ * acquired on a Vert.x thread, it is created asynchronously on the registry thread, so the event
+ * loop is never blocked, and calls made before it is created wait for it.
+ */
+public final class ActionRegistry implements Shareable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ActionRegistry.class);
+
+  private static final String SHARED_MAP = "knotx.fragments.action.registry";
+  private static final String SHARED_KEY = "registry";
+
+  private final Map<String, Entry> actions = new ConcurrentHashMap<>();
+  private final boolean detached;
+  private final Executor creator;
+
+  public ActionRegistry() {
+    this(false);
+  }
+
+  private ActionRegistry(boolean detached) {
+    this.detached = detached;
+    this.creator = detached ? creatorThread() : null;
+  }
+
+  /**
+   * Returns the registry shared by all action providers of the Vert.x instance.
+   *
+   * @param vertx Vert.x instance
+   * @return shared registry
+   */
+  public static ActionRegistry shared(Vertx vertx) {
+    LocalMap<String, ActionRegistry> registries = vertx.getDelegate().sharedData()
+        .getLocalMap(SHARED_MAP);
+    ActionRegistry registry = registries.get(SHARED_KEY);
+    if (registry == null) {
+      ActionRegistry created = new ActionRegistry(true);
+      registry = registries.putIfAbsent(SHARED_KEY, created);
+      if (registry == null) {
+        registry = created;
+      }
+    }
+    return registry;
+  }
+
+  /**
+   * Returns the action registered with the key, or creates and registers it, and takes a reference
+   * to it. Every reference has to be released with {@link #release(String)}. When two threads
+   * create an action for the same key at the same time, both get the action registered first and
+   * the other one is closed.
+   *
+   * @param key action key, unique for the action alias and its configuration
+   * @param factory creates the action, may return <code>null</code> which is not registered
+   * @param dependencies keys of actions referenced by the created action, filled by the factory;
+   * they are released together with the action
+   * @return registered action or <code>null</code>
+   */
+  public Action acquire(String key, Supplier<Action> factory, Collection<String> dependencies) {
+    Entry entry = actions.computeIfPresent(key, (k, current) -> current.retain());
+    if (entry != null) {
+      return entry.action;
+    }
+    if (detached && Context.isOnVertxThread()) {
+      return acquirePending(key, factory, dependencies);
+    }
+    Action created;
+    try {
+      created = factory.get();
+    } catch (RuntimeException e) {
+      releaseAll(dependencies);
+      throw e;
+    }
+    if (created == null) {
+      releaseAll(dependencies);
+      return null;
+    }
+    entry = actions.compute(key, (k, current) -> current == null
+        ? new Entry(created, new ArrayList<>(dependencies))
+        : current.retain());
+    if (entry.action != created) {
+      releaseAll(dependencies);
+      close(key, created);
+    }
+    return entry.action;
+  }
+
+  /**
+   * @return <code>true</code> for the registry shared by all providers of the Vert.x instance, its
+   * actions are created outside of any verticle context
+   */
+  public boolean isShared() {
+    return detached;
+  }
+
+  /**
+   * Releases a reference taken with {@link #acquire(String, Supplier, Collection)}.
+   *
+   * @param key action key
+   */
+  public void release(String key) {
+    List<Entry> removed = new ArrayList<>(1);
+    actions.computeIfPresent(key, (k, current) -> {
+      if (current.release()) {
+        removed.add(current);
+        return null;
+      }
+      return current;
+    });
+    removed.forEach(entry -> {
+      close(key, entry.action);
+      releaseAll(entry.dependencies);
+    });
+  }
+
+  /**
+   * Releases every key of the collection.
+   *
+   * @param keys action keys, a key is released as many times as it occurs
+   */
+  public void releaseAll(Collection<String> keys) {
+    keys.forEach(this::release);
+  }
+
+  int size() {
+    return actions.size();
+  }
+
+  int references() {
+    return actions.values().stream().mapToInt(entry -> entry.references).sum();
+  }
+
+  private Action acquirePending(String key, Supplier<Action> factory,
+      Collection<String> dependencies) {
+    PendingAction pending = new PendingAction(key);
+    Entry entry = actions.compute(key, (k, current) -> current == null
+        ? new Entry(pending, Collections.emptyList())
+        : current.retain());
+    if (entry.action == pending) {
+      creator.execute(() -> create(key, pending, factory, dependencies));
+    }
+    return entry.action;
+  }
+
+  private void create(String key, PendingAction pending, Supplier<Action> factory,
+      Collection<String> dependencies) {
+    Action created;
+    try {
+      created = factory.get();
+    } catch (RuntimeException e) {
+      LOGGER.error("Could not create action [{}]", e, key);
+      releaseAll(dependencies);
+      pending.fail(e);
+      return;
+    }
+    if (created == null) {
+      releaseAll(dependencies);
+      pending.fail(new IllegalStateException("Action [" + key + "] not created"));
+      return;
+    }
+    boolean[] registered = new boolean[1];
+    actions.computeIfPresent(key, (k, current) -> {
+      if (current.action == pending) {
+        current.created(created, new ArrayList<>(dependencies));
+        registered[0] = true;
+      }
+      return current;
+    });
+    if (registered[0]) {
+      pending.complete(created);
+    } else {
+      // released before it was created
+      close(key, created);
+      releaseAll(dependencies);
+    }
+  }
+
+  private static Executor creatorThread() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), task -> {
+          Thread thread = new Thread(task, "knotx-action-registry");
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static void close(String key, Action action) {
+    if (action instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) action).close();
+      } catch (Exception e) {
+        LOGGER.warn("Could not close action [{}]", e, key);
+      }
+    }
+  }
+
+  private static final class Entry {
+
+    private volatile Action action;
+    private List<String> dependencies;
+    private int references = 1;
+
+    private Entry(Action action, List<String> dependencies) {
+      this.action = action;
+      this.dependencies = Collections.unmodifiableList(dependencies);
+    }
+
+    private void created(Action created, List<String> createdDependencies) {
+      this.action = created;
+      this.dependencies = Collections.unmodifiableList(createdDependencies);
+    }
+
+    private Entry retain() {
+      references++;
+      return this;
+    }
+
+    private boolean release() {
+      return --references == 0;
+    }
+  }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.core;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An action that is still being created. Calls made before it is created wait and are then
+ * delegated to the created action on the contexts they were made on. When the creation fails or the
+ * action is closed before it is created, every call fails.
+ */
+final class PendingAction implements Action, AutoCloseable {
+
+  private final String key;
+  private final List<PendingCall> calls = new ArrayList<>();
+  private Action action;
+  private Throwable failure;
+
+  PendingAction(String key) {
+    this.key = key;
+  }
+
+  @Override
+  public void apply(FragmentContext fragmentContext,
+      Handler<AsyncResult<FragmentResult>> resultHandler) {
+    Action created;
+    Throwable failed;
+    synchronized (this) {
+      if (action == null && failure == null) {
+        calls.add(new PendingCall(Vertx.currentContext(), fragmentContext, resultHandler));
+        return;
+      }
+      created = action;
+      failed = failure;
+    }
+    if (created != null) {
+      created.apply(fragmentContext, resultHandler);
+    } else {
+      resultHandler.handle(Future.failedFuture(failed));
+    }
+  }
+
+  /**
+   * @return <code>false</code> when the action has already failed or been closed
+   */
+  boolean complete(Action created) {
+    return resolve(created, null);
+  }
+
+  void fail(Throwable error) {
+    resolve(null, error);
+  }
+
+  @Override
+  public void close() {
+    fail(new IllegalStateException("Action [" + key + "] closed before it was created"));
+  }
+
+  private boolean resolve(Action created, Throwable error) {
+    List<PendingCall> waiting;
+    synchronized (this) {
+      if (action != null || failure != null) {
+        return false;
+      }
+      action = created;
+      failure = error;
+      waiting = new ArrayList<>(calls);
+      calls.clear();
+    }
+    waiting.forEach(call -> call.resume(created, error));
+    return true;
+  }
+
+  private static final class PendingCall {
+
+    private final Context context;
+    private final FragmentContext fragmentContext;
+    private final Handler<AsyncResult<FragmentResult>> resultHandler;
+
+    private PendingCall(Context context, FragmentContext fragmentContext,
+        Handler<AsyncResult<FragmentResult>> resultHandler) {
+      this.context = context;
+      this.fragmentContext = fragmentContext;
+      this.resultHandler = resultHandler;
+    }
+
+    private void resume(Action created, Throwable error) {
+      if (context == null) {
+        run(created, error);
+      } else {
+        context.runOnContext(v -> run(created, error));
+      }
+    }
+
+    private void run(Action created, Throwable error) {
+      if (created != null) {
+        created.apply(fragmentContext, resultHandler);
+      } else {
+        resultHandler.handle(Future.failedFuture(error));
+      }
+    }
+  }
+}
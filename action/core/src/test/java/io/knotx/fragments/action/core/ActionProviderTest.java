@@ -15,6 +15,7 @@
  */
 package io.knotx.fragments.action.core;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertSame;
@@ -32,9 +33,11 @@ import io.knotx.fragments.action.api.Cacheable;
 import io.knotx.fragments.api.FragmentContext;
 import io.knotx.fragments.api.FragmentResult;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
 import io.vertx.reactivex.core.Vertx;
 import java.util.Arrays;
 import java.util.Collections;
@@ -222,6 +225,170 @@ class ActionProviderTest {
         .create(eq(PROXY_ALIAS), any(), eq(vertx.getDelegate()), eq(expectedOperationSecond));
   }
 
+  @Test
+  @DisplayName("Expect the same cacheable action provided by providers sharing a registry.")
+  void getSharedOperation(Vertx vertx) {
+    // given
+    Map<String, ActionFactoryOptions> proxies = Collections
+        .singletonMap(PROXY_ALIAS, createFactoryOptions(PROXY_FACTORY_NAME));
+    List<ActionFactory> factories = Collections
+        .singletonList(new TestCacheableOperationFactory());
+
+    ActionProvider first = new ActionProvider(() -> factories, proxies, vertx,
+        ActionRegistry.shared(vertx));
+    ActionProvider second = new ActionProvider(() -> factories, proxies, vertx,
+        ActionRegistry.shared(vertx));
+
+    // when
+    Optional<Action> firstOperation = first.get(PROXY_ALIAS);
+    Optional<Action> secondOperation = second.get(PROXY_ALIAS);
+
+    // then
+    assertTrue(firstOperation.isPresent());
+    assertSame(firstOperation.get(), secondOperation.orElse(null));
+  }
+
+  @Test
+  @DisplayName("Expect different actions for the same alias with different configuration.")
+  void getSharedOperationWithDifferentConfig(Vertx vertx) {
+    // given
+    List<ActionFactory> factories = Collections
+        .singletonList(new TestCacheableOperationFactory());
+    ActionRegistry registry = new ActionRegistry();
+
+    ActionProvider first = new ActionProvider(() -> factories, Collections.singletonMap(
+        PROXY_ALIAS, createFactoryOptions(PROXY_FACTORY_NAME)), vertx, registry);
+    ActionProvider second = new ActionProvider(() -> factories, Collections.singletonMap(
+        PROXY_ALIAS, new ActionFactoryOptions(PROXY_FACTORY_NAME, new JsonObject().put("a", 1))),
+        vertx, registry);
+
+    // when
+    Optional<Action> firstOperation = first.get(PROXY_ALIAS);
+    Optional<Action> secondOperation = second.get(PROXY_ALIAS);
+
+    // then
+    assertTrue(firstOperation.isPresent());
+    assertTrue(secondOperation.isPresent());
+    assertNotSame(firstOperation.get(), secondOperation.get());
+    assertEquals(2, registry.size());
+  }
+
+  @Test
+  @DisplayName("Expect a shared action closed when the last provider using it is closed.")
+  void sharedOperationClosedByLastProvider(Vertx vertx) {
+    // given
+    Map<String, ActionFactoryOptions> proxies = Collections
+        .singletonMap(PROXY_ALIAS, createFactoryOptions(PROXY_FACTORY_NAME));
+    List<ActionFactory> factories = Collections
+        .singletonList(new TestCloseableOperationFactory());
+    ActionRegistry registry = ActionRegistry.shared(vertx);
+    ActionProvider first = new ActionProvider(() -> factories, proxies, vertx, registry);
+    ActionProvider second = new ActionProvider(() -> factories, proxies, vertx, registry);
+    TestCloseableOperation operation = (TestCloseableOperation) first.get(PROXY_ALIAS)
+        .orElseThrow(IllegalStateException::new);
+    second.get(PROXY_ALIAS);
+
+    // when
+    first.close();
+
+    // then
+    assertFalse(operation.closed);
+    assertEquals(1, registry.size());
+
+    // when
+    second.close();
+
+    // then
+    assertTrue(operation.closed);
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  @DisplayName("Expect a stateful doAction released together with the action wrapping it.")
+  void doActionReleasedWithWrappingAction(Vertx vertx) {
+    // given
+    Map<String, ActionFactoryOptions> proxies = ImmutableMap.of(
+        PROXY_ALIAS, createFactoryOptions(PROXY_FACTORY_NAME, PROXY_ALIAS_SECOND),
+        PROXY_ALIAS_SECOND, createFactoryOptions(PROXY_FACTORY_NAME));
+    List<ActionFactory> factories = Collections
+        .singletonList(new TestCloseableOperationFactory());
+    ActionRegistry registry = new ActionRegistry();
+    ActionProvider first = new ActionProvider(() -> factories, proxies, vertx, registry);
+    ActionProvider second = new ActionProvider(() -> factories, proxies, vertx, registry);
+    TestCloseableOperation operation = (TestCloseableOperation) first.get(PROXY_ALIAS)
+        .orElseThrow(IllegalStateException::new);
+    second.get(PROXY_ALIAS);
+
+    // when
+    first.close();
+
+    // then
+    assertFalse(operation.doAction.closed);
+
+    // when
+    second.close();
+
+    // then
+    assertTrue(operation.doAction.closed);
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  @DisplayName("Expect a stateful doAction of a not cached action acquired once.")
+  void doActionOfNotCachedActionAcquiredOnce(Vertx vertx) {
+    // given
+    Map<String, ActionFactoryOptions> proxies = ImmutableMap.of(
+        PROXY_ALIAS, createFactoryOptions(PROXY_FACTORY_NAME, PROXY_ALIAS_SECOND),
+        PROXY_ALIAS_SECOND, createFactoryOptions(PROXY_FACTORY_NAME_SECOND));
+    List<ActionFactory> factories = Arrays.asList(new TestOperationFactory(),
+        new TestCloseableOperationFactory(PROXY_FACTORY_NAME_SECOND));
+    ActionRegistry registry = new ActionRegistry();
+    ActionProvider tested = new ActionProvider(() -> factories, proxies, vertx, registry);
+
+    // when
+    for (int i = 0; i < 10; i++) {
+      tested.get(PROXY_ALIAS);
+    }
+
+    // then
+    assertEquals(1, registry.size());
+    assertEquals(1, registry.references());
+
+    // when
+    tested.close();
+
+    // then
+    assertEquals(0, registry.size());
+  }
+
+  @Test
+  @DisplayName("Expect a shared action acquired on the event loop created on the registry thread.")
+  void sharedOperationCreatedOffEventLoop(VertxTestContext testContext, Vertx vertx) {
+    // given
+    Map<String, ActionFactoryOptions> proxies = Collections
+        .singletonMap(PROXY_ALIAS, createFactoryOptions(PROXY_FACTORY_NAME));
+    TestSharedOperationFactory factory = new TestSharedOperationFactory();
+    List<ActionFactory> factories = Collections.singletonList(factory);
+
+    vertx.runOnContext(v -> {
+      ActionProvider tested = new ActionProvider(() -> factories, proxies, vertx,
+          ActionRegistry.shared(vertx));
+      io.vertx.core.Context callerContext = io.vertx.core.Vertx.currentContext();
+
+      // when
+      Action action = tested.get(PROXY_ALIAS).orElseThrow(IllegalStateException::new);
+      action.apply(mock(FragmentContext.class), result -> testContext.verify(() -> {
+        // then
+        assertTrue(result.succeeded());
+        assertSame(callerContext, io.vertx.core.Vertx.currentContext());
+        assertEquals("knotx-action-registry", factory.creatorThread);
+        assertTrue(factory.shared);
+        tested.close();
+        testContext.completeNow();
+      }));
+    });
+  }
+
   private ActionFactoryOptions createFactoryOptions(String name, String doAction) {
     return new ActionFactoryOptions(name, new JsonObject(), doAction);
   }
@@ -272,4 +439,77 @@ class ActionProviderTest {
       };
     }
   }
+
+  @Cacheable
+  static class TestCloseableOperationFactory implements ActionFactory {
+
+    private final String name;
+
+    TestCloseableOperationFactory() {
+      this(PROXY_FACTORY_NAME);
+    }
+
+    TestCloseableOperationFactory(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Override
+    public Action create(String alias, JsonObject config, io.vertx.core.Vertx vertx,
+        Action doAction) {
+      return new TestCloseableOperation((TestCloseableOperation) doAction);
+    }
+  }
+
+  @Cacheable
+  static class TestSharedOperationFactory implements ActionFactory {
+
+    private volatile String creatorThread;
+    private volatile boolean shared;
+
+    @Override
+    public String getName() {
+      return PROXY_FACTORY_NAME;
+    }
+
+    @Override
+    public Action create(String alias, JsonObject config, io.vertx.core.Vertx vertx,
+        Action doAction) {
+      throw new IllegalStateException("Shared action expected");
+    }
+
+    @Override
+    public Action create(String alias, JsonObject config, io.vertx.core.Vertx vertx,
+        Action doAction, boolean shared) {
+      this.creatorThread = Thread.currentThread().getName();
+      this.shared = shared;
+      return (fragmentContext, resultHandler) -> resultHandler.handle(
+          Future.succeededFuture(FragmentResult.success(fragmentContext.getFragment())));
+    }
+  }
+
+  static class TestCloseableOperation implements Action, AutoCloseable {
+
+    private final TestCloseableOperation doAction;
+    private volatile boolean closed;
+
+    TestCloseableOperation(TestCloseableOperation doAction) {
+      this.doAction = doAction;
+    }
+
+    @Override
+    public void apply(FragmentContext fragmentContext,
+        Handler<AsyncResult<FragmentResult>> resultHandler) {
+      // empty
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
 }
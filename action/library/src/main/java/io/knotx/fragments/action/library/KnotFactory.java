@@ -15,10 +15,15 @@
  */
 package io.knotx.fragments.action.library;
 
+import static io.knotx.commons.validation.ValidationHelper.checkArgument;
+
 import io.knotx.fragments.action.api.Knot;
 import io.knotx.fragments.action.api.Action;
 import io.knotx.fragments.action.api.ActionFactory;
 import io.knotx.fragments.action.api.Cacheable;
+import io.knotx.fragments.action.api.batch.BatchingKnotProxy;
+import io.knotx.fragments.action.api.codec.BinaryKnotProxy;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.json.JsonObject;
@@ -39,6 +44,16 @@ public class KnotFactory implements ActionFactory {
         config.getJsonObject("deliveryOptions") == null ? new JsonObject()
             : config.getJsonObject("deliveryOptions"));
 
+    int batchMaxSize = config.getInteger("batchMaxSize", 0);
+    if (batchMaxSize > 1) {
+      long batchWindowMs = config.getLong("batchWindowMs", 2L);
+      checkArgument(batchWindowMs <= 0, () -> new ActionConfigurationException(alias,
+          "batchWindowMs must be positive"));
+      return new BatchingKnotProxy(vertx, address, deliveryOptions, batchMaxSize, batchWindowMs);
+    }
+    if (config.getBoolean("binaryCodec", false)) {
+      return new BinaryKnotProxy(vertx, address, deliveryOptions);
+    }
     return Knot.createProxyWithOptions(vertx, address, deliveryOptions);
   }
 
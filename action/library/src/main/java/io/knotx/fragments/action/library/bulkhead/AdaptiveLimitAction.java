@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static io.knotx.fragments.action.api.invoker.ActionInvoker.rxApply;
+import static io.knotx.fragments.action.library.bulkhead.BulkheadActionFactory.REJECTED_TRANSITION;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.FutureAction;
+import io.knotx.fragments.action.api.log.ActionLogLevel;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+class AdaptiveLimitAction implements FutureAction {
+
+  private final String alias;
+  private final Bulkhead bulkhead;
+  private final VegasLimit limit;
+  private final Action doAction;
+  private final ActionLogLevel actionLogLevel;
+
+  AdaptiveLimitAction(Bulkhead bulkhead, VegasLimit limit, Action doAction, String alias,
+      ActionLogLevel actionLogLevel) {
+    this.alias = alias;
+    this.bulkhead = bulkhead;
+    this.limit = limit;
+    this.doAction = doAction;
+    this.actionLogLevel = actionLogLevel;
+  }
+
+  @Override
+  public Future<FragmentResult> applyForFuture(FragmentContext context) {
+    BulkheadActionLogger logger = BulkheadActionLogger.create(alias, actionLogLevel);
+    Promise<FragmentResult> promise = Promise.promise();
+    bulkhead.execute(
+        () -> executeCommand(promise, context, logger),
+        reason -> reject(promise, reason, context, logger));
+    return promise.future();
+  }
+
+  VegasLimit getLimit() {
+    return limit;
+  }
+
+  private void executeCommand(Promise<FragmentResult> promise, FragmentContext context,
+      BulkheadActionLogger logger) {
+    int inFlight = bulkhead.getInFlight();
+    long start = System.nanoTime();
+    rxApply(doAction, context)
+        .doFinally(bulkhead::release)
+        .subscribe(invocation -> {
+          limit.onSample(System.nanoTime() - start, inFlight, !invocation.isResultDelivered());
+          logger.onInvocation(invocation);
+          logger.onLimit(limit);
+          promise.complete(invocation.getFragmentResult().copyWithNewLog(logger.logAsJson()));
+        }, error -> {
+          limit.onSample(System.nanoTime() - start, inFlight, true);
+          promise.fail(error);
+        });
+  }
+
+  private void reject(Promise<FragmentResult> promise, String reason, FragmentContext context,
+      BulkheadActionLogger logger) {
+    logger.onRejected(reason, bulkhead);
+    logger.onLimit(limit);
+    promise.complete(FragmentResult.success(context.getFragment(), REJECTED_TRANSITION,
+        logger.logAsJson()));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static io.knotx.commons.validation.ValidationHelper.checkArgument;
+import static io.knotx.fragments.action.api.log.ActionLogLevel.fromConfig;
+import static java.util.Objects.isNull;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.ActionFactory;
+import io.knotx.fragments.action.api.Cacheable;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * This is a factory class creating action, which limits the number of concurrent calls to the
+ * `doAction` action like the bulkhead does, but adjusts the limit continuously from measured round
+ * trip times. Calls over the current limit end with the `_rejected` transition.
+ */
+@Cacheable
+public class AdaptiveLimitActionFactory implements ActionFactory {
+
+  static final String FACTORY_NAME = "adaptive-limit";
+
+  @Override
+  public String getName() {
+    return FACTORY_NAME;
+  }
+
+  @Override
+  public Action create(String alias, JsonObject config, Vertx vertx, Action doAction) {
+    if (isNull(doAction)) {
+      throw new DoActionNotDefinedException("Adaptive limit action requires `doAction` defined");
+    }
+    AdaptiveLimitActionFactoryOptions options = new AdaptiveLimitActionFactoryOptions(config);
+    checkArgument(options.getMinLimit() <= 0, () -> new ActionConfigurationException(alias,
+        "Adaptive limit action requires positive minLimit."));
+    checkArgument(options.getMaxLimit() < options.getMinLimit(),
+        () -> new ActionConfigurationException(alias,
+            "Adaptive limit action requires maxLimit not lower than minLimit."));
+    checkArgument(options.getInitialLimit() < options.getMinLimit()
+            || options.getInitialLimit() > options.getMaxLimit(),
+        () -> new ActionConfigurationException(alias,
+            "Adaptive limit action requires initialLimit between minLimit and maxLimit."));
+
+    VegasLimit limit = new VegasLimit(options.getInitialLimit(), options.getMinLimit(),
+        options.getMaxLimit());
+    Bulkhead bulkhead = new Bulkhead(vertx, limit::getLimit, 0, 0);
+    return new AdaptiveLimitAction(bulkhead, limit, doAction, alias,
+        fromConfig(options.getLogLevel()));
+  }
+}
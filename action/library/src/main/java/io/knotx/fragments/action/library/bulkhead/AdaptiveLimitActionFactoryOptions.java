@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static io.knotx.fragments.action.api.log.ActionLogLevel.ERROR;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Adaptive limit action factory options model.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class AdaptiveLimitActionFactoryOptions {
+
+  private static final int DEFAULT_INITIAL_LIMIT = 20;
+  private static final int DEFAULT_MIN_LIMIT = 1;
+  private static final int DEFAULT_MAX_LIMIT = 1000;
+
+  private int initialLimit = DEFAULT_INITIAL_LIMIT;
+  private int minLimit = DEFAULT_MIN_LIMIT;
+  private int maxLimit = DEFAULT_MAX_LIMIT;
+  private String logLevel = ERROR.getLevel();
+
+  public AdaptiveLimitActionFactoryOptions() {
+    // default values
+  }
+
+  public AdaptiveLimitActionFactoryOptions(AdaptiveLimitActionFactoryOptions other) {
+    this.initialLimit = other.initialLimit;
+    this.minLimit = other.minLimit;
+    this.maxLimit = other.maxLimit;
+    this.logLevel = other.logLevel;
+  }
+
+  public AdaptiveLimitActionFactoryOptions(JsonObject json) {
+    this();
+    AdaptiveLimitActionFactoryOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    AdaptiveLimitActionFactoryOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  /**
+   * Sets the number of concurrent <code>doAction</code> calls allowed before any round trip time
+   * is measured. The default value is 20.
+   *
+   * @param initialLimit initial concurrency limit
+   * @return reference to this, so the API can be used fluently
+   */
+  public AdaptiveLimitActionFactoryOptions setInitialLimit(int initialLimit) {
+    this.initialLimit = initialLimit;
+    return this;
+  }
+
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  /**
+   * Sets the lowest concurrency limit the action can shrink to. The default value is 1.
+   *
+   * @param minLimit minimum concurrency limit
+   * @return reference to this, so the API can be used fluently
+   */
+  public AdaptiveLimitActionFactoryOptions setMinLimit(int minLimit) {
+    this.minLimit = minLimit;
+    return this;
+  }
+
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * Sets the highest concurrency limit the action can grow to. The default value is 1000.
+   *
+   * @param maxLimit maximum concurrency limit
+   * @return reference to this, so the API can be used fluently
+   */
+  public AdaptiveLimitActionFactoryOptions setMaxLimit(int maxLimit) {
+    this.maxLimit = maxLimit;
+    return this;
+  }
+
+  public String getLogLevel() {
+    return logLevel;
+  }
+
+  /**
+   * Sets the action node log level.
+   *
+   * @param logLevel the log level
+   * @return reference to this, so the API can be used fluently
+   */
+  public AdaptiveLimitActionFactoryOptions setLogLevel(String logLevel) {
+    this.logLevel = logLevel;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    AdaptiveLimitActionFactoryOptions that = (AdaptiveLimitActionFactoryOptions) o;
+    return initialLimit == that.initialLimit &&
+        minLimit == that.minLimit &&
+        maxLimit == that.maxLimit &&
+        Objects.equals(logLevel, that.logLevel);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(initialLimit, minLimit, maxLimit, logLevel);
+  }
+
+  @Override
+  public String toString() {
+    return "AdaptiveLimitActionFactoryOptions{" +
+        "initialLimit=" + initialLimit +
+        ", minLimit=" + minLimit +
+        ", maxLimit=" + maxLimit +
+        ", logLevel='" + logLevel + '\'' +
+        '}';
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Limits the number of concurrent calls. A call that exceeds the limit waits in a bounded queue
+ * until a running call releases its permit or the queue timeout passes. Admission uses atomic
+ * counters only; a released permit is handed over directly to the oldest waiting call, which then
+ * runs on its own Vert.x context.
+ */
+public final class Bulkhead {
+
+  static final String LIMIT_REACHED = "maxConcurrentCalls reached";
+  static final String QUEUE_TIMEOUT = "queueTimeoutMs passed";
+
+  private final Vertx vertx;
+  private final IntSupplier maxConcurrentCalls;
+  private final int maxQueueSize;
+  private final long queueTimeoutMs;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger queued = new AtomicInteger();
+  private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+  private final LongAdder rejected = new LongAdder();
+
+  Bulkhead(Vertx vertx, int maxConcurrentCalls, int maxQueueSize, long queueTimeoutMs) {
+    this(vertx, () -> maxConcurrentCalls, maxQueueSize, queueTimeoutMs);
+  }
+
+  /**
+   * @param maxConcurrentCalls current concurrency limit, read on every admission
+   */
+  Bulkhead(Vertx vertx, IntSupplier maxConcurrentCalls, int maxQueueSize, long queueTimeoutMs) {
+    this.vertx = vertx;
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.maxQueueSize = maxQueueSize;
+    this.queueTimeoutMs = queueTimeoutMs;
+  }
+
+  /**
+   * Runs the call when a permit is available. The call must invoke {@link Bulkhead#release()} once
+   * it finishes.
+   *
+   * @param call call to run
+   * @param onRejected notified with the rejection reason when the call is not run
+   */
+  void execute(Runnable call, Consumer<String> onRejected) {
+    if (tryAcquire()) {
+      call.run();
+    } else if (!tryEnqueue()) {
+      reject(onRejected, LIMIT_REACHED);
+    } else {
+      Waiter waiter = new Waiter(vertx.getOrCreateContext(), call);
+      waiters.add(waiter);
+      // a permit could be released between the failed acquire and adding the waiter
+      if (tryAcquire()) {
+        if (waiter.claim()) {
+          queued.decrementAndGet();
+          call.run();
+        } else {
+          // a concurrent release has already handed its permit over to the waiter
+          release();
+        }
+      } else {
+        waiter.timerId = vertx.setTimer(queueTimeoutMs, id -> {
+          if (waiter.claim()) {
+            queued.decrementAndGet();
+            reject(onRejected, QUEUE_TIMEOUT);
+          }
+        });
+      }
+    }
+  }
+
+  /**
+   * Releases a permit, handing it over to the oldest waiting call, if any.
+   */
+  void release() {
+    while (true) {
+      Waiter waiter = pollClaimed();
+      if (waiter != null) {
+        waiter.run(vertx);
+        return;
+      }
+      inFlight.decrementAndGet();
+      // a waiter could be added after polling and before the permit was released
+      if (waiters.isEmpty() || !tryAcquire()) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return the number of running calls
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * @return the number of calls waiting for a permit
+   */
+  public int getQueued() {
+    return queued.get();
+  }
+
+  /**
+   * @return the number of calls rejected since the bulkhead was created
+   */
+  public long getRejectedCount() {
+    return rejected.sum();
+  }
+
+  private Waiter pollClaimed() {
+    Waiter waiter;
+    while ((waiter = waiters.poll()) != null) {
+      if (waiter.claim()) {
+        queued.decrementAndGet();
+        return waiter;
+      }
+    }
+    return null;
+  }
+
+  private boolean tryAcquire() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= maxConcurrentCalls.getAsInt()) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private boolean tryEnqueue() {
+    int current;
+    do {
+      current = queued.get();
+      if (current >= maxQueueSize) {
+        return false;
+      }
+    } while (!queued.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private void reject(Consumer<String> onRejected, String reason) {
+    rejected.increment();
+    onRejected.accept(reason);
+  }
+
+  private static final class Waiter {
+
+    private final Context context;
+    private final Runnable call;
+    private final AtomicBoolean claimed = new AtomicBoolean();
+    private volatile long timerId = -1L;
+
+    private Waiter(Context context, Runnable call) {
+      this.context = context;
+      this.call = call;
+    }
+
+    private boolean claim() {
+      return claimed.compareAndSet(false, true);
+    }
+
+    private void run(Vertx vertx) {
+      if (timerId >= 0) {
+        vertx.cancelTimer(timerId);
+      }
+      context.runOnContext(v -> call.run());
+    }
+  }
+
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static io.knotx.fragments.action.api.invoker.ActionInvoker.rxApply;
+import static io.knotx.fragments.action.library.bulkhead.BulkheadActionFactory.REJECTED_TRANSITION;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.FutureAction;
+import io.knotx.fragments.action.api.log.ActionLogLevel;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+class BulkheadAction implements FutureAction {
+
+  private final String alias;
+  private final Bulkhead bulkhead;
+  private final Action doAction;
+  private final ActionLogLevel actionLogLevel;
+
+  BulkheadAction(Bulkhead bulkhead, Action doAction, String alias,
+      ActionLogLevel actionLogLevel) {
+    this.alias = alias;
+    this.bulkhead = bulkhead;
+    this.doAction = doAction;
+    this.actionLogLevel = actionLogLevel;
+  }
+
+  @Override
+  public Future<FragmentResult> applyForFuture(FragmentContext context) {
+    BulkheadActionLogger logger = BulkheadActionLogger.create(alias, actionLogLevel);
+    Promise<FragmentResult> promise = Promise.promise();
+    bulkhead.execute(
+        () -> executeCommand(promise, context, logger),
+        reason -> reject(promise, reason, context, logger));
+    return promise.future();
+  }
+
+  Bulkhead getBulkhead() {
+    return bulkhead;
+  }
+
+  private void executeCommand(Promise<FragmentResult> promise, FragmentContext context,
+      BulkheadActionLogger logger) {
+    rxApply(doAction, context)
+        .doFinally(bulkhead::release)
+        .subscribe(invocation -> {
+          logger.onInvocation(invocation);
+          promise.complete(invocation.getFragmentResult().copyWithNewLog(logger.logAsJson()));
+        }, promise::fail);
+  }
+
+  private void reject(Promise<FragmentResult> promise, String reason, FragmentContext context,
+      BulkheadActionLogger logger) {
+    logger.onRejected(reason, bulkhead);
+    promise.complete(FragmentResult.success(context.getFragment(), REJECTED_TRANSITION,
+        logger.logAsJson()));
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static io.knotx.commons.validation.ValidationHelper.checkArgument;
+import static io.knotx.fragments.action.api.log.ActionLogLevel.fromConfig;
+import static java.util.Objects.isNull;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.ActionFactory;
+import io.knotx.fragments.action.api.Cacheable;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * This is a factory class creating action, which limits the number of concurrent calls to the
+ * `doAction` action. Calls over the limit wait in a bounded queue or end with the `_rejected`
+ * transition, so a slow dependency cannot take all connections and event loop capacity.
+ */
+@Cacheable
+public class BulkheadActionFactory implements ActionFactory {
+
+  static final String REJECTED_TRANSITION = "_rejected";
+  static final String FACTORY_NAME = "bulkhead";
+
+  @Override
+  public String getName() {
+    return FACTORY_NAME;
+  }
+
+  @Override
+  public Action create(String alias, JsonObject config, Vertx vertx, Action doAction) {
+    if (isNull(doAction)) {
+      throw new DoActionNotDefinedException("Bulkhead action requires `doAction` defined");
+    }
+    BulkheadActionFactoryOptions options = new BulkheadActionFactoryOptions(config);
+    checkArgument(options.getMaxConcurrentCalls() <= 0, () -> new ActionConfigurationException(
+        alias, "Bulkhead action requires positive maxConcurrentCalls."));
+    checkArgument(options.getMaxQueueSize() < 0, () -> new ActionConfigurationException(alias,
+        "Bulkhead action requires maxQueueSize to be non-negative."));
+    checkArgument(options.getMaxQueueSize() > 0 && options.getQueueTimeoutMs() <= 0,
+        () -> new ActionConfigurationException(alias,
+            "Bulkhead action requires positive queueTimeoutMs when maxQueueSize is set."));
+
+    Bulkhead bulkhead = new Bulkhead(vertx, options.getMaxConcurrentCalls(),
+        options.getMaxQueueSize(), options.getQueueTimeoutMs());
+    return new BulkheadAction(bulkhead, doAction, alias, fromConfig(options.getLogLevel()));
+  }
+}
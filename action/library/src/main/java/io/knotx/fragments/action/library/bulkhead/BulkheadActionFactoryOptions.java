@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static io.knotx.fragments.action.api.log.ActionLogLevel.ERROR;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Bulkhead action factory options model.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class BulkheadActionFactoryOptions {
+
+  private static final int DEFAULT_MAX_CONCURRENT_CALLS = 10;
+  private static final long DEFAULT_QUEUE_TIMEOUT_MS = 1000L;
+
+  private int maxConcurrentCalls = DEFAULT_MAX_CONCURRENT_CALLS;
+  private int maxQueueSize;
+  private long queueTimeoutMs = DEFAULT_QUEUE_TIMEOUT_MS;
+  private String logLevel = ERROR.getLevel();
+
+  public BulkheadActionFactoryOptions() {
+    // default values
+  }
+
+  public BulkheadActionFactoryOptions(BulkheadActionFactoryOptions other) {
+    this.maxConcurrentCalls = other.maxConcurrentCalls;
+    this.maxQueueSize = other.maxQueueSize;
+    this.queueTimeoutMs = other.queueTimeoutMs;
+    this.logLevel = other.logLevel;
+  }
+
+  public BulkheadActionFactoryOptions(JsonObject json) {
+    this();
+    BulkheadActionFactoryOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    BulkheadActionFactoryOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  /**
+   * Sets the maximum number of concurrent <code>doAction</code> calls. The default value is 10.
+   *
+   * @param maxConcurrentCalls maximum number of concurrent calls
+   * @return reference to this, so the API can be used fluently
+   */
+  public BulkheadActionFactoryOptions setMaxConcurrentCalls(int maxConcurrentCalls) {
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    return this;
+  }
+
+  public int getMaxQueueSize() {
+    return maxQueueSize;
+  }
+
+  /**
+   * Sets the maximum number of calls waiting for a free slot when the concurrency limit is
+   * reached. Calls exceeding it are rejected immediately. The default value is 0, which disables
+   * waiting.
+   *
+   * @param maxQueueSize maximum number of waiting calls
+   * @return reference to this, so the API can be used fluently
+   */
+  public BulkheadActionFactoryOptions setMaxQueueSize(int maxQueueSize) {
+    this.maxQueueSize = maxQueueSize;
+    return this;
+  }
+
+  public long getQueueTimeoutMs() {
+    return queueTimeoutMs;
+  }
+
+  /**
+   * Sets how long a call waits for a free slot before it is rejected, in milliseconds. The default
+   * value is 1000.
+   *
+   * @param queueTimeoutMs queue timeout in milliseconds
+   * @return reference to this, so the API can be used fluently
+   */
+  public BulkheadActionFactoryOptions setQueueTimeoutMs(long queueTimeoutMs) {
+    this.queueTimeoutMs = queueTimeoutMs;
+    return this;
+  }
+
+  public String getLogLevel() {
+    return logLevel;
+  }
+
+  /**
+   * Sets the action node log level.
+   *
+   * @param logLevel the log level
+   * @return reference to this, so the API can be used fluently
+   */
+  public BulkheadActionFactoryOptions setLogLevel(String logLevel) {
+    this.logLevel = logLevel;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    BulkheadActionFactoryOptions that = (BulkheadActionFactoryOptions) o;
+    return maxConcurrentCalls == that.maxConcurrentCalls &&
+        maxQueueSize == that.maxQueueSize &&
+        queueTimeoutMs == that.queueTimeoutMs &&
+        Objects.equals(logLevel, that.logLevel);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxConcurrentCalls, maxQueueSize, queueTimeoutMs, logLevel);
+  }
+
+  @Override
+  public String toString() {
+    return "BulkheadActionFactoryOptions{" +
+        "maxConcurrentCalls=" + maxConcurrentCalls +
+        ", maxQueueSize=" + maxQueueSize +
+        ", queueTimeoutMs=" + queueTimeoutMs +
+        ", logLevel='" + logLevel + '\'' +
+        '}';
+  }
+}
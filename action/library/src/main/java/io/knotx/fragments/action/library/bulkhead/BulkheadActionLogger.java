@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import io.knotx.fragments.action.api.invoker.ActionInvocation;
+import io.knotx.fragments.action.api.log.ActionLogLevel;
+import io.knotx.fragments.action.api.log.ActionLogger;
+import io.vertx.core.json.JsonObject;
+
+class BulkheadActionLogger {
+
+  static final String IN_FLIGHT_LOG_KEY = "inFlight";
+  static final String REJECTED_LOG_KEY = "rejected";
+  static final String LIMIT_LOG_KEY = "limit";
+
+  private final ActionLogger actionLogger;
+
+  static BulkheadActionLogger create(String alias, ActionLogLevel level) {
+    return new BulkheadActionLogger(ActionLogger.create(alias, level));
+  }
+
+  BulkheadActionLogger(ActionLogger actionLogger) {
+    this.actionLogger = actionLogger;
+  }
+
+  void onInvocation(ActionInvocation invocation) {
+    if (invocation.isResultDelivered()) {
+      actionLogger.info(invocation);
+    } else {
+      actionLogger.error(invocation);
+    }
+  }
+
+  void onRejected(String reason, Bulkhead bulkhead) {
+    actionLogger.error(REJECTED_LOG_KEY, new JsonObject()
+        .put("reason", reason)
+        .put(IN_FLIGHT_LOG_KEY, bulkhead.getInFlight())
+        .put("queued", bulkhead.getQueued())
+        .put("rejectedCount", bulkhead.getRejectedCount()));
+  }
+
+  void onLimit(VegasLimit limit) {
+    actionLogger.info(LIMIT_LOG_KEY, limit, l -> new JsonObject()
+        .put("limit", l.getLimit())
+        .put("rttMs", VegasLimit.toMillis(l.getLastRttNanos()))
+        .put("minRttMs", VegasLimit.toMillis(l.getMinRttNanos())));
+  }
+
+  JsonObject logAsJson() {
+    return actionLogger.toLog().toJson();
+  }
+}
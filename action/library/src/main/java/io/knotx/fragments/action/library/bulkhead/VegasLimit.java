@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit estimated from round trip times, following the TCP Vegas congestion
+ * avoidance scheme. The minimum observed RTT approximates the latency of an idle dependency, so
+ * <code>limit * (1 - minRtt / rtt)</code> estimates how many calls are queued at the dependency.
+ * The limit grows while that queue is short, shrinks when it gets long and is cut by the backoff
+ * ratio when a call fails.
+ * <p>
+ * Samples are recorded under a lock that is only tried, never awaited: a sample lost under
+ * contention does not change the estimate noticeably, and the limit itself is read lock-free on
+ * every admission.
+ */
+final class VegasLimit {
+
+  static final double BACKOFF_RATIO = 0.9;
+  static final int PROBE_INTERVAL = 1000;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private volatile double estimatedLimit;
+  private volatile long minRttNanos;
+  private volatile long lastRttNanos;
+  private int samplesSinceProbe;
+
+  VegasLimit(int initialLimit, int minLimit, int maxLimit) {
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.estimatedLimit = initialLimit;
+  }
+
+  int getLimit() {
+    return (int) estimatedLimit;
+  }
+
+  long getMinRttNanos() {
+    return minRttNanos;
+  }
+
+  long getLastRttNanos() {
+    return lastRttNanos;
+  }
+
+  /**
+   * Records a finished call.
+   *
+   * @param rttNanos call round trip time
+   * @param inFlight number of calls in flight when the call was started, including it
+   * @param dropped whether the call failed
+   */
+  void onSample(long rttNanos, int inFlight, boolean dropped) {
+    if (!lock.tryLock()) {
+      return;
+    }
+    try {
+      lastRttNanos = rttNanos;
+      if (dropped) {
+        update(estimatedLimit * BACKOFF_RATIO);
+        return;
+      }
+      if (rttNanos <= 0) {
+        return;
+      }
+      if (minRttNanos == 0 || rttNanos < minRttNanos || ++samplesSinceProbe >= PROBE_INTERVAL) {
+        // periodic probe lets the estimate follow a dependency that became slower for good
+        minRttNanos = rttNanos;
+        samplesSinceProbe = 0;
+        return;
+      }
+      double limit = estimatedLimit;
+      if (inFlight * 2 < limit) {
+        // the caller does not use the current limit, so the samples say nothing about it
+        return;
+      }
+      double queueSize = Math.ceil(limit * (1 - (double) minRttNanos / rttNanos));
+      double step = Math.max(1, Math.log10(limit));
+      if (queueSize <= step) {
+        update(limit + 6 * step);
+      } else if (queueSize < 3 * step) {
+        update(limit + step);
+      } else if (queueSize > 6 * step) {
+        update(limit - step);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void update(double limit) {
+    estimatedLimit = Math.max(minLimit, Math.min(maxLimit, limit));
+  }
+
+  static double toMillis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+}
@@ -17,7 +17,6 @@ package io.knotx.fragments.action.library.cache;
 
 import static io.knotx.commons.validation.ValidationHelper.checkArgument;
 import static io.knotx.fragments.action.api.invoker.ActionInvoker.rxApply;
-import static io.knotx.fragments.action.library.helper.FragmentPlaceholders.buildSourceDefinitions;
 
 import io.knotx.commons.cache.Cache;
 import io.knotx.fragments.action.api.Action;
@@ -25,30 +24,58 @@ import io.knotx.fragments.action.api.invoker.ActionInvocation;
 import io.knotx.fragments.action.api.SingleAction;
 import io.knotx.fragments.action.api.log.ActionLogLevel;
 import io.knotx.fragments.action.library.cache.operations.CacheActionLogger;
+import io.knotx.fragments.action.library.cache.operations.CacheFreshness;
+import io.knotx.fragments.action.library.cache.operations.CacheKeyTemplate;
 import io.knotx.fragments.action.library.cache.operations.CacheLookup;
 import io.knotx.fragments.action.library.cache.operations.CacheStore;
+import io.knotx.fragments.action.library.cache.operations.NegativeCache;
+import io.knotx.fragments.action.library.cache.operations.RefreshableValue;
+import io.knotx.fragments.action.library.cache.stats.CacheStats;
+import io.knotx.fragments.action.library.cache.stats.CacheStatsRegistry;
 import io.knotx.fragments.action.library.exception.ActionConfigurationException;
 import io.knotx.fragments.api.FragmentContext;
 import io.knotx.fragments.api.FragmentResult;
-import io.knotx.server.common.placeholders.PlaceholdersResolver;
-import io.knotx.server.common.placeholders.SourceDefinitions;
 import io.reactivex.Maybe;
+import io.reactivex.Scheduler;
 import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.SingleSubject;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.reactivex.RxHelper;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.StringUtils;
 
-public class CacheAction implements SingleAction {
+/**
+ * Serves the doAction payload from a cache. When the action is closed, its cache statistics are
+ * unregistered and a cache that implements {@link AutoCloseable} (e.g. a disk cache) is closed.
+ */
+public class CacheAction implements SingleAction, AutoCloseable {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CacheAction.class);
 
   private final boolean failWhenLookupFails;
   private final boolean failWhenStoreFails;
+  private final long coalescingTimeoutMs;
 
   private final ActionLogLevel logLevel;
-  private final String keySchema;
+  private final CacheKeyTemplate keyTemplate;
   private final String alias;
 
   private final Action doAction;
 
   private final CacheLookup lookup;
   private final CacheStore store;
+  private final CacheStats stats;
+  private final AutoCloseable resources;
+
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+  private final Map<String, SingleSubject<ActionInvocation>> inFlight = new ConcurrentHashMap<>();
 
   public static CacheAction create(Cache cache, CacheActionOptions options, String alias,
       Action doAction) {
@@ -60,35 +87,96 @@ public class CacheAction implements SingleAction {
             "CacheAction requires cacheKey value in configuration."));
     checkArgument(doAction == null, () -> new ActionConfigurationException(alias,
         "CacheAction requires doAction configured but none provided"));
+    checkArgument(options.getSoftTtlMs() < 0 || options.getHardTtlMs() < 0
+        || options.getRefreshAheadMs() < 0, () -> new ActionConfigurationException(alias,
+        "CacheAction requires softTtlMs, hardTtlMs and refreshAheadMs to be non-negative."));
+    checkArgument(options.getSoftTtlMs() > 0 && options.getHardTtlMs() > 0
+        && options.getSoftTtlMs() >= options.getHardTtlMs(),
+        () -> new ActionConfigurationException(alias,
+            "CacheAction requires softTtlMs to be lower than hardTtlMs."));
+    checkArgument(options.getRefreshAheadMs() > 0 && options.getSoftTtlMs() == 0
+        && options.getHardTtlMs() == 0, () -> new ActionConfigurationException(alias,
+        "CacheAction requires softTtlMs or hardTtlMs when refreshAheadMs is set."));
+    checkArgument(options.getCoalescingTimeoutMs() < 0, () -> new ActionConfigurationException(
+        alias, "CacheAction requires coalescingTimeoutMs to be non-negative."));
+    checkArgument(options.getNegativeTtlMs() < 0, () -> new ActionConfigurationException(alias,
+        "CacheAction requires negativeTtlMs to be non-negative."));
+    checkArgument(options.getNegativeTtlMs() > 0 && options.getNegativeMaximumWeight() <= 0,
+        () -> new ActionConfigurationException(alias,
+            "CacheAction requires positive negativeMaximumWeight when negativeTtlMs is set."));
+    checkArgument(options.getStatsTopKeys() < 0, () -> new ActionConfigurationException(alias,
+        "CacheAction requires statsTopKeys to be non-negative."));
+    CacheFreshness freshness = new CacheFreshness(options.getSoftTtlMs(), options.getHardTtlMs(),
+        options.getRefreshAheadMs());
+    NegativeCache negativeCache = NegativeCache.create(options.getPayloadKey(),
+        options.getNegativeTtlMs(), options.getNegativeMaximumWeight());
     return new CacheAction(
         alias,
-        options.getCacheKey(),
+        CacheKeyTemplate.compile(options.getCacheKey(), options.isHashCacheKey()),
         doAction,
         ActionLogLevel.fromConfig(options.getLogLevel(), ActionLogLevel.ERROR),
-        new CacheLookup(cache, options.getPayloadKey()),
-        new CacheStore(cache, options.getPayloadKey()),
+        new CacheLookup(cache, options.getPayloadKey(), freshness, negativeCache),
+        new CacheStore(cache, options.getPayloadKey(), freshness, negativeCache),
         options.isFailWhenLookupFails(),
-        options.isFailWhenStoreFails()
+        options.isFailWhenStoreFails(),
+        options.getCoalescingTimeoutMs(),
+        CacheStatsRegistry.register(alias, options.getStatsTopKeys(), cache),
+        () -> release(alias, cache)
     );
   }
 
   public CacheAction(String alias, String keySchema, Action doAction, ActionLogLevel logLevel,
       CacheLookup lookup, CacheStore store, boolean failWhenLookupFails,
       boolean failWhenStoreFails) {
+    this(alias, CacheKeyTemplate.compile(keySchema, false), doAction, logLevel, lookup, store,
+        failWhenLookupFails, failWhenStoreFails, 0L);
+  }
+
+  /**
+   * @param coalescingTimeoutMs how long concurrent misses for the same cache key wait for the
+   * first miss's doAction result before calling doAction themselves, 0 disables waiting
+   */
+  public CacheAction(String alias, CacheKeyTemplate keyTemplate, Action doAction,
+      ActionLogLevel logLevel, CacheLookup lookup, CacheStore store, boolean failWhenLookupFails,
+      boolean failWhenStoreFails, long coalescingTimeoutMs) {
+    this(alias, keyTemplate, doAction, logLevel, lookup, store, failWhenLookupFails,
+        failWhenStoreFails, coalescingTimeoutMs, new CacheStats(alias, 0));
+  }
+
+  /**
+   * @param stats statistics recorded by every invocation of this action
+   */
+  public CacheAction(String alias, CacheKeyTemplate keyTemplate, Action doAction,
+      ActionLogLevel logLevel, CacheLookup lookup, CacheStore store, boolean failWhenLookupFails,
+      boolean failWhenStoreFails, long coalescingTimeoutMs, CacheStats stats) {
+    this(alias, keyTemplate, doAction, logLevel, lookup, store, failWhenLookupFails,
+        failWhenStoreFails, coalescingTimeoutMs, stats, null);
+  }
+
+  /**
+   * @param resources closed when the action is closed, may be <code>null</code>
+   */
+  public CacheAction(String alias, CacheKeyTemplate keyTemplate, Action doAction,
+      ActionLogLevel logLevel, CacheLookup lookup, CacheStore store, boolean failWhenLookupFails,
+      boolean failWhenStoreFails, long coalescingTimeoutMs, CacheStats stats,
+      AutoCloseable resources) {
     this.alias = alias;
     this.doAction = doAction;
-    this.keySchema = keySchema;
+    this.keyTemplate = keyTemplate;
     this.logLevel = logLevel;
     this.lookup = lookup;
     this.store = store;
     this.failWhenLookupFails = failWhenLookupFails;
     this.failWhenStoreFails = failWhenStoreFails;
+    this.coalescingTimeoutMs = coalescingTimeoutMs;
+    this.stats = stats;
+    this.resources = resources;
   }
 
   @Override
   public Single<FragmentResult> apply(FragmentContext fragmentContext) {
-    CacheActionLogger logger = CacheActionLogger.create(alias, logLevel);
-    String cacheKey = createCacheKey(fragmentContext);
+    CacheActionLogger logger = CacheActionLogger.create(alias, logLevel, stats);
+    String cacheKey = keyTemplate.resolve(fragmentContext);
 
     return lookupInCache(cacheKey, fragmentContext, logger)
         .switchIfEmpty(retrieveAndStore(cacheKey, fragmentContext, logger))
@@ -96,25 +184,110 @@ public class CacheAction implements SingleAction {
         .map(result -> result.copyWithNewLog(logger.getLogAsJson()));
   }
 
+  @Override
+  public void close() throws Exception {
+    if (resources != null) {
+      resources.close();
+    }
+  }
+
+  private static void release(String alias, Cache cache) throws Exception {
+    CacheStatsRegistry.unregister(alias, cache);
+    if (cache instanceof AutoCloseable) {
+      ((AutoCloseable) cache).close();
+    }
+  }
+
   private Maybe<FragmentResult> lookupInCache(String cacheKey, FragmentContext context,
       CacheActionLogger logger) {
     return lookup.find(cacheKey, logger)
+        .doOnSuccess(value -> refreshIfNeeded(cacheKey, context, value, logger))
         .map(value -> lookup.toResponse(context, value))
         .onErrorResumeNext(error -> { return handleLookupError(logger, error); });
   }
 
   private Single<FragmentResult> retrieveAndStore(String cacheKey, FragmentContext context,
       CacheActionLogger logger) {
-    return rxApply(doAction, context)
+    if (coalescingTimeoutMs <= 0) {
+      return retrieveAndStore(cacheKey, context, logger, rxApply(doAction, context));
+    }
+    return Single.defer(() -> {
+      SingleSubject<ActionInvocation> leader = SingleSubject.create();
+      SingleSubject<ActionInvocation> running = inFlight.putIfAbsent(cacheKey, leader);
+      if (running == null) {
+        return retrieveAndStore(cacheKey, context, logger, rxApply(doAction, context)
+            .doOnSuccess(leader::onSuccess)
+            .doOnError(leader::onError)
+            .doFinally(() -> inFlight.remove(cacheKey, leader)));
+      }
+      return awaitRunning(running, context, logger, currentContextScheduler())
+          .switchIfEmpty(Single.defer(() -> retrieveAndStore(cacheKey, context, logger,
+              rxApply(doAction, context))));
+    });
+  }
+
+  /**
+   * Takes the result of the running invocation, also when it is not cacheable or failed, so a
+   * failing key does not cause a stampede either. Only when the wait times out the caller
+   * invokes doAction itself. The result and the timeout are delivered on the caller's context, as
+   * the running invocation may complete on another event loop.
+   */
+  private Maybe<FragmentResult> awaitRunning(Single<ActionInvocation> running,
+      FragmentContext context, CacheActionLogger logger, Scheduler scheduler) {
+    return running.toMaybe()
+        .observeOn(scheduler)
+        .timeout(coalescingTimeoutMs, TimeUnit.MILLISECONDS, scheduler,
+            Maybe.<ActionInvocation>empty().doOnComplete(logger::onCoalescingTimeout))
+        .doOnSuccess(ActionInvocation::rethrowIfResultNotDelivered)
+        .map(ActionInvocation::getFragmentResult)
+        .flatMap(computed -> store.cacheableValue(computed)
+            .doOnSuccess(logger::onCoalesced)
+            .map(value -> lookup.toResponse(context, value))
+            .switchIfEmpty(Maybe.fromCallable(() -> {
+              logger.onCoalescedWithoutValue(computed.getTransition());
+              return lookup.toUncacheableResponse(context, computed);
+            })));
+  }
+
+  private static Scheduler currentContextScheduler() {
+    Context context = Vertx.currentContext();
+    return context != null ? RxHelper.scheduler(context) : Schedulers.computation();
+  }
+
+  private Single<FragmentResult> retrieveAndStore(String cacheKey, FragmentContext context,
+      CacheActionLogger logger, Single<ActionInvocation> doActionCall) {
+    return doActionCall
         .doOnSuccess(logger::onInvocationFinish)
         .doOnSuccess(ActionInvocation::rethrowIfResultNotDelivered)
         .doOnSuccess(invocation -> safeSave(logger, cacheKey, invocation))
         .map(ActionInvocation::getFragmentResult);
   }
 
-  private String createCacheKey(FragmentContext context) {
-    SourceDefinitions sourceDefinitions = buildSourceDefinitions(context);
-    return PlaceholdersResolver.createEncoding(sourceDefinitions).resolve(keySchema);
+  private void refreshIfNeeded(String cacheKey, FragmentContext context, Object cachedValue,
+      CacheActionLogger logger) {
+    if (cachedValue instanceof RefreshableValue && refreshing.add(cacheKey)) {
+      logger.onRefresh();
+      refresh(cacheKey, new FragmentContext(context.toJson().copy()));
+    }
+  }
+
+  private void refresh(String cacheKey, FragmentContext context) {
+    rxApply(doAction, context)
+        .doFinally(() -> refreshing.remove(cacheKey))
+        .subscribe(invocation -> {
+          if (invocation.isResultDelivered()) {
+            saveRefreshed(cacheKey, invocation);
+          }
+        }, error -> LOGGER.warn("Cache refresh of [{}] failed", error, cacheKey));
+  }
+
+  private void saveRefreshed(String cacheKey, ActionInvocation invocation) {
+    try {
+      store.save(CacheActionLogger.create(alias, logLevel), cacheKey,
+          invocation.getFragmentResult());
+    } catch (Exception e) {
+      LOGGER.warn("Cache refresh of [{}] could not be stored", e, cacheKey);
+    }
   }
 
   private Maybe<FragmentResult> handleLookupError(CacheActionLogger logger, Throwable error) {
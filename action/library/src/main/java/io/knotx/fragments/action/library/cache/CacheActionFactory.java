@@ -42,8 +42,22 @@ public class CacheActionFactory implements ActionFactory {
   public Action create(String alias, JsonObject config, Vertx vertx, Action doAction) {
     CacheActionOptions options = new CacheActionOptions(config);
     Cache cache = createCache(alias, options, vertx);
+    try {
+      return CacheAction.create(cache, options, alias, doAction);
+    } catch (RuntimeException e) {
+      closeQuietly(cache);
+      throw e;
+    }
+  }
 
-    return CacheAction.create(cache, options, alias, doAction);
+  private static void closeQuietly(Cache cache) {
+    if (cache instanceof AutoCloseable) {
+      try {
+        ((AutoCloseable) cache).close();
+      } catch (Exception e) {
+        // the action creation error is reported
+      }
+    }
   }
 
   private Cache createCache(String alias, CacheActionOptions options, Vertx vertx) {
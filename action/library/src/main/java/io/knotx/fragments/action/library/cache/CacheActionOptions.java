@@ -29,6 +29,14 @@ public class CacheActionOptions {
   private String logLevel;
   private String type;
   private JsonObject cache = new JsonObject();
+  private long softTtlMs;
+  private long hardTtlMs;
+  private long refreshAheadMs;
+  private long coalescingTimeoutMs = 1000L;
+  private boolean hashCacheKey;
+  private long negativeTtlMs;
+  private long negativeMaximumWeight = 1024L * 1024L;
+  private int statsTopKeys = 10;
 
   public CacheActionOptions(JsonObject json) {
     CacheActionOptionsConverter.fromJson(json, this);
@@ -103,6 +111,78 @@ public class CacheActionOptions {
     return this;
   }
 
+  public long getSoftTtlMs() {
+    return softTtlMs;
+  }
+
+  public CacheActionOptions setSoftTtlMs(long softTtlMs) {
+    this.softTtlMs = softTtlMs;
+    return this;
+  }
+
+  public long getHardTtlMs() {
+    return hardTtlMs;
+  }
+
+  public CacheActionOptions setHardTtlMs(long hardTtlMs) {
+    this.hardTtlMs = hardTtlMs;
+    return this;
+  }
+
+  public long getRefreshAheadMs() {
+    return refreshAheadMs;
+  }
+
+  public CacheActionOptions setRefreshAheadMs(long refreshAheadMs) {
+    this.refreshAheadMs = refreshAheadMs;
+    return this;
+  }
+
+  public long getCoalescingTimeoutMs() {
+    return coalescingTimeoutMs;
+  }
+
+  public CacheActionOptions setCoalescingTimeoutMs(long coalescingTimeoutMs) {
+    this.coalescingTimeoutMs = coalescingTimeoutMs;
+    return this;
+  }
+
+  public boolean isHashCacheKey() {
+    return hashCacheKey;
+  }
+
+  public CacheActionOptions setHashCacheKey(boolean hashCacheKey) {
+    this.hashCacheKey = hashCacheKey;
+    return this;
+  }
+
+  public long getNegativeTtlMs() {
+    return negativeTtlMs;
+  }
+
+  public CacheActionOptions setNegativeTtlMs(long negativeTtlMs) {
+    this.negativeTtlMs = negativeTtlMs;
+    return this;
+  }
+
+  public long getNegativeMaximumWeight() {
+    return negativeMaximumWeight;
+  }
+
+  public CacheActionOptions setNegativeMaximumWeight(long negativeMaximumWeight) {
+    this.negativeMaximumWeight = negativeMaximumWeight;
+    return this;
+  }
+
+  public int getStatsTopKeys() {
+    return statsTopKeys;
+  }
+
+  public CacheActionOptions setStatsTopKeys(int statsTopKeys) {
+    this.statsTopKeys = statsTopKeys;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -118,13 +198,23 @@ public class CacheActionOptions {
         Objects.equals(cacheKey, that.cacheKey) &&
         Objects.equals(logLevel, that.logLevel) &&
         Objects.equals(type, that.type) &&
+        softTtlMs == that.softTtlMs &&
+        hardTtlMs == that.hardTtlMs &&
+        refreshAheadMs == that.refreshAheadMs &&
+        coalescingTimeoutMs == that.coalescingTimeoutMs &&
+        hashCacheKey == that.hashCacheKey &&
+        negativeTtlMs == that.negativeTtlMs &&
+        negativeMaximumWeight == that.negativeMaximumWeight &&
+        statsTopKeys == that.statsTopKeys &&
         Objects.equals(cache, that.cache);
   }
 
   @Override
   public int hashCode() {
     return Objects
-        .hash(failWhenLookupFails, failWhenStoreFails, payloadKey, cacheKey, logLevel, type, cache);
+        .hash(failWhenLookupFails, failWhenStoreFails, payloadKey, cacheKey, logLevel, type, cache,
+            softTtlMs, hardTtlMs, refreshAheadMs, coalescingTimeoutMs, hashCacheKey, negativeTtlMs,
+            negativeMaximumWeight, statsTopKeys);
   }
 
   @Override
@@ -137,6 +227,14 @@ public class CacheActionOptions {
         ", logLevel='" + logLevel + '\'' +
         ", type='" + type + '\'' +
         ", cache=" + cache +
+        ", softTtlMs=" + softTtlMs +
+        ", hardTtlMs=" + hardTtlMs +
+        ", refreshAheadMs=" + refreshAheadMs +
+        ", coalescingTimeoutMs=" + coalescingTimeoutMs +
+        ", hashCacheKey=" + hashCacheKey +
+        ", negativeTtlMs=" + negativeTtlMs +
+        ", negativeMaximumWeight=" + negativeMaximumWeight +
+        ", statsTopKeys=" + statsTopKeys +
         '}';
   }
 }
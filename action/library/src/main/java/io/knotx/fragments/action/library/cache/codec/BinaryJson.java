@@ -0,0 +1,506 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Compact binary encoding of JSON values. Every value starts with a one byte tag. Integers are
+ * stored as zig-zag varints, strings as UTF-8 bytes prefixed with a varint length, objects and
+ * arrays as a varint number of elements followed by the elements. {@link BigDecimal} and
+ * {@link BigInteger} values keep their exact digits. Decoded objects and arrays are
+ * {@link JsonObject} and {@link JsonArray} instances, optionally read-only.
+ */
+public final class BinaryJson {
+
+  static final byte NULL = 0;
+  static final byte FALSE = 1;
+  static final byte TRUE = 2;
+  static final byte INT = 3;
+  static final byte LONG = 4;
+  static final byte FLOAT = 5;
+  static final byte DOUBLE = 6;
+  static final byte STRING = 7;
+  static final byte OBJECT = 8;
+  static final byte ARRAY = 9;
+  static final byte BINARY = 10;
+  static final byte DECIMAL = 11;
+  static final byte BIG_INTEGER = 12;
+
+  private BinaryJson() {
+    // utility class
+  }
+
+  /**
+   * Encodes a JSON value: {@link JsonObject}, {@link JsonArray}, {@link Map}, {@link List},
+   * {@link String}, {@link Number}, {@link Boolean}, binary data or <code>null</code>. Nested
+   * {@link EncodedPayload} values are copied as they are, so they decode to their original value.
+   *
+   * @param value JSON value to encode
+   * @return encoded bytes
+   * @throws IllegalArgumentException when the value contains an unsupported type
+   */
+  public static byte[] encode(Object value) {
+    Output output = new Output();
+    write(output, value);
+    return output.toByteArray();
+  }
+
+  /**
+   * Decodes a value encoded with {@link BinaryJson#encode(Object)}.
+   *
+   * @param bytes encoded bytes
+   * @return decoded JSON value
+   * @throws IllegalArgumentException when the bytes are not a valid encoding
+   */
+  public static Object decode(byte[] bytes) {
+    return decode(bytes, 0);
+  }
+
+  static Object decode(byte[] bytes, int offset) {
+    return decode(bytes, offset, false);
+  }
+
+  /**
+   * @param readOnly whether decoded objects and arrays throw {@link UnsupportedOperationException}
+   * on every modification, objects keep the order of their keys also when they are copied
+   */
+  static Object decode(byte[] bytes, int offset, boolean readOnly) {
+    Input input = new Input(bytes, offset, readOnly);
+    Object value = read(input);
+    if (input.position != bytes.length) {
+      throw new IllegalArgumentException("Unexpected bytes after the encoded value");
+    }
+    return value;
+  }
+
+  private static void write(Output output, Object value) {
+    if (value == null) {
+      output.writeByte(NULL);
+    } else if (value instanceof Boolean) {
+      output.writeByte((Boolean) value ? TRUE : FALSE);
+    } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+      output.writeByte(INT);
+      output.writeVarLong(zigZag(((Number) value).intValue()));
+    } else if (value instanceof Long) {
+      output.writeByte(LONG);
+      output.writeVarLong(zigZag((Long) value));
+    } else if (value instanceof Float) {
+      output.writeByte(FLOAT);
+      output.writeFixedInt(Float.floatToIntBits((Float) value));
+    } else if (value instanceof BigDecimal) {
+      BigDecimal decimal = (BigDecimal) value;
+      output.writeByte(DECIMAL);
+      output.writeBytes(decimal.unscaledValue().toByteArray());
+      output.writeVarLong(zigZag(decimal.scale()));
+    } else if (value instanceof BigInteger) {
+      output.writeByte(BIG_INTEGER);
+      output.writeBytes(((BigInteger) value).toByteArray());
+    } else if (value instanceof Number) {
+      output.writeByte(DOUBLE);
+      output.writeFixedLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+    } else if (value instanceof CharSequence) {
+      output.writeByte(STRING);
+      output.writeString(value.toString());
+    } else if (value instanceof JsonObject) {
+      writeObject(output, ((JsonObject) value).getMap());
+    } else if (value instanceof Map) {
+      writeObject(output, (Map<?, ?>) value);
+    } else if (value instanceof JsonArray) {
+      writeArray(output, ((JsonArray) value).getList());
+    } else if (value instanceof List) {
+      writeArray(output, (List<?>) value);
+    } else if (value instanceof byte[]) {
+      output.writeByte(BINARY);
+      output.writeBytes((byte[]) value);
+    } else if (value instanceof Buffer) {
+      output.writeByte(BINARY);
+      output.writeBytes(((Buffer) value).getBytes());
+    } else if (value instanceof EncodedPayload) {
+      EncodedPayload encoded = (EncodedPayload) value;
+      // the stored time header is not a part of the value
+      output.writeRaw(encoded.array(), encoded.valueOffset());
+    } else if (value instanceof Instant) {
+      output.writeByte(STRING);
+      output.writeString(DateTimeFormatter.ISO_INSTANT.format((Instant) value));
+    } else if (value instanceof Enum) {
+      output.writeByte(STRING);
+      output.writeString(((Enum<?>) value).name());
+    } else {
+      throw new IllegalArgumentException(
+          "Unsupported JSON value type [" + value.getClass().getName() + "]");
+    }
+  }
+
+  private static void writeObject(Output output, Map<?, ?> map) {
+    output.writeByte(OBJECT);
+    output.writeVarLong(map.size());
+    for (Map.Entry<?, ?> entry : map.entrySet()) {
+      output.writeString(String.valueOf(entry.getKey()));
+      write(output, entry.getValue());
+    }
+  }
+
+  private static void writeArray(Output output, List<?> list) {
+    output.writeByte(ARRAY);
+    output.writeVarLong(list.size());
+    for (Object element : list) {
+      write(output, element);
+    }
+  }
+
+  private static Object read(Input input) {
+    byte tag = input.readByte();
+    switch (tag) {
+      case NULL:
+        return null;
+      case FALSE:
+        return Boolean.FALSE;
+      case TRUE:
+        return Boolean.TRUE;
+      case INT:
+        return (int) unZigZag(input.readVarLong());
+      case LONG:
+        return unZigZag(input.readVarLong());
+      case FLOAT:
+        return Float.intBitsToFloat(input.readFixedInt());
+      case DOUBLE:
+        return Double.longBitsToDouble(input.readFixedLong());
+      case STRING:
+        return input.readString();
+      case OBJECT:
+        return readObject(input);
+      case ARRAY:
+        return readArray(input);
+      case BINARY:
+        return input.readBytes();
+      case DECIMAL:
+        BigInteger unscaled = new BigInteger(input.readBytes());
+        return new BigDecimal(unscaled, (int) unZigZag(input.readVarLong()));
+      case BIG_INTEGER:
+        return new BigInteger(input.readBytes());
+      default:
+        throw new IllegalArgumentException("Unknown value tag [" + tag + "]");
+    }
+  }
+
+  private static JsonObject readObject(Input input) {
+    int size = input.readLength();
+    if (input.readOnly) {
+      ReadOnlyMap map = new ReadOnlyMap(size);
+      for (int i = 0; i < size; i++) {
+        String key = input.readString();
+        map.putDecoded(key, read(input));
+      }
+      return new JsonObject(map);
+    }
+    JsonObject object = new JsonObject();
+    for (int i = 0; i < size; i++) {
+      String key = input.readString();
+      object.getMap().put(key, read(input));
+    }
+    return object;
+  }
+
+  private static JsonArray readArray(Input input) {
+    int size = input.readLength();
+    List<Object> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      list.add(read(input));
+    }
+    return new JsonArray(input.readOnly ? Collections.unmodifiableList(list) : list);
+  }
+
+  private static long zigZag(long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static final class Output {
+
+    private byte[] bytes = new byte[64];
+    private int position;
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      bytes[position++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0) {
+        bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[position++] = (byte) value;
+    }
+
+    void writeFixedInt(int value) {
+      ensureCapacity(4);
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        bytes[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeFixedLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        bytes[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    void writeString(String value) {
+      writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    void writeBytes(byte[] value) {
+      writeVarLong(value.length);
+      ensureCapacity(value.length);
+      System.arraycopy(value, 0, bytes, position, value.length);
+      position += value.length;
+    }
+
+    void writeRaw(byte[] value, int offset) {
+      int length = value.length - offset;
+      ensureCapacity(length);
+      System.arraycopy(value, offset, bytes, position, length);
+      position += length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(bytes, position);
+    }
+
+    private void ensureCapacity(int length) {
+      if (position + length > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, position + length));
+      }
+    }
+  }
+
+  private static final class Input {
+
+    private final byte[] bytes;
+    private final boolean readOnly;
+    private int position;
+
+    Input(byte[] bytes, int position, boolean readOnly) {
+      this.bytes = bytes;
+      this.position = position;
+      this.readOnly = readOnly;
+    }
+
+    byte readByte() {
+      if (position >= bytes.length) {
+        throw new IllegalArgumentException("Unexpected end of the encoded value");
+      }
+      return bytes[position++];
+    }
+
+    long readVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        byte b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IllegalArgumentException("Malformed varint");
+    }
+
+    int readLength() {
+      long length = readVarLong();
+      if (length < 0 || length > bytes.length - position) {
+        throw new IllegalArgumentException("Malformed length [" + length + "]");
+      }
+      return (int) length;
+    }
+
+    int readFixedInt() {
+      int value = 0;
+      for (int i = 0; i < 4; i++) {
+        value = (value << 8) | (readByte() & 0xFF);
+      }
+      return value;
+    }
+
+    long readFixedLong() {
+      long value = 0;
+      for (int i = 0; i < 8; i++) {
+        value = (value << 8) | (readByte() & 0xFF);
+      }
+      return value;
+    }
+
+    String readString() {
+      int length = readLength();
+      String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+      position += length;
+      return value;
+    }
+
+    byte[] readBytes() {
+      int length = readLength();
+      byte[] value = Arrays.copyOfRange(bytes, position, position + length);
+      position += length;
+      return value;
+    }
+  }
+
+  /**
+   * A read-only object map. It is a {@link LinkedHashMap}, so {@link JsonObject#copy()} keeps the
+   * order of its keys.
+   */
+  private static final class ReadOnlyMap extends LinkedHashMap<String, Object> {
+
+    ReadOnlyMap(int size) {
+      super(Math.max(16, (int) (size / 0.75f) + 1));
+    }
+
+    void putDecoded(String key, Object value) {
+      super.put(key, value);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> m) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object remove(Object key) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object replace(String key, Object value) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean replace(String key, Object oldValue, Object newValue) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super String, ? super Object, ?> function) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object computeIfAbsent(String key, Function<? super String, ?> mappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object computeIfPresent(String key,
+        BiFunction<? super String, ? super Object, ?> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object compute(String key,
+        BiFunction<? super String, ? super Object, ?> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object merge(String key, Object value,
+        BiFunction<? super Object, ? super Object, ?> remappingFunction) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Set<String> keySet() {
+      return Collections.unmodifiableSet(super.keySet());
+    }
+
+    @Override
+    public Collection<Object> values() {
+      return Collections.unmodifiableCollection(super.values());
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+      Set<Map.Entry<String, Object>> entries = super.entrySet();
+      return new AbstractSet<Map.Entry<String, Object>>() {
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+          Iterator<Map.Entry<String, Object>> iterator = entries.iterator();
+          return new Iterator<Map.Entry<String, Object>>() {
+            @Override
+            public boolean hasNext() {
+              return iterator.hasNext();
+            }
+
+            @Override
+            public Map.Entry<String, Object> next() {
+              return new SimpleImmutableEntry<>(iterator.next());
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return entries.size();
+        }
+      };
+    }
+  }
+}
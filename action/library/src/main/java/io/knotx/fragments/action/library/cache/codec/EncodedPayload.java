@@ -0,0 +1,227 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.codec;
+
+import io.vertx.core.buffer.Buffer;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+
+/**
+ * An immutable cached payload value kept in the {@link BinaryJson} encoding. Cache actions store
+ * payload values in this form and caches return it from lookups, so the value is decoded only when
+ * it is put into the fragment's payload. Hits put a read-only {@link #view() view} of the value,
+ * decoded once and shared by all hits of the same payload instance, so they never share mutable
+ * JSON objects, also across event loops. {@link #decode()} creates a new mutable copy.
+ *
+ * <p>The encoded value can be preceded by a header with the time it was stored. The header starts
+ * with a byte that is not a {@link BinaryJson} value tag, so it is never confused with a value and
+ * it is kept by every cache that stores the encoded bytes.
+ */
+public final class EncodedPayload {
+
+  private static final byte STORED_AT_HEADER = -1;
+  private static final int STORED_AT_HEADER_LENGTH = 9;
+
+  private final byte[] bytes;
+  private final int offset;
+  private final DecodedView decodedView;
+
+  private EncodedPayload(byte[] bytes, int offset) {
+    this(bytes, offset, new DecodedView());
+  }
+
+  private EncodedPayload(byte[] bytes, int offset, DecodedView decodedView) {
+    this.bytes = bytes;
+    this.offset = offset;
+    this.decodedView = decodedView;
+  }
+
+  /**
+   * @param value JSON value, returned as it is when already encoded
+   * @return encoded payload
+   */
+  public static EncodedPayload encode(Object value) {
+    return value instanceof EncodedPayload
+        ? (EncodedPayload) value
+        : new EncodedPayload(BinaryJson.encode(value), 0);
+  }
+
+  /**
+   * Wraps already encoded bytes, e.g. read from a cache file. The array must not be modified
+   * afterwards.
+   *
+   * @param bytes value encoded with {@link BinaryJson}, optionally with the stored time header
+   * @return encoded payload
+   */
+  public static EncodedPayload wrap(byte[] bytes) {
+    return new EncodedPayload(bytes, 0);
+  }
+
+  /**
+   * Unwraps a cached value: returns its read-only {@link #view()} when it is an
+   * {@link EncodedPayload}, returns it as it is otherwise.
+   *
+   * @param cachedValue value returned by a cache
+   * @return payload value
+   */
+  public static Object unwrap(Object cachedValue) {
+    return cachedValue instanceof EncodedPayload
+        ? ((EncodedPayload) cachedValue).view()
+        : cachedValue;
+  }
+
+  /**
+   * @return a new mutable copy of the value
+   */
+  public Object decode() {
+    return BinaryJson.decode(bytes, valueOffset());
+  }
+
+  /**
+   * Decodes the value on the first call and returns the same value afterwards, until it is
+   * collected under memory pressure. Objects and arrays of the value throw
+   * {@link UnsupportedOperationException} on every modification, binary data must not be modified.
+   *
+   * @return a read-only value
+   */
+  public Object view() {
+    SoftReference<Object> reference = decodedView.reference;
+    Object value = reference == null ? null : reference.get();
+    if (value == null) {
+      value = BinaryJson.decode(bytes, valueOffset(), true);
+      decodedView.reference = new SoftReference<>(value);
+    }
+    return value;
+  }
+
+  /**
+   * @param storedAt time the value is stored at, in milliseconds
+   * @return a copy of the value with the stored time header
+   */
+  public EncodedPayload withStoredAt(long storedAt) {
+    int valueOffset = valueOffset();
+    byte[] stored = new byte[STORED_AT_HEADER_LENGTH + bytes.length - valueOffset];
+    stored[0] = STORED_AT_HEADER;
+    for (int i = 0; i < 8; i++) {
+      stored[1 + i] = (byte) (storedAt >>> (56 - 8 * i));
+    }
+    System.arraycopy(bytes, valueOffset, stored, STORED_AT_HEADER_LENGTH,
+        bytes.length - valueOffset);
+    return new EncodedPayload(stored, 0);
+  }
+
+  /**
+   * @return the value without the stored time header, sharing the encoded bytes
+   */
+  public EncodedPayload withoutStoredAt() {
+    return hasStoredAt() ? new EncodedPayload(bytes, valueOffset(), decodedView) : this;
+  }
+
+  public boolean hasStoredAt() {
+    return bytes.length - offset >= STORED_AT_HEADER_LENGTH && bytes[offset] == STORED_AT_HEADER;
+  }
+
+  /**
+   * @return the stored time in milliseconds or a negative value when the header is missing
+   */
+  public long getStoredAt() {
+    if (!hasStoredAt()) {
+      return -1L;
+    }
+    long storedAt = 0;
+    for (int i = 1; i < STORED_AT_HEADER_LENGTH; i++) {
+      storedAt = (storedAt << 8) | (bytes[offset + i] & 0xFF);
+    }
+    return storedAt;
+  }
+
+  byte[] array() {
+    return bytes;
+  }
+
+  int valueOffset() {
+    return hasStoredAt() ? offset + STORED_AT_HEADER_LENGTH : offset;
+  }
+
+  /**
+   * @return number of encoded bytes, including the stored time header
+   */
+  public int length() {
+    return bytes.length - offset;
+  }
+
+  /**
+   * Copies the encoded bytes, including the stored time header, into the buffer, at its current
+   * position.
+   *
+   * @param target buffer with at least {@link EncodedPayload#length()} bytes remaining
+   */
+  public void writeTo(ByteBuffer target) {
+    target.put(bytes, offset, length());
+  }
+
+  /**
+   * @return a buffer with a copy of the encoded bytes, including the stored time header
+   */
+  public Buffer toBuffer() {
+    return Buffer.buffer(length()).appendBytes(bytes, offset, length());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    EncodedPayload that = (EncodedPayload) o;
+    if (length() != that.length()) {
+      return false;
+    }
+    for (int i = 0; i < length(); i++) {
+      if (bytes[offset + i] != that.bytes[that.offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = offset; i < bytes.length; i++) {
+      result = 31 * result + bytes[i];
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "EncodedPayload{" +
+        "length=" + length() +
+        '}';
+  }
+
+  /**
+   * The decoded value shared by payloads with the same encoded value, e.g. with and without the
+   * stored time header.
+   */
+  private static final class DecodedView {
+
+    private volatile SoftReference<Object> reference;
+  }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.disk;
+
+import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.knotx.fragments.action.library.cache.stats.MeasurableCache;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCache;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCacheOptions;
+import io.reactivex.Maybe;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache persisted in memory-mapped {@link Segment} files, so cached entries survive restarts.
+ * Entries are appended to the newest segment, an in-memory index maps keys to records.
+ *
+ * <p>On startup a new segment is opened for writes and the existing segments are scanned in the
+ * background, newest first. The cache serves lookups and stores values immediately, entries from
+ * the previous run become available as soon as their segment is scanned. Maintenance, also run in
+ * the background after a segment is filled, removes expired segments, compacts segments with less
+ * than half of live data and removes the oldest segments when the files exceed the maximum size.
+ * Maintenance reads and copies sealed segments without locking and takes the write lock only to
+ * update the index, so lookups are not blocked by disk work. Records keep their write time, and
+ * on recovery the record written last wins.
+ */
+public final class DiskCache implements Cache, MeasurableCache {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(DiskCache.class);
+  private static final String LOCK_FILE = "cache.lock";
+  private static final double COMPACTION_THRESHOLD = 0.5d;
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<String, Location> index = new HashMap<>();
+  private final Deque<Segment> segments = new ArrayDeque<>();
+  private final AtomicBoolean maintenanceScheduled = new AtomicBoolean();
+  private final AtomicLong nextSegmentId = new AtomicLong();
+
+  private final Path directory;
+  private final int segmentSize;
+  private final long maximumSize;
+  private final long expireAfterWriteMs;
+  private final TinyLfuCache inMemoryTier;
+  private final Executor backgroundExecutor;
+  private final LongSupplier clock;
+  private final FileChannel lockChannel;
+
+  private volatile boolean recovered;
+  private volatile boolean closed;
+
+  /**
+   * @param backgroundExecutor runs recovery and maintenance, an {@link ExecutorService} is shut
+   * down when the cache is closed
+   */
+  public DiskCache(DiskCacheOptions options, Executor backgroundExecutor) {
+    this(options, backgroundExecutor, System::currentTimeMillis);
+  }
+
+  DiskCache(DiskCacheOptions options, Executor backgroundExecutor, LongSupplier clock) {
+    this.directory = Paths.get(options.getDirectory());
+    this.segmentSize = options.getSegmentSize();
+    this.maximumSize = options.getMaximumSize();
+    this.expireAfterWriteMs = options.getExpireAfterWriteMs();
+    this.inMemoryTier = options.getInMemoryMaximumWeight() > 0
+        ? new TinyLfuCache(new TinyLfuCacheOptions()
+        .setMaximumWeight(options.getInMemoryMaximumWeight())
+        .setExpireAfterWriteMs(options.getExpireAfterWriteMs()))
+        : null;
+    this.backgroundExecutor = backgroundExecutor;
+    this.clock = clock;
+    this.lockChannel = lockDirectory(directory);
+
+    List<Path> existing = listSegments(directory);
+    nextSegmentId.set(
+        existing.isEmpty() ? 0L : Segment.idOf(existing.get(existing.size() - 1)) + 1);
+    segments.add(Segment.create(directory, nextSegmentId.getAndIncrement(), segmentSize));
+    backgroundExecutor.execute(() -> recover(existing));
+  }
+
+  @Override
+  public Maybe<Object> get(String key) {
+    return Maybe.fromCallable(() -> lookup(key));
+  }
+
+  @Override
+  public void put(String key, Object value) {
+    EncodedPayload payload = EncodedPayload.encode(value);
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    int size = Segment.recordSize(keyBytes, payload.length());
+    long now = clock.getAsLong();
+    boolean rolled = false;
+    lock.writeLock().lock();
+    try {
+      if (size > segmentSize) {
+        remove(key);
+        return;
+      }
+      Segment active = segments.getLast();
+      int offset = active.append(keyBytes, payload, now);
+      if (offset < 0) {
+        active = roll();
+        offset = active.append(keyBytes, payload, now);
+        rolled = true;
+      }
+      replace(key, new Location(active, offset, size, now));
+      if (inMemoryTier != null) {
+        inMemoryTier.put(key, payload);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+    if (rolled) {
+      scheduleMaintenance();
+    }
+  }
+
+  /**
+   * Releases the cache directory, so another cache can use it. The cache must not be used
+   * afterwards. Written entries are not lost when the cache is not closed, e.g. when the process
+   * crashes.
+   */
+  public void close() {
+    closed = true;
+    if (backgroundExecutor instanceof ExecutorService) {
+      ((ExecutorService) backgroundExecutor).shutdown();
+    }
+    try {
+      lockChannel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * @return the number of cached entries, including expired ones not yet removed
+   */
+  @Override
+  public long estimatedSize() {
+    lock.readLock().lock();
+    try {
+      return index.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the size of all cache files in bytes
+   */
+  public long diskUsage() {
+    lock.readLock().lock();
+    try {
+      return segments.stream().mapToLong(Segment::capacity).sum();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private EncodedPayload lookup(String key) {
+    long now = clock.getAsLong();
+    Object inMemory = inMemoryTier != null ? inMemoryTier.getIfPresent(key) : null;
+    lock.readLock().lock();
+    try {
+      Location location = index.get(key);
+      if (location == null || isExpired(location.writeTime, now)) {
+        return null;
+      } else if (inMemory != null) {
+        return (EncodedPayload) inMemory;
+      }
+      EncodedPayload payload = EncodedPayload.wrap(location.segment.valueAt(location.offset));
+      if (inMemoryTier != null) {
+        // promoted under the read lock, so a concurrent put cannot be overwritten by stale bytes
+        inMemoryTier.put(key, payload);
+      }
+      return payload;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void recover(List<Path> files) {
+    try {
+      for (int i = files.size() - 1; i >= 0; i--) {
+        recoverSegment(files.get(i));
+      }
+    } finally {
+      recovered = true;
+    }
+    scheduleMaintenance();
+  }
+
+  private void recoverSegment(Path file) {
+    Segment segment;
+    Map<String, Location> records = new HashMap<>();
+    try {
+      segment = Segment.open(file);
+      segment.scan((key, offset, size, writeTime) -> records
+          .put(key, new Location(segment, offset, size, writeTime)));
+    } catch (RuntimeException e) {
+      LOGGER.warn("Cache file [{}] could not be read and is skipped", e, file);
+      return;
+    }
+    long now = clock.getAsLong();
+    lock.writeLock().lock();
+    try {
+      segments.addFirst(segment);
+      records.forEach((key, location) -> {
+        Location current = index.get(key);
+        if ((current == null || location.isNewerThan(current))
+            && !isExpired(location.writeTime, now)) {
+          replace(key, location);
+        }
+      });
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void scheduleMaintenance() {
+    if (!closed && maintenanceScheduled.compareAndSet(false, true)) {
+      try {
+        backgroundExecutor.execute(this::maintain);
+      } catch (RejectedExecutionException e) {
+        // closed in the meantime
+      }
+    }
+  }
+
+  private void maintain() {
+    maintenanceScheduled.set(false);
+    if (!recovered || closed) {
+      return;
+    }
+    long now = clock.getAsLong();
+    try {
+      for (SealedSegment sealed : sealedSegments()) {
+        if (expireAfterWriteMs > 0 && isExpired(sealed.lastWriteTime, now)) {
+          drop(sealed.segment);
+        } else if (sealed.liveBytes < sealed.segment.capacity() * COMPACTION_THRESHOLD) {
+          compact(sealed.segment, now);
+        }
+      }
+      Segment oldest;
+      while ((oldest = oldestOverMaximumSize()) != null) {
+        drop(oldest);
+      }
+    } catch (RuntimeException e) {
+      LOGGER.error("Cache maintenance of [{}] failed", e, directory);
+    }
+  }
+
+  private List<SealedSegment> sealedSegments() {
+    lock.readLock().lock();
+    try {
+      List<SealedSegment> sealed = new ArrayList<>(segments.size());
+      Iterator<Segment> iterator = segments.iterator();
+      while (iterator.hasNext()) {
+        Segment segment = iterator.next();
+        if (iterator.hasNext()) {
+          sealed.add(new SealedSegment(segment));
+        }
+      }
+      return sealed;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private Segment oldestOverMaximumSize() {
+    lock.readLock().lock();
+    try {
+      return segments.size() > 1 && footprint() > maximumSize ? segments.getFirst() : null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Copies the live records of a sealed segment to a new segment, without locking, and then
+   * points the index at the copies. Records replaced or removed in the meantime are not moved.
+   */
+  private void compact(Segment segment, long now) {
+    List<Record> records = records(segment);
+    List<Record> live = new ArrayList<>();
+    long liveSize = 0;
+    lock.readLock().lock();
+    try {
+      for (Record record : records) {
+        if (record.isIndexed(index) && !isExpired(record.writeTime, now)) {
+          live.add(record);
+          liveSize += record.size;
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (live.isEmpty()) {
+      drop(segment, records);
+      return;
+    }
+    Segment target = Segment.createCompacted(directory, segment, Math.toIntExact(liveSize));
+    Map<Record, Integer> copies = new HashMap<>(live.size() * 2);
+    live.forEach(record -> copies.put(record, target.copy(segment, record.offset)));
+
+    lock.writeLock().lock();
+    try {
+      for (Record record : records) {
+        if (record.isIndexed(index)) {
+          Integer offset = copies.get(record);
+          if (offset == null) {
+            remove(record.key);
+          } else {
+            replace(record.key, new Location(target, offset, record.size, record.writeTime));
+          }
+        }
+      }
+      segments.remove(segment);
+      // the oldest data goes first, the active segment stays last
+      segments.addFirst(target);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    segment.delete();
+  }
+
+  private void drop(Segment segment) {
+    drop(segment, records(segment));
+  }
+
+  private void drop(Segment segment, List<Record> records) {
+    lock.writeLock().lock();
+    try {
+      for (Record record : records) {
+        if (record.isIndexed(index)) {
+          remove(record.key);
+        }
+      }
+      segments.remove(segment);
+    } finally {
+      lock.writeLock().unlock();
+    }
+    segment.delete();
+  }
+
+  private static List<Record> records(Segment segment) {
+    List<Record> records = new ArrayList<>();
+    segment.forEachRecord((key, offset, size, writeTime) -> records
+        .add(new Record(segment, key, offset, size, writeTime)));
+    return records;
+  }
+
+  private Segment roll() {
+    Segment segment = Segment.create(directory, nextSegmentId.getAndIncrement(), segmentSize);
+    segments.addLast(segment);
+    return segment;
+  }
+
+  private void replace(String key, Location location) {
+    Location previous = index.put(key, location);
+    if (previous != null) {
+      previous.segment.addLiveBytes(-previous.size);
+    }
+    location.segment.addLiveBytes(location.size);
+  }
+
+  private void remove(String key) {
+    Location previous = index.remove(key);
+    if (previous != null) {
+      previous.segment.addLiveBytes(-previous.size);
+    }
+  }
+
+  private long footprint() {
+    return segments.stream().mapToLong(Segment::capacity).sum();
+  }
+
+  private boolean isExpired(long writeTime, long now) {
+    return expireAfterWriteMs > 0 && now - writeTime >= expireAfterWriteMs;
+  }
+
+  private static FileChannel lockDirectory(Path directory) {
+    try {
+      Files.createDirectories(directory);
+      FileChannel channel = FileChannel.open(directory.resolve(LOCK_FILE),
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      FileLock fileLock = null;
+      try {
+        fileLock = channel.tryLock();
+      } catch (OverlappingFileLockException e) {
+        // locked by another cache in this JVM
+      }
+      if (fileLock == null) {
+        channel.close();
+        throw new IllegalStateException(
+            "Cache directory [" + directory + "] is already used by another cache");
+      }
+      return channel;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static List<Path> listSegments(Path directory) {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> Segment.idOf(file) >= 0)
+          .sorted(Comparator.comparingLong(Segment::idOf).thenComparingInt(Segment::generationOf))
+          .collect(Collectors.toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static final class SealedSegment {
+
+    private final Segment segment;
+    private final long liveBytes;
+    private final long lastWriteTime;
+
+    private SealedSegment(Segment segment) {
+      this.segment = segment;
+      this.liveBytes = segment.getLiveBytes();
+      this.lastWriteTime = segment.getLastWriteTime();
+    }
+  }
+
+  private static final class Record {
+
+    private final Segment segment;
+    private final String key;
+    private final int offset;
+    private final int size;
+    private final long writeTime;
+
+    private Record(Segment segment, String key, int offset, int size, long writeTime) {
+      this.segment = segment;
+      this.key = key;
+      this.offset = offset;
+      this.size = size;
+      this.writeTime = writeTime;
+    }
+
+    /**
+     * @return whether the index still points to this record, must be called under a lock
+     */
+    private boolean isIndexed(Map<String, Location> index) {
+      Location location = index.get(key);
+      return location != null && location.segment == segment && location.offset == offset;
+    }
+  }
+
+  private static final class Location {
+
+    private final Segment segment;
+    private final int offset;
+    private final int size;
+    private final long writeTime;
+
+    private Location(Segment segment, int offset, int size, long writeTime) {
+      this.segment = segment;
+      this.offset = offset;
+      this.size = size;
+      this.writeTime = writeTime;
+    }
+
+    private boolean isNewerThan(Location other) {
+      // records written in the same millisecond are ordered by their segments, a compacted
+      // segment keeps the id of the segment it replaces
+      return writeTime > other.writeTime
+          || writeTime == other.writeTime && segment.getId() > other.segment.getId();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.disk;
+
+import io.knotx.commons.cache.Cache;
+import io.knotx.commons.cache.CacheFactory;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Creates {@link DiskCache} references. Cache actions configured with the same directory share a
+ * single cache, which is closed when the last of them is closed.
+ */
+public class DiskCacheFactory implements CacheFactory {
+
+  private static final String WORKER_THREAD_NAME = "knotx-disk-cache";
+
+  @Override
+  public String getType() {
+    return "disk";
+  }
+
+  @Override
+  public Cache create(JsonObject config, Vertx vertx) {
+    DiskCacheOptions options = new DiskCacheOptions(config);
+    validate(options);
+    return DiskCacheReference.acquire(options, cacheOptions -> {
+      // not a Vert.x worker, which would be closed with the verticle that happened to create it
+      ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, WORKER_THREAD_NAME);
+        thread.setDaemon(true);
+        return thread;
+      });
+      try {
+        return new DiskCache(cacheOptions, worker);
+      } catch (RuntimeException e) {
+        worker.shutdown();
+        throw e;
+      }
+    });
+  }
+
+  private void validate(DiskCacheOptions options) {
+    if (StringUtils.isBlank(options.getDirectory())) {
+      throw new IllegalArgumentException("Cache requires directory value in configuration");
+    }
+    if (options.getSegmentSize() <= Segment.HEADER_SIZE
+        || options.getMaximumSize() < options.getSegmentSize()) {
+      throw new IllegalArgumentException(String.format(
+          "Cache requires %d < segmentSize <= maximumSize, "
+              + "got segmentSize [%d] and maximumSize [%d]",
+          Segment.HEADER_SIZE, options.getSegmentSize(), options.getMaximumSize()));
+    }
+    if (options.getInMemoryMaximumWeight() < 0) {
+      throw new IllegalArgumentException(
+          "Cache inMemoryMaximumWeight must not be negative, got "
+              + options.getInMemoryMaximumWeight());
+    }
+  }
+}
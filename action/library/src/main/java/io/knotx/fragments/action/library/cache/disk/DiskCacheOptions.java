@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.disk;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Configures the <code>disk</code> cache: payloads are stored in memory-mapped append-only files
+ * that survive restarts, with an optional in-memory tier in front of them.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class DiskCacheOptions {
+
+  private static final long DEFAULT_MAXIMUM_SIZE = 1024L * 1024 * 1024;
+  private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+  private static final long DEFAULT_IN_MEMORY_MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+
+  private String directory;
+  private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+  private int segmentSize = DEFAULT_SEGMENT_SIZE;
+  private long expireAfterWriteMs;
+  private long inMemoryMaximumWeight = DEFAULT_IN_MEMORY_MAXIMUM_WEIGHT;
+
+  public DiskCacheOptions() {
+    //empty default constructor
+  }
+
+  public DiskCacheOptions(DiskCacheOptions other) {
+    this.directory = other.directory;
+    this.maximumSize = other.maximumSize;
+    this.segmentSize = other.segmentSize;
+    this.expireAfterWriteMs = other.expireAfterWriteMs;
+    this.inMemoryMaximumWeight = other.inMemoryMaximumWeight;
+  }
+
+  public DiskCacheOptions(JsonObject json) {
+    this();
+    DiskCacheOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    DiskCacheOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Sets the directory keeping the cache files. It is created when it does not exist. A
+   * directory can be used by a single cache only. This option is required.
+   *
+   * @param directory cache directory path
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DiskCacheOptions setDirectory(String directory) {
+    this.directory = directory;
+    return this;
+  }
+
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Sets the maximum size in bytes of all cache files. When it is exceeded, the oldest file is
+   * removed with all its entries. Defaults to 1 GiB.
+   *
+   * @param maximumSize maximum disk footprint in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DiskCacheOptions setMaximumSize(long maximumSize) {
+    this.maximumSize = maximumSize;
+    return this;
+  }
+
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  /**
+   * Sets the size in bytes of a single cache file. It limits the size of a single entry.
+   * Defaults to 64 MiB.
+   *
+   * @param segmentSize cache file size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DiskCacheOptions setSegmentSize(int segmentSize) {
+    this.segmentSize = segmentSize;
+    return this;
+  }
+
+  public long getExpireAfterWriteMs() {
+    return expireAfterWriteMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which an entry expires once it was stored. The write time
+   * is persisted, so entries expire across restarts too. When not set (or lower than 1) entries
+   * do not expire.
+   *
+   * @param expireAfterWriteMs expiration time after write in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DiskCacheOptions setExpireAfterWriteMs(long expireAfterWriteMs) {
+    this.expireAfterWriteMs = expireAfterWriteMs;
+    return this;
+  }
+
+  public long getInMemoryMaximumWeight() {
+    return inMemoryMaximumWeight;
+  }
+
+  /**
+   * Sets the maximum size in bytes of the in-memory tier (L1) keeping the entries read most often,
+   * so they are not read from the cache files on every hit. Setting zero disables the in-memory
+   * tier. Defaults to 16 MiB.
+   *
+   * @param inMemoryMaximumWeight in-memory tier size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DiskCacheOptions setInMemoryMaximumWeight(long inMemoryMaximumWeight) {
+    this.inMemoryMaximumWeight = inMemoryMaximumWeight;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    DiskCacheOptions that = (DiskCacheOptions) o;
+    return maximumSize == that.maximumSize
+        && segmentSize == that.segmentSize
+        && expireAfterWriteMs == that.expireAfterWriteMs
+        && inMemoryMaximumWeight == that.inMemoryMaximumWeight
+        && Objects.equals(directory, that.directory);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects
+        .hash(directory, maximumSize, segmentSize, expireAfterWriteMs, inMemoryMaximumWeight);
+  }
+
+  @Override
+  public String toString() {
+    return "DiskCacheOptions{" +
+        "directory='" + directory + '\'' +
+        ", maximumSize=" + maximumSize +
+        ", segmentSize=" + segmentSize +
+        ", expireAfterWriteMs=" + expireAfterWriteMs +
+        ", inMemoryMaximumWeight=" + inMemoryMaximumWeight +
+        '}';
+  }
+}
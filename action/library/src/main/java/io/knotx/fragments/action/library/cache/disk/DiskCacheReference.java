@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.disk;
+
+import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.stats.MeasurableCache;
+import io.reactivex.Maybe;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A reference to a {@link DiskCache} shared by all cache actions configured with the same
+ * directory, e.g. the cache actions of every server verticle instance. A directory can be locked
+ * by a single {@link DiskCache} only, so the cache is opened by the first reference and closed,
+ * releasing the directory, when the last reference is closed.
+ */
+final class DiskCacheReference implements Cache, MeasurableCache, AutoCloseable {
+
+  private static final Map<Path, SharedEntry> CACHES = new HashMap<>();
+
+  private final Path directory;
+  private final DiskCache cache;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private DiskCacheReference(Path directory, DiskCache cache) {
+    this.directory = directory;
+    this.cache = cache;
+  }
+
+  /**
+   * Returns a reference to the cache of the directory, opening the cache when it is not open yet.
+   *
+   * @param options cache options, must be equal to the options of the open cache
+   * @param factory opens the cache
+   * @return a reference that has to be closed when the cache is no longer used
+   */
+  static DiskCacheReference acquire(DiskCacheOptions options,
+      Function<DiskCacheOptions, DiskCache> factory) {
+    Path directory = Paths.get(options.getDirectory()).toAbsolutePath().normalize();
+    synchronized (CACHES) {
+      SharedEntry entry = CACHES.get(directory);
+      if (entry == null) {
+        entry = new SharedEntry(options, factory.apply(options));
+        CACHES.put(directory, entry);
+      } else if (!entry.options.equals(options)) {
+        throw new IllegalArgumentException("Cache directory [" + directory
+            + "] is already used by a cache with different options " + entry.options.toJson());
+      }
+      entry.references++;
+      return new DiskCacheReference(directory, entry.cache);
+    }
+  }
+
+  @Override
+  public Maybe<Object> get(String key) {
+    return cache.get(key);
+  }
+
+  @Override
+  public void put(String key, Object value) {
+    cache.put(key, value);
+  }
+
+  @Override
+  public long estimatedSize() {
+    return cache.estimatedSize();
+  }
+
+  /**
+   * Releases the reference, closing the cache when it is the last one.
+   */
+  @Override
+  public void close() {
+    if (!closed.compareAndSet(false, true)) {
+      return;
+    }
+    synchronized (CACHES) {
+      SharedEntry entry = CACHES.get(directory);
+      if (entry != null && entry.cache == cache && --entry.references == 0) {
+        CACHES.remove(directory);
+        cache.close();
+      }
+    }
+  }
+
+  /**
+   * References to one cache are equal, so cache statistics count the shared cache once.
+   */
+  @Override
+  public boolean equals(Object o) {
+    return o instanceof DiskCacheReference && ((DiskCacheReference) o).cache == cache;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(cache);
+  }
+
+  DiskCache getCache() {
+    return cache;
+  }
+
+  private static final class SharedEntry {
+
+    private final DiskCacheOptions options;
+    private final DiskCache cache;
+    private int references;
+
+    private SharedEntry(DiskCacheOptions options, DiskCache cache) {
+      this.options = new DiskCacheOptions(options.toJson());
+      this.cache = cache;
+    }
+  }
+}
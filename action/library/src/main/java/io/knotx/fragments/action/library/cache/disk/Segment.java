@@ -0,0 +1,281 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.disk;
+
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log file mapped to memory. Each record has a header with a magic number, a CRC32
+ * checksum, the write time and the key and value lengths, followed by the UTF-8 key and the encoded
+ * value. The magic number is written last, and a record with a wrong magic number or checksum ends
+ * the log, so a record torn by a crash is never read. Not thread-safe.
+ */
+final class Segment {
+
+  static final int HEADER_SIZE = 24;
+
+  private static final int MAGIC = 0x4B4E5843;
+  private static final int CRC_OFFSET = 4;
+  private static final int WRITE_TIME_OFFSET = 8;
+  private static final int KEY_LENGTH_OFFSET = 16;
+  private static final int VALUE_LENGTH_OFFSET = 20;
+  private static final Pattern FILE_NAME = Pattern.compile("segment-(\\d{20})(?:-(\\d+))?\\.log");
+
+  private final long id;
+  private final int generation;
+  private final Path file;
+  private final MappedByteBuffer buffer;
+  private int writeOffset;
+  private long liveBytes;
+  private long lastWriteTime;
+
+  private Segment(long id, int generation, Path file, MappedByteBuffer buffer) {
+    this.id = id;
+    this.generation = generation;
+    this.file = file;
+    this.buffer = buffer;
+  }
+
+  static Segment create(Path directory, long id, int size) {
+    return map(id, 0, directory.resolve(String.format("segment-%020d.log", id)), size);
+  }
+
+  /**
+   * Creates a segment that replaces the given one after compaction. It keeps the id of the
+   * compacted segment, so records keep their order against other segments.
+   */
+  static Segment createCompacted(Path directory, Segment compacted, int size) {
+    int generation = compacted.generation + 1;
+    return map(compacted.id, generation, directory
+        .resolve(String.format("segment-%020d-%d.log", compacted.id, generation)), size);
+  }
+
+  static Segment open(Path file) {
+    return map(idOf(file), generationOf(file), file, -1);
+  }
+
+  /**
+   * @param file file in the cache directory
+   * @return segment id or -1 when the file is not a segment
+   */
+  static long idOf(Path file) {
+    Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+    return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1L;
+  }
+
+  /**
+   * @param file segment file in the cache directory
+   * @return number of compactions of the segment
+   */
+  static int generationOf(Path file) {
+    Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+    return matcher.matches() && matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+  }
+
+  static int recordSize(byte[] key, int valueLength) {
+    return HEADER_SIZE + key.length + valueLength;
+  }
+
+  /**
+   * Appends a record.
+   *
+   * @return record offset or -1 when the record does not fit in the segment
+   */
+  int append(byte[] key, EncodedPayload value, long writeTime) {
+    int size = recordSize(key, value.length());
+    if (writeOffset + size > buffer.capacity()) {
+      return -1;
+    }
+    int offset = writeOffset;
+    ByteBuffer record = buffer.duplicate();
+    record.position(offset + HEADER_SIZE);
+    record.put(key);
+    value.writeTo(record);
+    writeHeader(offset, writeTime, key.length, value.length());
+    writeOffset += size;
+    lastWriteTime = Math.max(lastWriteTime, writeTime);
+    return offset;
+  }
+
+  /**
+   * Copies a valid record of another segment to this one.
+   *
+   * @return record offset or -1 when the record does not fit in the segment
+   */
+  int copy(Segment source, int sourceOffset) {
+    int size = source.recordSizeAt(sourceOffset);
+    if (writeOffset + size > buffer.capacity()) {
+      return -1;
+    }
+    byte[] record = new byte[size];
+    ByteBuffer view = source.buffer.duplicate();
+    view.position(sourceOffset);
+    view.get(record);
+    // the magic number goes last, as in append
+    int offset = writeOffset;
+    ByteBuffer target = buffer.duplicate();
+    target.position(offset + CRC_OFFSET);
+    target.put(record, CRC_OFFSET, size - CRC_OFFSET);
+    buffer.putInt(offset, MAGIC);
+    writeOffset += size;
+    lastWriteTime = Math.max(lastWriteTime, source.writeTimeAt(sourceOffset));
+    return offset;
+  }
+
+  /**
+   * Reads valid records from the beginning of the segment, until the first missing or corrupted
+   * one. Sets the write position after the last valid record.
+   */
+  void scan(RecordVisitor visitor) {
+    writeOffset = forEachRecord((key, offset, size, writeTime) -> {
+      visitor.visit(key, offset, size, writeTime);
+      lastWriteTime = Math.max(lastWriteTime, writeTime);
+    });
+  }
+
+  /**
+   * Reads valid records like {@link #scan(RecordVisitor)}, without changing the segment, so a
+   * sealed segment can be read concurrently with lookups.
+   *
+   * @return the offset after the last valid record
+   */
+  int forEachRecord(RecordVisitor visitor) {
+    int offset = 0;
+    while (isValidRecord(offset)) {
+      int size = recordSizeAt(offset);
+      visitor.visit(keyAt(offset), offset, size, writeTimeAt(offset));
+      offset += size;
+    }
+    return offset;
+  }
+
+  byte[] valueAt(int offset) {
+    byte[] value = new byte[buffer.getInt(offset + VALUE_LENGTH_OFFSET)];
+    ByteBuffer view = buffer.duplicate();
+    view.position(offset + HEADER_SIZE + buffer.getInt(offset + KEY_LENGTH_OFFSET));
+    view.get(value);
+    return value;
+  }
+
+  String keyAt(int offset) {
+    byte[] key = new byte[buffer.getInt(offset + KEY_LENGTH_OFFSET)];
+    ByteBuffer view = buffer.duplicate();
+    view.position(offset + HEADER_SIZE);
+    view.get(key);
+    return new String(key, StandardCharsets.UTF_8);
+  }
+
+  long writeTimeAt(int offset) {
+    return buffer.getLong(offset + WRITE_TIME_OFFSET);
+  }
+
+  int recordSizeAt(int offset) {
+    return HEADER_SIZE + buffer.getInt(offset + KEY_LENGTH_OFFSET)
+        + buffer.getInt(offset + VALUE_LENGTH_OFFSET);
+  }
+
+  void delete() {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  long getId() {
+    return id;
+  }
+
+  int getGeneration() {
+    return generation;
+  }
+
+  int capacity() {
+    return buffer.capacity();
+  }
+
+  long getLiveBytes() {
+    return liveBytes;
+  }
+
+  void addLiveBytes(long delta) {
+    liveBytes += delta;
+  }
+
+  long getLastWriteTime() {
+    return lastWriteTime;
+  }
+
+  private void writeHeader(int offset, long writeTime, int keyLength, int valueLength) {
+    buffer.putLong(offset + WRITE_TIME_OFFSET, writeTime);
+    buffer.putInt(offset + KEY_LENGTH_OFFSET, keyLength);
+    buffer.putInt(offset + VALUE_LENGTH_OFFSET, valueLength);
+    buffer.putInt(offset + CRC_OFFSET, checksum(offset, HEADER_SIZE + keyLength + valueLength));
+    buffer.putInt(offset, MAGIC);
+  }
+
+  private boolean isValidRecord(int offset) {
+    if (offset + HEADER_SIZE > buffer.capacity() || buffer.getInt(offset) != MAGIC) {
+      return false;
+    }
+    int keyLength = buffer.getInt(offset + KEY_LENGTH_OFFSET);
+    int valueLength = buffer.getInt(offset + VALUE_LENGTH_OFFSET);
+    if (keyLength < 0 || valueLength < 0
+        || (long) offset + HEADER_SIZE + keyLength + valueLength > buffer.capacity()) {
+      return false;
+    }
+    int size = HEADER_SIZE + keyLength + valueLength;
+    return buffer.getInt(offset + CRC_OFFSET) == checksum(offset, size);
+  }
+
+  private int checksum(int offset, int size) {
+    ByteBuffer view = buffer.duplicate();
+    view.position(offset + WRITE_TIME_OFFSET);
+    view.limit(offset + size);
+    CRC32 crc = new CRC32();
+    crc.update(view);
+    return (int) crc.getValue();
+  }
+
+  private static Segment map(long id, int generation, Path file, int size) {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long length = size < 0 ? channel.size() : size;
+      return new Segment(id, generation, file, channel.map(MapMode.READ_WRITE, 0, length));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @FunctionalInterface
+  interface RecordVisitor {
+
+    void visit(String key, int offset, int size, long writeTime);
+  }
+}
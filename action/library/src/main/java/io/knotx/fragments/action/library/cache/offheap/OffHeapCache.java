@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.offheap;
+
+import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.knotx.fragments.action.library.cache.stats.MeasurableCache;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCache;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCacheOptions;
+import io.reactivex.Maybe;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache keeping payloads outside of the heap. Values are encoded when stored, lookups return
+ * {@link EncodedPayload} instances that are decoded only when put into the fragment's payload.
+ * Payloads read most often are additionally kept on the heap in a small W-TinyLFU hot set.
+ */
+public final class OffHeapCache implements Cache, MeasurableCache {
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final SlabArena arena;
+  private final TinyLfuCache hotSet;
+  private final LongSupplier clock;
+
+  public OffHeapCache(OffHeapCacheOptions options) {
+    this(options, System::nanoTime);
+  }
+
+  OffHeapCache(OffHeapCacheOptions options, LongSupplier clock) {
+    this.arena = new SlabArena(options.getCapacity(), options.getSlabSize(),
+        options.getExpireAfterWriteMs() > 0
+            ? TimeUnit.MILLISECONDS.toNanos(options.getExpireAfterWriteMs())
+            : 0L);
+    this.hotSet = options.getHotSetMaximumWeight() > 0
+        ? new TinyLfuCache(new TinyLfuCacheOptions()
+        .setMaximumWeight(options.getHotSetMaximumWeight())
+        .setExpireAfterWriteMs(options.getExpireAfterWriteMs()))
+        : null;
+    this.clock = clock;
+  }
+
+  @Override
+  public Maybe<Object> get(String key) {
+    return Maybe.fromCallable(() -> lookup(key));
+  }
+
+  @Override
+  public void put(String key, Object value) {
+    EncodedPayload payload = EncodedPayload.encode(value);
+    long now = clock.getAsLong();
+    lock.writeLock().lock();
+    try {
+      boolean stored = arena.put(key, payload, now);
+      if (hotSet != null && stored) {
+        hotSet.put(key, payload);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * @return the number of cached entries, including expired ones not yet evicted
+   */
+  @Override
+  public long estimatedSize() {
+    lock.readLock().lock();
+    try {
+      return arena.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * @return the off-heap memory allocated for slabs in bytes
+   */
+  public long allocatedBytes() {
+    lock.readLock().lock();
+    try {
+      return arena.allocatedBytes();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private EncodedPayload lookup(String key) {
+    long now = clock.getAsLong();
+    Object hot = hotSet != null ? hotSet.getIfPresent(key) : null;
+    lock.readLock().lock();
+    try {
+      if (hot != null && arena.contains(key, now)) {
+        return (EncodedPayload) hot;
+      }
+      byte[] bytes = arena.get(key, now);
+      if (bytes == null) {
+        return null;
+      }
+      EncodedPayload payload = EncodedPayload.wrap(bytes);
+      if (hotSet != null) {
+        // promoted under the read lock, so a concurrent put cannot be overwritten by stale bytes
+        hotSet.put(key, payload);
+      }
+      return payload;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.offheap;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Configures the <code>off-heap</code> cache: payloads are stored in a compact binary encoding in
+ * direct memory slabs, with an optional on-heap hot set in front of them.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class OffHeapCacheOptions {
+
+  private static final long DEFAULT_CAPACITY = 256L * 1024 * 1024;
+  private static final int DEFAULT_SLAB_SIZE = 4 * 1024 * 1024;
+  private static final long DEFAULT_HOT_SET_MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+
+  private long capacity = DEFAULT_CAPACITY;
+  private int slabSize = DEFAULT_SLAB_SIZE;
+  private long hotSetMaximumWeight = DEFAULT_HOT_SET_MAXIMUM_WEIGHT;
+  private long expireAfterWriteMs;
+
+  public OffHeapCacheOptions() {
+    //empty default constructor
+  }
+
+  public OffHeapCacheOptions(OffHeapCacheOptions other) {
+    this.capacity = other.capacity;
+    this.slabSize = other.slabSize;
+    this.hotSetMaximumWeight = other.hotSetMaximumWeight;
+    this.expireAfterWriteMs = other.expireAfterWriteMs;
+  }
+
+  public OffHeapCacheOptions(JsonObject json) {
+    this();
+    OffHeapCacheOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    OffHeapCacheOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Sets the off-heap memory in bytes reserved for cached payloads. Slabs are allocated on demand
+   * up to this capacity, so it must fit in the JVM <code>-XX:MaxDirectMemorySize</code> limit.
+   * Defaults to 256 MiB.
+   *
+   * @param capacity off-heap capacity in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OffHeapCacheOptions setCapacity(long capacity) {
+    this.capacity = capacity;
+    return this;
+  }
+
+  public int getSlabSize() {
+    return slabSize;
+  }
+
+  /**
+   * Sets the size in bytes of a single off-heap slab. It limits the size of a single encoded
+   * payload and is the unit of eviction. Defaults to 4 MiB.
+   *
+   * @param slabSize slab size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OffHeapCacheOptions setSlabSize(int slabSize) {
+    this.slabSize = slabSize;
+    return this;
+  }
+
+  public long getHotSetMaximumWeight() {
+    return hotSetMaximumWeight;
+  }
+
+  /**
+   * Sets the maximum size in bytes of the on-heap hot set keeping the encoded payloads read most
+   * often, so they are not copied from off-heap memory on every hit. Setting zero disables the hot
+   * set. Defaults to 16 MiB.
+   *
+   * @param hotSetMaximumWeight hot set size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OffHeapCacheOptions setHotSetMaximumWeight(long hotSetMaximumWeight) {
+    this.hotSetMaximumWeight = hotSetMaximumWeight;
+    return this;
+  }
+
+  public long getExpireAfterWriteMs() {
+    return expireAfterWriteMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which an entry expires once it was stored. When not set
+   * (or lower than 1) entries do not expire.
+   *
+   * @param expireAfterWriteMs expiration time after write in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public OffHeapCacheOptions setExpireAfterWriteMs(long expireAfterWriteMs) {
+    this.expireAfterWriteMs = expireAfterWriteMs;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    OffHeapCacheOptions that = (OffHeapCacheOptions) o;
+    return capacity == that.capacity
+        && slabSize == that.slabSize
+        && hotSetMaximumWeight == that.hotSetMaximumWeight
+        && expireAfterWriteMs == that.expireAfterWriteMs;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(capacity, slabSize, hotSetMaximumWeight, expireAfterWriteMs);
+  }
+
+  @Override
+  public String toString() {
+    return "OffHeapCacheOptions{" +
+        "capacity=" + capacity +
+        ", slabSize=" + slabSize +
+        ", hotSetMaximumWeight=" + hotSetMaximumWeight +
+        ", expireAfterWriteMs=" + expireAfterWriteMs +
+        '}';
+  }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.offheap;
+
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stores encoded payloads in fixed size direct {@link ByteBuffer} slabs, allocated on first use.
+ * Payloads are appended to the current slab. When it is full, the next slab is recycled: entries
+ * read since the slab was last recycled get a second chance and are compacted to the beginning of
+ * the slab, all other entries are evicted. Only the key index stays on the heap. Not thread-safe.
+ */
+final class SlabArena {
+
+  private final int slabSize;
+  private final long expireAfterWriteNanos;
+  private final ByteBuffer[] slabs;
+  private final List<List<Entry>> slabEntries;
+  private final Map<String, Entry> index = new HashMap<>();
+
+  private int currentSlab;
+  private int writeOffset;
+
+  SlabArena(long capacity, int slabSize, long expireAfterWriteNanos) {
+    this.slabSize = slabSize;
+    this.expireAfterWriteNanos = expireAfterWriteNanos;
+    int slabCount = (int) Math.max(1L, Math.min(capacity / slabSize, Integer.MAX_VALUE));
+    this.slabs = new ByteBuffer[slabCount];
+    this.slabEntries = new ArrayList<>(slabCount);
+    for (int i = 0; i < slabCount; i++) {
+      slabEntries.add(new ArrayList<>());
+    }
+  }
+
+  boolean put(String key, EncodedPayload payload, long now) {
+    index.remove(key);
+    int length = payload.length();
+    if (length > slabSize) {
+      return false;
+    }
+    if (writeOffset + length > slabSize) {
+      advance(length, now);
+    }
+    ByteBuffer view = slab(currentSlab).duplicate();
+    view.position(writeOffset);
+    payload.writeTo(view);
+
+    Entry entry = new Entry(key, currentSlab, writeOffset, length, now);
+    writeOffset += length;
+    slabEntries.get(currentSlab).add(entry);
+    index.put(key, entry);
+    return true;
+  }
+
+  byte[] get(String key, long now) {
+    Entry entry = find(key, now);
+    if (entry == null) {
+      return null;
+    }
+    byte[] bytes = new byte[entry.length];
+    ByteBuffer view = slabs[entry.slab].duplicate();
+    view.position(entry.offset);
+    view.get(bytes);
+    return bytes;
+  }
+
+  boolean contains(String key, long now) {
+    return find(key, now) != null;
+  }
+
+  int size() {
+    return index.size();
+  }
+
+  long allocatedBytes() {
+    long allocated = 0L;
+    for (ByteBuffer slab : slabs) {
+      if (slab != null) {
+        allocated += slab.capacity();
+      }
+    }
+    return allocated;
+  }
+
+  private Entry find(String key, long now) {
+    Entry entry = index.get(key);
+    if (entry == null || isExpired(entry, now)) {
+      return null;
+    }
+    entry.referenced = true;
+    return entry;
+  }
+
+  private void advance(int length, long now) {
+    for (int recycled = 1; ; recycled++) {
+      currentSlab = (currentSlab + 1) % slabs.length;
+      recycle(currentSlab, now, recycled < slabs.length);
+      if (writeOffset + length <= slabSize) {
+        return;
+      }
+    }
+  }
+
+  private void recycle(int slab, long now, boolean retainReferenced) {
+    List<Entry> entries = slabEntries.get(slab);
+    List<Entry> retained = new ArrayList<>();
+    writeOffset = 0;
+    for (Entry entry : entries) {
+      if (index.get(entry.key) != entry) {
+        continue;
+      }
+      if (retainReferenced && entry.referenced && !isExpired(entry, now)) {
+        move(entry, slab, writeOffset);
+        entry.referenced = false;
+        writeOffset += entry.length;
+        retained.add(entry);
+      } else {
+        index.remove(entry.key);
+      }
+    }
+    entries.clear();
+    entries.addAll(retained);
+  }
+
+  private void move(Entry entry, int slab, int offset) {
+    if (entry.offset == offset) {
+      return;
+    }
+    byte[] bytes = new byte[entry.length];
+    ByteBuffer source = slabs[slab].duplicate();
+    source.position(entry.offset);
+    source.get(bytes);
+    ByteBuffer target = slabs[slab].duplicate();
+    target.position(offset);
+    target.put(bytes);
+    entry.offset = offset;
+  }
+
+  private ByteBuffer slab(int slab) {
+    if (slabs[slab] == null) {
+      slabs[slab] = ByteBuffer.allocateDirect(slabSize);
+    }
+    return slabs[slab];
+  }
+
+  private boolean isExpired(Entry entry, long now) {
+    return expireAfterWriteNanos > 0 && now - entry.writeTime >= expireAfterWriteNanos;
+  }
+
+  private static final class Entry {
+
+    private final String key;
+    private final int slab;
+    private final int length;
+    private final long writeTime;
+    private int offset;
+    private volatile boolean referenced;
+
+    private Entry(String key, int slab, int offset, int length, long writeTime) {
+      this.key = key;
+      this.slab = slab;
+      this.offset = offset;
+      this.length = length;
+      this.writeTime = writeTime;
+    }
+  }
+}
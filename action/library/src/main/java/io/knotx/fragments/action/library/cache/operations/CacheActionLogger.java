@@ -18,6 +18,8 @@ package io.knotx.fragments.action.library.cache.operations;
 import io.knotx.fragments.action.api.invoker.ActionInvocation;
 import io.knotx.fragments.action.api.log.ActionLogLevel;
 import io.knotx.fragments.action.api.log.ActionLogger;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.knotx.fragments.action.library.cache.stats.CacheStats;
 import io.vertx.core.json.JsonObject;
 
 public class CacheActionLogger {
@@ -25,26 +27,45 @@ public class CacheActionLogger {
   public static final String CACHE_KEY = "cache_key";
   public static final String CACHED_VALUE = "cached_value";
   public static final String COMPUTED_VALUE = "computed_value";
+  public static final String TRANSITION = "transition";
   public static final String CACHE_MISS = "cache_miss";
   public static final String CACHE_HIT = "cache_hit";
   public static final String CACHE_PASS = "cache_pass";
+  public static final String CACHE_STALE_HIT = "cache_stale_hit";
+  public static final String CACHE_REFRESH = "cache_refresh";
+  public static final String CACHE_COALESCED = "cache_coalesced";
+  public static final String CACHE_COALESCING_TIMEOUT = "cache_coalescing_timeout";
+  public static final String CACHE_NEGATIVE_HIT = "cache_negative_hit";
 
   private final ActionLogger actionLogger;
+  private final CacheStats stats;
   private String key;
 
   public static CacheActionLogger create(String alias, ActionLogLevel logLevel) {
     return new CacheActionLogger(ActionLogger.create(alias, logLevel));
   }
 
+  public static CacheActionLogger create(String alias, ActionLogLevel logLevel,
+      CacheStats stats) {
+    return new CacheActionLogger(ActionLogger.create(alias, logLevel), stats);
+  }
+
   CacheActionLogger(ActionLogger actionLogger) {
+    this(actionLogger, new CacheStats(null, 0));
+  }
+
+  CacheActionLogger(ActionLogger actionLogger, CacheStats stats) {
     this.actionLogger = actionLogger;
+    this.stats = stats;
   }
 
   void onLookup(String key) {
     this.key = key;
+    stats.recordLookup(key);
   }
 
   public void onInvocationFinish(ActionInvocation invocation) {
+    stats.recordLoad(invocation);
     if (isSuccess(invocation)) {
       actionLogger.info(invocation);
     } else {
@@ -57,23 +78,76 @@ public class CacheActionLogger {
   }
 
   void onHit(Object cachedValue) {
-    actionLogger.info(CACHE_HIT, new JsonObject()
+    stats.recordHit();
+    infoWithValue(CACHE_HIT, CACHED_VALUE, cachedValue);
+  }
+
+  void onStaleHit(Object cachedValue) {
+    stats.recordStaleHit();
+    infoWithValue(CACHE_STALE_HIT, CACHED_VALUE, cachedValue);
+  }
+
+  void onNegativeHit(String transition) {
+    stats.recordNegativeHit();
+    actionLogger.info(CACHE_NEGATIVE_HIT, new JsonObject()
+        .put(CACHE_KEY, key)
+        .put(TRANSITION, transition));
+  }
+
+  public void onRefresh() {
+    stats.recordRefresh();
+    actionLogger.info(CACHE_REFRESH, new JsonObject()
+        .put(CACHE_KEY, key));
+  }
+
+  public void onCoalesced(Object computedValue) {
+    stats.recordCoalesced();
+    infoWithValue(CACHE_COALESCED, COMPUTED_VALUE, computedValue);
+  }
+
+  public void onCoalescedWithoutValue(String transition) {
+    stats.recordCoalesced();
+    actionLogger.info(CACHE_COALESCED, new JsonObject()
         .put(CACHE_KEY, key)
-        .put(CACHED_VALUE, cachedValue));
+        .put(TRANSITION, transition));
+  }
+
+  public void onCoalescingTimeout() {
+    stats.recordCoalescingTimeout();
+    actionLogger.info(CACHE_COALESCING_TIMEOUT, new JsonObject()
+        .put(CACHE_KEY, key));
   }
 
   void onMiss(Object computedValue) {
+    stats.recordMiss();
     actionLogger.info(CACHE_MISS, new JsonObject()
         .put(CACHE_KEY, key)
         .put(COMPUTED_VALUE, computedValue));
   }
 
   void onPass() {
+    stats.recordPass();
     actionLogger.error(CACHE_PASS, new JsonObject()
         .put(CACHE_KEY, key));
   }
 
+  private void infoWithValue(String event, String valueKey, Object value) {
+    if (value instanceof EncodedPayload) {
+      actionLogger.info(event, (EncodedPayload) value,
+          encoded -> valueLog(valueKey, encoded.view()));
+    } else {
+      actionLogger.info(event, valueLog(valueKey, value));
+    }
+  }
+
+  private JsonObject valueLog(String valueKey, Object value) {
+    return new JsonObject()
+        .put(CACHE_KEY, key)
+        .put(valueKey, value);
+  }
+
   public void onError(Throwable error) {
+    stats.recordError();
     actionLogger.error(error);
   }
 
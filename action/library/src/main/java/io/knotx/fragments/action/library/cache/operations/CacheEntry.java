@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.operations;
+
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+
+/**
+ * A cached payload value with the time it was stored. It is kept in caches as an {@link
+ * EncodedPayload} with the stored time header, so every cache type can store it and a payload
+ * value is never mistaken for an entry.
+ */
+final class CacheEntry {
+
+  private final Object value;
+  private final long storedAt;
+
+  private CacheEntry(Object value, long storedAt) {
+    this.value = value;
+    this.storedAt = storedAt;
+  }
+
+  static EncodedPayload wrap(Object value, long storedAt) {
+    return EncodedPayload.encode(value).withStoredAt(storedAt);
+  }
+
+  /**
+   * @param cached value returned by a cache
+   * @return the entry, with a negative timestamp when the value was stored without one
+   */
+  static CacheEntry unwrap(Object cached) {
+    if (cached instanceof EncodedPayload) {
+      EncodedPayload payload = (EncodedPayload) cached;
+      return new CacheEntry(payload.withoutStoredAt(), payload.getStoredAt());
+    }
+    return new CacheEntry(cached, -1L);
+  }
+
+  Object getValue() {
+    return value;
+  }
+
+  long getStoredAt() {
+    return storedAt;
+  }
+}
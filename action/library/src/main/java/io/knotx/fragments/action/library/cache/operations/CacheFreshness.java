@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.operations;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether a cached value can be served, based on its age:
+ * <ul>
+ *   <li>younger than the refresh-ahead point - served as it is,</li>
+ *   <li>younger than the soft TTL - served and refreshed in the background,</li>
+ *   <li>younger than the hard TTL - served as stale and refreshed in the background,</li>
+ *   <li>older - not served, callers wait for a new value.</li>
+ * </ul>
+ * Values stored without a timestamp are always served as they are.
+ */
+public class CacheFreshness {
+
+  public static final CacheFreshness DISABLED = new CacheFreshness(0L, 0L, 0L);
+
+  public enum State {
+    FRESH, REFRESH_AHEAD, STALE, EXPIRED
+  }
+
+  private final long softTtlMs;
+  private final long hardTtlMs;
+  private final long refreshAheadMs;
+  private final LongSupplier clock;
+
+  public CacheFreshness(long softTtlMs, long hardTtlMs, long refreshAheadMs) {
+    this(softTtlMs, hardTtlMs, refreshAheadMs, System::currentTimeMillis);
+  }
+
+  CacheFreshness(long softTtlMs, long hardTtlMs, long refreshAheadMs, LongSupplier clock) {
+    this.softTtlMs = softTtlMs;
+    this.hardTtlMs = hardTtlMs;
+    this.refreshAheadMs = refreshAheadMs;
+    this.clock = clock;
+  }
+
+  /**
+   * @return true when cached values are stored with a timestamp
+   */
+  public boolean isEnabled() {
+    return softTtlMs > 0 || hardTtlMs > 0;
+  }
+
+  long now() {
+    return clock.getAsLong();
+  }
+
+  State stateOf(long storedAt) {
+    if (storedAt < 0) {
+      return State.FRESH;
+    }
+    long age = now() - storedAt;
+    if (hardTtlMs > 0 && age >= hardTtlMs) {
+      return State.EXPIRED;
+    } else if (softTtlMs > 0 && age >= softTtlMs) {
+      return State.STALE;
+    } else if (refreshAheadMs > 0 && age >= refreshDeadline() - refreshAheadMs) {
+      return State.REFRESH_AHEAD;
+    }
+    return State.FRESH;
+  }
+
+  private long refreshDeadline() {
+    return softTtlMs > 0 ? softTtlMs : hardTtlMs;
+  }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.operations;
+
+import static io.knotx.fragments.action.library.helper.FragmentPlaceholders.PLACEHOLDER_PREFIX_CONFIG;
+import static io.knotx.fragments.action.library.helper.FragmentPlaceholders.PLACEHOLDER_PREFIX_PAYLOAD;
+import static io.knotx.fragments.action.library.helper.FragmentPlaceholders.buildSourceDefinitions;
+
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.server.common.placeholders.PlaceholdersResolver;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A cache key schema split into literals and placeholders once, when the action is created.
+ * Resolving a key reads only the sources the schema refers to. Hashed keys are Base64 encoded
+ * SHA-256 digests of the resolved keys, so they always have 43 characters.
+ */
+public final class CacheKeyTemplate {
+
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\{([^{}]+)}");
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal
+      .withInitial(CacheKeyTemplate::newDigest);
+
+  private final String[] literals;
+  private final String[] placeholders;
+  private final boolean usesClientRequest;
+  private final boolean usesPayload;
+  private final boolean usesConfig;
+  private final boolean hashed;
+
+  private CacheKeyTemplate(List<String> literals, List<String> placeholders, boolean hashed) {
+    this.literals = literals.toArray(new String[0]);
+    this.placeholders = placeholders.toArray(new String[0]);
+    this.hashed = hashed;
+    boolean clientRequest = false;
+    boolean payload = false;
+    boolean config = false;
+    for (String placeholder : placeholders) {
+      if (hasPrefix(placeholder, PLACEHOLDER_PREFIX_PAYLOAD)) {
+        payload = true;
+      } else if (hasPrefix(placeholder, PLACEHOLDER_PREFIX_CONFIG)) {
+        config = true;
+      } else {
+        clientRequest = true;
+      }
+    }
+    this.usesClientRequest = clientRequest;
+    this.usesPayload = payload;
+    this.usesConfig = config;
+  }
+
+  /**
+   * @param schema cache key schema with placeholders, e.g. {@code product-{param.id}}
+   * @param hashed whether resolved keys should be replaced with their hashes
+   * @return compiled template
+   */
+  public static CacheKeyTemplate compile(String schema, boolean hashed) {
+    List<String> literals = new ArrayList<>();
+    List<String> placeholders = new ArrayList<>();
+    Matcher matcher = PLACEHOLDER.matcher(schema);
+    int literalStart = 0;
+    while (matcher.find()) {
+      literals.add(schema.substring(literalStart, matcher.start()));
+      placeholders.add(matcher.group());
+      literalStart = matcher.end();
+    }
+    literals.add(schema.substring(literalStart));
+    return new CacheKeyTemplate(literals, placeholders, hashed);
+  }
+
+  public String resolve(FragmentContext context) {
+    String key = placeholders.length == 0 ? literals[0] : interpolate(context);
+    return hashed ? hash(key) : key;
+  }
+
+  private String interpolate(FragmentContext context) {
+    PlaceholdersResolver resolver = PlaceholdersResolver.createEncoding(
+        buildSourceDefinitions(context, usesClientRequest, usesPayload, usesConfig));
+    StringBuilder key = new StringBuilder(literals[0]);
+    for (int i = 0; i < placeholders.length; i++) {
+      key.append(resolver.resolve(placeholders[i]))
+          .append(literals[i + 1]);
+    }
+    return key.toString();
+  }
+
+  private static String hash(String key) {
+    MessageDigest digest = DIGEST.get();
+    byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+  }
+
+  private static boolean hasPrefix(String placeholder, String prefix) {
+    return placeholder.startsWith(prefix + ".", 1);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(HASH_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(HASH_ALGORITHM + " is not supported", e);
+    }
+  }
+
+}
@@ -18,6 +18,8 @@ package io.knotx.fragments.action.library.cache.operations;
 import static io.knotx.fragments.api.FragmentResult.success;
 
 import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.knotx.fragments.action.library.cache.operations.NegativeCache.NegativeResult;
 import io.knotx.fragments.api.Fragment;
 import io.knotx.fragments.api.FragmentContext;
 import io.knotx.fragments.api.FragmentResult;
@@ -27,25 +29,84 @@ public class CacheLookup {
 
   private final Cache cache;
   private final String payloadKey;
+  private final CacheFreshness freshness;
+  private final NegativeCache negativeCache;
 
   public CacheLookup(Cache cache, String payloadKey) {
+    this(cache, payloadKey, CacheFreshness.DISABLED);
+  }
+
+  public CacheLookup(Cache cache, String payloadKey, CacheFreshness freshness) {
+    this(cache, payloadKey, freshness, NegativeCache.DISABLED);
+  }
+
+  public CacheLookup(Cache cache, String payloadKey, CacheFreshness freshness,
+      NegativeCache negativeCache) {
     this.cache = cache;
     this.payloadKey = payloadKey;
+    this.freshness = freshness;
+    this.negativeCache = negativeCache;
   }
 
+  /**
+   * Finds a value in the cache. Values that should be refreshed are emitted as {@link
+   * RefreshableValue}, expired values are not emitted. When there is no value, a result
+   * remembered by the {@link NegativeCache} is emitted, if any.
+   */
   public Maybe<Object> find(String cacheKey, CacheActionLogger logger) {
     return Maybe.just(cacheKey)
         .doOnSuccess(logger::onLookup)
         .flatMap(cache::get)
-        .doOnSuccess(logger::onHit);
+        .flatMap(cachedValue -> checkFreshness(cachedValue, logger))
+        .switchIfEmpty(Maybe.defer(() -> findNegative(cacheKey, logger)));
   }
 
   public FragmentResult toResponse(FragmentContext original, Object cachedValue) {
+    if (cachedValue instanceof NegativeResult) {
+      return ((NegativeResult) cachedValue).toResponse(original);
+    }
     return success(putInPayload(original, cachedValue));
   }
 
+  /**
+   * Puts the result of a concurrent <code>doAction</code> invocation that has no cacheable value
+   * in the original fragment: its transition and error, without a payload value.
+   */
+  public FragmentResult toUncacheableResponse(FragmentContext original,
+      FragmentResult computed) {
+    return NegativeCache.replay(original, computed);
+  }
+
+  private Maybe<Object> findNegative(String cacheKey, CacheActionLogger logger) {
+    return negativeCache.find(cacheKey)
+        .doOnSuccess(negativeResult -> logger
+            .onNegativeHit(((NegativeResult) negativeResult).getTransition()));
+  }
+
+  private Maybe<Object> checkFreshness(Object cachedValue, CacheActionLogger logger) {
+    if (!freshness.isEnabled()) {
+      logger.onHit(cachedValue);
+      return Maybe.just(cachedValue);
+    }
+    CacheEntry entry = CacheEntry.unwrap(cachedValue);
+    switch (freshness.stateOf(entry.getStoredAt())) {
+      case EXPIRED:
+        return Maybe.empty();
+      case STALE:
+        logger.onStaleHit(entry.getValue());
+        return Maybe.just(new RefreshableValue(entry.getValue()));
+      case REFRESH_AHEAD:
+        logger.onHit(entry.getValue());
+        return Maybe.just(new RefreshableValue(entry.getValue()));
+      default:
+        logger.onHit(entry.getValue());
+        return Maybe.just(entry.getValue());
+    }
+  }
+
   private Fragment putInPayload(FragmentContext original, Object cachedValue) {
-    return original.getFragment().appendPayload(payloadKey, cachedValue);
+    return original.getFragment()
+        .appendPayload(payloadKey, EncodedPayload.unwrap(RefreshableValue.unwrap(cachedValue)));
   }
 
 }
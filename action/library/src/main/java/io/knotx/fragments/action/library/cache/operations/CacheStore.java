@@ -16,28 +16,60 @@
 package io.knotx.fragments.action.library.cache.operations;
 
 import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
 import io.knotx.fragments.api.FragmentResult;
+import io.reactivex.Maybe;
 
 public class CacheStore {
 
   private final Cache cache;
   private final String payloadKey;
+  private final CacheFreshness freshness;
+  private final NegativeCache negativeCache;
 
   public CacheStore(Cache cache, String payloadKey) {
+    this(cache, payloadKey, CacheFreshness.DISABLED);
+  }
+
+  public CacheStore(Cache cache, String payloadKey, CacheFreshness freshness) {
+    this(cache, payloadKey, freshness, NegativeCache.DISABLED);
+  }
+
+  public CacheStore(Cache cache, String payloadKey, CacheFreshness freshness,
+      NegativeCache negativeCache) {
     this.cache = cache;
     this.payloadKey = payloadKey;
+    this.freshness = freshness;
+    this.negativeCache = negativeCache;
   }
 
+  /**
+   * Stores the appended payload value as an immutable {@link EncodedPayload}, so later hits never
+   * share the object with the fragment it was taken from.
+   */
   public void save(CacheActionLogger logger, String cacheKey, FragmentResult fragmentResult) {
     if (isCacheable(fragmentResult)) {
       Object resultPayload = getAppendedPayload(fragmentResult);
-      cache.put(cacheKey, resultPayload);
+      EncodedPayload encoded = EncodedPayload.encode(resultPayload);
+      cache.put(cacheKey, freshness.isEnabled()
+          ? CacheEntry.wrap(encoded, freshness.now())
+          : encoded);
       logger.onMiss(resultPayload);
     } else {
+      negativeCache.save(cacheKey, fragmentResult);
       logger.onPass();
     }
   }
 
+  /**
+   * @return the encoded payload value that would be stored in the cache for the result, if any
+   */
+  public Maybe<Object> cacheableValue(FragmentResult fragmentResult) {
+    return isCacheable(fragmentResult)
+        ? Maybe.fromCallable(() -> EncodedPayload.encode(getAppendedPayload(fragmentResult)))
+        : Maybe.empty();
+  }
+
   private boolean isCacheable(FragmentResult fragmentResult) {
     return isSuccessTransition(fragmentResult)
         && fragmentResult.getFragment()
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.operations;
+
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCache;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCacheOptions;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentOperationFailure;
+import io.knotx.fragments.api.FragmentResult;
+import io.reactivex.Maybe;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Remembers for a short time the results that are not stored in the cache: error transitions and
+ * successful results without the payload key. The results are kept in a separate, bounded
+ * in-memory TinyLFU cache, so they never evict cached payloads.
+ */
+public class NegativeCache {
+
+  public static final NegativeCache DISABLED = new NegativeCache(null, null);
+
+  private final String payloadKey;
+  private final TinyLfuCache cache;
+
+  private NegativeCache(String payloadKey, TinyLfuCache cache) {
+    this.payloadKey = payloadKey;
+    this.cache = cache;
+  }
+
+  /**
+   * @param payloadKey payload key of cached values
+   * @param ttlMs how long results are remembered, 0 disables the negative cache
+   * @param maximumWeight maximum estimated size in bytes of remembered results
+   * @return negative cache
+   */
+  public static NegativeCache create(String payloadKey, long ttlMs, long maximumWeight) {
+    if (ttlMs <= 0) {
+      return DISABLED;
+    }
+    return new NegativeCache(payloadKey, new TinyLfuCache(new TinyLfuCacheOptions()
+        .setMaximumWeight(maximumWeight)
+        .setExpireAfterWriteMs(ttlMs)));
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  Maybe<Object> find(String cacheKey) {
+    if (!isEnabled()) {
+      return Maybe.empty();
+    }
+    return Maybe.fromCallable(() -> cache.getIfPresent(cacheKey))
+        .map(entry -> new NegativeResult((JsonObject) entry));
+  }
+
+  void save(String cacheKey, FragmentResult fragmentResult) {
+    if (isEnabled() && isNegative(fragmentResult)) {
+      cache.put(cacheKey, NegativeResult.toEntry(fragmentResult));
+    }
+  }
+
+  /**
+   * Replays a result that is not cached, e.g. computed by a concurrent invocation, with its
+   * transition and error in the original fragment.
+   */
+  static FragmentResult replay(FragmentContext original, FragmentResult fragmentResult) {
+    return new NegativeResult(NegativeResult.toEntry(fragmentResult)).toResponse(original);
+  }
+
+  private boolean isNegative(FragmentResult fragmentResult) {
+    String transition = fragmentResult.getTransition();
+    if (FragmentResult.ERROR_TRANSITION.equals(transition)) {
+      return true;
+    }
+    return FragmentResult.SUCCESS_TRANSITION.equals(transition)
+        && !fragmentResult.getFragment().getPayload().containsKey(payloadKey);
+  }
+
+  /**
+   * A remembered result, replayed with its original transition.
+   */
+  static final class NegativeResult {
+
+    private static final String TRANSITION = "transition";
+    private static final String ERROR_CODE = "errorCode";
+    private static final String ERROR_MESSAGE = "errorMessage";
+
+    private final JsonObject entry;
+
+    private NegativeResult(JsonObject entry) {
+      this.entry = entry;
+    }
+
+    private static JsonObject toEntry(FragmentResult fragmentResult) {
+      JsonObject entry = new JsonObject().put(TRANSITION, fragmentResult.getTransition());
+      FragmentOperationFailure error = fragmentResult.getError();
+      if (error != null) {
+        entry.put(ERROR_CODE, error.getCode())
+            .put(ERROR_MESSAGE, error.getMessage());
+      }
+      return entry;
+    }
+
+    String getTransition() {
+      return entry.getString(TRANSITION);
+    }
+
+    FragmentResult toResponse(FragmentContext original) {
+      if (FragmentResult.ERROR_TRANSITION.equals(getTransition())) {
+        return FragmentResult.fail(original.getFragment(), entry.getString(ERROR_CODE),
+            entry.getString(ERROR_MESSAGE));
+      }
+      return FragmentResult.success(original.getFragment(), getTransition());
+    }
+  }
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.operations;
+
+/**
+ * A cached payload value served from the cache that should be refreshed in the background.
+ */
+public final class RefreshableValue {
+
+  private final Object value;
+
+  public RefreshableValue(Object value) {
+    this.value = value;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+
+  static Object unwrap(Object cachedValue) {
+    return cachedValue instanceof RefreshableValue
+        ? ((RefreshableValue) cachedValue).value
+        : cachedValue;
+  }
+
+  @Override
+  public String toString() {
+    return "RefreshableValue{" +
+        "value=" + value +
+        '}';
+  }
+}
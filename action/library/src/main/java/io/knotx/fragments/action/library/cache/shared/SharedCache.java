@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.shared;
+
+import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCache;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCacheOptions;
+import io.reactivex.Maybe;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.AsyncMap;
+import io.vertx.reactivex.RxHelper;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two-level cache: a local near cache (L1) in front of a Vert.x shared {@link AsyncMap} (L2).
+ * In a clustered Vert.x the map is shared by all instances, so a value computed by one instance
+ * is served by the others. Values are kept in both levels in the binary encoding of {@link
+ * EncodedPayload}, so every hit gets its own copy.
+ * <p>
+ * After a value is stored in the shared map, its key is published on the event bus, so other
+ * instances drop it from their near caches and read the new value from the shared map.
+ */
+public final class SharedCache implements Cache, AutoCloseable {
+
+  static final String ADDRESS_PREFIX = "knotx.fragments.cache.shared.";
+  static final String KEY = "key";
+  static final String ORIGIN = "origin";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedCache.class);
+
+  private final String instanceId = UUID.randomUUID().toString();
+  private final SharedCacheOptions options;
+  private final TinyLfuCache nearCache;
+  private final Future<AsyncMap<String, Buffer>> sharedMap;
+  private final Vertx vertx;
+  private final String address;
+  private final MessageConsumer<JsonObject> invalidations;
+
+  public SharedCache(Vertx vertx, SharedCacheOptions options) {
+    this.vertx = vertx;
+    this.options = new SharedCacheOptions(options);
+    this.nearCache = options.getNearCacheMaximumWeight() > 0
+        ? new TinyLfuCache(new TinyLfuCacheOptions()
+        .setMaximumWeight(options.getNearCacheMaximumWeight())
+        .setExpireAfterWriteMs(options.getNearCacheExpireAfterWriteMs()))
+        : null;
+    Promise<AsyncMap<String, Buffer>> promise = Promise.promise();
+    vertx.sharedData().getAsyncMap(options.getName(), promise);
+    this.sharedMap = promise.future();
+    this.address = ADDRESS_PREFIX + options.getName();
+    this.invalidations = vertx.eventBus().consumer(address, this::onInvalidation);
+  }
+
+  @Override
+  public Maybe<Object> get(String key) {
+    Object nearValue = nearCache != null ? nearCache.getIfPresent(key) : null;
+    if (nearValue != null) {
+      return Maybe.just(nearValue);
+    }
+    Maybe<Object> sharedValue = getShared(key)
+        .map(buffer -> {
+          EncodedPayload value = EncodedPayload.wrap(buffer.getBytes());
+          putNear(key, value);
+          return value;
+        });
+    // the timeout fires on the caller context, so doAction is not called on a computation thread
+    return options.getLookupTimeoutMs() > 0
+        ? sharedValue.timeout(options.getLookupTimeoutMs(), TimeUnit.MILLISECONDS,
+        RxHelper.scheduler(vertx.getOrCreateContext()), Maybe.empty())
+        : sharedValue;
+  }
+
+  @Override
+  public void put(String key, Object value) {
+    EncodedPayload encoded = EncodedPayload.encode(value);
+    putNear(key, encoded);
+    Buffer buffer = encoded.toBuffer();
+    sharedMap.onComplete(map -> {
+      if (map.failed()) {
+        LOGGER.warn("Shared cache [{}] is not available", map.cause(), options.getName());
+        return;
+      }
+      Promise<Void> stored = Promise.promise();
+      if (options.getTtlMs() > 0) {
+        map.result().put(key, buffer, options.getTtlMs(), stored);
+      } else {
+        map.result().put(key, buffer, stored);
+      }
+      stored.future().onComplete(result -> {
+        if (result.succeeded()) {
+          vertx.eventBus().publish(address, new JsonObject()
+              .put(KEY, key)
+              .put(ORIGIN, instanceId));
+        } else {
+          LOGGER.warn("Shared cache [{}] could not store [{}]", result.cause(),
+              options.getName(), key);
+        }
+      });
+    });
+  }
+
+  /**
+   * Stops receiving invalidations from other instances. Called when the cache action using the
+   * cache is closed.
+   */
+  @Override
+  public void close() {
+    invalidations.unregister();
+  }
+
+  private Maybe<Buffer> getShared(String key) {
+    return Maybe.create(emitter -> sharedMap.onComplete(map -> {
+      if (map.failed()) {
+        emitter.onError(map.cause());
+        return;
+      }
+      map.result().get(key, result -> {
+        if (result.failed()) {
+          emitter.onError(result.cause());
+        } else if (result.result() == null) {
+          emitter.onComplete();
+        } else {
+          emitter.onSuccess(result.result());
+        }
+      });
+    }));
+  }
+
+  private void putNear(String key, EncodedPayload value) {
+    if (nearCache != null) {
+      nearCache.put(key, value);
+    }
+  }
+
+  private void onInvalidation(Message<JsonObject> message) {
+    JsonObject body = message.body();
+    if (nearCache != null && !instanceId.equals(body.getString(ORIGIN))) {
+      nearCache.invalidate(body.getString(KEY));
+    }
+  }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.shared;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Configures the <code>shared</code> cache: payloads are stored in a Vert.x shared
+ * <code>AsyncMap</code>, visible to all instances of a cluster, with a local near cache in front
+ * of it.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class SharedCacheOptions {
+
+  private static final long DEFAULT_NEAR_CACHE_MAXIMUM_WEIGHT = 16L * 1024 * 1024;
+  private static final long DEFAULT_LOOKUP_TIMEOUT_MS = 1000L;
+
+  private String name;
+  private long ttlMs;
+  private long nearCacheMaximumWeight = DEFAULT_NEAR_CACHE_MAXIMUM_WEIGHT;
+  private long nearCacheExpireAfterWriteMs;
+  private long lookupTimeoutMs = DEFAULT_LOOKUP_TIMEOUT_MS;
+
+  public SharedCacheOptions() {
+    //empty default constructor
+  }
+
+  public SharedCacheOptions(SharedCacheOptions other) {
+    this.name = other.name;
+    this.ttlMs = other.ttlMs;
+    this.nearCacheMaximumWeight = other.nearCacheMaximumWeight;
+    this.nearCacheExpireAfterWriteMs = other.nearCacheExpireAfterWriteMs;
+    this.lookupTimeoutMs = other.lookupTimeoutMs;
+  }
+
+  public SharedCacheOptions(JsonObject json) {
+    this();
+    SharedCacheOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    SharedCacheOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Sets the name of the shared map. Cache actions with the same name share their entries across
+   * the cluster, so it should be unique per cached content. Required.
+   *
+   * @param name shared map name
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SharedCacheOptions setName(String name) {
+    this.name = name;
+    return this;
+  }
+
+  public long getTtlMs() {
+    return ttlMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which an entry is removed from the shared map. When not
+   * set (or lower than 1) entries are not removed.
+   *
+   * @param ttlMs shared map entry time to live in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SharedCacheOptions setTtlMs(long ttlMs) {
+    this.ttlMs = ttlMs;
+    return this;
+  }
+
+  public long getNearCacheMaximumWeight() {
+    return nearCacheMaximumWeight;
+  }
+
+  /**
+   * Sets the maximum size in bytes of the local near cache keeping the entries read from the
+   * shared map. Setting zero disables the near cache. Defaults to 16 MiB.
+   *
+   * @param nearCacheMaximumWeight near cache size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SharedCacheOptions setNearCacheMaximumWeight(long nearCacheMaximumWeight) {
+    this.nearCacheMaximumWeight = nearCacheMaximumWeight;
+    return this;
+  }
+
+  public long getNearCacheExpireAfterWriteMs() {
+    return nearCacheExpireAfterWriteMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which a near cache entry expires, so it is read from the
+   * shared map again. It bounds staleness when an invalidation message is lost. When not set (or
+   * lower than 1) near cache entries expire only when invalidated or evicted.
+   *
+   * @param nearCacheExpireAfterWriteMs near cache expiration time after write in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SharedCacheOptions setNearCacheExpireAfterWriteMs(long nearCacheExpireAfterWriteMs) {
+    this.nearCacheExpireAfterWriteMs = nearCacheExpireAfterWriteMs;
+    return this;
+  }
+
+  public long getLookupTimeoutMs() {
+    return lookupTimeoutMs;
+  }
+
+  /**
+   * Sets how long in milliseconds a lookup waits for the shared map. A lookup that times out is
+   * treated as a miss. Setting zero disables the timeout. Defaults to 1000 ms.
+   *
+   * @param lookupTimeoutMs shared map lookup timeout in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public SharedCacheOptions setLookupTimeoutMs(long lookupTimeoutMs) {
+    this.lookupTimeoutMs = lookupTimeoutMs;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    SharedCacheOptions that = (SharedCacheOptions) o;
+    return ttlMs == that.ttlMs
+        && nearCacheMaximumWeight == that.nearCacheMaximumWeight
+        && nearCacheExpireAfterWriteMs == that.nearCacheExpireAfterWriteMs
+        && lookupTimeoutMs == that.lookupTimeoutMs
+        && Objects.equals(name, that.name);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, ttlMs, nearCacheMaximumWeight, nearCacheExpireAfterWriteMs,
+        lookupTimeoutMs);
+  }
+
+  @Override
+  public String toString() {
+    return "SharedCacheOptions{" +
+        "name='" + name + '\'' +
+        ", ttlMs=" + ttlMs +
+        ", nearCacheMaximumWeight=" + nearCacheMaximumWeight +
+        ", nearCacheExpireAfterWriteMs=" + nearCacheExpireAfterWriteMs +
+        ", lookupTimeoutMs=" + lookupTimeoutMs +
+        '}';
+  }
+}
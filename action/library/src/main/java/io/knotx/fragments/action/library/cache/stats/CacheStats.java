@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.stats;
+
+import io.knotx.fragments.action.api.invoker.ActionInvocation;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Statistics of a single cache action alias. Counters are striped, so recording an event from
+ * many event loops does not contend on a single memory location.
+ */
+public final class CacheStats {
+
+  private final String alias;
+
+  private final LongAdder lookups = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder staleHits = new LongAdder();
+  private final LongAdder negativeHits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder passes = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder coalescingTimeouts = new LongAdder();
+  private final LongAdder refreshes = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder loadFailures = new LongAdder();
+  private final LongAdder loadTimeMs = new LongAdder();
+
+  private final HotKeys hotKeys;
+  private final List<MeasurableCache> caches = new CopyOnWriteArrayList<>();
+
+  /**
+   * @param alias cache action alias
+   * @param topKeys number of most frequently looked up keys reported, 0 disables hot key tracking
+   */
+  public CacheStats(String alias, int topKeys) {
+    this.alias = alias;
+    this.hotKeys = new HotKeys(topKeys);
+  }
+
+  public String getAlias() {
+    return alias;
+  }
+
+  /**
+   * Adds a cache whose size is reported with these statistics. Several cache action instances
+   * sharing one alias (e.g. one per verticle instance) report the sum of their caches, equal
+   * caches (references to one shared cache) are counted once.
+   */
+  public void measure(MeasurableCache cache) {
+    caches.add(cache);
+  }
+
+  /**
+   * Removes a cache added with {@link #measure(MeasurableCache)}, e.g. when its action is closed.
+   */
+  public void unmeasure(MeasurableCache cache) {
+    caches.remove(cache);
+  }
+
+  public void recordLookup(String key) {
+    lookups.increment();
+    hotKeys.record(key);
+  }
+
+  public void recordHit() {
+    hits.increment();
+  }
+
+  public void recordStaleHit() {
+    staleHits.increment();
+  }
+
+  public void recordNegativeHit() {
+    negativeHits.increment();
+  }
+
+  public void recordMiss() {
+    misses.increment();
+  }
+
+  public void recordPass() {
+    passes.increment();
+  }
+
+  public void recordCoalesced() {
+    coalesced.increment();
+  }
+
+  public void recordCoalescingTimeout() {
+    coalescingTimeouts.increment();
+  }
+
+  public void recordRefresh() {
+    refreshes.increment();
+  }
+
+  public void recordError() {
+    errors.increment();
+  }
+
+  public void recordLoad(ActionInvocation invocation) {
+    loads.increment();
+    loadTimeMs.add(invocation.getDuration());
+    if (!invocation.isResultDelivered() || !invocation.getFragmentResult().isSuccess()) {
+      loadFailures.increment();
+    }
+  }
+
+  /**
+   * @return the point-in-time values of all statistics
+   */
+  public JsonObject toJson() {
+    long lookupCount = lookups.sum();
+    long hitCount = hits.sum() + staleHits.sum() + negativeHits.sum();
+    long loadCount = loads.sum();
+    JsonObject result = new JsonObject()
+        .put("alias", alias)
+        .put("lookups", lookupCount)
+        .put("hits", hits.sum())
+        .put("staleHits", staleHits.sum())
+        .put("negativeHits", negativeHits.sum())
+        .put("misses", misses.sum())
+        .put("passes", passes.sum())
+        .put("coalesced", coalesced.sum())
+        .put("coalescingTimeouts", coalescingTimeouts.sum())
+        .put("refreshes", refreshes.sum())
+        .put("errors", errors.sum())
+        .put("hitRatio", lookupCount == 0 ? 0.0d : (double) hitCount / lookupCount)
+        .put("loads", loadCount)
+        .put("loadFailures", loadFailures.sum())
+        .put("averageLoadTimeMs", loadCount == 0 ? 0.0d : (double) loadTimeMs.sum() / loadCount)
+        .put("hotKeys", hotKeys.toJson());
+    if (!caches.isEmpty()) {
+      List<MeasurableCache> distinct = caches.stream().distinct().collect(Collectors.toList());
+      result.put("estimatedSize", distinct.stream()
+          .mapToLong(MeasurableCache::estimatedSize)
+          .sum());
+      if (distinct.stream().allMatch(cache -> cache.evictionCount() >= 0)) {
+        result.put("evictions", distinct.stream()
+            .mapToLong(MeasurableCache::evictionCount)
+            .sum());
+      }
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.stats;
+
+import io.knotx.server.api.handler.RoutingHandlerFactory;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.ext.web.RoutingContext;
+
+/**
+ * Admin handler responding with statistics of all cache action aliases as JSON. A single alias
+ * can be requested with the <code>alias</code> query parameter.
+ */
+public class CacheStatsHandlerFactory implements RoutingHandlerFactory {
+
+  private static final String ALIAS_PARAM = "alias";
+
+  @Override
+  public String getName() {
+    return "cacheStatsHandler";
+  }
+
+  @Override
+  public Handler<RoutingContext> create(Vertx vertx, JsonObject config) {
+    return context -> {
+      String alias = context.request().getParam(ALIAS_PARAM);
+      JsonObject body = new JsonObject();
+      CacheStatsRegistry.getAll().stream()
+          .filter(stats -> alias == null || alias.equals(stats.getAlias()))
+          .forEach(stats -> body.put(stats.getAlias(), stats.toJson()));
+      context.response()
+          .putHeader("Content-Type", "application/json")
+          .end(body.encode());
+    };
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.stats;
+
+import com.google.common.collect.ImmutableList;
+import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps statistics of all cache action aliases created in the JVM, so they can be read by the
+ * {@link CacheStatsHandlerFactory admin handler} and exported by {@link CacheStatsReporter}s.
+ * Statistics of an alias are removed when the last cache action with the alias unregisters, so
+ * undeployed actions and their caches are not kept.
+ */
+public final class CacheStatsRegistry {
+
+  private static final List<CacheStatsReporter> reporters = ImmutableList
+      .copyOf(ServiceLoader.load(CacheStatsReporter.class));
+
+  private static final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+  private CacheStatsRegistry() {
+    // registry
+  }
+
+  /**
+   * Returns statistics for the alias, creating and reporting them when the alias is registered
+   * for the first time. Every registration has to be released with {@link #unregister(String,
+   * Cache)}.
+   *
+   * @param alias cache action alias
+   * @param topKeys number of most frequently looked up keys reported, the same for all cache
+   * actions with the alias
+   * @param cache cache used by the action, its size is reported when it is a
+   * {@link MeasurableCache}
+   * @return statistics shared by all cache actions with the alias
+   * @throws ActionConfigurationException when the alias is registered with a different number of
+   * top keys
+   */
+  public static CacheStats register(String alias, int topKeys, Cache cache) {
+    Registration registration = registrations.compute(alias, (key, current) -> {
+      if (current == null) {
+        CacheStats created = new CacheStats(key, topKeys);
+        reporters.forEach(reporter -> reporter.register(created));
+        current = new Registration(created, topKeys);
+      } else if (current.topKeys != topKeys) {
+        throw new ActionConfigurationException(alias, "CacheAction requires statsTopKeys ["
+            + current.topKeys + "] like other cache actions with the alias, got [" + topKeys
+            + "].");
+      }
+      current.references++;
+      return current;
+    });
+    if (cache instanceof MeasurableCache) {
+      registration.stats.measure((MeasurableCache) cache);
+    }
+    return registration.stats;
+  }
+
+  /**
+   * Releases a registration, removing the statistics of the alias when it is the last one.
+   *
+   * @param alias cache action alias
+   * @param cache cache passed to {@link #register(String, int, Cache)}
+   */
+  public static void unregister(String alias, Cache cache) {
+    registrations.computeIfPresent(alias, (key, current) -> {
+      if (cache instanceof MeasurableCache) {
+        current.stats.unmeasure((MeasurableCache) cache);
+      }
+      if (--current.references > 0) {
+        return current;
+      }
+      reporters.forEach(reporter -> reporter.unregister(current.stats));
+      return null;
+    });
+  }
+
+  public static Optional<CacheStats> get(String alias) {
+    return Optional.ofNullable(registrations.get(alias)).map(registration -> registration.stats);
+  }
+
+  public static Collection<CacheStats> getAll() {
+    return Collections.unmodifiableCollection(registrations.values().stream()
+        .map(registration -> registration.stats)
+        .collect(Collectors.toList()));
+  }
+
+  private static final class Registration {
+
+    private final CacheStats stats;
+    private final int topKeys;
+    private int references;
+
+    private Registration(CacheStats stats, int topKeys) {
+      this.stats = stats;
+      this.topKeys = topKeys;
+    }
+  }
+
+}
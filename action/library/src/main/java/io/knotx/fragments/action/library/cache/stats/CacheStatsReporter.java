@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.stats;
+
+/**
+ * Service Provider Interface for exporting cache statistics to a metrics system. Implementations
+ * are loaded via {@link java.util.ServiceLoader} and notified about every cache action alias when
+ * it is created. They are expected to read {@link CacheStats#toJson()} when their metrics system
+ * polls for values, until the alias is unregistered.
+ */
+public interface CacheStatsReporter {
+
+  void register(CacheStats stats);
+
+  /**
+   * Called when the last cache action with the alias is closed, the statistics are not updated
+   * anymore.
+   */
+  default void unregister(CacheStats stats) {
+    // no resources by default
+  }
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.stats;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Space-saving sketch of the most frequently looked up cache keys. It keeps a fixed number of
+ * counters; a key that is not tracked replaces the key with the lowest count and inherits that
+ * count as its maximum overestimation error.
+ *
+ * <p>The counters are split into stripes by key hash, and every stripe is a separate sketch
+ * updated without locking: counts are atomic and a key replaces another one with a
+ * compare-and-set, so lookups never wait. A stripe has room for four times the number of reported
+ * keys, so the most frequent keys are tracked even if they all share a stripe. The estimates
+ * are slightly less accurate than those of a single locked sketch: a lookup of a key that is being
+ * replaced at the same moment is not counted, and two concurrent first lookups of one key can
+ * create two counters, whose counts are summed in the report.
+ */
+final class HotKeys {
+
+  private static final int COUNTERS_PER_KEY = 4;
+  private static final int MAX_STRIPES = 8;
+
+  private final int topKeys;
+  private final AtomicReferenceArray<Counter>[] stripes;
+
+  @SuppressWarnings("unchecked")
+  HotKeys(int topKeys) {
+    this.topKeys = topKeys;
+    int stripeCount = topKeys == 0 ? 0 : stripeCount();
+    this.stripes = new AtomicReferenceArray[stripeCount];
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new AtomicReferenceArray<>(topKeys * COUNTERS_PER_KEY);
+    }
+  }
+
+  void record(String key) {
+    if (stripes.length == 0 || key == null) {
+      return;
+    }
+    int hash = spread(key.hashCode());
+    AtomicReferenceArray<Counter> stripe = stripes[hash & (stripes.length - 1)];
+    while (true) {
+      int free = -1;
+      int minimum = -1;
+      Counter minimumCounter = null;
+      for (int i = 0; i < stripe.length(); i++) {
+        Counter counter = stripe.get(i);
+        if (counter == null) {
+          if (free < 0) {
+            free = i;
+          }
+        } else if (counter.hash == hash && counter.key.equals(key)) {
+          counter.count.incrementAndGet();
+          return;
+        } else if (minimumCounter == null || counter.count.get() < minimumCounter.count.get()) {
+          minimum = i;
+          minimumCounter = counter;
+        }
+      }
+      if (free >= 0) {
+        if (stripe.compareAndSet(free, null, new Counter(key, hash, 1L, 0L))) {
+          return;
+        }
+      } else {
+        long error = minimumCounter.count.get();
+        if (stripe.compareAndSet(minimum, minimumCounter,
+            new Counter(key, hash, error + 1, error))) {
+          return;
+        }
+      }
+      // another lookup changed the slot, retry with the current counters
+    }
+  }
+
+  JsonArray toJson() {
+    Map<String, long[]> merged = new HashMap<>();
+    for (AtomicReferenceArray<Counter> stripe : stripes) {
+      for (int i = 0; i < stripe.length(); i++) {
+        Counter counter = stripe.get(i);
+        if (counter != null) {
+          long[] estimate = merged.computeIfAbsent(counter.key, key -> new long[2]);
+          estimate[0] += counter.count.get();
+          estimate[1] += counter.error;
+        }
+      }
+    }
+    JsonArray result = new JsonArray();
+    merged.entrySet().stream()
+        .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0])
+            .reversed())
+        .limit(topKeys)
+        .map(e -> new JsonObject()
+            .put("key", e.getKey())
+            .put("count", e.getValue()[0])
+            .put("error", e.getValue()[1]))
+        .forEach(result::add);
+    return result;
+  }
+
+  private static int stripeCount() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    return Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, processors)));
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Counter {
+
+    private final String key;
+    private final int hash;
+    private final long error;
+    private final AtomicLong count;
+
+    private Counter(String key, int hash, long count, long error) {
+      this.key = key;
+      this.hash = hash;
+      this.count = new AtomicLong(count);
+      this.error = error;
+    }
+  }
+
+}
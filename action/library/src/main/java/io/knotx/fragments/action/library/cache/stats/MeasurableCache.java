@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.stats;
+
+/**
+ * Cache that can report its size to {@link CacheStats}.
+ */
+public interface MeasurableCache {
+
+  /**
+   * @return the number of cached entries, including expired ones not yet removed
+   */
+  long estimatedSize();
+
+  /**
+   * @return the number of entries evicted to stay within the cache's capacity, or -1 when the
+   * cache does not track evictions
+   */
+  default long evictionCount() {
+    return -1L;
+  }
+
+}
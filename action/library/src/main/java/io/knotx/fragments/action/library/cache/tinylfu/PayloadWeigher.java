@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.tinylfu;
+
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Estimates the heap footprint in bytes of cached payload values, without serializing them.
+ */
+final class PayloadWeigher {
+
+  private static final long REFERENCE = 8L;
+  private static final long OBJECT_HEADER = 16L;
+  private static final long STRING = 40L;
+  private static final long MAP = 48L;
+  private static final long MAP_ENTRY = 32L;
+  private static final long COLLECTION = 40L;
+  private static final long UNKNOWN = 64L;
+
+  private PayloadWeigher() {
+    // utility class
+  }
+
+  static int weigh(String key, Object value) {
+    return (int) Math.min(estimate(key) + estimate(value), Integer.MAX_VALUE);
+  }
+
+  static long estimate(Object value) {
+    if (value == null) {
+      return 0L;
+    } else if (value instanceof String) {
+      return STRING + 2L * ((String) value).length();
+    } else if (value instanceof JsonObject) {
+      return OBJECT_HEADER + estimate(((JsonObject) value).getMap());
+    } else if (value instanceof JsonArray) {
+      return OBJECT_HEADER + estimate(((JsonArray) value).getList());
+    } else if (value instanceof Map) {
+      long weight = MAP;
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        weight += MAP_ENTRY + estimate(entry.getKey()) + estimate(entry.getValue());
+      }
+      return weight;
+    } else if (value instanceof Collection) {
+      long weight = COLLECTION;
+      for (Object element : (Collection<?>) value) {
+        weight += REFERENCE + estimate(element);
+      }
+      return weight;
+    } else if (value instanceof Buffer) {
+      return OBJECT_HEADER + STRING + ((Buffer) value).length();
+    } else if (value instanceof EncodedPayload) {
+      return 2 * OBJECT_HEADER + ((EncodedPayload) value).length();
+    } else if (value instanceof byte[]) {
+      return OBJECT_HEADER + ((byte[]) value).length;
+    } else if (value instanceof Number || value instanceof Boolean) {
+      return OBJECT_HEADER + REFERENCE;
+    }
+    return UNKNOWN;
+  }
+
+}
@@ -0,0 +1,397 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.tinylfu;
+
+import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.stats.MeasurableCache;
+import io.reactivex.Maybe;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Weight-bounded in-memory cache using the W-TinyLFU policy. New entries enter a small LRU window;
+ * entries leaving the window are admitted to the segmented LRU main space only when their
+ * estimated access frequency is higher than the frequency of the entry they would evict. This keeps
+ * frequently read entries in the cache when a burst of one-off keys passes through it.
+ *
+ * <p>Reads are served from a concurrent map. The eviction policy is guarded by a lock that reads
+ * only try to acquire, so under contention some accesses are not recorded by the policy.
+ */
+public final class TinyLfuCache implements Cache, MeasurableCache {
+
+  private static final int WINDOW_PERCENT = 1;
+  private static final int PROTECTED_PERCENT = 80;
+  private static final int ADMIT_HASH_DOS_THRESHOLD = 6;
+  private static final int EXPIRATION_BATCH = 16;
+  private static final long BYTES_PER_SKETCH_ENTRY = 1024L;
+
+  private final ConcurrentHashMap<String, Node> data = new ConcurrentHashMap<>();
+  private final ReentrantLock lock = new ReentrantLock();
+  private final FrequencySketch sketch = new FrequencySketch();
+  private final AccessOrderDeque window = new AccessOrderDeque();
+  private final AccessOrderDeque probation = new AccessOrderDeque();
+  private final AccessOrderDeque protectedQueue = new AccessOrderDeque();
+
+  private final long maximumWeight;
+  private final long windowMaximum;
+  private final long protectedMaximum;
+  private final long expireAfterWriteNanos;
+  private final long expireAfterAccessNanos;
+  private final LongSupplier clock;
+
+  private long weightedSize;
+  private long windowWeightedSize;
+  private long protectedWeightedSize;
+  private long evictionCount;
+
+  public TinyLfuCache(TinyLfuCacheOptions options) {
+    this(options, System::nanoTime);
+  }
+
+  TinyLfuCache(TinyLfuCacheOptions options, LongSupplier clock) {
+    this.maximumWeight = options.getMaximumWeight();
+    this.windowMaximum = Math.max(1L, maximumWeight * WINDOW_PERCENT / 100);
+    this.protectedMaximum = (maximumWeight - windowMaximum) * PROTECTED_PERCENT / 100;
+    this.expireAfterWriteNanos = toNanos(options.getExpireAfterWriteMs());
+    this.expireAfterAccessNanos = toNanos(options.getExpireAfterAccessMs());
+    this.clock = clock;
+    sketch.ensureCapacity(maximumWeight / BYTES_PER_SKETCH_ENTRY);
+  }
+
+  @Override
+  public Maybe<Object> get(String key) {
+    return Maybe.fromCallable(() -> getIfPresent(key));
+  }
+
+  @Override
+  public void put(String key, Object value) {
+    int weight = PayloadWeigher.weigh(key, value);
+    long now = clock.getAsLong();
+    lock.lock();
+    try {
+      Node node = data.get(key);
+      if (weight > maximumWeight) {
+        if (node != null) {
+          remove(node);
+        }
+        return;
+      }
+      if (node == null) {
+        node = new Node(key, value, weight, now);
+        data.put(key, node);
+        window.addLast(node);
+        windowWeightedSize += weight;
+        weightedSize += weight;
+        sketch.ensureCapacity(data.size());
+        sketch.increment(hash(key));
+      } else {
+        updateWeight(node, weight);
+        node.value = value;
+        node.writeTime = now;
+        node.accessTime = now;
+        onAccess(node);
+      }
+      evict(now);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Synchronous variant of {@link TinyLfuCache#get(String)}.
+   *
+   * @param key cache key
+   * @return cached value or <code>null</code> when not present or expired
+   */
+  public Object getIfPresent(String key) {
+    long now = clock.getAsLong();
+    Node node = data.get(key);
+    boolean expired = node != null && isExpired(node, now);
+    if (node != null && !expired) {
+      node.accessTime = now;
+    }
+    if (lock.tryLock()) {
+      try {
+        sketch.increment(hash(key));
+        if (node != null && node.queue != null) {
+          if (expired) {
+            remove(node);
+          } else {
+            onAccess(node);
+          }
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+    return node == null || expired ? null : node.value;
+  }
+
+  /**
+   * Removes the entry of the key, if present.
+   *
+   * @param key cache key
+   */
+  public void invalidate(String key) {
+    lock.lock();
+    try {
+      Node node = data.get(key);
+      if (node != null && node.queue != null) {
+        remove(node);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of cached entries, including expired ones not yet removed
+   */
+  @Override
+  public long estimatedSize() {
+    return data.size();
+  }
+
+  /**
+   * @return the estimated size of all cached entries in bytes
+   */
+  public long weightedSize() {
+    lock.lock();
+    try {
+      return weightedSize;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * @return the number of entries evicted to stay within the maximum weight
+   */
+  @Override
+  public long evictionCount() {
+    lock.lock();
+    try {
+      return evictionCount;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void onAccess(Node node) {
+    switch (node.queue) {
+      case WINDOW:
+        window.moveToBack(node);
+        break;
+      case PROBATION:
+        probation.remove(node);
+        node.queue = QueueType.PROTECTED;
+        protectedQueue.addLast(node);
+        protectedWeightedSize += node.weight;
+        demoteFromProtected();
+        break;
+      case PROTECTED:
+        protectedQueue.moveToBack(node);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void demoteFromProtected() {
+    while (protectedWeightedSize > protectedMaximum && protectedQueue.first() != null) {
+      Node demoted = protectedQueue.pollFirst();
+      protectedWeightedSize -= demoted.weight;
+      demoted.queue = QueueType.PROBATION;
+      probation.addLast(demoted);
+    }
+  }
+
+  private void evict(long now) {
+    expireEntries(window, now);
+    expireEntries(probation, now);
+    expireEntries(protectedQueue, now);
+
+    while (windowWeightedSize > windowMaximum && window.first() != null) {
+      Node candidate = window.pollFirst();
+      windowWeightedSize -= candidate.weight;
+      candidate.queue = QueueType.PROBATION;
+      probation.addLast(candidate);
+    }
+
+    while (weightedSize > maximumWeight) {
+      evictionCount++;
+      Node candidate = probation.last();
+      Node victim = probation.first();
+      if (candidate == null) {
+        Node evicted = protectedQueue.first() != null ? protectedQueue.first() : window.first();
+        remove(evicted);
+      } else if (candidate == victim || admit(candidate, victim)) {
+        remove(victim);
+      } else {
+        remove(candidate);
+      }
+    }
+  }
+
+  private boolean admit(Node candidate, Node victim) {
+    int candidateFrequency = sketch.frequency(hash(candidate.key));
+    int victimFrequency = sketch.frequency(hash(victim.key));
+    if (candidateFrequency > victimFrequency) {
+      return true;
+    } else if (candidateFrequency < ADMIT_HASH_DOS_THRESHOLD) {
+      return false;
+    }
+    // admit a warm candidate from time to time, so an attacker cannot pin the victim forever
+    return ThreadLocalRandom.current().nextInt(128) == 0;
+  }
+
+  private void expireEntries(AccessOrderDeque queue, long now) {
+    for (int i = 0; i < EXPIRATION_BATCH; i++) {
+      Node head = queue.first();
+      if (head == null || !isExpired(head, now)) {
+        return;
+      }
+      remove(head);
+    }
+  }
+
+  private void remove(Node node) {
+    data.remove(node.key, node);
+    switch (node.queue) {
+      case WINDOW:
+        window.remove(node);
+        windowWeightedSize -= node.weight;
+        break;
+      case PROBATION:
+        probation.remove(node);
+        break;
+      case PROTECTED:
+        protectedQueue.remove(node);
+        protectedWeightedSize -= node.weight;
+        break;
+      default:
+        break;
+    }
+    weightedSize -= node.weight;
+    node.queue = null;
+  }
+
+  private void updateWeight(Node node, int weight) {
+    int delta = weight - node.weight;
+    node.weight = weight;
+    weightedSize += delta;
+    if (node.queue == QueueType.WINDOW) {
+      windowWeightedSize += delta;
+    } else if (node.queue == QueueType.PROTECTED) {
+      protectedWeightedSize += delta;
+    }
+  }
+
+  private boolean isExpired(Node node, long now) {
+    return (expireAfterWriteNanos > 0 && now - node.writeTime >= expireAfterWriteNanos)
+        || (expireAfterAccessNanos > 0 && now - node.accessTime >= expireAfterAccessNanos);
+  }
+
+  private static int hash(String key) {
+    return FrequencySketch.spread(key.hashCode());
+  }
+
+  private static long toNanos(long millis) {
+    return millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : 0L;
+  }
+
+  private enum QueueType {
+    WINDOW, PROBATION, PROTECTED
+  }
+
+  private static final class Node {
+
+    private final String key;
+    private volatile Object value;
+    private volatile long writeTime;
+    private volatile long accessTime;
+    private int weight;
+    private QueueType queue = QueueType.WINDOW;
+    private Node prev;
+    private Node next;
+
+    private Node(String key, Object value, int weight, long now) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+      this.writeTime = now;
+      this.accessTime = now;
+    }
+  }
+
+  private static final class AccessOrderDeque {
+
+    private Node head;
+    private Node tail;
+
+    Node first() {
+      return head;
+    }
+
+    Node last() {
+      return tail;
+    }
+
+    void addLast(Node node) {
+      node.prev = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+    }
+
+    Node pollFirst() {
+      Node first = head;
+      if (first != null) {
+        remove(first);
+      }
+      return first;
+    }
+
+    void moveToBack(Node node) {
+      if (node != tail) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    void remove(Node node) {
+      if (node.prev == null) {
+        head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+    }
+  }
+}
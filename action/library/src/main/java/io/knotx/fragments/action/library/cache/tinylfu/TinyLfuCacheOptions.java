@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.tinylfu;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Configures the <code>tinylfu</code> cache: a weight-bounded in-memory cache with W-TinyLFU
+ * admission and optional expiration.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class TinyLfuCacheOptions {
+
+  private static final long DEFAULT_MAXIMUM_WEIGHT = 64L * 1024 * 1024;
+
+  private long maximumWeight = DEFAULT_MAXIMUM_WEIGHT;
+  private long expireAfterWriteMs;
+  private long expireAfterAccessMs;
+
+  public TinyLfuCacheOptions() {
+    //empty default constructor
+  }
+
+  public TinyLfuCacheOptions(TinyLfuCacheOptions other) {
+    this.maximumWeight = other.maximumWeight;
+    this.expireAfterWriteMs = other.expireAfterWriteMs;
+    this.expireAfterAccessMs = other.expireAfterAccessMs;
+  }
+
+  public TinyLfuCacheOptions(JsonObject json) {
+    this();
+    TinyLfuCacheOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    TinyLfuCacheOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  /**
+   * Sets the maximum estimated size of all cached entries in bytes. Entries are weighed by their
+   * key and value footprint. Defaults to 64 MiB.
+   *
+   * @param maximumWeight maximum weight of the cache in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TinyLfuCacheOptions setMaximumWeight(long maximumWeight) {
+    this.maximumWeight = maximumWeight;
+    return this;
+  }
+
+  public long getExpireAfterWriteMs() {
+    return expireAfterWriteMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which an entry expires once it was stored. When not set
+   * (or lower than 1) entries do not expire after write.
+   *
+   * @param expireAfterWriteMs expiration time after write in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TinyLfuCacheOptions setExpireAfterWriteMs(long expireAfterWriteMs) {
+    this.expireAfterWriteMs = expireAfterWriteMs;
+    return this;
+  }
+
+  public long getExpireAfterAccessMs() {
+    return expireAfterAccessMs;
+  }
+
+  /**
+   * Sets the time in milliseconds after which an entry expires once it was last read or stored.
+   * When not set (or lower than 1) entries do not expire after access.
+   *
+   * @param expireAfterAccessMs expiration time after access in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TinyLfuCacheOptions setExpireAfterAccessMs(long expireAfterAccessMs) {
+    this.expireAfterAccessMs = expireAfterAccessMs;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    TinyLfuCacheOptions that = (TinyLfuCacheOptions) o;
+    return maximumWeight == that.maximumWeight
+        && expireAfterWriteMs == that.expireAfterWriteMs
+        && expireAfterAccessMs == that.expireAfterAccessMs;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maximumWeight, expireAfterWriteMs, expireAfterAccessMs);
+  }
+
+  @Override
+  public String toString() {
+    return "TinyLfuCacheOptions{" +
+        "maximumWeight=" + maximumWeight +
+        ", expireAfterWriteMs=" + expireAfterWriteMs +
+        ", expireAfterAccessMs=" + expireAfterAccessMs +
+        '}';
+  }
+}
@@ -17,7 +17,9 @@ package io.knotx.fragments.action.library.cb;
 
 import static io.knotx.fragments.action.api.invoker.ActionInvoker.rxApply;
 import static io.knotx.fragments.action.library.cb.CircuitBreakerActionFactory.FALLBACK_TRANSITION;
+import static io.knotx.fragments.action.library.cb.CircuitBreakerActionFactory.STALE_TRANSITION;
 import static java.lang.String.format;
+import static java.util.Objects.nonNull;
 
 import io.knotx.fragments.action.api.Action;
 import io.knotx.fragments.action.api.FutureAction;
@@ -29,16 +31,19 @@ import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import java.util.Set;
 
-class CircuitBreakerAction implements FutureAction {
+class CircuitBreakerAction implements FutureAction, AutoCloseable {
 
   static final String INVOCATION_COUNT_LOG_KEY = "invocationCount";
   static final String ERROR_LOG_KEY = "error";
+  static final String STALE_LOG_KEY = "stale";
 
   private final String alias;
   private final CircuitBreaker circuitBreaker;
   private final Action doAction;
   private final CircuitBreakerResponder responder;
   private final ActionLogLevel actionLogLevel;
+  private final FallbackStore fallbackStore;
+  private final AutoCloseable resources;
 
   CircuitBreakerAction(CircuitBreaker circuitBreaker, Action doAction, String alias,
       ActionLogLevel actionLogLevel, Set<String> errorTransitions) {
@@ -47,11 +52,32 @@ class CircuitBreakerAction implements FutureAction {
 
   CircuitBreakerAction(CircuitBreaker circuitBreaker, Action doAction, String alias,
       ActionLogLevel actionLogLevel, CircuitBreakerResponder responder) {
+    this(circuitBreaker, doAction, alias, actionLogLevel, responder, null);
+  }
+
+  /**
+   * @param fallbackStore last known good payloads, null when disabled
+   */
+  CircuitBreakerAction(CircuitBreaker circuitBreaker, Action doAction, String alias,
+      ActionLogLevel actionLogLevel, CircuitBreakerResponder responder,
+      FallbackStore fallbackStore) {
+    this(circuitBreaker, doAction, alias, actionLogLevel, responder, fallbackStore, null);
+  }
+
+  /**
+   * @param resources closed together with the circuit breaker when the action is closed, may be
+   * null
+   */
+  CircuitBreakerAction(CircuitBreaker circuitBreaker, Action doAction, String alias,
+      ActionLogLevel actionLogLevel, CircuitBreakerResponder responder,
+      FallbackStore fallbackStore, AutoCloseable resources) {
     this.alias = alias;
     this.circuitBreaker = circuitBreaker;
     this.doAction = doAction;
     this.responder = responder;
     this.actionLogLevel = actionLogLevel;
+    this.fallbackStore = fallbackStore;
+    this.resources = resources;
   }
 
   @Override
@@ -63,16 +89,46 @@ class CircuitBreakerAction implements FutureAction {
     );
   }
 
+  @Override
+  public void close() throws Exception {
+    try {
+      if (resources != null) {
+        resources.close();
+      }
+    } finally {
+      circuitBreaker.close();
+    }
+  }
+
   private void executeCommand(Promise<FragmentResult> promise, FragmentContext context,
       CircuitBreakerActionLogger logger) {
     logger.onInvocation();
     rxApply(doAction, context)
-        .subscribe(invocation -> responder.respond(promise, invocation, logger));
+        .subscribe(invocation -> {
+          if (nonNull(fallbackStore) && responder.isConsideredSuccess(invocation)) {
+            fallbackStore.remember(context, invocation.getFragmentResult().getFragment());
+          }
+          responder.respond(promise, invocation, logger);
+        });
   }
 
-  private static FragmentResult returnFallback(Throwable throwable,
+  private FragmentResult returnFallback(Throwable throwable,
       FragmentContext context, CircuitBreakerActionLogger logger) {
     logger.onFallback(throwable);
+    if (nonNull(fallbackStore)) {
+      return fallbackStore.lastKnownGood(context)
+          .map(stale -> {
+            logger.onStale(stale.getAgeMs());
+            return FragmentResult.success(stale.getFragment(), STALE_TRANSITION,
+                logger.logAsJson());
+          })
+          .orElseGet(() -> fallback(context, logger));
+    }
+    return fallback(context, logger);
+  }
+
+  private static FragmentResult fallback(FragmentContext context,
+      CircuitBreakerActionLogger logger) {
     return FragmentResult.success(context.getFragment(),
         FALLBACK_TRANSITION,
         logger.logAsJson());
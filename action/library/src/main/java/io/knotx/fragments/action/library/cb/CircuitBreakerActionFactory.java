@@ -15,9 +15,11 @@
  */
 package io.knotx.fragments.action.library.cb;
 
+import static io.knotx.commons.validation.ValidationHelper.checkArgument;
 import static io.knotx.fragments.action.api.log.ActionLogLevel.fromConfig;
 import static java.util.Objects.isNull;
 
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
 import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
 import io.knotx.fragments.action.api.Action;
 import io.knotx.fragments.action.api.ActionFactory;
@@ -35,6 +37,7 @@ import io.vertx.core.json.JsonObject;
 public class CircuitBreakerActionFactory implements ActionFactory {
 
   static final String FALLBACK_TRANSITION = "_fallback";
+  static final String STALE_TRANSITION = "_stale";
   static final String FACTORY_NAME = "cb";
 
   @Override
@@ -48,10 +51,37 @@ public class CircuitBreakerActionFactory implements ActionFactory {
       throw new DoActionNotDefinedException("Circuit Breaker action requires `doAction` defined");
     }
     CircuitBreakerActionFactoryOptions options = new CircuitBreakerActionFactoryOptions(config);
-    CircuitBreaker circuitBreaker = new CircuitBreakerImpl(options.getCircuitBreakerName(), vertx,
-        options.getCircuitBreakerOptions());
+    CircuitBreaker circuitBreaker = createCircuitBreaker(alias, options, vertx);
+    AutoCloseable stateSync = options.isDistributed()
+        ? CircuitBreakerStateSync.attach(vertx, circuitBreaker)
+        : null;
 
     return new CircuitBreakerAction(circuitBreaker, doAction, alias,
-        fromConfig(options.getLogLevel()), options.getErrorTransitions());
+        fromConfig(options.getLogLevel()),
+        new CircuitBreakerResponder(options.getErrorTransitions()),
+        createFallbackStore(alias, options.getFallbackStore()),
+        stateSync);
+  }
+
+  private static CircuitBreaker createCircuitBreaker(String alias,
+      CircuitBreakerActionFactoryOptions options, Vertx vertx) {
+    if (!options.isDistributed()) {
+      return new CircuitBreakerImpl(options.getCircuitBreakerName(), vertx,
+          options.getCircuitBreakerOptions());
+    }
+    // peers find each other by name, so it has to be the same in every instance
+    return new CircuitBreakerImpl(options.getCircuitBreakerName(alias), vertx,
+        options.getCircuitBreakerOptions());
+  }
+
+  private static FallbackStore createFallbackStore(String alias, FallbackStoreOptions options) {
+    if (!options.isEnabled()) {
+      return null;
+    }
+    checkArgument(options.getMaximumSize() <= 0, () -> new ActionConfigurationException(alias,
+        "Circuit Breaker fallback store requires positive maximumSize."));
+    checkArgument(options.getMaxAgeMs() <= 0, () -> new ActionConfigurationException(alias,
+        "Circuit Breaker fallback store requires positive maxAgeMs."));
+    return new FallbackStore(options);
   }
 }
@@ -36,12 +36,18 @@ public class CircuitBreakerActionFactoryOptions {
 
   private String circuitBreakerName;
 
+  private final String defaultCircuitBreakerName = UUID.randomUUID().toString();
+
+  private boolean distributed;
+
   private CircuitBreakerOptions circuitBreakerOptions = new CircuitBreakerOptions();
 
   private Set<String> errorTransitions = new HashSet<>();
 
   private String logLevel = ERROR.getLevel();
 
+  private FallbackStoreOptions fallbackStore = new FallbackStoreOptions();
+
   /**
    * Creates a new instance of {@link CircuitBreakerActionFactoryOptions} using the default values.
    */
@@ -69,11 +75,16 @@ public class CircuitBreakerActionFactoryOptions {
   }
 
   /**
-   * @return the unique circuit breaker name.
+   * @return the unique circuit breaker name, a random one generated once per options instance
+   * when not set.
    */
   public String getCircuitBreakerName() {
     return StringUtils.isNoneBlank(circuitBreakerName) ? circuitBreakerName
-        : UUID.randomUUID().toString();
+        : defaultCircuitBreakerName;
+  }
+
+  String getCircuitBreakerName(String defaultName) {
+    return StringUtils.isNoneBlank(circuitBreakerName) ? circuitBreakerName : defaultName;
   }
 
   /**
@@ -147,6 +158,46 @@ public class CircuitBreakerActionFactoryOptions {
     return this;
   }
 
+  /**
+   * @return whether the circuit breaker state is shared with peers
+   */
+  public boolean isDistributed() {
+    return distributed;
+  }
+
+  /**
+   * Sets whether the circuit breaker state is shared with breakers of the same name: open and
+   * close transitions are published on the event bus and adopted by peers, also on other nodes of
+   * a clustered Vert.x. When the circuit breaker name is not set, the action alias is used.
+   *
+   * @param distributed whether the state is shared
+   * @return the current {@link CircuitBreakerActionFactoryOptions} instance
+   */
+  public CircuitBreakerActionFactoryOptions setDistributed(boolean distributed) {
+    this.distributed = distributed;
+    return this;
+  }
+
+  /**
+   * @return the last-known-good fallback store options
+   */
+  public FallbackStoreOptions getFallbackStore() {
+    return fallbackStore;
+  }
+
+  /**
+   * Sets the last-known-good fallback store options. When the store is enabled, the payload of
+   * the last successful call is served with the <code>_stale</code> transition instead of the
+   * <code>_fallback</code> one.
+   *
+   * @param fallbackStore the fallback store options
+   * @return the current {@link CircuitBreakerActionFactoryOptions} instance
+   */
+  public CircuitBreakerActionFactoryOptions setFallbackStore(FallbackStoreOptions fallbackStore) {
+    this.fallbackStore = fallbackStore;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "CircuitBreakerActionFactoryOptions{" +
@@ -154,6 +205,8 @@ public class CircuitBreakerActionFactoryOptions {
         ", circuitBreakerOptions=" + circuitBreakerOptions +
         ", errorTransitions=" + errorTransitions +
         ", logLevel='" + logLevel + '\'' +
+        ", fallbackStore=" + fallbackStore +
+        ", distributed=" + distributed +
         '}';
   }
 }
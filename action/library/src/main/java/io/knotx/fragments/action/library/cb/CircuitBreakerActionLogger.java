@@ -17,6 +17,7 @@ package io.knotx.fragments.action.library.cb;
 
 import static io.knotx.fragments.action.library.cb.CircuitBreakerAction.ERROR_LOG_KEY;
 import static io.knotx.fragments.action.library.cb.CircuitBreakerAction.INVOCATION_COUNT_LOG_KEY;
+import static io.knotx.fragments.action.library.cb.CircuitBreakerAction.STALE_LOG_KEY;
 import static java.lang.String.format;
 import static java.lang.String.valueOf;
 
@@ -57,6 +58,10 @@ class CircuitBreakerActionLogger {
     actionLogger.error(ERROR_LOG_KEY, format("Exception: %s. %s", throwable.getClass(), throwable.getLocalizedMessage()));
   }
 
+  void onStale(long ageMs) {
+    actionLogger.error(STALE_LOG_KEY, new JsonObject().put("ageMs", ageMs));
+  }
+
   JsonObject logAsJson() {
     return actionLogger.toLog().toJson();
   }
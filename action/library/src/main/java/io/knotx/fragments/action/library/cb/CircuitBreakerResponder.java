@@ -40,7 +40,7 @@ class CircuitBreakerResponder {
     }
   }
 
-  private boolean isConsideredSuccess(ActionInvocation invocation) {
+  boolean isConsideredSuccess(ActionInvocation invocation) {
     return invocation.isResultDelivered() && !hasErroneousTransition(invocation);
   }
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cb;
+
+import io.vertx.circuitbreaker.CircuitBreaker;
+import io.vertx.circuitbreaker.CircuitBreakerState;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.json.JsonObject;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Shares circuit breaker state transitions between breakers with the same name. A breaker that
+ * opens or closes publishes the transition on the event bus, and peers adopt it, so one instance
+ * learning about a failing dependency is enough for all of them. With a clustered Vert.x the peers
+ * include other nodes.
+ * <p>
+ * Only transitions made by the breaker itself are published. A transition adopted from a peer is
+ * remembered while the breaker makes it and skipped by the state handlers, so peers do not echo it
+ * back to each other.
+ */
+final class CircuitBreakerStateSync implements AutoCloseable {
+
+  static final String ADDRESS_PREFIX = "knotx.fragments.cb.";
+  static final String INSTANCE_KEY = "instance";
+  static final String STATE_KEY = "state";
+
+  private final CircuitBreaker circuitBreaker;
+  private final EventBus eventBus;
+  private final String address;
+  private final String instanceId = UUID.randomUUID().toString();
+  private final AtomicReference<CircuitBreakerState> adopted = new AtomicReference<>();
+  private MessageConsumer<JsonObject> consumer;
+
+  private CircuitBreakerStateSync(Vertx vertx, CircuitBreaker circuitBreaker) {
+    this.circuitBreaker = circuitBreaker;
+    this.eventBus = vertx.eventBus();
+    this.address = ADDRESS_PREFIX + circuitBreaker.name();
+  }
+
+  /**
+   * Publishes the breaker transitions and adopts the ones published by peers, until the returned
+   * sync is closed.
+   *
+   * @param vertx vertx instance
+   * @param circuitBreaker breaker with a name shared by its peers
+   * @return the sync of the breaker
+   */
+  static CircuitBreakerStateSync attach(Vertx vertx, CircuitBreaker circuitBreaker) {
+    CircuitBreakerStateSync sync = new CircuitBreakerStateSync(vertx, circuitBreaker);
+    circuitBreaker.openHandler(v -> sync.onTransition(CircuitBreakerState.OPEN));
+    circuitBreaker.closeHandler(v -> sync.onTransition(CircuitBreakerState.CLOSED));
+    sync.consumer = sync.eventBus.consumer(sync.address, sync::onPeerTransition);
+    return sync;
+  }
+
+  /**
+   * Stops adopting the transitions published by peers. The breaker's own transitions are still
+   * published.
+   */
+  @Override
+  public void close() {
+    consumer.unregister();
+  }
+
+  private void onTransition(CircuitBreakerState state) {
+    if (!adopted.compareAndSet(state, null)) {
+      eventBus.publish(address, new JsonObject()
+          .put(INSTANCE_KEY, instanceId)
+          .put(STATE_KEY, state.name()));
+    }
+  }
+
+  private void onPeerTransition(Message<JsonObject> message) {
+    JsonObject body = message.body();
+    if (instanceId.equals(body.getString(INSTANCE_KEY))) {
+      return;
+    }
+    CircuitBreakerState state = CircuitBreakerState.valueOf(body.getString(STATE_KEY));
+    if (state == circuitBreaker.state()) {
+      return;
+    }
+    adopted.set(state);
+    try {
+      if (state == CircuitBreakerState.OPEN) {
+        circuitBreaker.open();
+      } else if (state == CircuitBreakerState.CLOSED) {
+        circuitBreaker.reset();
+      }
+    } finally {
+      // the handlers are called by open() and reset(), a no-op must not hide a later transition
+      adopted.compareAndSet(state, null);
+    }
+  }
+}
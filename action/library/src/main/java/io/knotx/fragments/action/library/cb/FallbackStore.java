@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cb;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.knotx.fragments.action.library.cache.operations.CacheKeyTemplate;
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.api.FragmentContext;
+import io.vertx.core.json.JsonObject;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers the payload of the last successful <code>doAction</code> call per key, so the
+ * circuit breaker can serve it while the dependency is down. Payloads are kept as immutable
+ * binary encodings in a bounded LRU cache, so serving one is a lookup and a decode, and a later
+ * change of the served fragment cannot change the remembered payload.
+ */
+class FallbackStore {
+
+  private final CacheKeyTemplate keyTemplate;
+  private final Cache<String, Entry> payloads;
+
+  FallbackStore(FallbackStoreOptions options) {
+    this.keyTemplate = CacheKeyTemplate.compile(options.getKey(), false);
+    this.payloads = CacheBuilder.newBuilder()
+        .maximumSize(options.getMaximumSize())
+        .expireAfterWrite(options.getMaxAgeMs(), TimeUnit.MILLISECONDS)
+        .build();
+  }
+
+  void remember(FragmentContext context, Fragment result) {
+    payloads.put(keyTemplate.resolve(context),
+        new Entry(EncodedPayload.encode(result.getPayload()), System.currentTimeMillis()));
+  }
+
+  /**
+   * @param context original fragment context
+   * @return the context fragment with the last known good payload merged in, with the payload age
+   * in milliseconds
+   */
+  Optional<StalePayload> lastKnownGood(FragmentContext context) {
+    Entry entry = payloads.getIfPresent(keyTemplate.resolve(context));
+    if (entry == null) {
+      return Optional.empty();
+    }
+    Fragment fragment = context.getFragment()
+        .mergeInPayload((JsonObject) entry.payload.decode());
+    return Optional.of(new StalePayload(fragment, System.currentTimeMillis() - entry.storedAt));
+  }
+
+  static final class StalePayload {
+
+    private final Fragment fragment;
+    private final long ageMs;
+
+    private StalePayload(Fragment fragment, long ageMs) {
+      this.fragment = fragment;
+      this.ageMs = ageMs;
+    }
+
+    Fragment getFragment() {
+      return fragment;
+    }
+
+    long getAgeMs() {
+      return ageMs;
+    }
+  }
+
+  private static final class Entry {
+
+    private final EncodedPayload payload;
+    private final long storedAt;
+
+    private Entry(EncodedPayload payload, long storedAt) {
+      this.payload = payload;
+      this.storedAt = storedAt;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cb;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Configures the last-known-good fallback store of the circuit breaker action.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class FallbackStoreOptions {
+
+  private static final long DEFAULT_MAXIMUM_SIZE = 1000L;
+  private static final long DEFAULT_MAX_AGE_MS = 3_600_000L;
+
+  private boolean enabled;
+  private String key = "";
+  private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+  private long maxAgeMs = DEFAULT_MAX_AGE_MS;
+
+  public FallbackStoreOptions() {
+    // default values
+  }
+
+  public FallbackStoreOptions(FallbackStoreOptions other) {
+    this.enabled = other.enabled;
+    this.key = other.key;
+    this.maximumSize = other.maximumSize;
+    this.maxAgeMs = other.maxAgeMs;
+  }
+
+  public FallbackStoreOptions(JsonObject json) {
+    this();
+    FallbackStoreOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    FallbackStoreOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the store. When enabled, the payload of the last successful <code>doAction</code>
+   * call is served with the <code>_stale</code> transition instead of the <code>_fallback</code>
+   * one. Defaults to false.
+   *
+   * @param enabled whether the store is enabled
+   * @return reference to this, so the API can be used fluently
+   */
+  public FallbackStoreOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public String getKey() {
+    return key;
+  }
+
+  /**
+   * Sets the key schema the payloads are remembered under, with placeholders like the cache key,
+   * e.g. <code>product-{param.id}</code>. Defaults to an empty key, so a single payload is
+   * remembered for the action.
+   *
+   * @param key key schema
+   * @return reference to this, so the API can be used fluently
+   */
+  public FallbackStoreOptions setKey(String key) {
+    this.key = key;
+    return this;
+  }
+
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Sets the maximum number of remembered payloads. The least recently used ones are evicted
+   * first. Defaults to 1000.
+   *
+   * @param maximumSize maximum number of payloads
+   * @return reference to this, so the API can be used fluently
+   */
+  public FallbackStoreOptions setMaximumSize(long maximumSize) {
+    this.maximumSize = maximumSize;
+    return this;
+  }
+
+  public long getMaxAgeMs() {
+    return maxAgeMs;
+  }
+
+  /**
+   * Sets how long a payload can be served after the successful call that produced it, in
+   * milliseconds. Older payloads end with the <code>_fallback</code> transition. Defaults to one
+   * hour.
+   *
+   * @param maxAgeMs maximum payload age in milliseconds
+   * @return reference to this, so the API can be used fluently
+   */
+  public FallbackStoreOptions setMaxAgeMs(long maxAgeMs) {
+    this.maxAgeMs = maxAgeMs;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    FallbackStoreOptions that = (FallbackStoreOptions) o;
+    return enabled == that.enabled &&
+        maximumSize == that.maximumSize &&
+        maxAgeMs == that.maxAgeMs &&
+        Objects.equals(key, that.key);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(enabled, key, maximumSize, maxAgeMs);
+  }
+
+  @Override
+  public String toString() {
+    return "FallbackStoreOptions{" +
+        "enabled=" + enabled +
+        ", key='" + key + '\'' +
+        ", maximumSize=" + maximumSize +
+        ", maxAgeMs=" + maxAgeMs +
+        '}';
+  }
+}
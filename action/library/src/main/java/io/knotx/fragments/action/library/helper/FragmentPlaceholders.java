@@ -20,8 +20,8 @@ import io.knotx.server.common.placeholders.SourceDefinitions;
 
 public class FragmentPlaceholders {
 
-  private static final String PLACEHOLDER_PREFIX_PAYLOAD = "payload";
-  private static final String PLACEHOLDER_PREFIX_CONFIG = "config";
+  public static final String PLACEHOLDER_PREFIX_PAYLOAD = "payload";
+  public static final String PLACEHOLDER_PREFIX_CONFIG = "config";
 
   public static SourceDefinitions buildSourceDefinitions(FragmentContext context) {
     return SourceDefinitions.builder()
@@ -33,4 +33,25 @@ public class FragmentPlaceholders {
         .build();
   }
 
+  /**
+   * Builds source definitions with the selected sources only. Payload and configuration are not
+   * copied, so the returned sources must be used for reading only.
+   */
+  public static SourceDefinitions buildSourceDefinitions(FragmentContext context,
+      boolean withClientRequest, boolean withPayload, boolean withConfig) {
+    SourceDefinitions.Builder builder = SourceDefinitions.builder();
+    if (withClientRequest) {
+      builder.addClientRequestSource(context.getClientRequest());
+    }
+    if (withPayload) {
+      builder.addJsonObjectSource(context.getFragment().peekPayload(),
+          PLACEHOLDER_PREFIX_PAYLOAD);
+    }
+    if (withConfig) {
+      builder.addJsonObjectSource(context.getFragment().peekConfiguration(),
+          PLACEHOLDER_PREFIX_CONFIG);
+    }
+    return builder.build();
+  }
+
 }
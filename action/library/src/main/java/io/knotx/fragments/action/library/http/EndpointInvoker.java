@@ -17,23 +17,44 @@ package io.knotx.fragments.action.library.http;
 
 import io.knotx.fragments.action.library.http.options.HttpActionOptions;
 import io.knotx.fragments.action.library.http.request.EndpointRequest;
+import io.knotx.fragments.action.library.http.upstream.LatencyHistogram;
+import io.knotx.fragments.action.library.http.upstream.Upstream;
+import io.knotx.fragments.action.library.http.upstream.UpstreamBalancer;
+import io.knotx.fragments.action.library.http.upstream.UpstreamListener;
+import io.reactivex.Scheduler;
 import io.reactivex.Single;
+import io.reactivex.schedulers.Schedulers;
+import io.reactivex.subjects.SingleSubject;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
 import io.vertx.core.eventbus.ReplyException;
 import io.vertx.core.eventbus.ReplyFailure;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.reactivex.RxHelper;
 import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.ext.web.client.HttpRequest;
 import io.vertx.reactivex.ext.web.client.HttpResponse;
 import io.vertx.reactivex.ext.web.client.WebClient;
 import io.vertx.reactivex.ext.web.client.predicate.ErrorConverter;
 import io.vertx.reactivex.ext.web.client.predicate.ResponsePredicate;
+import io.vertx.reactivex.ext.web.client.predicate.ResponsePredicateResult;
+import java.io.IOException;
 import java.util.EnumSet;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 class EndpointInvoker {
 
   private static final ResponsePredicate IS_JSON_RESPONSE = createJsonPredicate();
   private static final String JSON = "JSON";
+  private static final int NO_RESPONSE = -1;
+  private static final long LATENCY_WINDOW_MS = 60_000L;
   private static final EnumSet<HttpMethod> HTTP_METHODS_WITH_BODY = EnumSet
       .of(HttpMethod.PUT, HttpMethod.POST, HttpMethod.PATCH);
 
@@ -42,35 +63,159 @@ class EndpointInvoker {
   private final HttpMethod httpMethod;
   private final ResponsePredicatesProvider predicatesProvider = new ResponsePredicatesProvider();
   private final boolean isJsonPredicate;
+  private final ResponsePredicate maxBodySizePredicate;
+  private final UpstreamBalancer upstreamBalancer;
+  private final LatencyHistogram latencies;
+  private final RequestHedging hedging;
+  private final RequestTimeout requestTimeout;
 
   EndpointInvoker(WebClient webClient, HttpActionOptions httpActionOptions) {
     this.webClient = webClient;
     this.httpActionOptions = httpActionOptions;
     this.httpMethod = HttpMethod.valueOf(httpActionOptions.getHttpMethod().toUpperCase());
     this.isJsonPredicate = httpActionOptions.getResponseOptions().getPredicates().contains(JSON);
+    this.maxBodySizePredicate = createMaxBodySizePredicate(
+        httpActionOptions.getResponseOptions().getMaxBodySize());
+    this.upstreamBalancer = UpstreamBalancer.create(httpActionOptions.getEndpointOptions());
+    this.latencies = new LatencyHistogram(LATENCY_WINDOW_MS);
+    this.hedging = new RequestHedging(httpActionOptions.getHedgingOptions(), latencies);
+    this.requestTimeout = new RequestTimeout(httpActionOptions, latencies);
   }
 
   Single<HttpResponse<Buffer>> invokeEndpoint(EndpointRequest endpointRequest) {
-    return Single.just(endpointRequest)
-        .map(this::createHttpRequest)
-        .doOnSuccess(this::addPredicates)
-        .flatMap(request ->
-            shouldSendBody() ?
-                request.rxSendBuffer(Buffer.buffer(endpointRequest.getBody()))
-                : request.rxSend());
+    return invokeEndpoint(endpointRequest, UpstreamListener.NONE);
+  }
+
+  Single<HttpResponse<Buffer>> invokeEndpoint(EndpointRequest endpointRequest,
+      UpstreamListener listener) {
+    return Single.defer(() -> {
+      long timeoutMs = requestTimeout.currentTimeoutMs();
+      listener.onRequestTimeout(timeoutMs, requestTimeout.isAdaptive());
+      Single<HttpResponse<Buffer>> request = attempt(endpointRequest, timeoutMs,
+          listener::onUpstreamChosen);
+      if (!hedging.isEnabled()) {
+        return request;
+      }
+      long hedgeDelayMs = hedging.onRequest();
+      return hedgeDelayMs == RequestHedging.NO_HEDGE ? request
+          : hedged(request, endpointRequest, timeoutMs, hedgeDelayMs, listener);
+    });
+  }
+
+  private Single<HttpResponse<Buffer>> hedged(Single<HttpResponse<Buffer>> request,
+      EndpointRequest endpointRequest, long timeoutMs, long hedgeDelayMs,
+      UpstreamListener listener) {
+    AtomicReference<Upstream> hedgeUpstream = new AtomicReference<>();
+    AtomicReference<HttpResponse<Buffer>> hedgeResponse = new AtomicReference<>();
+    // requests without a result yet, once the hedge is sent an error of either request waits for
+    // the other one and the action fails only when both requests fail
+    AtomicInteger pending = new AtomicInteger(1);
+    AtomicReference<Throwable> originalError = new AtomicReference<>();
+    Single<HttpResponse<Buffer>> original = request
+        .onErrorResumeNext(error -> {
+          originalError.set(error);
+          return lastFailure(pending, error);
+        });
+    Single<HttpResponse<Buffer>> hedge = Single
+        .timer(hedgeDelayMs, TimeUnit.MILLISECONDS, currentContextScheduler())
+        .flatMap(tick -> {
+          if (!hedging.tryAcquire()) {
+            return Single.<HttpResponse<Buffer>>never();
+          }
+          pending.incrementAndGet();
+          return attempt(endpointRequest, timeoutMs, hedgeUpstream::set)
+              .doOnSuccess(hedgeResponse::set)
+              .onErrorResumeNext(error -> lastFailure(pending,
+                  originalError.get() != null ? originalError.get() : error));
+        });
+    // the first response wins, the other request is disposed but still runs until its response,
+    // which is recorded in metrics
+    return Single.ambArray(original, hedge)
+        .doOnEvent((response, error) -> {
+          Upstream upstream = hedgeUpstream.get();
+          if (upstream != null) {
+            listener.onHedge(upstream, hedgeDelayMs,
+                response != null && response == hedgeResponse.get());
+          }
+        });
+  }
+
+  private static Single<HttpResponse<Buffer>> lastFailure(AtomicInteger pending,
+      Throwable error) {
+    return pending.decrementAndGet() == 0 ? Single.error(error) : Single.never();
+  }
+
+  private Single<HttpResponse<Buffer>> attempt(EndpointRequest endpointRequest, long timeoutMs,
+      Consumer<Upstream> onUpstreamChosen) {
+    return Single.defer(() -> {
+      Upstream upstream = upstreamBalancer.choose();
+      onUpstreamChosen.accept(upstream);
+      return invokeUpstream(upstream, endpointRequest, timeoutMs);
+    });
+  }
+
+  private static Scheduler currentContextScheduler() {
+    Context context = Vertx.currentContext();
+    return context != null ? RxHelper.scheduler(context) : Schedulers.computation();
+  }
+
+  private Single<HttpResponse<Buffer>> invokeUpstream(Upstream upstream,
+      EndpointRequest endpointRequest, long timeoutMs) {
+    HttpRequest<Buffer> request = createHttpRequest(upstream, endpointRequest, timeoutMs);
+    // status is captured before other predicates, which may turn the response into an error
+    AtomicInteger statusCode = new AtomicInteger(NO_RESPONSE);
+    request.expect(ResponsePredicate.create(response -> {
+      statusCode.set(response.statusCode());
+      return ResponsePredicateResult.success();
+    }));
+    addPredicates(request);
+
+    Upstream.Call call = upstream.begin();
+    long startNanos = System.nanoTime();
+    // disposing does not abort a WebClient request, so it is not propagated: the request keeps
+    // the upstream busy and is tracked until its response or error arrives
+    SingleSubject<HttpResponse<Buffer>> result = SingleSubject.create();
+    send(request, endpointRequest)
+        .doOnSuccess(response -> {
+          latencies.record(System.nanoTime() - startNanos);
+          call.complete(isUpstreamFailure(statusCode.get(), null));
+        })
+        .doOnError(error -> {
+          // connection errors are usually fast, so they would understate the endpoint latency
+          if (statusCode.get() != NO_RESPONSE || error instanceof TimeoutException) {
+            latencies.record(System.nanoTime() - startNanos);
+          }
+          call.complete(isUpstreamFailure(statusCode.get(), error));
+        })
+        .subscribe(result);
+    return result;
+  }
+
+  private Single<HttpResponse<Buffer>> send(HttpRequest<Buffer> request,
+      EndpointRequest endpointRequest) {
+    return shouldSendBody() ?
+        request.rxSendBuffer(Buffer.buffer(endpointRequest.getBody()))
+        : request.rxSend();
+  }
+
+  private static boolean isUpstreamFailure(int statusCode, Throwable error) {
+    if (statusCode != NO_RESPONSE) {
+      return statusCode >= 500;
+    }
+    // connection errors and timeouts, rejections of the JSON predicate are not instance failures
+    return error instanceof TimeoutException || error instanceof IOException
+        || (error instanceof VertxException && !(error instanceof ReplyException));
   }
 
   private boolean shouldSendBody() {
     return HTTP_METHODS_WITH_BODY.contains(httpMethod);
   }
 
-  private HttpRequest<Buffer> createHttpRequest(EndpointRequest endpointRequest) {
+  private HttpRequest<Buffer> createHttpRequest(Upstream upstream,
+      EndpointRequest endpointRequest, long timeoutMs) {
     return webClient
-        .request(httpMethod,
-            httpActionOptions.getEndpointOptions().getPort(),
-            httpActionOptions.getEndpointOptions().getDomain(),
-            endpointRequest.getPath())
-        .timeout(httpActionOptions.getRequestTimeoutMs())
+        .request(httpMethod, upstream.getPort(), upstream.getDomain(), endpointRequest.getPath())
+        .timeout(timeoutMs)
         .putHeaders(endpointRequest.getHeaders());
   }
 
@@ -78,6 +223,9 @@ class EndpointInvoker {
     if (isJsonPredicate) {
       request.expect(IS_JSON_RESPONSE);
     }
+    if (maxBodySizePredicate != null) {
+      request.expect(maxBodySizePredicate);
+    }
     attachResponsePredicatesToRequest(request,
         httpActionOptions.getResponseOptions().getPredicates());
   }
@@ -90,6 +238,31 @@ class EndpointInvoker {
         .forEach(request::expect);
   }
 
+  private static ResponsePredicate createMaxBodySizePredicate(long maxBodySize) {
+    if (maxBodySize <= 0) {
+      return null;
+    }
+    // predicates are evaluated on response headers, so the body is not read when declared too big
+    return ResponsePredicate.create(response -> {
+      String contentLength = response.getHeader(HttpHeaderNames.CONTENT_LENGTH.toString());
+      if (contentLength != null && parseContentLength(contentLength) > maxBodySize) {
+        return ResponsePredicateResult.failure(String
+            .format("Response Content-Length %s exceeds the limit of %d bytes", contentLength,
+                maxBodySize));
+      }
+      return ResponsePredicateResult.success();
+    });
+  }
+
+  private static long parseContentLength(String contentLength) {
+    try {
+      return Long.parseLong(contentLength.trim());
+    } catch (NumberFormatException e) {
+      // invalid header, the body size is verified after reading it
+      return -1L;
+    }
+  }
+
   private static ResponsePredicate createJsonPredicate() {
     return ResponsePredicate.create(
         ResponsePredicate.JSON,
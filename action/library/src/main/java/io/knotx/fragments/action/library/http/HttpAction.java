@@ -38,7 +38,11 @@ import io.vertx.reactivex.ext.web.client.WebClient;
 
 import java.util.concurrent.TimeoutException;
 
-public class HttpAction implements SingleAction {
+/**
+ * Calls an HTTP endpoint. A Web client created by the action factory outside of a verticle is
+ * owned by the action and closed when the action is closed.
+ */
+public class HttpAction implements SingleAction, AutoCloseable {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(HttpAction.class);
 
@@ -49,8 +53,15 @@ public class HttpAction implements SingleAction {
   private final EndpointRequestComposer requestComposer;
   private final EndpointInvoker endpointInvoker;
   private final EndpointResponseProcessor responseProcessor;
+  private final WebClient ownedWebClient;
 
   HttpAction(WebClient webClient, HttpActionOptions httpActionOptions, String actionAlias) {
+    this(webClient, false, httpActionOptions, actionAlias);
+  }
+
+  HttpAction(WebClient webClient, boolean ownsWebClient, HttpActionOptions httpActionOptions,
+      String actionAlias) {
+    this.ownedWebClient = ownsWebClient ? webClient : null;
     this.endpointOptions = httpActionOptions.getEndpointOptions();
     this.actionAlias = actionAlias;
     this.logLevel = ActionLogLevel
@@ -69,7 +80,7 @@ public class HttpAction implements SingleAction {
         .map(requestComposer::createEndpointRequest)
         .doOnSuccess(httpActionLogger::onRequestCreation)
         .flatMap(
-            request -> endpointInvoker.invokeEndpoint(request)
+            request -> endpointInvoker.invokeEndpoint(request, httpActionLogger)
                 .doOnSuccess(httpActionLogger::onRequestSucceeded)
                 .doOnError(httpActionLogger::onRequestFailed)
                 .map(EndpointResponse::fromHttpResponse)
@@ -80,6 +91,13 @@ public class HttpAction implements SingleAction {
         .onErrorReturn(error -> errorTransition(fragmentContext, httpActionLogger));
   }
 
+  @Override
+  public void close() {
+    if (ownedWebClient != null) {
+      ownedWebClient.close();
+    }
+  }
+
   private FragmentResult composeFragmentResult(Fragment fragment, HttpActionResult result, HttpActionLogger httpActionLogger) {
     fragment.appendPayload(actionAlias, result.getActionPayload().toJson());
     return success(fragment, result.getTransition(), httpActionLogger.getJsonNodeLog());
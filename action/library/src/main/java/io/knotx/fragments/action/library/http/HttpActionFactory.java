@@ -24,6 +24,8 @@ import static io.vertx.core.http.HttpMethod.PUT;
 
 import com.google.common.collect.ImmutableSet;
 import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.http.options.AdaptiveTimeoutOptions;
+import io.knotx.fragments.action.library.http.options.HedgingOptions;
 import io.knotx.fragments.action.library.http.options.HttpActionOptions;
 import io.knotx.fragments.action.api.Action;
 import io.knotx.fragments.action.api.ActionFactory;
@@ -40,6 +42,7 @@ public class HttpActionFactory implements ActionFactory {
 
   private static final Set<HttpMethod> SUPPORTED_METHODS = ImmutableSet
       .of(GET, POST, PATCH, PUT, DELETE, HEAD);
+  private static final Set<HttpMethod> HEDGING_METHODS = ImmutableSet.of(GET, HEAD);
 
   private final WebClientCache webClientCache = new WebClientCache();
 
@@ -50,13 +53,27 @@ public class HttpActionFactory implements ActionFactory {
 
   @Override
   public Action create(String alias, JsonObject config, Vertx vertx, Action doAction) {
+    return create(alias, config, vertx, doAction, false);
+  }
+
+  @Override
+  public Action create(String alias, JsonObject config, Vertx vertx, Action doAction,
+      boolean shared) {
     HttpActionOptions options = new HttpActionOptions(config);
 
     validateNoDoAction(doAction, alias);
     validateHttpMethodSupported(options, alias);
+    validateHedging(options, alias);
+    validateAdaptiveTimeout(options, alias);
 
+    if (shared) {
+      // a shared action is created outside of any verticle, so the client is not closed by Vert.x
+      WebClient webClient = WebClient
+          .create(io.vertx.reactivex.core.Vertx.newInstance(vertx), options.getWebClientOptions());
+      return tryToCreateAction(webClient, true, options, alias);
+    }
     WebClient webClient = webClientCache.getOrCreate(vertx, options.getWebClientOptions());
-    return tryToCreateAction(webClient, options, alias);
+    return tryToCreateAction(webClient, false, options, alias);
   }
 
   private void validateNoDoAction(Action doAction, String alias) {
@@ -74,6 +91,42 @@ public class HttpActionFactory implements ActionFactory {
     }
   }
 
+  private void validateHedging(HttpActionOptions options, String alias) {
+    HedgingOptions hedgingOptions = options.getHedgingOptions();
+    if (!hedgingOptions.isEnabled()) {
+      return;
+    }
+    if (!HEDGING_METHODS.contains(findHttpMethod(options.getHttpMethod(), alias))) {
+      throw new ActionConfigurationException(alias,
+          String.format("Hedging is not supported for HttpMethod %s, only idempotent %s are",
+              options.getHttpMethod(), HEDGING_METHODS));
+    }
+    if (hedgingOptions.getDelayMs() <= 0
+        && (hedgingOptions.getQuantile() <= 0 || hedgingOptions.getQuantile() >= 1)) {
+      throw new ActionConfigurationException(alias,
+          String.format("Hedging quantile %s must be between 0 and 1",
+              hedgingOptions.getQuantile()));
+    }
+  }
+
+  private void validateAdaptiveTimeout(HttpActionOptions options, String alias) {
+    AdaptiveTimeoutOptions timeoutOptions = options.getAdaptiveTimeoutOptions();
+    if (!timeoutOptions.isEnabled()) {
+      return;
+    }
+    if (timeoutOptions.getQuantile() <= 0 || timeoutOptions.getQuantile() > 1) {
+      throw new ActionConfigurationException(alias,
+          String.format("Adaptive timeout quantile %s must be between 0 and 1",
+              timeoutOptions.getQuantile()));
+    }
+    if (timeoutOptions.getMinTimeoutMs() <= 0
+        || timeoutOptions.getMinTimeoutMs() > timeoutOptions.getMaxTimeoutMs()) {
+      throw new ActionConfigurationException(alias,
+          String.format("Adaptive timeout bounds [%d, %d] ms are invalid",
+              timeoutOptions.getMinTimeoutMs(), timeoutOptions.getMaxTimeoutMs()));
+    }
+  }
+
   private HttpMethod findHttpMethod(String methodName, String actionAlias) {
     return Stream.of(HttpMethod.values())
         .filter(httpMethod -> httpMethod.name().equalsIgnoreCase(methodName))
@@ -83,10 +136,14 @@ public class HttpActionFactory implements ActionFactory {
                 methodName)));
   }
 
-  private Action tryToCreateAction(WebClient webClient, HttpActionOptions options, String alias) {
+  private Action tryToCreateAction(WebClient webClient, boolean ownsWebClient,
+      HttpActionOptions options, String alias) {
     try {
-      return new HttpAction(webClient, options, alias);
+      return new HttpAction(webClient, ownsWebClient, options, alias);
     } catch (IllegalArgumentException cause) {
+      if (ownsWebClient) {
+        webClient.close();
+      }
       throw new ActionConfigurationException(alias, "Creating HttpAction failed", cause);
     }
   }
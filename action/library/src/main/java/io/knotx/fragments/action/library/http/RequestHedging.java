@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http;
+
+import io.knotx.fragments.action.library.http.options.HedgingOptions;
+import io.knotx.fragments.action.library.http.upstream.LatencyHistogram;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides when a hedged request is sent. Hedged requests are paid from a budget that every
+ * request replenishes with the configured percentage of a single hedge, so hedging never exceeds
+ * that share of the traffic apart from short bursts.
+ */
+class RequestHedging {
+
+  static final long NO_HEDGE = -1L;
+
+  private static final long MIN_SAMPLES = 100L;
+  private static final long HEDGE_COST = 1000L;
+  private static final long MAX_BURST = 10L * HEDGE_COST;
+
+  private final boolean enabled;
+  private final long delayMs;
+  private final double quantile;
+  private final long refill;
+  private final LatencyHistogram latencies;
+  private final AtomicLong balance;
+
+  RequestHedging(HedgingOptions options, LatencyHistogram latencies) {
+    this.enabled = options.isEnabled() && options.getBudgetPercent() > 0;
+    this.delayMs = options.getDelayMs();
+    this.quantile = options.getQuantile();
+    this.refill = Math.round(options.getBudgetPercent() / 100.0d * HEDGE_COST);
+    this.latencies = latencies;
+    this.balance = new AtomicLong(MAX_BURST);
+  }
+
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Replenishes the budget for a new request and returns the delay of its hedged request.
+   *
+   * @return delay in milliseconds or {@link RequestHedging#NO_HEDGE} when there are not enough
+   * latency samples yet
+   */
+  long onRequest() {
+    balance.accumulateAndGet(refill, (current, added) -> Math.min(current + added, MAX_BURST));
+    if (delayMs > 0) {
+      return delayMs;
+    }
+    return latencies.getCount() < MIN_SAMPLES ? NO_HEDGE : latencies.getQuantileMs(quantile);
+  }
+
+  /**
+   * Takes a single hedge from the budget.
+   *
+   * @return false when the budget is exhausted
+   */
+  boolean tryAcquire() {
+    long current;
+    do {
+      current = balance.get();
+      if (current < HEDGE_COST) {
+        return false;
+      }
+    } while (!balance.compareAndSet(current, current - HEDGE_COST));
+    return true;
+  }
+
+}
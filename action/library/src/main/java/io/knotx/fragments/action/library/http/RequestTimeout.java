@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http;
+
+import io.knotx.fragments.action.library.http.options.AdaptiveTimeoutOptions;
+import io.knotx.fragments.action.library.http.options.HttpActionOptions;
+import io.knotx.fragments.action.library.http.upstream.LatencyHistogram;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Provides the request timeout: either the static {@link HttpActionOptions#getRequestTimeoutMs()}
+ * or the adaptive one, derived from the observed latency quantile plus headroom and bounded by the
+ * configured floor and ceiling. The adaptive timeout is recomputed at most once per second.
+ */
+class RequestTimeout {
+
+  private static final long MIN_SAMPLES = 100L;
+  private static final long REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final boolean adaptive;
+  private final long staticTimeoutMs;
+  private final double quantile;
+  private final double headroomFactor;
+  private final long minTimeoutMs;
+  private final long maxTimeoutMs;
+  private final LatencyHistogram latencies;
+  private final LongSupplier clock;
+
+  private volatile long timeoutMs;
+  private volatile long nextRefreshNanos;
+
+  RequestTimeout(HttpActionOptions options, LatencyHistogram latencies) {
+    this(options, latencies, System::nanoTime);
+  }
+
+  RequestTimeout(HttpActionOptions options, LatencyHistogram latencies, LongSupplier clock) {
+    AdaptiveTimeoutOptions adaptiveOptions = options.getAdaptiveTimeoutOptions();
+    this.adaptive = adaptiveOptions.isEnabled();
+    this.staticTimeoutMs = options.getRequestTimeoutMs();
+    this.quantile = adaptiveOptions.getQuantile();
+    this.headroomFactor = 1.0d + adaptiveOptions.getHeadroomPercent() / 100.0d;
+    this.minTimeoutMs = adaptiveOptions.getMinTimeoutMs();
+    this.maxTimeoutMs = adaptiveOptions.getMaxTimeoutMs();
+    this.latencies = latencies;
+    this.clock = clock;
+    this.timeoutMs = adaptive ? maxTimeoutMs : staticTimeoutMs;
+    this.nextRefreshNanos = clock.getAsLong();
+  }
+
+  boolean isAdaptive() {
+    return adaptive;
+  }
+
+  /**
+   * @return current request timeout in milliseconds, zero or a negative value means no timeout
+   */
+  long currentTimeoutMs() {
+    if (adaptive) {
+      long now = clock.getAsLong();
+      if (now - nextRefreshNanos >= 0) {
+        // concurrent refreshes compute the same value, so no coordination is needed
+        nextRefreshNanos = now + REFRESH_INTERVAL_NANOS;
+        timeoutMs = computeTimeoutMs();
+      }
+    }
+    return timeoutMs;
+  }
+
+  private long computeTimeoutMs() {
+    if (latencies.getCount() < MIN_SAMPLES) {
+      return maxTimeoutMs;
+    }
+    long timeout = (long) Math.ceil(latencies.getQuantileMs(quantile) * headroomFactor);
+    return Math.min(Math.max(timeout, minTimeoutMs), maxTimeoutMs);
+  }
+
+}
@@ -18,32 +18,38 @@ package io.knotx.fragments.action.library.http.log;
 import io.knotx.commons.json.MultiMapTransformer;
 import io.knotx.fragments.action.library.http.options.EndpointOptions;
 import io.knotx.fragments.action.library.http.request.EndpointRequest;
+import io.knotx.fragments.action.library.http.upstream.Upstream;
+import io.knotx.fragments.action.library.http.upstream.UpstreamListener;
 import io.knotx.fragments.action.api.log.ActionLogLevel;
 import io.vertx.core.json.JsonObject;
 import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.ext.web.client.HttpResponse;
 import org.apache.commons.lang3.StringUtils;
 
-public class HttpActionLogger {
+public class HttpActionLogger implements UpstreamListener {
 
   private final HttpActionNodeLogger httpActionNodeLogger;
+  private final ActionLogLevel logLevel;
   private final EndpointOptions endpointOptions;
   private final String httpMethod;
 
   private EndpointRequest endpointRequest;
+  private Upstream upstream;
+  private JsonObject requestTimeout;
   private HttpResponseData httpResponseData;
   private Buffer httpResponseBody;
 
-  private HttpActionLogger(HttpActionNodeLogger httpActionNodeLogger,
+  private HttpActionLogger(HttpActionNodeLogger httpActionNodeLogger, ActionLogLevel logLevel,
       EndpointOptions endpointOptions, String httpMethod) {
     this.httpActionNodeLogger = httpActionNodeLogger;
+    this.logLevel = logLevel;
     this.endpointOptions = endpointOptions;
     this.httpMethod = httpMethod;
   }
 
   public static HttpActionLogger create(String actionAlias, ActionLogLevel logLevel,
       EndpointOptions endpointOptions, String httpMethod) {
-    return new HttpActionLogger(HttpActionNodeLogger.create(actionAlias, logLevel),
+    return new HttpActionLogger(HttpActionNodeLogger.create(actionAlias, logLevel), logLevel,
         endpointOptions, httpMethod);
   }
 
@@ -56,6 +62,37 @@ public class HttpActionLogger {
     logRequest(ActionLogLevel.INFO);
   }
 
+  @Override
+  public void onRequestTimeout(long timeoutMs, boolean adaptive) {
+    this.requestTimeout = new JsonObject()
+        .put("timeoutMs", timeoutMs)
+        .put("adaptive", adaptive);
+    httpActionNodeLogger.logTimeout(ActionLogLevel.INFO, requestTimeout);
+  }
+
+  public void onTimeout() {
+    if (requestTimeout != null) {
+      httpActionNodeLogger.logTimeout(ActionLogLevel.ERROR, requestTimeout);
+    }
+  }
+
+  @Override
+  public void onUpstreamChosen(Upstream upstream) {
+    this.upstream = upstream;
+    // metrics snapshot is logged on info level only, so skip building it otherwise
+    if (ActionLogLevel.INFO == logLevel) {
+      logUpstream(ActionLogLevel.INFO);
+    }
+  }
+
+  @Override
+  public void onHedge(Upstream upstream, long delayMs, boolean won) {
+    httpActionNodeLogger.logHedge(new JsonObject()
+        .put("upstream", upstream.toString())
+        .put("delayMs", delayMs)
+        .put("won", won));
+  }
+
   public void onRequestSucceeded(HttpResponse<Buffer> response) {
     this.httpResponseData = HttpResponseData.from(response);
     this.httpResponseBody = response.body();
@@ -91,7 +128,11 @@ public class HttpActionLogger {
   }
 
   private void logResponseBody() {
-    httpActionNodeLogger.logResponseBody(httpResponseBody != null ? httpResponseBody.toString() : StringUtils.EMPTY);
+    // response body is logged on info level only, so skip decoding it to String otherwise
+    if (ActionLogLevel.INFO == logLevel) {
+      httpActionNodeLogger.logResponseBody(
+          httpResponseBody != null ? httpResponseBody.toString() : StringUtils.EMPTY);
+    }
   }
 
   public void onDifferentError(Throwable throwable) {
@@ -106,6 +147,13 @@ public class HttpActionLogger {
 
   private void logRequest(ActionLogLevel logLevel) {
     httpActionNodeLogger.logRequest(logLevel, getRequestData());
+    if (upstream != null) {
+      logUpstream(logLevel);
+    }
+  }
+
+  private void logUpstream(ActionLogLevel logLevel) {
+    httpActionNodeLogger.logUpstream(logLevel, upstream.toJson());
   }
 
   private void logResponse(ActionLogLevel logLevel) {
@@ -128,8 +176,9 @@ public class HttpActionLogger {
   }
 
   private String getRequestPath() {
-    return endpointOptions.getDomain() + ":" + endpointOptions.getPort() + endpointRequest
-        .getPath();
+    String address = upstream != null ? upstream.toString()
+        : endpointOptions.getDomain() + ":" + endpointOptions.getPort();
+    return address + endpointRequest.getPath();
   }
 
 }
@@ -24,6 +24,9 @@ class HttpActionNodeLogger {
   private static final String REQUEST = "request";
   private static final String RESPONSE = "response";
   private static final String RESPONSE_BODY = "responseBody";
+  private static final String UPSTREAM = "upstream";
+  private static final String HEDGE = "hedge";
+  private static final String TIMEOUT = "timeout";
 
   private final ActionLogger actionLogger;
 
@@ -43,10 +46,22 @@ class HttpActionNodeLogger {
     log(level, REQUEST, requestData);
   }
 
+  void logUpstream(ActionLogLevel level, JsonObject upstreamData) {
+    log(level, UPSTREAM, upstreamData);
+  }
+
   void logResponse(ActionLogLevel level, JsonObject responseData) {
     log(level, RESPONSE, responseData);
   }
 
+  void logTimeout(ActionLogLevel level, JsonObject timeoutData) {
+    log(level, TIMEOUT, timeoutData);
+  }
+
+  void logHedge(JsonObject hedgeData) {
+    actionLogger.info(HEDGE, hedgeData);
+  }
+
   void logResponseBody(String responseBody) {
     actionLogger.info(RESPONSE_BODY, responseBody);
   }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.options;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Configures the adaptive request timeout, derived from the observed latency of the endpoint
+ * instead of a static {@link HttpActionOptions#getRequestTimeoutMs()} value.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class AdaptiveTimeoutOptions {
+
+  private static final double DEFAULT_QUANTILE = 0.99d;
+  private static final double DEFAULT_HEADROOM_PERCENT = 50.0d;
+  private static final long DEFAULT_MIN_TIMEOUT_MS = 100L;
+  private static final long DEFAULT_MAX_TIMEOUT_MS = 10_000L;
+
+  private boolean enabled;
+  private double quantile = DEFAULT_QUANTILE;
+  private double headroomPercent = DEFAULT_HEADROOM_PERCENT;
+  private long minTimeoutMs = DEFAULT_MIN_TIMEOUT_MS;
+  private long maxTimeoutMs = DEFAULT_MAX_TIMEOUT_MS;
+
+  public AdaptiveTimeoutOptions() {
+    //empty default constructor
+  }
+
+  public AdaptiveTimeoutOptions(AdaptiveTimeoutOptions other) {
+    this.enabled = other.enabled;
+    this.quantile = other.quantile;
+    this.headroomPercent = other.headroomPercent;
+    this.minTimeoutMs = other.minTimeoutMs;
+    this.maxTimeoutMs = other.maxTimeoutMs;
+  }
+
+  public AdaptiveTimeoutOptions(JsonObject json) {
+    this();
+    AdaptiveTimeoutOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    AdaptiveTimeoutOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables the adaptive request timeout. When enabled, {@link HttpActionOptions#getRequestTimeoutMs()}
+   * is ignored. Defaults to false.
+   *
+   * @param enabled flag enabling the adaptive request timeout
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public double getQuantile() {
+    return quantile;
+  }
+
+  /**
+   * Sets the quantile of the observed endpoint latency the timeout is derived from. Defaults to
+   * 0.99.
+   *
+   * @param quantile latency quantile, between 0 and 1
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setQuantile(double quantile) {
+    this.quantile = quantile;
+    return this;
+  }
+
+  public double getHeadroomPercent() {
+    return headroomPercent;
+  }
+
+  /**
+   * Sets the headroom added to the latency quantile, in percents of the quantile. Defaults to 50,
+   * so the timeout is 1.5 times the latency quantile.
+   *
+   * @param headroomPercent headroom in percents
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setHeadroomPercent(double headroomPercent) {
+    this.headroomPercent = headroomPercent;
+    return this;
+  }
+
+  public long getMinTimeoutMs() {
+    return minTimeoutMs;
+  }
+
+  /**
+   * Sets the lowest timeout in milliseconds the adaptive timeout can reach. Defaults to 100.
+   *
+   * @param minTimeoutMs timeout floor in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setMinTimeoutMs(long minTimeoutMs) {
+    this.minTimeoutMs = minTimeoutMs;
+    return this;
+  }
+
+  public long getMaxTimeoutMs() {
+    return maxTimeoutMs;
+  }
+
+  /**
+   * Sets the highest timeout in milliseconds the adaptive timeout can reach. It is also used until
+   * enough latencies are observed. Defaults to 10000.
+   *
+   * @param maxTimeoutMs timeout ceiling in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public AdaptiveTimeoutOptions setMaxTimeoutMs(long maxTimeoutMs) {
+    this.maxTimeoutMs = maxTimeoutMs;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    AdaptiveTimeoutOptions that = (AdaptiveTimeoutOptions) o;
+    return enabled == that.enabled && Double.compare(that.quantile, quantile) == 0
+        && Double.compare(that.headroomPercent, headroomPercent) == 0
+        && minTimeoutMs == that.minTimeoutMs && maxTimeoutMs == that.maxTimeoutMs;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(enabled, quantile, headroomPercent, minTimeoutMs, maxTimeoutMs);
+  }
+
+  @Override
+  public String toString() {
+    return "AdaptiveTimeoutOptions{" +
+        "enabled=" + enabled +
+        ", quantile=" + quantile +
+        ", headroomPercent=" + headroomPercent +
+        ", minTimeoutMs=" + minTimeoutMs +
+        ", maxTimeoutMs=" + maxTimeoutMs +
+        '}';
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.options;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Describes a single upstream instance of the HTTP service endpoint.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class EndpointInstanceOptions {
+
+  private String domain;
+  private int port;
+
+  public EndpointInstanceOptions() {
+    //empty default constructor
+  }
+
+  public EndpointInstanceOptions(String domain, int port) {
+    this.domain = domain;
+    this.port = port;
+  }
+
+  public EndpointInstanceOptions(EndpointInstanceOptions other) {
+    this.domain = other.domain;
+    this.port = other.port;
+  }
+
+  public EndpointInstanceOptions(JsonObject json) {
+    this();
+    EndpointInstanceOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    EndpointInstanceOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  /**
+   * @return a domain of the upstream instance
+   */
+  public String getDomain() {
+    return domain;
+  }
+
+  /**
+   * Sets the {@code domain} of the upstream instance
+   *
+   * @param domain - domain of the upstream instance
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EndpointInstanceOptions setDomain(String domain) {
+    this.domain = domain;
+    return this;
+  }
+
+  /**
+   * @return HTTP port of the upstream instance
+   */
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * Sets the HTTP {@code port} of the upstream instance
+   *
+   * @param port - HTTP port
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EndpointInstanceOptions setPort(int port) {
+    this.port = port;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    EndpointInstanceOptions that = (EndpointInstanceOptions) o;
+    return port == that.port && Objects.equals(domain, that.domain);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(domain, port);
+  }
+
+  @Override
+  public String toString() {
+    return "EndpointInstanceOptions{" +
+        "domain='" + domain + '\'' +
+        ", port=" + port +
+        '}';
+  }
+}
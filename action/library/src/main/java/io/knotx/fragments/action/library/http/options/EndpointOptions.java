@@ -38,6 +38,8 @@ public class EndpointOptions {
   private JsonObject bodyJson = new JsonObject();
   private String domain;
   private int port;
+  private List<EndpointInstanceOptions> instances = new ArrayList<>();
+  private LoadBalancerOptions loadBalancerOptions = new LoadBalancerOptions();
   private Set<String> allowedRequestHeaders;
   private JsonObject additionalHeaders;
   private List<Pattern> allowedRequestHeadersPatterns;
@@ -60,6 +62,10 @@ public class EndpointOptions {
     this.body = other.body;
     this.domain = other.domain;
     this.port = other.port;
+    this.instances = other.instances.stream()
+        .map(EndpointInstanceOptions::new)
+        .collect(Collectors.toList());
+    this.loadBalancerOptions = new LoadBalancerOptions(other.loadBalancerOptions);
     this.allowedRequestHeaders = new HashSet<>(other.allowedRequestHeaders);
     this.allowedRequestHeadersPatterns = new ArrayList<>(other.allowedRequestHeadersPatterns);
     this.additionalHeaders = other.additionalHeaders.copy();
@@ -187,6 +193,46 @@ public class EndpointOptions {
     return this;
   }
 
+  /**
+   * @return upstream instances of the external service
+   */
+  public List<EndpointInstanceOptions> getInstances() {
+    return instances;
+  }
+
+  /**
+   * Sets the upstream {@code instances} of the external service. When defined, requests are
+   * balanced between the instances and {@link EndpointOptions#domain} and {@link
+   * EndpointOptions#port} are ignored. Each request goes to the less loaded of two randomly chosen
+   * instances, taking into account their latency and the number of requests in progress.
+   *
+   * @param instances - list of upstream instances
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EndpointOptions setInstances(List<EndpointInstanceOptions> instances) {
+    this.instances = instances;
+    return this;
+  }
+
+  /**
+   * @return load balancing options used when multiple instances are defined
+   */
+  public LoadBalancerOptions getLoadBalancerOptions() {
+    return loadBalancerOptions;
+  }
+
+  /**
+   * Sets the options of balancing requests between {@link EndpointOptions#instances}, such as
+   * ejecting failing instances.
+   *
+   * @param loadBalancerOptions - {@link LoadBalancerOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EndpointOptions setLoadBalancerOptions(LoadBalancerOptions loadBalancerOptions) {
+    this.loadBalancerOptions = loadBalancerOptions;
+    return this;
+  }
+
   /**
    * @return Set of allowed request headers that should be passed-through to the service
    */
@@ -407,6 +453,8 @@ public class EndpointOptions {
         ", bodyJson=" + bodyJson +
         ", domain='" + domain + '\'' +
         ", port=" + port +
+        ", instances=" + instances +
+        ", loadBalancerOptions=" + loadBalancerOptions +
         ", allowedRequestHeaders=" + allowedRequestHeaders +
         ", additionalHeaders=" + additionalHeaders +
         ", allowedRequestHeadersPatterns=" + allowedRequestHeadersPatterns +
@@ -440,6 +488,8 @@ public class EndpointOptions {
         && encodePlaceholdersInBodyJson == that.encodePlaceholdersInBodyJson && Objects
         .equals(path, that.path) && Objects.equals(body, that.body) && Objects
         .equals(bodyJson, that.bodyJson) && Objects.equals(domain, that.domain)
+        && Objects.equals(instances, that.instances)
+        && Objects.equals(loadBalancerOptions, that.loadBalancerOptions)
         && Objects.equals(allowedRequestHeaders, that.allowedRequestHeaders)
         && Objects.equals(additionalHeaders, that.additionalHeaders) && Objects
         .equals(allowedRequestHeadersPatterns, that.allowedRequestHeadersPatterns);
@@ -448,7 +498,8 @@ public class EndpointOptions {
   @Override
   public int hashCode() {
     return Objects
-        .hash(path, body, bodyJson, domain, port, allowedRequestHeaders, additionalHeaders,
+        .hash(path, body, bodyJson, domain, port, instances, loadBalancerOptions,
+            allowedRequestHeaders, additionalHeaders,
             allowedRequestHeadersPatterns, interpolatePath, interpolateBody,
             clearUnmatchedPlaceholdersInPath, clearUnmatchedPlaceholdersInBodyString,
             clearUnmatchedPlaceholdersInBodyJson, encodePlaceholdersInPath,
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.options;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Configures hedged requests: when the response does not arrive within a delay, a second identical
+ * request is sent and the first response wins. Hedging is available for GET and HEAD requests
+ * only.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class HedgingOptions {
+
+  private static final double DEFAULT_QUANTILE = 0.95d;
+  private static final double DEFAULT_BUDGET_PERCENT = 10.0d;
+
+  private boolean enabled;
+  private long delayMs;
+  private double quantile = DEFAULT_QUANTILE;
+  private double budgetPercent = DEFAULT_BUDGET_PERCENT;
+
+  public HedgingOptions() {
+    //empty default constructor
+  }
+
+  public HedgingOptions(HedgingOptions other) {
+    this.enabled = other.enabled;
+    this.delayMs = other.delayMs;
+    this.quantile = other.quantile;
+    this.budgetPercent = other.budgetPercent;
+  }
+
+  public HedgingOptions(JsonObject json) {
+    this();
+    HedgingOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    HedgingOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables hedged requests. Defaults to false.
+   *
+   * @param enabled flag enabling hedged requests
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgingOptions setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    return this;
+  }
+
+  public long getDelayMs() {
+    return delayMs;
+  }
+
+  /**
+   * Sets the delay in milliseconds after which a hedged request is sent. When not set (or lower
+   * than 1), the delay is the observed latency {@link HedgingOptions#quantile} of the endpoint.
+   *
+   * @param delayMs hedged request delay in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgingOptions setDelayMs(long delayMs) {
+    this.delayMs = delayMs;
+    return this;
+  }
+
+  public double getQuantile() {
+    return quantile;
+  }
+
+  /**
+   * Sets the quantile of the observed endpoint latency used as the hedged request delay when
+   * {@link HedgingOptions#delayMs} is not set. Defaults to 0.95.
+   *
+   * @param quantile latency quantile, between 0 and 1
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgingOptions setQuantile(double quantile) {
+    this.quantile = quantile;
+    return this;
+  }
+
+  public double getBudgetPercent() {
+    return budgetPercent;
+  }
+
+  /**
+   * Sets the maximum number of hedged requests as a percentage of all requests, so hedging does not
+   * amplify the load of a slow endpoint. Defaults to 10.
+   *
+   * @param budgetPercent hedged requests budget in percents
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HedgingOptions setBudgetPercent(double budgetPercent) {
+    this.budgetPercent = budgetPercent;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    HedgingOptions that = (HedgingOptions) o;
+    return enabled == that.enabled && delayMs == that.delayMs
+        && Double.compare(that.quantile, quantile) == 0
+        && Double.compare(that.budgetPercent, budgetPercent) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(enabled, delayMs, quantile, budgetPercent);
+  }
+
+  @Override
+  public String toString() {
+    return "HedgingOptions{" +
+        "enabled=" + enabled +
+        ", delayMs=" + delayMs +
+        ", quantile=" + quantile +
+        ", budgetPercent=" + budgetPercent +
+        '}';
+  }
+}
@@ -33,6 +33,8 @@ public class HttpActionOptions {
   private EndpointOptions endpointOptions = new EndpointOptions();
   private ResponseOptions responseOptions = new ResponseOptions();
   private long requestTimeoutMs = DEFAULT_REQUEST_TIMEOUT;
+  private AdaptiveTimeoutOptions adaptiveTimeoutOptions = new AdaptiveTimeoutOptions();
+  private HedgingOptions hedgingOptions = new HedgingOptions();
   private String logLevel;
 
   public HttpActionOptions() {
@@ -117,6 +119,41 @@ public class HttpActionOptions {
     return this;
   }
 
+  public AdaptiveTimeoutOptions getAdaptiveTimeoutOptions() {
+    return adaptiveTimeoutOptions;
+  }
+
+  /**
+   * Configures the adaptive request timeout. When enabled, the request timeout follows the
+   * observed latency quantile of the endpoint instead of {@code requestTimeoutMs}, staying within
+   * the configured bounds. The adaptive timeout is disabled by default.
+   *
+   * @param adaptiveTimeoutOptions a {@link AdaptiveTimeoutOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setAdaptiveTimeoutOptions(
+      AdaptiveTimeoutOptions adaptiveTimeoutOptions) {
+    this.adaptiveTimeoutOptions = adaptiveTimeoutOptions;
+    return this;
+  }
+
+  public HedgingOptions getHedgingOptions() {
+    return hedgingOptions;
+  }
+
+  /**
+   * Configures hedged requests for GET and HEAD methods. When enabled and the response does not
+   * arrive within the configured delay, a second identical request is sent and the first response
+   * wins. Hedging is disabled by default.
+   *
+   * @param hedgingOptions a {@link HedgingOptions} object
+   * @return a reference to this, so the API can be used fluently
+   */
+  public HttpActionOptions setHedgingOptions(HedgingOptions hedgingOptions) {
+    this.hedgingOptions = hedgingOptions;
+    return this;
+  }
+
   public String getLogLevel() {
     return logLevel;
   }
@@ -140,6 +177,8 @@ public class HttpActionOptions {
         ", endpointOptions=" + endpointOptions +
         ", responseOptions=" + responseOptions +
         ", requestTimeoutMs=" + requestTimeoutMs +
+        ", adaptiveTimeoutOptions=" + adaptiveTimeoutOptions +
+        ", hedgingOptions=" + hedgingOptions +
         ", logLevel='" + logLevel + '\'' +
         '}';
   }
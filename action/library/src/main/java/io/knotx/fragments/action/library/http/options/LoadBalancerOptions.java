@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.options;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Configures how HTTP Action balances requests between multiple upstream instances of the
+ * endpoint.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class LoadBalancerOptions {
+
+  private static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 5;
+  private static final long DEFAULT_EJECTION_TIME_MS = 30_000L;
+  private static final long DEFAULT_LATENCY_DECAY_MS = 10_000L;
+
+  private int maxConsecutiveFailures = DEFAULT_MAX_CONSECUTIVE_FAILURES;
+  private long ejectionTimeMs = DEFAULT_EJECTION_TIME_MS;
+  private long latencyDecayMs = DEFAULT_LATENCY_DECAY_MS;
+
+  public LoadBalancerOptions() {
+    //empty default constructor
+  }
+
+  public LoadBalancerOptions(LoadBalancerOptions other) {
+    this.maxConsecutiveFailures = other.maxConsecutiveFailures;
+    this.ejectionTimeMs = other.ejectionTimeMs;
+    this.latencyDecayMs = other.latencyDecayMs;
+  }
+
+  public LoadBalancerOptions(JsonObject json) {
+    this();
+    LoadBalancerOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    LoadBalancerOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public int getMaxConsecutiveFailures() {
+    return maxConsecutiveFailures;
+  }
+
+  /**
+   * Sets the number of consecutive failures (connection errors, timeouts and 5xx responses) after
+   * which an upstream instance is ejected from balancing. Value lower than 1 disables ejection.
+   * Defaults to 5.
+   *
+   * @param maxConsecutiveFailures consecutive failures threshold
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadBalancerOptions setMaxConsecutiveFailures(int maxConsecutiveFailures) {
+    this.maxConsecutiveFailures = maxConsecutiveFailures;
+    return this;
+  }
+
+  public long getEjectionTimeMs() {
+    return ejectionTimeMs;
+  }
+
+  /**
+   * Sets the time in milliseconds for which an ejected upstream instance does not receive
+   * requests. After that time the instance receives requests again and its next failure ejects it
+   * immediately. Defaults to 30000.
+   *
+   * @param ejectionTimeMs ejection time in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadBalancerOptions setEjectionTimeMs(long ejectionTimeMs) {
+    this.ejectionTimeMs = ejectionTimeMs;
+    return this;
+  }
+
+  public long getLatencyDecayMs() {
+    return latencyDecayMs;
+  }
+
+  /**
+   * Sets the decay window in milliseconds of the exponentially weighted moving average of upstream
+   * instance latency. Shorter windows react faster to latency changes. Defaults to 10000.
+   *
+   * @param latencyDecayMs latency decay window in milliseconds
+   * @return a reference to this, so the API can be used fluently
+   */
+  public LoadBalancerOptions setLatencyDecayMs(long latencyDecayMs) {
+    this.latencyDecayMs = latencyDecayMs;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    LoadBalancerOptions that = (LoadBalancerOptions) o;
+    return maxConsecutiveFailures == that.maxConsecutiveFailures
+        && ejectionTimeMs == that.ejectionTimeMs
+        && latencyDecayMs == that.latencyDecayMs;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxConsecutiveFailures, ejectionTimeMs, latencyDecayMs);
+  }
+
+  @Override
+  public String toString() {
+    return "LoadBalancerOptions{" +
+        "maxConsecutiveFailures=" + maxConsecutiveFailures +
+        ", ejectionTimeMs=" + ejectionTimeMs +
+        ", latencyDecayMs=" + latencyDecayMs +
+        '}';
+  }
+}
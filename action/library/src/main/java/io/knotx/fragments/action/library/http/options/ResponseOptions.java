@@ -17,22 +17,33 @@ package io.knotx.fragments.action.library.http.options;
 
 import io.vertx.codegen.annotations.DataObject;
 import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 @DataObject(generateConverter = true, publicConverter = false)
 public class ResponseOptions {
 
+  private static final long DEFAULT_MAX_BODY_SIZE = 0L;
+
   private Set<String> predicates;
   private boolean forceJson;
+  private long maxBodySize = DEFAULT_MAX_BODY_SIZE;
+  private List<String> select;
+  private boolean captureHeaders = true;
 
   public ResponseOptions() {
     this.predicates = new HashSet<>();
+    this.select = new ArrayList<>();
   }
 
   public ResponseOptions(ResponseOptions other) {
     this.predicates = new HashSet<>(other.predicates);
     this.forceJson = other.forceJson;
+    this.maxBodySize = other.maxBodySize;
+    this.select = other.select == null ? null : new ArrayList<>(other.select);
+    this.captureHeaders = other.captureHeaders;
   }
 
   public ResponseOptions(JsonObject json) {
@@ -76,11 +87,69 @@ public class ResponseOptions {
     return this;
   }
 
+  public long getMaxBodySize() {
+    return maxBodySize;
+  }
+
+  /**
+   * Sets the maximum accepted response body size in bytes. Responses declaring a bigger
+   * Content-Length are rejected before the body is read, chunked responses are rejected before the
+   * body is decoded. In both cases the action ends with _error transition. Setting zero or a
+   * negative value disables the limit. By default it is set to {@code 0}.
+   *
+   * @param maxBodySize - maximum response body size in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseOptions setMaxBodySize(long maxBodySize) {
+    this.maxBodySize = maxBodySize;
+    return this;
+  }
+
+  public List<String> getSelect() {
+    return select;
+  }
+
+  /**
+   * Sets the projection of a JSON response body. Each entry is either a JSON pointer (e.g.
+   * {@code /product/name}) or a dot separated path (e.g. {@code product.name}). Only the selected
+   * subtrees are kept in the action's {@code _result}, with their original structure. In a JSON
+   * array, a numeric segment (e.g. {@code /items/0/name}) selects the element with that index and
+   * any other segment is applied to each of its elements. Elements not selected by any path are
+   * dropped, so the kept elements get new indices. By default it is empty, so the whole response
+   * body is kept.
+   *
+   * @param select - JSON pointers or paths of response body subtrees to keep
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseOptions setSelect(List<String> select) {
+    this.select = select;
+    return this;
+  }
+
+  public boolean isCaptureHeaders() {
+    return captureHeaders;
+  }
+
+  /**
+   * Sets captureHeaders - it determines if request and response headers are stored in the
+   * {@code _request} and {@code _response} metadata. By default it is set to {@code true}.
+   *
+   * @param captureHeaders - determines if headers are stored in the action payload metadata
+   * @return a reference to this, so the API can be used fluently
+   */
+  public ResponseOptions setCaptureHeaders(boolean captureHeaders) {
+    this.captureHeaders = captureHeaders;
+    return this;
+  }
+
   @Override
   public String toString() {
     return "ResponseOptions{" +
         "predicates=" + predicates +
         ", forceJson=" + forceJson +
+        ", maxBodySize=" + maxBodySize +
+        ", select=" + select +
+        ", captureHeaders=" + captureHeaders +
         '}';
   }
 }
@@ -30,10 +30,7 @@ import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpStatusClass;
-import io.vertx.core.json.JsonArray;
-import io.vertx.core.json.JsonObject;
 import java.io.IOException;
-import org.apache.commons.lang3.StringUtils;
 
 public class EndpointResponseProcessor {
 
@@ -44,10 +41,16 @@ public class EndpointResponseProcessor {
   private static final String JSON = "JSON";
   private final boolean isJsonPredicate;
   private final boolean isForceJson;
+  private final boolean captureHeaders;
+  private final ResponseBodyDecoder bodyDecoder;
+  private final ResponseProjection projection;
 
   public EndpointResponseProcessor(ResponseOptions responseOptions) {
     this.isJsonPredicate = responseOptions.getPredicates().contains(JSON);
     this.isForceJson = responseOptions.isForceJson();
+    this.captureHeaders = responseOptions.isCaptureHeaders();
+    this.bodyDecoder = new ResponseBodyDecoder(responseOptions.getMaxBodySize());
+    this.projection = new ResponseProjection(responseOptions.getSelect());
   }
 
   public HttpActionResult handleResponse(EndpointRequest endpointRequest,
@@ -68,6 +71,9 @@ public class EndpointResponseProcessor {
 
   private HttpActionResult handleWithErrorResponseCode(EndpointRequest endpointRequest,
       EndpointResponse endpointResponse, HttpActionLogger actionLogger) {
+    if (isTimeout(endpointResponse)) {
+      actionLogger.onTimeout();
+    }
     actionLogger.onResponseCodeUnsuccessful(new IOException(
         "The service responded with unsuccessful status code: " + endpointResponse.getStatusCode()
             .code()));
@@ -92,26 +98,32 @@ public class EndpointResponseProcessor {
 
   private ActionRequest createActionRequest(EndpointRequest endpointRequest) {
     ActionRequest request = new ActionRequest(HTTP_ACTION_TYPE, endpointRequest.getPath());
-    request.appendMetadata(METADATA_HEADERS_KEY,
-        MultiMapTransformer.toJson(endpointRequest.getHeaders()));
+    if (captureHeaders) {
+      request.appendMetadata(METADATA_HEADERS_KEY,
+          MultiMapTransformer.toJson(endpointRequest.getHeaders()));
+    }
     return request;
   }
 
   private ActionResponse createSuccessActionResponse(EndpointResponse endpointResponse) {
-    return ActionResponse.success()
-        .appendMetadata(METADATA_STATUS_CODE_KEY,
-            String.valueOf(endpointResponse.getStatusCode().code()))
-        .appendMetadata(METADATA_HEADERS_KEY,
-            MultiMapTransformer.toJson(endpointResponse.getHeaders()));
+    return appendResponseMetadata(ActionResponse.success(), endpointResponse);
   }
 
   private ActionResponse createErrorActionResponse(EndpointResponse endpointResponse) {
-    return ActionResponse
-        .error(endpointResponse.getStatusCode().toString(), endpointResponse.getStatusMessage())
-        .appendMetadata(METADATA_STATUS_CODE_KEY,
-            String.valueOf(endpointResponse.getStatusCode().code()))
-        .appendMetadata(METADATA_HEADERS_KEY,
-            MultiMapTransformer.toJson(endpointResponse.getHeaders()));
+    return appendResponseMetadata(ActionResponse
+            .error(endpointResponse.getStatusCode().toString(), endpointResponse.getStatusMessage()),
+        endpointResponse);
+  }
+
+  private ActionResponse appendResponseMetadata(ActionResponse actionResponse,
+      EndpointResponse endpointResponse) {
+    actionResponse.appendMetadata(METADATA_STATUS_CODE_KEY,
+        String.valueOf(endpointResponse.getStatusCode().code()));
+    if (captureHeaders) {
+      actionResponse.appendMetadata(METADATA_HEADERS_KEY,
+          MultiMapTransformer.toJson(endpointResponse.getHeaders()));
+    }
+    return actionResponse;
   }
 
   private Object tryToRetrieveResultFrom(EndpointResponse endpointResponse,
@@ -125,8 +137,9 @@ public class EndpointResponseProcessor {
   }
 
   private Object retrieveResultFrom(EndpointResponse response) {
+    bodyDecoder.validateSize(response.getBody());
     if (isForceJson || isJsonPredicate || isContentTypeHeaderJson(response)) {
-      return bodyToJson(response.getBody().toString());
+      return projection.apply(bodyDecoder.toJson(response.getBody()));
     } else {
       return response.getBody().toString();
     }
@@ -137,16 +150,6 @@ public class EndpointResponseProcessor {
     return contentType != null && contentType.contains(HttpHeaderValues.APPLICATION_JSON);
   }
 
-  private Object bodyToJson(String responseBody) {
-    if (StringUtils.isBlank(responseBody)) {
-      return new JsonObject();
-    } else if (responseBody.startsWith("[")) {
-      return new JsonArray(responseBody);
-    } else {
-      return new JsonObject(responseBody);
-    }
-  }
-
   private String getErrorTransition(EndpointResponse endpointResponse) {
     if (isTimeout(endpointResponse)) {
       return TIMEOUT_TRANSITION;
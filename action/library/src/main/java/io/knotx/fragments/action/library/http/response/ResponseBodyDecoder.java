@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.response;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.buffer.Buffer;
+
+/**
+ * Decodes response body straight from the received bytes, without an intermediate String copy.
+ */
+class ResponseBodyDecoder {
+
+  private static final int NOT_FOUND = -1;
+
+  private final long maxBodySize;
+
+  ResponseBodyDecoder(long maxBodySize) {
+    this.maxBodySize = maxBodySize;
+  }
+
+  void validateSize(Buffer body) {
+    if (maxBodySize > 0 && body.length() > maxBodySize) {
+      throw new IllegalStateException(String
+          .format("Response body size %d exceeds the limit of %d bytes", body.length(),
+              maxBodySize));
+    }
+  }
+
+  Object toJson(Buffer body) {
+    int firstToken = firstNonWhitespaceByte(body);
+    if (firstToken == NOT_FOUND) {
+      return new JsonObject();
+    } else if (firstToken == '[') {
+      return new JsonArray(body.getDelegate());
+    } else {
+      return new JsonObject(body.getDelegate());
+    }
+  }
+
+  private static int firstNonWhitespaceByte(Buffer body) {
+    for (int i = 0; i < body.length(); i++) {
+      byte current = body.getByte(i);
+      if (!isWhitespace(current)) {
+        return current;
+      }
+    }
+    return NOT_FOUND;
+  }
+
+  private static boolean isWhitespace(byte value) {
+    return value == ' ' || value == '\t' || value == '\n' || value == '\r';
+  }
+
+}
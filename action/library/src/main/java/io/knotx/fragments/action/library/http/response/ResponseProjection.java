@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.response;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Keeps only the selected subtrees of a decoded JSON response body. Paths are compiled once into
+ * a tree, so projecting walks only the selected branches of the response.
+ *
+ * <p>In a JSON array, a numeric path segment selects the element with that index, like in a JSON
+ * pointer, and other segments are applied to every element. When a path selects array elements by
+ * index, the remaining elements are dropped unless other paths apply to every element, so the
+ * selected elements do not keep their indices.
+ */
+class ResponseProjection {
+
+  private static final String POINTER_PREFIX = "/";
+  private static final String PATH_SEPARATOR = ".";
+  private static final Pattern INDEX = Pattern.compile("0|[1-9]\\d{0,8}");
+
+  private final Node root;
+
+  ResponseProjection(List<String> select) {
+    this.root = new Node();
+    if (select != null) {
+      select.stream()
+          .filter(StringUtils::isNotBlank)
+          .map(ResponseProjection::tokenize)
+          .forEach(root::add);
+    }
+    root.compile();
+  }
+
+  boolean isEnabled() {
+    return !root.isLeaf();
+  }
+
+  Object apply(Object body) {
+    if (!isEnabled()) {
+      return body;
+    }
+    Object projected = root.project(body);
+    return projected != null ? projected : emptyLike(body);
+  }
+
+  private static List<String> tokenize(String path) {
+    if (path.startsWith(POINTER_PREFIX)) {
+      return Arrays.stream(StringUtils.split(path, POINTER_PREFIX))
+          .map(ResponseProjection::unescapePointerToken)
+          .collect(Collectors.toList());
+    } else {
+      return Arrays.asList(StringUtils.split(path, PATH_SEPARATOR));
+    }
+  }
+
+  private static String unescapePointerToken(String token) {
+    return token.replace("~1", "/").replace("~0", "~");
+  }
+
+  private static Object emptyLike(Object body) {
+    return body instanceof JsonArray ? new JsonArray() : new JsonObject();
+  }
+
+  private static class Node {
+
+    private final Map<String, Node> children = new LinkedHashMap<>();
+    private boolean selectAll;
+    // applied to JSON array elements: by index and to every element
+    private Map<Integer, Node> elements;
+    private Node everyElement;
+
+    void add(List<String> tokens) {
+      if (tokens.isEmpty()) {
+        // the whole subtree is selected, deeper paths are redundant
+        selectAll = true;
+        children.clear();
+      } else if (!selectAll) {
+        children.computeIfAbsent(tokens.get(0), key -> new Node())
+            .add(tokens.subList(1, tokens.size()));
+      }
+    }
+
+    private void addAll(Node other) {
+      if (other.selectAll) {
+        add(Collections.emptyList());
+      } else {
+        other.children.forEach((key, child) -> {
+          if (!selectAll) {
+            children.computeIfAbsent(key, k -> new Node()).addAll(child);
+          }
+        });
+      }
+    }
+
+    void compile() {
+      Node names = new Node();
+      children.forEach((key, child) -> {
+        child.compile();
+        if (!isIndex(key)) {
+          names.children.put(key, child);
+        }
+      });
+      elements = new HashMap<>();
+      children.forEach((key, child) -> {
+        if (isIndex(key)) {
+          Node element = new Node();
+          element.addAll(child);
+          element.addAll(names);
+          element.compile();
+          elements.put(Integer.valueOf(key), element);
+        }
+      });
+      everyElement = elements.isEmpty() ? this : names;
+      names.elements = Collections.emptyMap();
+      names.everyElement = names;
+    }
+
+    boolean isLeaf() {
+      return children.isEmpty();
+    }
+
+    Object project(Object value) {
+      if (selectAll) {
+        return value;
+      } else if (value instanceof JsonObject) {
+        return projectObject((JsonObject) value);
+      } else if (value instanceof JsonArray) {
+        return projectArray((JsonArray) value);
+      } else {
+        return null;
+      }
+    }
+
+    private JsonObject projectObject(JsonObject value) {
+      JsonObject result = null;
+      for (Map.Entry<String, Node> child : children.entrySet()) {
+        if (value.containsKey(child.getKey())) {
+          Object projected = child.getValue().project(value.getValue(child.getKey()));
+          if (projected != null) {
+            result = result == null ? new JsonObject() : result;
+            result.put(child.getKey(), projected);
+          }
+        }
+      }
+      return result;
+    }
+
+    private JsonArray projectArray(JsonArray value) {
+      JsonArray result = new JsonArray();
+      for (int i = 0; i < value.size(); i++) {
+        Node element = elements.getOrDefault(i, everyElement);
+        Object projected = element.selectAll || !element.isLeaf()
+            ? element.project(value.getValue(i))
+            : null;
+        if (projected != null) {
+          result.add(projected);
+        }
+      }
+      return result;
+    }
+
+    private static boolean isIndex(String token) {
+      return INDEX.matcher(token).matches();
+    }
+  }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.upstream;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free histogram of recent request latencies with microsecond resolution and bounded relative
+ * error (each power of two is split into 16 buckets).
+ * <p>
+ * Latencies are recorded into two rotating windows, so quantiles reflect at most the last two
+ * window lengths. Recording and reading are never blocked. Samples recorded concurrently with a
+ * window rotation may be lost, which is acceptable for the approximate quantiles it serves.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_MAGNITUDE = 40;
+  private static final long MAX_VALUE_US = (1L << (MAX_MAGNITUDE + 1)) - 1;
+  private static final int BUCKETS = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final long windowNanos;
+  private final LongSupplier clock;
+  private final Window[] windows = {new Window(), new Window()};
+
+  public LatencyHistogram(long windowMs) {
+    this(windowMs, System::nanoTime);
+  }
+
+  LatencyHistogram(long windowMs, LongSupplier clock) {
+    this.windowNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(windowMs), 1L);
+    this.clock = clock;
+  }
+
+  public void record(long latencyNanos) {
+    long epoch = currentEpoch();
+    Window window = windows[(int) (epoch & 1)];
+    window.rotateTo(epoch);
+    window.counts.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    window.total.incrementAndGet();
+  }
+
+  /**
+   * @return number of latencies recorded in the live windows
+   */
+  public long getCount() {
+    long epoch = currentEpoch();
+    long count = 0;
+    for (Window window : windows) {
+      if (window.isLive(epoch)) {
+        count += window.total.get();
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Estimates the latency below which the given fraction of recent requests completed.
+   *
+   * @param quantile fraction of requests, between 0 and 1
+   * @return the latency upper bound in milliseconds (rounded up), or 0 when nothing is recorded
+   */
+  public long getQuantileMs(double quantile) {
+    long epoch = currentEpoch();
+    long[] counts = new long[BUCKETS];
+    long total = 0;
+    for (Window window : windows) {
+      if (window.isLive(epoch)) {
+        for (int i = 0; i < BUCKETS; i++) {
+          long count = window.counts.get(i);
+          counts[i] += count;
+          total += count;
+        }
+      }
+    }
+    if (total == 0) {
+      return 0L;
+    }
+    long rank = Math.max((long) Math.ceil(quantile * total), 1L);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return toMillisRoundedUp(upperBoundOf(i));
+      }
+    }
+    return toMillisRoundedUp(MAX_VALUE_US);
+  }
+
+  private long currentEpoch() {
+    return Math.floorDiv(clock.getAsLong(), windowNanos);
+  }
+
+  static int bucketOf(long valueUs) {
+    long value = Math.min(Math.max(valueUs, 0L), MAX_VALUE_US);
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS;
+    int subBucket = (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  private static long toMillisRoundedUp(long valueUs) {
+    return (valueUs + 999L) / 1000L;
+  }
+
+  private static final class Window {
+
+    private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+
+    private void rotateTo(long current) {
+      long previous = epoch.get();
+      if (previous != current && epoch.compareAndSet(previous, current)) {
+        for (int i = 0; i < BUCKETS; i++) {
+          counts.set(i, 0L);
+        }
+        total.set(0L);
+      }
+    }
+
+    private boolean isLive(long current) {
+      long windowEpoch = epoch.get();
+      return windowEpoch == current || windowEpoch == current - 1;
+    }
+  }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.upstream;
+
+import io.knotx.fragments.action.library.http.options.LoadBalancerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * A single upstream instance of the HTTP endpoint together with its load metrics: requests in
+ * progress, peak exponentially weighted moving average of latency and consecutive failures.
+ * Metrics are updated concurrently, so all state is kept in atomics and volatile fields.
+ */
+public final class Upstream {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(Upstream.class);
+
+  private final String domain;
+  private final int port;
+  private final int maxConsecutiveFailures;
+  private final long ejectionTimeNanos;
+  private final double latencyDecayNanos;
+  private final LongSupplier clock;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder ejections = new LongAdder();
+
+  private volatile long ejectedUntilNanos;
+  private volatile double latencyEwmaNanos;
+  private long lastLatencyUpdateNanos;
+
+  Upstream(String domain, int port, LoadBalancerOptions options, LongSupplier clock) {
+    this.domain = domain;
+    this.port = port;
+    this.maxConsecutiveFailures = options.getMaxConsecutiveFailures();
+    this.ejectionTimeNanos = TimeUnit.MILLISECONDS.toNanos(options.getEjectionTimeMs());
+    this.latencyDecayNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(options.getLatencyDecayMs()),
+        1L);
+    this.clock = clock;
+    long now = clock.getAsLong();
+    this.ejectedUntilNanos = now;
+    this.lastLatencyUpdateNanos = now;
+  }
+
+  public String getDomain() {
+    return domain;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  /**
+   * Starts tracking a request sent to this instance.
+   *
+   * @return the call that must be completed or cancelled when the request finishes
+   */
+  public Call begin() {
+    inFlight.incrementAndGet();
+    requests.increment();
+    return new Call(clock.getAsLong());
+  }
+
+  /**
+   * @return snapshot of the instance metrics
+   */
+  public JsonObject toJson() {
+    long now = clock.getAsLong();
+    return new JsonObject()
+        .put("domain", domain)
+        .put("port", port)
+        .put("inFlight", inFlight.get())
+        .put("latencyEwmaMs", latencyEwmaNanos / TimeUnit.MILLISECONDS.toNanos(1))
+        .put("requests", requests.sum())
+        .put("failures", failures.sum())
+        .put("consecutiveFailures", consecutiveFailures.get())
+        .put("ejections", ejections.sum())
+        .put("ejected", !isAvailable(now));
+  }
+
+  boolean isAvailable(long now) {
+    return now - ejectedUntilNanos >= 0;
+  }
+
+  double cost() {
+    // unknown latency still has to be outweighed by requests in progress
+    return (latencyEwmaNanos + 1.0d) * (inFlight.get() + 1);
+  }
+
+  private void onComplete(long startNanos, boolean failure) {
+    long now = clock.getAsLong();
+    inFlight.decrementAndGet();
+    updateLatency(now, Math.max(now - startNanos, 0L));
+    if (failure) {
+      onFailure(now);
+    } else {
+      consecutiveFailures.set(0);
+    }
+  }
+
+  private synchronized void updateLatency(long now, long latencyNanos) {
+    double elapsed = Math.max(now - lastLatencyUpdateNanos, 0L);
+    lastLatencyUpdateNanos = now;
+    double weight = Math.exp(-elapsed / latencyDecayNanos);
+    // peak sensitive: latency spikes are taken immediately, improvements decay over time
+    latencyEwmaNanos = latencyNanos > latencyEwmaNanos ? latencyNanos
+        : latencyEwmaNanos * weight + latencyNanos * (1.0d - weight);
+  }
+
+  private void onFailure(long now) {
+    failures.increment();
+    int failed = consecutiveFailures.incrementAndGet();
+    if (maxConsecutiveFailures > 0 && failed >= maxConsecutiveFailures && isAvailable(now)) {
+      ejectedUntilNanos = now + ejectionTimeNanos;
+      ejections.increment();
+      LOGGER.warn("Upstream [{}:{}] ejected for [{}] ms after [{}] consecutive failures", domain,
+          port, TimeUnit.NANOSECONDS.toMillis(ejectionTimeNanos), failed);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return domain + ":" + port;
+  }
+
+  /**
+   * A single request sent to the upstream instance. Only the first completion or cancellation is
+   * recorded.
+   */
+  public final class Call {
+
+    private final long startNanos;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    private Call(long startNanos) {
+      this.startNanos = startNanos;
+    }
+
+    public Upstream getUpstream() {
+      return Upstream.this;
+    }
+
+    /**
+     * Records the request result.
+     *
+     * @param failure whether the instance failed to handle the request
+     */
+    public void complete(boolean failure) {
+      if (finished.compareAndSet(false, true)) {
+        onComplete(startNanos, failure);
+      }
+    }
+
+    /**
+     * Stops tracking the request without recording its latency or result.
+     */
+    public void cancel() {
+      if (finished.compareAndSet(false, true)) {
+        inFlight.decrementAndGet();
+      }
+    }
+  }
+
+}
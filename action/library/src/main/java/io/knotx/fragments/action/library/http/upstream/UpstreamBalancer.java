@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.upstream;
+
+import io.knotx.fragments.action.library.http.options.EndpointOptions;
+import io.knotx.fragments.action.library.http.options.LoadBalancerOptions;
+import io.vertx.core.json.JsonArray;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Chooses the upstream instance for a request using the power of two choices: two random
+ * instances are compared and the one with the lower cost (latency multiplied by requests in
+ * progress) wins. Ejected instances are skipped as long as any instance is available.
+ */
+public final class UpstreamBalancer {
+
+  private final List<Upstream> upstreams;
+  private final LongSupplier clock;
+
+  UpstreamBalancer(List<Upstream> upstreams, LongSupplier clock) {
+    this.upstreams = Collections.unmodifiableList(upstreams);
+    this.clock = clock;
+  }
+
+  public static UpstreamBalancer create(EndpointOptions endpointOptions) {
+    return create(endpointOptions, System::nanoTime);
+  }
+
+  static UpstreamBalancer create(EndpointOptions endpointOptions, LongSupplier clock) {
+    LoadBalancerOptions options = endpointOptions.getLoadBalancerOptions();
+    List<Upstream> upstreams;
+    if (endpointOptions.getInstances() == null || endpointOptions.getInstances().isEmpty()) {
+      upstreams = Collections.singletonList(
+          new Upstream(endpointOptions.getDomain(), endpointOptions.getPort(), options, clock));
+    } else {
+      upstreams = endpointOptions.getInstances().stream()
+          .map(instance -> new Upstream(instance.getDomain(), instance.getPort(), options, clock))
+          .collect(Collectors.toList());
+    }
+    return new UpstreamBalancer(upstreams, clock);
+  }
+
+  public Upstream choose() {
+    int size = upstreams.size();
+    if (size == 1) {
+      return upstreams.get(0);
+    }
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int first = random.nextInt(size);
+    int second = random.nextInt(size - 1);
+    if (second >= first) {
+      second++;
+    }
+    return choose(upstreams.get(first), upstreams.get(second), clock.getAsLong());
+  }
+
+  List<Upstream> getUpstreams() {
+    return upstreams;
+  }
+
+  /**
+   * @return snapshot of metrics of all upstream instances
+   */
+  JsonArray getMetrics() {
+    return new JsonArray(upstreams.stream()
+        .map(Upstream::toJson)
+        .collect(Collectors.toList()));
+  }
+
+  private Upstream choose(Upstream first, Upstream second, long now) {
+    boolean firstAvailable = first.isAvailable(now);
+    boolean secondAvailable = second.isAvailable(now);
+    if (firstAvailable != secondAvailable) {
+      return firstAvailable ? first : second;
+    }
+    if (!firstAvailable) {
+      Upstream available = anyAvailable(now);
+      if (available != null) {
+        return available;
+      }
+    }
+    return first.cost() <= second.cost() ? first : second;
+  }
+
+  private Upstream anyAvailable(long now) {
+    return upstreams.stream()
+        .filter(upstream -> upstream.isAvailable(now))
+        .min(Comparator.comparingDouble(Upstream::cost))
+        .orElse(null);
+  }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.upstream;
+
+/**
+ * Receives notifications about upstream instances handling a single HTTP Action invocation.
+ */
+public interface UpstreamListener {
+
+  UpstreamListener NONE = new UpstreamListener() {
+  };
+
+  /**
+   * Called when the request timeout for the invocation is determined.
+   *
+   * @param timeoutMs request timeout in milliseconds, zero or a negative value means no timeout
+   * @param adaptive  whether the timeout is derived from the observed latency
+   */
+  default void onRequestTimeout(long timeoutMs, boolean adaptive) {
+  }
+
+  /**
+   * Called when the upstream instance for the request is chosen.
+   *
+   * @param upstream chosen upstream instance
+   */
+  default void onUpstreamChosen(Upstream upstream) {
+  }
+
+  /**
+   * Called when the invocation with a hedged request finishes.
+   *
+   * @param upstream upstream instance the hedged request was sent to
+   * @param delayMs  delay after which the hedged request was sent
+   * @param won      whether the hedged request delivered the response
+   */
+  default void onHedge(Upstream upstream, long delayMs, boolean won) {
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.ratelimit;
+
+import static io.knotx.fragments.action.api.invoker.ActionInvoker.rxApply;
+import static io.knotx.fragments.action.library.ratelimit.RateLimitActionFactory.RATE_LIMITED_TRANSITION;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.FutureAction;
+import io.knotx.fragments.action.api.log.ActionLogLevel;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.util.concurrent.TimeUnit;
+
+class RateLimitAction implements FutureAction {
+
+  private final Vertx vertx;
+  private final String alias;
+  private final TokenBucket bucket;
+  private final long maxWaitNanos;
+  private final Action doAction;
+  private final ActionLogLevel actionLogLevel;
+
+  RateLimitAction(Vertx vertx, TokenBucket bucket, long maxWaitMs, Action doAction, String alias,
+      ActionLogLevel actionLogLevel) {
+    this.vertx = vertx;
+    this.alias = alias;
+    this.bucket = bucket;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    this.doAction = doAction;
+    this.actionLogLevel = actionLogLevel;
+  }
+
+  @Override
+  public Future<FragmentResult> applyForFuture(FragmentContext context) {
+    RateLimitActionLogger logger = RateLimitActionLogger.create(alias, actionLogLevel);
+    long waitNanos = bucket.tryAcquire(System.nanoTime(), maxWaitNanos);
+    if (waitNanos < 0) {
+      logger.onRateLimited(bucket);
+      return Future.succeededFuture(FragmentResult.success(context.getFragment(),
+          RATE_LIMITED_TRANSITION, logger.logAsJson()));
+    }
+    Promise<FragmentResult> promise = Promise.promise();
+    if (waitNanos == 0) {
+      executeCommand(promise, context, logger);
+    } else {
+      // rounded up, so the timer never fires before the token is available
+      long delayMs = Math.max(1, (waitNanos + 999_999) / 1_000_000);
+      logger.onDelayed(delayMs);
+      vertx.setTimer(delayMs, id -> executeCommand(promise, context, logger));
+    }
+    return promise.future();
+  }
+
+  TokenBucket getBucket() {
+    return bucket;
+  }
+
+  private void executeCommand(Promise<FragmentResult> promise, FragmentContext context,
+      RateLimitActionLogger logger) {
+    rxApply(doAction, context)
+        .subscribe(invocation -> {
+          logger.onInvocation(invocation);
+          promise.complete(invocation.getFragmentResult().copyWithNewLog(logger.logAsJson()));
+        }, promise::fail);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.ratelimit;
+
+import static io.knotx.commons.validation.ValidationHelper.checkArgument;
+import static io.knotx.fragments.action.api.log.ActionLogLevel.fromConfig;
+import static java.util.Objects.isNull;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.ActionFactory;
+import io.knotx.fragments.action.api.Cacheable;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * This is a factory class creating action, which limits the rate of `doAction` calls with a token
+ * bucket. Calls that find no token wait for it up to the configured time or end with the
+ * `_rate_limited` transition without calling `doAction`.
+ */
+@Cacheable
+public class RateLimitActionFactory implements ActionFactory {
+
+  static final String RATE_LIMITED_TRANSITION = "_rate_limited";
+  static final String FACTORY_NAME = "rate-limit";
+
+  @Override
+  public String getName() {
+    return FACTORY_NAME;
+  }
+
+  @Override
+  public Action create(String alias, JsonObject config, Vertx vertx, Action doAction) {
+    if (isNull(doAction)) {
+      throw new DoActionNotDefinedException("Rate limit action requires `doAction` defined");
+    }
+    RateLimitActionFactoryOptions options = new RateLimitActionFactoryOptions(config);
+    checkArgument(options.getBurstSize() <= 0, () -> new ActionConfigurationException(alias,
+        "Rate limit action requires positive burstSize."));
+    checkArgument(options.getRefillRate() <= 0, () -> new ActionConfigurationException(alias,
+        "Rate limit action requires positive refillRate."));
+    checkArgument(options.getMaxWaitMs() < 0, () -> new ActionConfigurationException(alias,
+        "Rate limit action requires maxWaitMs to be non-negative."));
+
+    TokenBucket bucket = new TokenBucket(options.getBurstSize(), options.getRefillRate(),
+        System.nanoTime());
+    return new RateLimitAction(vertx, bucket, options.getMaxWaitMs(), doAction, alias,
+        fromConfig(options.getLogLevel()));
+  }
+}
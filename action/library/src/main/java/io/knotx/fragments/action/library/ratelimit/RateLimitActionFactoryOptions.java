@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.ratelimit;
+
+import static io.knotx.fragments.action.api.log.ActionLogLevel.ERROR;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Objects;
+
+/**
+ * Rate limit action factory options model.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class RateLimitActionFactoryOptions {
+
+  private static final int DEFAULT_BURST_SIZE = 10;
+  private static final double DEFAULT_REFILL_RATE = 10.0;
+
+  private int burstSize = DEFAULT_BURST_SIZE;
+  private double refillRate = DEFAULT_REFILL_RATE;
+  private long maxWaitMs;
+  private String logLevel = ERROR.getLevel();
+
+  public RateLimitActionFactoryOptions() {
+    // default values
+  }
+
+  public RateLimitActionFactoryOptions(RateLimitActionFactoryOptions other) {
+    this.burstSize = other.burstSize;
+    this.refillRate = other.refillRate;
+    this.maxWaitMs = other.maxWaitMs;
+    this.logLevel = other.logLevel;
+  }
+
+  public RateLimitActionFactoryOptions(JsonObject json) {
+    this();
+    RateLimitActionFactoryOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    RateLimitActionFactoryOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public int getBurstSize() {
+    return burstSize;
+  }
+
+  /**
+   * Sets the bucket capacity, the number of <code>doAction</code> calls allowed at once after a
+   * quiet period. The default value is 10.
+   *
+   * @param burstSize bucket capacity
+   * @return reference to this, so the API can be used fluently
+   */
+  public RateLimitActionFactoryOptions setBurstSize(int burstSize) {
+    this.burstSize = burstSize;
+    return this;
+  }
+
+  public double getRefillRate() {
+    return refillRate;
+  }
+
+  /**
+   * Sets the number of tokens added to the bucket per second, the sustained rate of
+   * <code>doAction</code> calls. The default value is 10.
+   *
+   * @param refillRate tokens per second
+   * @return reference to this, so the API can be used fluently
+   */
+  public RateLimitActionFactoryOptions setRefillRate(double refillRate) {
+    this.refillRate = refillRate;
+    return this;
+  }
+
+  public long getMaxWaitMs() {
+    return maxWaitMs;
+  }
+
+  /**
+   * Sets how long a call can wait for a token, in milliseconds. Calls that would wait longer end
+   * with the <code>_rate_limited</code> transition. The default value is 0, which rate limits
+   * calls immediately.
+   *
+   * @param maxWaitMs maximum wait time in milliseconds
+   * @return reference to this, so the API can be used fluently
+   */
+  public RateLimitActionFactoryOptions setMaxWaitMs(long maxWaitMs) {
+    this.maxWaitMs = maxWaitMs;
+    return this;
+  }
+
+  public String getLogLevel() {
+    return logLevel;
+  }
+
+  /**
+   * Sets the action node log level.
+   *
+   * @param logLevel the log level
+   * @return reference to this, so the API can be used fluently
+   */
+  public RateLimitActionFactoryOptions setLogLevel(String logLevel) {
+    this.logLevel = logLevel;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RateLimitActionFactoryOptions that = (RateLimitActionFactoryOptions) o;
+    return burstSize == that.burstSize &&
+        Double.compare(that.refillRate, refillRate) == 0 &&
+        maxWaitMs == that.maxWaitMs &&
+        Objects.equals(logLevel, that.logLevel);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(burstSize, refillRate, maxWaitMs, logLevel);
+  }
+
+  @Override
+  public String toString() {
+    return "RateLimitActionFactoryOptions{" +
+        "burstSize=" + burstSize +
+        ", refillRate=" + refillRate +
+        ", maxWaitMs=" + maxWaitMs +
+        ", logLevel='" + logLevel + '\'' +
+        '}';
+  }
+}
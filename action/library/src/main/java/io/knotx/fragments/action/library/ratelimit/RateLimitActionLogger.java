@@ -0,0 +1,58 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.ratelimit;
+
+import io.knotx.fragments.action.api.invoker.ActionInvocation;
+import io.knotx.fragments.action.api.log.ActionLogLevel;
+import io.knotx.fragments.action.api.log.ActionLogger;
+import io.vertx.core.json.JsonObject;
+
+class RateLimitActionLogger {
+
+  static final String DELAYED_LOG_KEY = "delayed";
+  static final String RATE_LIMITED_LOG_KEY = "rateLimited";
+
+  private final ActionLogger actionLogger;
+
+  static RateLimitActionLogger create(String alias, ActionLogLevel level) {
+    return new RateLimitActionLogger(ActionLogger.create(alias, level));
+  }
+
+  RateLimitActionLogger(ActionLogger actionLogger) {
+    this.actionLogger = actionLogger;
+  }
+
+  void onInvocation(ActionInvocation invocation) {
+    if (invocation.isResultDelivered()) {
+      actionLogger.info(invocation);
+    } else {
+      actionLogger.error(invocation);
+    }
+  }
+
+  void onDelayed(long delayMs) {
+    actionLogger.info(DELAYED_LOG_KEY, new JsonObject().put("delayMs", delayMs));
+  }
+
+  void onRateLimited(TokenBucket bucket) {
+    actionLogger.error(RATE_LIMITED_LOG_KEY, new JsonObject()
+        .put("rateLimitedCount", bucket.getRateLimitedCount()));
+  }
+
+  JsonObject logAsJson() {
+    return actionLogger.toLog().toJson();
+  }
+}
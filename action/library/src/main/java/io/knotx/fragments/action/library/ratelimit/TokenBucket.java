@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket. Instead of a token counter refilled by a timer, it keeps the theoretical
+ * arrival time of the next call (the generic cell rate algorithm): every call moves it one refill
+ * interval forward, and a call is allowed when it is at most <code>burstSize</code> intervals
+ * ahead of now. Taking a token is a single compare-and-set, and tokens refill just by the passing
+ * of time.
+ */
+final class TokenBucket {
+
+  private final long intervalNanos;
+  private final long toleranceNanos;
+  private final AtomicLong theoreticalArrival;
+  private final LongAdder rateLimited = new LongAdder();
+
+  /**
+   * @param burstSize maximum number of calls allowed at once
+   * @param refillRate number of tokens refilled per second
+   * @param nowNanos current {@link System#nanoTime()}, the bucket starts full
+   */
+  TokenBucket(int burstSize, double refillRate, long nowNanos) {
+    this.intervalNanos = Math.max(1L, Math.round(TimeUnit.SECONDS.toNanos(1) / refillRate));
+    this.toleranceNanos = (burstSize - 1) * intervalNanos;
+    this.theoreticalArrival = new AtomicLong(nowNanos);
+  }
+
+  /**
+   * Takes a token, possibly one that is refilled in the future.
+   *
+   * @param nowNanos current {@link System#nanoTime()}
+   * @param maxWaitNanos how long the caller can wait for the token
+   * @return nanoseconds to wait before the call can proceed, or -1 when no token is available in
+   * time
+   */
+  long tryAcquire(long nowNanos, long maxWaitNanos) {
+    while (true) {
+      long arrival = theoreticalArrival.get();
+      long start = arrival - nowNanos > 0 ? arrival : nowNanos;
+      long waitNanos = start - nowNanos - toleranceNanos;
+      if (waitNanos > maxWaitNanos) {
+        rateLimited.increment();
+        return -1L;
+      }
+      if (theoreticalArrival.compareAndSet(arrival, start + intervalNanos)) {
+        return Math.max(0L, waitNanos);
+      }
+    }
+  }
+
+  /**
+   * @param nowNanos current {@link System#nanoTime()}
+   * @return number of tokens that can be taken without waiting
+   */
+  long getAvailableTokens(long nowNanos) {
+    long ahead = theoreticalArrival.get() - nowNanos;
+    return Math.max(0L, (toleranceNanos + intervalNanos - Math.max(0L, ahead)) / intervalNanos);
+  }
+
+  long getRateLimitedCount() {
+    return rateLimited.sum();
+  }
+}
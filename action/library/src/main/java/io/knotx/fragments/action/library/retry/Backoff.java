@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with full jitter: the delay before a retry is drawn uniformly from zero to
+ * the exponentially growing cap, so retries of calls that failed together do not come back
+ * together.
+ */
+final class Backoff {
+
+  private final long initialBackoffMs;
+  private final long maxBackoffMs;
+  private final double multiplier;
+
+  Backoff(long initialBackoffMs, long maxBackoffMs, double multiplier) {
+    this.initialBackoffMs = initialBackoffMs;
+    this.maxBackoffMs = maxBackoffMs;
+    this.multiplier = multiplier;
+  }
+
+  /**
+   * @param retry retry number, starting from 1
+   * @return delay in milliseconds, at least 1 as required by Vert.x timers
+   */
+  long delayMs(int retry) {
+    return Math.max(1L, ThreadLocalRandom.current().nextLong(capMs(retry) + 1));
+  }
+
+  long capMs(int retry) {
+    double cap = initialBackoffMs * Math.pow(multiplier, retry - 1);
+    return (long) Math.min(maxBackoffMs, cap);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import static io.knotx.fragments.action.api.invoker.ActionInvoker.rxApply;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.FutureAction;
+import io.knotx.fragments.action.api.invoker.ActionInvocation;
+import io.knotx.fragments.action.api.log.ActionLogLevel;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.util.Set;
+
+class RetryAction implements FutureAction {
+
+  static final String MAX_ATTEMPTS_REACHED = "maxAttempts reached";
+  static final String DEADLINE_EXCEEDED = "deadlineMs exceeded";
+  static final String BUDGET_EXHAUSTED = "retry budget exhausted";
+
+  private final Vertx vertx;
+  private final String alias;
+  private final Action doAction;
+  private final Set<String> retryTransitions;
+  private final int maxAttempts;
+  private final long deadlineMs;
+  private final Backoff backoff;
+  private final RetryBudget budget;
+  private final ActionLogLevel actionLogLevel;
+
+  RetryAction(Vertx vertx, Action doAction, String alias, RetryActionFactoryOptions options,
+      RetryBudget budget, ActionLogLevel actionLogLevel) {
+    this.vertx = vertx;
+    this.alias = alias;
+    this.doAction = doAction;
+    this.retryTransitions = options.getRetryTransitions();
+    this.maxAttempts = options.getMaxAttempts();
+    this.deadlineMs = options.getDeadlineMs();
+    this.backoff = new Backoff(options.getInitialBackoffMs(), options.getMaxBackoffMs(),
+        options.getBackoffMultiplier());
+    this.budget = budget;
+    this.actionLogLevel = actionLogLevel;
+  }
+
+  @Override
+  public Future<FragmentResult> applyForFuture(FragmentContext context) {
+    RetryActionLogger logger = RetryActionLogger.create(alias, actionLogLevel);
+    Promise<FragmentResult> promise = Promise.promise();
+    budget.onCall();
+    attempt(promise, context, logger, 1, System.currentTimeMillis());
+    return promise.future();
+  }
+
+  RetryBudget getBudget() {
+    return budget;
+  }
+
+  private void attempt(Promise<FragmentResult> promise, FragmentContext context,
+      RetryActionLogger logger, int attempt, long startMs) {
+    rxApply(doAction, context)
+        .subscribe(
+            invocation -> onAttempt(promise, context, logger, attempt, startMs, invocation),
+            promise::fail);
+  }
+
+  private void onAttempt(Promise<FragmentResult> promise, FragmentContext context,
+      RetryActionLogger logger, int attempt, long startMs, ActionInvocation invocation) {
+    boolean retryable = retryTransitions.contains(invocation.getFragmentResult().getTransition());
+    logger.onAttempt(invocation, retryable);
+    if (!retryable) {
+      logger.onCompleted(attempt);
+      complete(promise, invocation, logger);
+    } else if (attempt >= maxAttempts) {
+      stop(promise, invocation, logger, MAX_ATTEMPTS_REACHED, attempt);
+    } else {
+      long delayMs = backoff.delayMs(attempt);
+      if (deadlineMs > 0 && System.currentTimeMillis() - startMs + delayMs >= deadlineMs) {
+        stop(promise, invocation, logger, DEADLINE_EXCEEDED, attempt);
+      } else if (!budget.tryRetry()) {
+        stop(promise, invocation, logger, BUDGET_EXHAUSTED, attempt);
+      } else {
+        logger.onRetry(attempt, delayMs);
+        vertx.setTimer(delayMs, id -> attempt(promise, context, logger, attempt + 1, startMs));
+      }
+    }
+  }
+
+  private void stop(Promise<FragmentResult> promise, ActionInvocation invocation,
+      RetryActionLogger logger, String reason, int attempts) {
+    logger.onRetryStopped(reason, attempts, budget);
+    complete(promise, invocation, logger);
+  }
+
+  private static void complete(Promise<FragmentResult> promise, ActionInvocation invocation,
+      RetryActionLogger logger) {
+    promise.complete(invocation.getFragmentResult().copyWithNewLog(logger.logAsJson()));
+  }
+}
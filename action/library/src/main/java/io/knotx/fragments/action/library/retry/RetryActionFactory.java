@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import static io.knotx.commons.validation.ValidationHelper.checkArgument;
+import static io.knotx.fragments.action.api.log.ActionLogLevel.fromConfig;
+import static java.util.Objects.isNull;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.ActionFactory;
+import io.knotx.fragments.action.api.Cacheable;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * This is a factory class creating action, which retries the `doAction` action when it ends with
+ * one of the retry transitions. Retries are delayed by exponential backoff with full jitter on
+ * Vert.x timers and limited by a retry budget shared by all calls of the action, so retries
+ * cannot multiply the load of a failing dependency.
+ */
+@Cacheable
+public class RetryActionFactory implements ActionFactory {
+
+  static final String FACTORY_NAME = "retry";
+
+  @Override
+  public String getName() {
+    return FACTORY_NAME;
+  }
+
+  @Override
+  public Action create(String alias, JsonObject config, Vertx vertx, Action doAction) {
+    if (isNull(doAction)) {
+      throw new DoActionNotDefinedException("Retry action requires `doAction` defined");
+    }
+    RetryActionFactoryOptions options = new RetryActionFactoryOptions(config);
+    checkArgument(options.getMaxAttempts() <= 0, () -> new ActionConfigurationException(alias,
+        "Retry action requires positive maxAttempts."));
+    checkArgument(options.getInitialBackoffMs() < 0
+            || options.getMaxBackoffMs() < options.getInitialBackoffMs(),
+        () -> new ActionConfigurationException(alias,
+            "Retry action requires 0 <= initialBackoffMs <= maxBackoffMs."));
+    checkArgument(options.getBackoffMultiplier() < 1, () -> new ActionConfigurationException(
+        alias, "Retry action requires backoffMultiplier not lower than 1."));
+    checkArgument(options.getRetryBudgetRatio() < 0, () -> new ActionConfigurationException(
+        alias, "Retry action requires retryBudgetRatio to be non-negative."));
+    checkArgument(options.getRetryBudgetBurst() <= 0, () -> new ActionConfigurationException(
+        alias, "Retry action requires positive retryBudgetBurst."));
+
+    RetryBudget budget = new RetryBudget(options.getRetryBudgetRatio(),
+        options.getRetryBudgetBurst());
+    return new RetryAction(vertx, doAction, alias, options, budget,
+        fromConfig(options.getLogLevel()));
+  }
+}
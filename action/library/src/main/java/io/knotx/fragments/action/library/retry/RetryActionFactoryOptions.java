@@ -0,0 +1,265 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import static io.knotx.fragments.action.api.log.ActionLogLevel.ERROR;
+import static io.knotx.fragments.action.library.http.response.EndpointResponseProcessor.TIMEOUT_TRANSITION;
+import static io.knotx.fragments.api.FragmentResult.ERROR_TRANSITION;
+import static io.knotx.fragments.api.FragmentResult.EXCEPTION_TRANSITION;
+import static io.knotx.fragments.api.FragmentResult.EXTERNAL_TIMEOUT_TRANSITION;
+
+import io.vertx.codegen.annotations.DataObject;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Retry action factory options model.
+ */
+@DataObject(generateConverter = true, publicConverter = false)
+public class RetryActionFactoryOptions {
+
+  private static final int DEFAULT_MAX_ATTEMPTS = 3;
+  private static final long DEFAULT_INITIAL_BACKOFF_MS = 100L;
+  private static final long DEFAULT_MAX_BACKOFF_MS = 2000L;
+  private static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
+  private static final double DEFAULT_RETRY_BUDGET_RATIO = 0.1;
+  private static final int DEFAULT_RETRY_BUDGET_BURST = 10;
+
+  private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+  private long initialBackoffMs = DEFAULT_INITIAL_BACKOFF_MS;
+  private long maxBackoffMs = DEFAULT_MAX_BACKOFF_MS;
+  private double backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+  private Set<String> retryTransitions = new HashSet<>(Arrays.asList(ERROR_TRANSITION,
+      EXCEPTION_TRANSITION, TIMEOUT_TRANSITION, EXTERNAL_TIMEOUT_TRANSITION));
+  private long deadlineMs;
+  private double retryBudgetRatio = DEFAULT_RETRY_BUDGET_RATIO;
+  private int retryBudgetBurst = DEFAULT_RETRY_BUDGET_BURST;
+  private String logLevel = ERROR.getLevel();
+
+  public RetryActionFactoryOptions() {
+    // default values
+  }
+
+  public RetryActionFactoryOptions(RetryActionFactoryOptions other) {
+    this.maxAttempts = other.maxAttempts;
+    this.initialBackoffMs = other.initialBackoffMs;
+    this.maxBackoffMs = other.maxBackoffMs;
+    this.backoffMultiplier = other.backoffMultiplier;
+    this.retryTransitions = new HashSet<>(other.retryTransitions);
+    this.deadlineMs = other.deadlineMs;
+    this.retryBudgetRatio = other.retryBudgetRatio;
+    this.retryBudgetBurst = other.retryBudgetBurst;
+    this.logLevel = other.logLevel;
+  }
+
+  public RetryActionFactoryOptions(JsonObject json) {
+    this();
+    RetryActionFactoryOptionsConverter.fromJson(json, this);
+  }
+
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    RetryActionFactoryOptionsConverter.toJson(this, json);
+    return json;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  /**
+   * Sets the maximum number of <code>doAction</code> calls, including the first one. The default
+   * value is 3.
+   *
+   * @param maxAttempts maximum number of attempts
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+    return this;
+  }
+
+  public long getInitialBackoffMs() {
+    return initialBackoffMs;
+  }
+
+  /**
+   * Sets the backoff cap before the first retry, in milliseconds. The actual delay is drawn
+   * uniformly from zero to the cap. The default value is 100.
+   *
+   * @param initialBackoffMs first backoff cap in milliseconds
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setInitialBackoffMs(long initialBackoffMs) {
+    this.initialBackoffMs = initialBackoffMs;
+    return this;
+  }
+
+  public long getMaxBackoffMs() {
+    return maxBackoffMs;
+  }
+
+  /**
+   * Sets the highest backoff cap, in milliseconds. The default value is 2000.
+   *
+   * @param maxBackoffMs maximum backoff cap in milliseconds
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setMaxBackoffMs(long maxBackoffMs) {
+    this.maxBackoffMs = maxBackoffMs;
+    return this;
+  }
+
+  public double getBackoffMultiplier() {
+    return backoffMultiplier;
+  }
+
+  /**
+   * Sets the factor the backoff cap grows by with every retry. The default value is 2.
+   *
+   * @param backoffMultiplier backoff multiplier
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setBackoffMultiplier(double backoffMultiplier) {
+    this.backoffMultiplier = backoffMultiplier;
+    return this;
+  }
+
+  public Set<String> getRetryTransitions() {
+    return retryTransitions;
+  }
+
+  /**
+   * Sets <code>doAction</code> transitions that are retried. The default value is
+   * <code>_error</code>, <code>_exception</code>, <code>_timeout</code> (e.g. an HTTP request
+   * timeout) and <code>_external_timeout</code>.
+   *
+   * @param retryTransitions transitions that are retried
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setRetryTransitions(Set<String> retryTransitions) {
+    this.retryTransitions = retryTransitions;
+    return this;
+  }
+
+  public long getDeadlineMs() {
+    return deadlineMs;
+  }
+
+  /**
+   * Sets the time in milliseconds from the first attempt after which no retry is started. A retry
+   * is skipped when its backoff would end after the deadline. The default value is 0, which
+   * disables the deadline.
+   *
+   * @param deadlineMs deadline in milliseconds
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setDeadlineMs(long deadlineMs) {
+    this.deadlineMs = deadlineMs;
+    return this;
+  }
+
+  public double getRetryBudgetRatio() {
+    return retryBudgetRatio;
+  }
+
+  /**
+   * Sets the fraction of calls that can be retried, shared by all calls of the action. The
+   * default value is 0.1.
+   *
+   * @param retryBudgetRatio retries to calls ratio
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setRetryBudgetRatio(double retryBudgetRatio) {
+    this.retryBudgetRatio = retryBudgetRatio;
+    return this;
+  }
+
+  public int getRetryBudgetBurst() {
+    return retryBudgetBurst;
+  }
+
+  /**
+   * Sets the number of retries allowed above the budget ratio, e.g. after start or a quiet
+   * period. The default value is 10.
+   *
+   * @param retryBudgetBurst retries allowed above the ratio
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setRetryBudgetBurst(int retryBudgetBurst) {
+    this.retryBudgetBurst = retryBudgetBurst;
+    return this;
+  }
+
+  public String getLogLevel() {
+    return logLevel;
+  }
+
+  /**
+   * Sets the action node log level.
+   *
+   * @param logLevel the log level
+   * @return reference to this, so the API can be used fluently
+   */
+  public RetryActionFactoryOptions setLogLevel(String logLevel) {
+    this.logLevel = logLevel;
+    return this;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RetryActionFactoryOptions that = (RetryActionFactoryOptions) o;
+    return maxAttempts == that.maxAttempts &&
+        initialBackoffMs == that.initialBackoffMs &&
+        maxBackoffMs == that.maxBackoffMs &&
+        Double.compare(that.backoffMultiplier, backoffMultiplier) == 0 &&
+        deadlineMs == that.deadlineMs &&
+        Double.compare(that.retryBudgetRatio, retryBudgetRatio) == 0 &&
+        retryBudgetBurst == that.retryBudgetBurst &&
+        Objects.equals(retryTransitions, that.retryTransitions) &&
+        Objects.equals(logLevel, that.logLevel);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxAttempts, initialBackoffMs, maxBackoffMs, backoffMultiplier,
+        retryTransitions, deadlineMs, retryBudgetRatio, retryBudgetBurst, logLevel);
+  }
+
+  @Override
+  public String toString() {
+    return "RetryActionFactoryOptions{" +
+        "maxAttempts=" + maxAttempts +
+        ", initialBackoffMs=" + initialBackoffMs +
+        ", maxBackoffMs=" + maxBackoffMs +
+        ", backoffMultiplier=" + backoffMultiplier +
+        ", retryTransitions=" + retryTransitions +
+        ", deadlineMs=" + deadlineMs +
+        ", retryBudgetRatio=" + retryBudgetRatio +
+        ", retryBudgetBurst=" + retryBudgetBurst +
+        ", logLevel='" + logLevel + '\'' +
+        '}';
+  }
+}
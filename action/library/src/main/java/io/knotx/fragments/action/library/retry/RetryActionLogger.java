@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import static java.lang.String.valueOf;
+
+import io.knotx.fragments.action.api.invoker.ActionInvocation;
+import io.knotx.fragments.action.api.log.ActionLogLevel;
+import io.knotx.fragments.action.api.log.ActionLogger;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+class RetryActionLogger {
+
+  static final String ATTEMPTS_LOG_KEY = "attempts";
+  static final String RETRIES_LOG_KEY = "retries";
+  static final String RETRY_STOPPED_LOG_KEY = "retryStopped";
+
+  private final ActionLogger actionLogger;
+  private final JsonArray retries = new JsonArray();
+
+  static RetryActionLogger create(String alias, ActionLogLevel level) {
+    return new RetryActionLogger(ActionLogger.create(alias, level));
+  }
+
+  RetryActionLogger(ActionLogger actionLogger) {
+    this.actionLogger = actionLogger;
+  }
+
+  void onAttempt(ActionInvocation invocation, boolean retryable) {
+    if (retryable) {
+      actionLogger.error(invocation);
+    } else {
+      actionLogger.info(invocation);
+    }
+  }
+
+  void onRetry(int retry, long delayMs) {
+    retries.add(new JsonObject().put("retry", retry).put("delayMs", delayMs));
+    actionLogger.info(RETRIES_LOG_KEY, retries);
+  }
+
+  void onRetryStopped(String reason, int attempts, RetryBudget budget) {
+    actionLogger.error(RETRY_STOPPED_LOG_KEY, new JsonObject()
+        .put("reason", reason)
+        .put("availableRetries", budget.getAvailableRetries()));
+    actionLogger.error(ATTEMPTS_LOG_KEY, valueOf(attempts));
+  }
+
+  void onCompleted(int attempts) {
+    actionLogger.info(ATTEMPTS_LOG_KEY, valueOf(attempts));
+  }
+
+  JsonObject logAsJson() {
+    return actionLogger.toLog().toJson();
+  }
+}
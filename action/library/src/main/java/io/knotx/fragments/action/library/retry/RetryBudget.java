@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits retries to a fraction of calls. Every call deposits <code>ratio</code> of a token, every
+ * retry withdraws a whole one, and the balance is capped at <code>burst</code> tokens, so over
+ * time retries make up at most <code>ratio</code> of calls plus the burst. Tokens are kept in
+ * thousandths in a single atomic counter.
+ */
+final class RetryBudget {
+
+  private static final long TOKEN = 1000L;
+
+  private final long deposit;
+  private final long capacity;
+  private final AtomicLong balance;
+
+  /**
+   * @param ratio fraction of a token deposited by every call
+   * @param burst maximum number of banked retries, the budget starts full
+   */
+  RetryBudget(double ratio, int burst) {
+    this.deposit = Math.round(ratio * TOKEN);
+    this.capacity = burst * TOKEN;
+    this.balance = new AtomicLong(capacity);
+  }
+
+  void onCall() {
+    while (true) {
+      long current = balance.get();
+      if (current >= capacity
+          || balance.compareAndSet(current, Math.min(capacity, current + deposit))) {
+        return;
+      }
+    }
+  }
+
+  boolean tryRetry() {
+    while (true) {
+      long current = balance.get();
+      if (current < TOKEN) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - TOKEN)) {
+        return true;
+      }
+    }
+  }
+
+  double getAvailableRetries() {
+    return balance.get() / (double) TOKEN;
+  }
+}
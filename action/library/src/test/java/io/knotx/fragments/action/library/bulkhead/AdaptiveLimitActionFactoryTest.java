@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static io.knotx.fragments.action.library.TestUtils.ACTION_ALIAS;
+import static io.knotx.fragments.action.library.TestUtils.doActionIdle;
+import static io.knotx.fragments.action.library.TestUtils.someContext;
+import static io.knotx.fragments.action.library.TestUtils.verifyDeliveredResult;
+import static io.knotx.fragments.action.library.bulkhead.BulkheadActionFactory.REJECTED_TRANSITION;
+import static io.knotx.fragments.api.FragmentResult.SUCCESS_TRANSITION;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@Timeout(value = 5, timeUnit = SECONDS)
+@ExtendWith(VertxExtension.class)
+class AdaptiveLimitActionFactoryTest {
+
+  @Test
+  @DisplayName("Expect factory name is 'adaptive-limit'.")
+  void checkFactoryName() {
+    assertEquals(AdaptiveLimitActionFactory.FACTORY_NAME,
+        new AdaptiveLimitActionFactory().getName());
+  }
+
+  @Test
+  @DisplayName("Expect exception when doAction not provided")
+  void doActionNotProvided(Vertx vertx) {
+    assertThrows(DoActionNotDefinedException.class, () ->
+        new AdaptiveLimitActionFactory().create(ACTION_ALIAS, new JsonObject(), vertx, null));
+  }
+
+  @Test
+  @DisplayName("Expect exception when initialLimit is out of limit bounds")
+  void invalidInitialLimit(Vertx vertx) {
+    JsonObject config = new AdaptiveLimitActionFactoryOptions()
+        .setMinLimit(5)
+        .setInitialLimit(2)
+        .toJson();
+
+    assertThrows(ActionConfigurationException.class, () ->
+        new AdaptiveLimitActionFactory().create(ACTION_ALIAS, config, vertx, doActionIdle()));
+  }
+
+  @Test
+  @DisplayName("Expect exception when maxLimit is lower than minLimit")
+  void invalidMaxLimit(Vertx vertx) {
+    JsonObject config = new AdaptiveLimitActionFactoryOptions()
+        .setMinLimit(5)
+        .setMaxLimit(4)
+        .toJson();
+
+    assertThrows(ActionConfigurationException.class, () ->
+        new AdaptiveLimitActionFactory().create(ACTION_ALIAS, config, vertx, doActionIdle()));
+  }
+
+  @Test
+  @DisplayName("Expect doAction result and sampled RTT when the limit is not reached")
+  void belowLimit(VertxTestContext testContext, Vertx vertx) {
+    Action tested = newActionInstance(vertx, new AdaptiveLimitActionFactoryOptions(),
+        doActionIdle());
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(SUCCESS_TRANSITION, result.getTransition());
+      assertTrue(((AdaptiveLimitAction) tested).getLimit().getLastRttNanos() > 0);
+    });
+  }
+
+  @Test
+  @DisplayName("Expect _rejected transition when the current limit is reached")
+  void rejectedWhenLimitReached(VertxTestContext testContext, Vertx vertx) {
+    Action neverEnding = (fragmentContext, resultHandler) -> {
+    };
+    Action tested = newActionInstance(vertx, new AdaptiveLimitActionFactoryOptions()
+        .setInitialLimit(1)
+        .setMaxLimit(1), neverEnding);
+
+    tested.apply(someContext(), result -> testContext.failNow(
+        new IllegalStateException("The first call should not finish")));
+
+    verifyDeliveredResult(testContext, tested,
+        result -> assertEquals(REJECTED_TRANSITION, result.getTransition()));
+  }
+
+  private Action newActionInstance(Vertx vertx, AdaptiveLimitActionFactoryOptions options,
+      Action doAction) {
+    return new AdaptiveLimitActionFactory().create(ACTION_ALIAS, options.toJson(), vertx,
+        doAction);
+  }
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static io.knotx.fragments.action.library.TestUtils.ACTION_ALIAS;
+import static io.knotx.fragments.action.library.TestUtils.doActionIdle;
+import static io.knotx.fragments.action.library.TestUtils.someContext;
+import static io.knotx.fragments.action.library.TestUtils.verifyDeliveredResult;
+import static io.knotx.fragments.action.library.bulkhead.BulkheadActionFactory.REJECTED_TRANSITION;
+import static io.knotx.fragments.api.FragmentResult.SUCCESS_TRANSITION;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@Timeout(value = 5, timeUnit = SECONDS)
+@ExtendWith(VertxExtension.class)
+class BulkheadActionFactoryTest {
+
+  @Test
+  @DisplayName("Expect factory name is 'bulkhead'.")
+  void checkFactoryName() {
+    assertEquals(BulkheadActionFactory.FACTORY_NAME, new BulkheadActionFactory().getName());
+  }
+
+  @Test
+  @DisplayName("Expect exception when doAction not provided")
+  void doActionNotProvided(Vertx vertx) {
+    assertThrows(DoActionNotDefinedException.class, () ->
+        new BulkheadActionFactory().create(ACTION_ALIAS, new JsonObject(), vertx, null));
+  }
+
+  @Test
+  @DisplayName("Expect exception when maxConcurrentCalls is not positive")
+  void invalidMaxConcurrentCalls(Vertx vertx) {
+    JsonObject config = new BulkheadActionFactoryOptions().setMaxConcurrentCalls(0).toJson();
+
+    assertThrows(ActionConfigurationException.class, () ->
+        new BulkheadActionFactory().create(ACTION_ALIAS, config, vertx, doActionIdle()));
+  }
+
+  @Test
+  @DisplayName("Expect doAction result when the limit is not reached")
+  void belowLimit(VertxTestContext testContext, Vertx vertx) {
+    Action tested = newActionInstance(vertx, new BulkheadActionFactoryOptions(), doActionIdle());
+
+    verifyDeliveredResult(testContext, tested,
+        result -> assertEquals(SUCCESS_TRANSITION, result.getTransition()));
+  }
+
+  @Test
+  @DisplayName("Expect _rejected transition when maxConcurrentCalls is reached and no queue")
+  void rejectedWhenLimitReached(VertxTestContext testContext, Vertx vertx) {
+    PendingAction doAction = new PendingAction();
+    Action tested = newActionInstance(vertx,
+        new BulkheadActionFactoryOptions().setMaxConcurrentCalls(1), doAction);
+
+    tested.apply(someContext(), result -> testContext.failNow(
+        new IllegalStateException("The first call should not finish")));
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(REJECTED_TRANSITION, result.getTransition());
+      assertEquals(1, doAction.pending.size());
+      assertEquals(1L, ((BulkheadAction) tested).getBulkhead().getRejectedCount());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect queued call executed when the running call finishes")
+  void queuedCallExecuted(VertxTestContext testContext, Vertx vertx) {
+    PendingAction doAction = new PendingAction();
+    Action tested = newActionInstance(vertx, new BulkheadActionFactoryOptions()
+        .setMaxConcurrentCalls(1)
+        .setMaxQueueSize(1)
+        .setQueueTimeoutMs(4000L), doAction);
+
+    tested.apply(someContext(), testContext.succeeding());
+    tested.apply(someContext(), testContext.succeeding(second -> testContext.verify(() -> {
+      assertEquals(SUCCESS_TRANSITION, second.getTransition());
+      assertEquals(0, ((BulkheadAction) tested).getBulkhead().getQueued());
+      testContext.completeNow();
+    })));
+
+    assertEquals(1, ((BulkheadAction) tested).getBulkhead().getQueued());
+    doAction.completePending();
+  }
+
+  @Test
+  @DisplayName("Expect _rejected transition when the queue timeout passes")
+  void rejectedAfterQueueTimeout(VertxTestContext testContext, Vertx vertx) {
+    PendingAction doAction = new PendingAction();
+    Action tested = newActionInstance(vertx, new BulkheadActionFactoryOptions()
+        .setMaxConcurrentCalls(1)
+        .setMaxQueueSize(1)
+        .setQueueTimeoutMs(100L), doAction);
+    long start = System.currentTimeMillis();
+
+    tested.apply(someContext(), result -> testContext.failNow(
+        new IllegalStateException("The first call should not finish")));
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(REJECTED_TRANSITION, result.getTransition());
+      assertTrue(System.currentTimeMillis() - start >= 100L);
+      assertEquals(1, doAction.pending.size());
+    });
+  }
+
+  private Action newActionInstance(Vertx vertx, BulkheadActionFactoryOptions options,
+      Action doAction) {
+    return new BulkheadActionFactory().create(ACTION_ALIAS, options.toJson(), vertx, doAction);
+  }
+
+  /**
+   * The first call never finishes until {@link PendingAction#completePending()}, later calls
+   * finish immediately.
+   */
+  private static class PendingAction implements Action {
+
+    private final List<Runnable> pending = new CopyOnWriteArrayList<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Override
+    public void apply(FragmentContext fragmentContext,
+        Handler<AsyncResult<FragmentResult>> resultHandler) {
+      Runnable complete = () -> resultHandler
+          .handle(Future.succeededFuture(FragmentResult.success(fragmentContext.getFragment())));
+      if (calls.incrementAndGet() == 1) {
+        pending.add(complete);
+      } else {
+        complete.run();
+      }
+    }
+
+    void completePending() {
+      pending.remove(0).run();
+    }
+  }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class VegasLimitTest {
+
+  private static final long RTT = 10_000_000L;
+
+  @Test
+  @DisplayName("Expect limit grows when RTT stays at its minimum and the limit is used.")
+  void growsWithoutQueueing() {
+    VegasLimit tested = new VegasLimit(10, 1, 100);
+    tested.onSample(RTT, 10, false);
+
+    tested.onSample(RTT, 10, false);
+
+    assertTrue(tested.getLimit() > 10);
+    assertEquals(RTT, tested.getMinRttNanos());
+  }
+
+  @Test
+  @DisplayName("Expect limit unchanged when the caller uses less than half of it.")
+  void notGrowingWhenApplicationLimited() {
+    VegasLimit tested = new VegasLimit(10, 1, 100);
+    tested.onSample(RTT, 1, false);
+
+    tested.onSample(RTT, 1, false);
+
+    assertEquals(10, tested.getLimit());
+  }
+
+  @Test
+  @DisplayName("Expect limit shrinks when RTT grows far above its minimum.")
+  void shrinksWhenQueueing() {
+    VegasLimit tested = new VegasLimit(50, 1, 100);
+    tested.onSample(RTT, 50, false);
+
+    tested.onSample(RTT * 10, 50, false);
+
+    assertTrue(tested.getLimit() < 50);
+    assertEquals(RTT * 10, tested.getLastRttNanos());
+  }
+
+  @Test
+  @DisplayName("Expect limit backs off on failures, but not below minLimit.")
+  void backsOffOnDrops() {
+    VegasLimit tested = new VegasLimit(10, 5, 100);
+
+    tested.onSample(RTT, 10, true);
+    assertEquals(9, tested.getLimit());
+
+    for (int i = 0; i < 20; i++) {
+      tested.onSample(RTT, 10, true);
+    }
+    assertEquals(5, tested.getLimit());
+  }
+
+  @Test
+  @DisplayName("Expect limit does not grow above maxLimit.")
+  void boundedByMaxLimit() {
+    VegasLimit tested = new VegasLimit(10, 1, 12);
+    tested.onSample(RTT, 12, false);
+
+    for (int i = 0; i < 20; i++) {
+      tested.onSample(RTT, 12, false);
+    }
+
+    assertEquals(12, tested.getLimit());
+  }
+}
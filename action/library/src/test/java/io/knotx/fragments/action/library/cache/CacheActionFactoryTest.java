@@ -63,6 +63,29 @@ class CacheActionFactoryTest {
         tested.create(ACTION_ALIAS, invalidActionConfig(), null, IDLE_DO_ACTION));
   }
 
+  @Test
+  @DisplayName("Expect exception when softTtlMs is not lower than hardTtlMs")
+  void softTtlNotLowerThanHardTtlThrows() {
+    JsonObject config = new CacheActionOptions(validConfig("empty-cache"))
+        .setSoftTtlMs(1000L)
+        .setHardTtlMs(1000L)
+        .toJson();
+
+    assertThrows(ActionConfigurationException.class,
+        () -> tested.create(ACTION_ALIAS, config, null, IDLE_DO_ACTION));
+  }
+
+  @Test
+  @DisplayName("Expect exception when refreshAheadMs is set without any TTL")
+  void refreshAheadWithoutTtlThrows() {
+    JsonObject config = new CacheActionOptions(validConfig("empty-cache"))
+        .setRefreshAheadMs(1000L)
+        .toJson();
+
+    assertThrows(ActionConfigurationException.class,
+        () -> tested.create(ACTION_ALIAS, config, null, IDLE_DO_ACTION));
+  }
+
   @Test
   @DisplayName("Expect CacheAction returned when config is valid")
   void validConfigProducesValidAction() {
@@ -71,6 +94,22 @@ class CacheActionFactoryTest {
     assertTrue(action instanceof CacheAction);
   }
 
+  @Test
+  @DisplayName("Expect tinylfu CacheFactory available via SPI")
+  void tinyLfuCacheFactoryAvailable() {
+    Action action = tested.create(ACTION_ALIAS, validConfig("tinylfu"), null, IDLE_DO_ACTION);
+
+    assertTrue(action instanceof CacheAction);
+  }
+
+  @Test
+  @DisplayName("Expect off-heap CacheFactory available via SPI")
+  void offHeapCacheFactoryAvailable() {
+    Action action = tested.create(ACTION_ALIAS, validConfig("off-heap"), null, IDLE_DO_ACTION);
+
+    assertTrue(action instanceof CacheAction);
+  }
+
   @Test
   @DisplayName("Expect factory to have Cacheable annotation")
   void factoryCacheable() {
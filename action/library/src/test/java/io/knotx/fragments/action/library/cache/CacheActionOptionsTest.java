@@ -36,7 +36,13 @@ class CacheActionOptionsTest {
         .setCacheKey("cacheKey")
         .setPayloadKey("payloadKey")
         .setLogLevel("error")
-        .setCache(CACHE_CONFIG);
+        .setCache(CACHE_CONFIG)
+        .setSoftTtlMs(1000L)
+        .setHardTtlMs(5000L)
+        .setRefreshAheadMs(200L)
+        .setCoalescingTimeoutMs(500L)
+        .setHashCacheKey(true)
+        .setStatsTopKeys(5);
 
     CacheActionOptions copy = new CacheActionOptions(original.toJson());
 
@@ -18,6 +18,7 @@ package io.knotx.fragments.action.library.cache;
 import static io.knotx.fragments.action.api.log.ActionInvocationLog.LOG;
 import static io.knotx.fragments.action.api.log.ActionInvocationLog.SUCCESS;
 import static io.knotx.fragments.action.api.log.ActionLog.INVOCATIONS;
+import static io.knotx.fragments.action.library.TestUtils.someContext;
 import static io.knotx.fragments.action.library.TestUtils.successResult;
 import static io.knotx.fragments.action.library.TestUtils.verifyActionResult;
 import static io.knotx.fragments.action.library.cache.CacheTestUtils.ACTION_ALIAS;
@@ -33,29 +34,43 @@ import static io.knotx.fragments.action.library.cache.CacheTestUtils.doActionRet
 import static io.knotx.fragments.api.FragmentResult.ERROR_TRANSITION;
 import static io.knotx.junit5.assertions.KnotxAssertions.assertJsonEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.knotx.fragments.action.api.Action;
 import io.knotx.fragments.action.api.log.ActionLogLevel;
+import io.knotx.fragments.action.library.cache.operations.CacheActionLogger;
+import io.knotx.fragments.action.library.cache.operations.CacheKeyTemplate;
 import io.knotx.fragments.action.library.cache.operations.CacheLookup;
 import io.knotx.fragments.action.library.cache.operations.CacheStore;
+import io.knotx.fragments.action.library.cache.operations.RefreshableValue;
 import io.knotx.fragments.api.Fragment;
 import io.knotx.fragments.api.FragmentContext;
 import io.knotx.fragments.api.FragmentResult;
 import io.knotx.server.api.context.ClientRequest;
 import io.reactivex.Maybe;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Checkpoint;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import io.vertx.reactivex.core.MultiMap;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -155,6 +170,118 @@ class CacheActionTest {
         result -> verify(store, times(1)).save(any(), eq(CACHE_KEY), eq(returned)));
   }
 
+  @Test
+  @DisplayName("Expect refreshable value from lookup returned and refreshed in the background")
+  void refreshableValueRefreshed(VertxTestContext testContext) {
+    lookupRefreshable();
+    FragmentResult returned = successResult();
+    Action tested = create(doActionReturning(returned));
+
+    verifyActionResult(testContext, tested, result -> {
+      assertEquals(SOME_VALUE, result.result().getFragment().getPayload()
+          .getJsonObject(PAYLOAD_KEY));
+      verify(store, timeout(1000).times(1)).save(any(), eq(CACHE_KEY), eq(returned));
+    });
+  }
+
+  @Test
+  @DisplayName("Expect concurrent misses for the same key to call doAction once")
+  void concurrentMissesCoalesced(VertxTestContext testContext) {
+    lookupEmpty();
+    when(store.cacheableValue(any())).thenReturn(Maybe.just(SOME_VALUE));
+    when(lookup.toResponse(any(), eq((Object) SOME_VALUE)))
+        .thenReturn(FragmentResult.success(new Fragment("", new JsonObject(), "")
+            .appendPayload(PAYLOAD_KEY, SOME_VALUE)));
+    List<Handler<AsyncResult<FragmentResult>>> pending = new ArrayList<>();
+    Action tested = create(CACHE_KEY, (context, handler) -> pending.add(handler), 1000L);
+    Checkpoint checkpoint = testContext.checkpoint(2);
+
+    tested.apply(someContext(), first -> testContext.verify(() -> {
+      verify(store, times(1)).save(any(), eq(CACHE_KEY), any());
+      checkpoint.flag();
+    }));
+    tested.apply(someContext(), second -> testContext.verify(() -> {
+      assertEquals(1, pending.size());
+      assertEquals(SOME_VALUE, second.result().getFragment().getPayload()
+          .getJsonObject(PAYLOAD_KEY));
+      assertTrue(second.result().getLog().getJsonObject(LOGS_KEY)
+          .containsKey(CacheActionLogger.CACHE_COALESCED));
+      checkpoint.flag();
+    }));
+    pending.get(0).handle(Future.succeededFuture(FragmentResult.success(
+        new Fragment("", new JsonObject(), "").appendPayload(PAYLOAD_KEY, SOME_VALUE))));
+  }
+
+  @Test
+  @DisplayName("Expect concurrent misses to take the first result when it is not cacheable")
+  void concurrentMissesTakeUncacheableResult(VertxTestContext testContext) {
+    lookupEmpty();
+    when(store.cacheableValue(any())).thenReturn(Maybe.empty());
+    FragmentResult failed = FragmentResult.fail(new Fragment("", new JsonObject(), ""),
+        new IllegalStateException());
+    when(lookup.toUncacheableResponse(any(), eq(failed))).thenReturn(failed);
+    List<Handler<AsyncResult<FragmentResult>>> pending = new ArrayList<>();
+    Action tested = create(CACHE_KEY, (context, handler) -> pending.add(handler), 1000L);
+    Checkpoint checkpoint = testContext.checkpoint(2);
+
+    tested.apply(someContext(), first -> testContext.verify(() -> {
+      assertEquals(ERROR_TRANSITION, first.result().getTransition());
+      checkpoint.flag();
+    }));
+    tested.apply(someContext(), second -> testContext.verify(() -> {
+      assertEquals(1, pending.size());
+      assertEquals(ERROR_TRANSITION, second.result().getTransition());
+      assertTrue(second.result().getLog().getJsonObject(LOGS_KEY)
+          .containsKey(CacheActionLogger.CACHE_COALESCED));
+      checkpoint.flag();
+    }));
+    pending.get(0).handle(Future.succeededFuture(failed));
+  }
+
+  @Test
+  @DisplayName("Expect concurrent miss to call doAction itself when first miss times out")
+  void concurrentMissCallsDoActionAfterTimeout(VertxTestContext testContext) {
+    lookupEmpty();
+    List<Handler<AsyncResult<FragmentResult>>> pending = new ArrayList<>();
+    Action tested = create(CACHE_KEY, (context, handler) -> {
+      pending.add(handler);
+      if (pending.size() > 1) {
+        handler.handle(Future.succeededFuture(successResult()));
+      }
+    }, 50L);
+
+    tested.apply(someContext(), first -> testContext.failNow(new IllegalStateException()));
+    tested.apply(someContext(), second -> testContext.verify(() -> {
+      assertEquals(2, pending.size());
+      assertTrue(second.succeeded());
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect concurrent miss to call doAction on its own context after timeout")
+  void concurrentMissCallsDoActionOnCallerContext(VertxTestContext testContext, Vertx vertx) {
+    lookupEmpty();
+    List<Context> doActionContexts = new ArrayList<>();
+    Action tested = create(CACHE_KEY, (context, handler) -> {
+      doActionContexts.add(Vertx.currentContext());
+      if (doActionContexts.size() > 1) {
+        handler.handle(Future.succeededFuture(successResult()));
+      }
+    }, 50L);
+
+    vertx.runOnContext(v -> {
+      Context callerContext = Vertx.currentContext();
+      tested.apply(someContext(), first -> testContext.failNow(new IllegalStateException()));
+      tested.apply(someContext(), second -> testContext.verify(() -> {
+        assertEquals(2, doActionContexts.size());
+        assertSame(callerContext, doActionContexts.get(1));
+        assertSame(callerContext, Vertx.currentContext());
+        testContext.completeNow();
+      }));
+    });
+  }
+
   @Test
   @DisplayName("Expect doAction's result fragment and transition are returned")
   void doActionResultPassed(VertxTestContext testContext) {
@@ -329,6 +456,28 @@ class CacheActionTest {
             .appendPayload(PAYLOAD_KEY, CacheTestUtils.SOME_VALUE)));
   }
 
+  private Action create(String cacheKey, Action doAction, long coalescingTimeoutMs) {
+    return new CacheAction(
+        ACTION_ALIAS,
+        CacheKeyTemplate.compile(cacheKey, false),
+        doAction,
+        ActionLogLevel.INFO,
+        lookup,
+        store,
+        true,
+        true,
+        coalescingTimeoutMs
+    );
+  }
+
+  private void lookupRefreshable() {
+    when(lookup.find(any(), any()))
+        .thenReturn(Maybe.just(new RefreshableValue(CacheTestUtils.SOME_VALUE)));
+    when(lookup.toResponse(any(), any()))
+        .thenReturn(FragmentResult.success(new Fragment("", new JsonObject(), "")
+            .appendPayload(PAYLOAD_KEY, CacheTestUtils.SOME_VALUE)));
+  }
+
   private void lookupEmpty() {
     when(lookup.find(any(), any())).thenReturn(Maybe.empty());
   }
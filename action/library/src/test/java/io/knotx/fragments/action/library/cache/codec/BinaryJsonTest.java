@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BinaryJsonTest {
+
+  @Test
+  @DisplayName("Expect JSON object with all value types decoded to an equal object")
+  void objectRoundTrip() {
+    JsonObject value = new JsonObject()
+        .put("string", "za\u017c\u00f3\u0142\u0107")
+        .put("int", -42)
+        .put("long", Long.MAX_VALUE)
+        .put("double", 3.14d)
+        .put("float", 1.5f)
+        .put("true", true)
+        .put("false", false)
+        .putNull("null")
+        .put("nested", new JsonObject().put("array", new JsonArray().add(1).add("two")));
+
+    assertEquals(value, BinaryJson.decode(BinaryJson.encode(value)));
+  }
+
+  @Test
+  @DisplayName("Expect JSON array decoded to an equal array")
+  void arrayRoundTrip() {
+    JsonArray value = new JsonArray().add(new JsonObject().put("a", 1)).addNull().add(2L);
+
+    assertEquals(value, BinaryJson.decode(BinaryJson.encode(value)));
+  }
+
+  @Test
+  @DisplayName("Expect scalar values decoded")
+  void scalarRoundTrip() {
+    assertEquals("text", BinaryJson.decode(BinaryJson.encode("text")));
+    assertEquals(Integer.MIN_VALUE, BinaryJson.decode(BinaryJson.encode(Integer.MIN_VALUE)));
+    assertNull(BinaryJson.decode(BinaryJson.encode(null)));
+    assertArrayEquals(new byte[]{1, 2, 3},
+        (byte[]) BinaryJson.decode(BinaryJson.encode(new byte[]{1, 2, 3})));
+  }
+
+  @Test
+  @DisplayName("Expect big numbers decoded with their exact digits")
+  void bigNumbersRoundTrip() {
+    BigDecimal decimal = new BigDecimal("-12345678901234567890.000000000000000000001");
+    BigInteger integer = new BigInteger("123456789012345678901234567890");
+
+    assertEquals(decimal, BinaryJson.decode(BinaryJson.encode(decimal)));
+    assertEquals(new BigDecimal("1E+5"), BinaryJson.decode(BinaryJson.encode(
+        new BigDecimal("1E+5"))));
+    assertEquals(integer, BinaryJson.decode(BinaryJson.encode(integer)));
+  }
+
+  @Test
+  @DisplayName("Expect read-only objects and arrays to throw on modification")
+  void readOnly() {
+    JsonObject value = new JsonObject()
+        .put("b", 1)
+        .put("a", new JsonArray().add(new JsonObject().put("c", 2)));
+    byte[] encoded = BinaryJson.encode(value);
+
+    JsonObject tested = (JsonObject) BinaryJson.decode(encoded, 0, true);
+
+    assertEquals(value, tested);
+    assertThrows(UnsupportedOperationException.class, () -> tested.put("d", 3));
+    assertThrows(UnsupportedOperationException.class, () -> tested.remove("b"));
+    assertThrows(UnsupportedOperationException.class,
+        () -> tested.getMap().entrySet().iterator().next().setValue(3));
+    assertThrows(UnsupportedOperationException.class,
+        () -> tested.getJsonArray("a").add(3));
+    assertThrows(UnsupportedOperationException.class,
+        () -> tested.getJsonArray("a").getJsonObject(0).put("d", 3));
+    assertEquals(Arrays.asList("b", "a"), new ArrayList<>(tested.copy().fieldNames()));
+  }
+
+  @Test
+  @DisplayName("Expect nested encoded payload decoded to its original value")
+  void nestedEncodedPayload() {
+    JsonObject value = new JsonObject().put("a", new JsonArray().add(1).add("two"));
+    JsonObject envelope = new JsonObject().put("storedAt", 42L);
+    envelope.getMap().put("value", EncodedPayload.encode(value));
+
+    assertEquals(new JsonObject().put("storedAt", 42L).put("value", value),
+        BinaryJson.decode(BinaryJson.encode(envelope)));
+  }
+
+  @Test
+  @DisplayName("Expect encoding smaller than JSON text")
+  void compact() {
+    JsonObject value = new JsonObject()
+        .put("ids", new JsonArray(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)))
+        .put("price", 1234567L);
+
+    assertTrue(BinaryJson.encode(value).length < value.encode().length());
+  }
+
+  @Test
+  @DisplayName("Expect exception when value type is not supported")
+  void unsupportedType() {
+    JsonObject value = new JsonObject().put("key", "value");
+    value.getMap().put("other", new Object());
+
+    assertThrows(IllegalArgumentException.class, () -> BinaryJson.encode(value));
+  }
+
+  @Test
+  @DisplayName("Expect exception when bytes are truncated")
+  void truncated() {
+    byte[] encoded = BinaryJson.encode(new JsonObject().put("key", "value"));
+
+    assertThrows(IllegalArgumentException.class,
+        () -> BinaryJson.decode(Arrays.copyOf(encoded, encoded.length - 1)));
+  }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class EncodedPayloadTest {
+
+  private static final JsonObject VALUE = new JsonObject().put("name", "value");
+
+  @Test
+  @DisplayName("Expect stored time kept in a header that is not a part of the value")
+  void storedAt() {
+    EncodedPayload tested = EncodedPayload.encode(VALUE).withStoredAt(1_600_000_000_000L);
+
+    assertTrue(tested.hasStoredAt());
+    assertEquals(1_600_000_000_000L, tested.getStoredAt());
+    assertEquals(VALUE, tested.decode());
+    assertEquals(EncodedPayload.encode(VALUE), tested.withoutStoredAt());
+  }
+
+  @Test
+  @DisplayName("Expect view decoded once and shared with the value without stored time")
+  void viewShared() {
+    EncodedPayload tested = EncodedPayload.encode(VALUE).withStoredAt(42L);
+
+    Object view = tested.view();
+
+    assertEquals(VALUE, view);
+    assertSame(view, tested.view());
+    assertSame(view, tested.withoutStoredAt().view());
+    assertNotSame(view, tested.decode());
+    assertThrows(UnsupportedOperationException.class, () -> ((JsonObject) view).put("a", 1));
+  }
+
+  @Test
+  @DisplayName("Expect stored time header kept in the encoded bytes")
+  void storedAtInBytes() {
+    EncodedPayload stored = EncodedPayload.encode(VALUE).withStoredAt(42L);
+
+    EncodedPayload tested = EncodedPayload.wrap(stored.toBuffer().getBytes());
+
+    assertEquals(42L, tested.getStoredAt());
+    assertEquals(VALUE, tested.decode());
+  }
+
+  @Test
+  @DisplayName("Expect value with entry-like keys read without stored time")
+  void entryLikeValue() {
+    JsonObject value = new JsonObject().put("_storedAt", 42L).put("_value", "value");
+
+    EncodedPayload tested = EncodedPayload.encode(value);
+
+    assertFalse(tested.hasStoredAt());
+    assertEquals(-1L, tested.getStoredAt());
+    assertEquals(value, tested.decode());
+  }
+
+  @Test
+  @DisplayName("Expect nested payload with stored time encoded without the header")
+  void nestedStoredPayload() {
+    JsonObject envelope = new JsonObject();
+    envelope.getMap().put("value", EncodedPayload.encode(VALUE).withStoredAt(42L));
+
+    assertEquals(new JsonObject().put("value", VALUE),
+        BinaryJson.decode(BinaryJson.encode(envelope)));
+  }
+}
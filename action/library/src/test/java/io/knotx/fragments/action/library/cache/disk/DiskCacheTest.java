@@ -0,0 +1,302 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.disk;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.vertx.core.json.JsonObject;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DiskCacheTest {
+
+  private static final JsonObject FIRST = new JsonObject().put("name", "first-value");
+  private static final JsonObject SECOND = new JsonObject().put("name", "second-value");
+  private static final JsonObject BIG = new JsonObject().put("name", StringUtils.repeat('x', 200));
+
+  private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  @DisplayName("Expect stored value returned encoded")
+  void putAndGet() {
+    DiskCache tested = cache(options());
+
+    tested.put("key", FIRST);
+
+    assertEquals(FIRST, decoded(tested, "key"));
+    assertNull(tested.get("other").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect replaced value returned when in-memory tier enabled")
+  void replaceWithInMemoryTier() {
+    DiskCache tested = cache(options().setInMemoryMaximumWeight(1024L * 1024));
+
+    tested.put("key", FIRST);
+    assertEquals(FIRST, decoded(tested, "key"));
+    tested.put("key", SECOND);
+
+    assertEquals(SECOND, decoded(tested, "key"));
+  }
+
+  @Test
+  @DisplayName("Expect entries available after restart")
+  void restart() {
+    DiskCache before = cache(options());
+    before.put("first", FIRST);
+    before.put("second", SECOND);
+    before.close();
+
+    DiskCache tested = cache(options());
+
+    assertEquals(FIRST, decoded(tested, "first"));
+    assertEquals(SECOND, decoded(tested, "second"));
+  }
+
+  @Test
+  @DisplayName("Expect the newest value of a key after restarts")
+  void newestValueAfterRestart() {
+    DiskCache first = cache(options());
+    first.put("key", FIRST);
+    first.close();
+    DiskCache second = cache(options());
+    second.put("key", SECOND);
+    second.close();
+
+    DiskCache tested = cache(options());
+
+    assertEquals(SECOND, decoded(tested, "key"));
+  }
+
+  @Test
+  @DisplayName("Expect record with a wrong checksum and records after it ignored after restart")
+  void corruptedRecordIgnored() throws IOException {
+    DiskCache before = cache(options());
+    before.put("first", FIRST);
+    before.put("second", SECOND);
+    before.put("third", FIRST);
+    before.close();
+    flipByte(segmentFiles().get(0), "second-value");
+
+    DiskCache tested = cache(options());
+
+    assertEquals(FIRST, decoded(tested, "first"));
+    assertNull(tested.get("second").blockingGet());
+    assertNull(tested.get("third").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect record torn by a crash ignored after restart")
+  void tornRecordIgnored() throws IOException {
+    DiskCache before = cache(options());
+    before.put("first", FIRST);
+    before.put("second", SECOND);
+    before.close();
+    Path segment = segmentFiles().get(0);
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.truncate(indexOf(segment, "second-value"));
+    }
+
+    DiskCache tested = cache(options());
+
+    assertEquals(FIRST, decoded(tested, "first"));
+    assertNull(tested.get("second").blockingGet());
+    tested.put("second", SECOND);
+    assertEquals(SECOND, decoded(tested, "second"));
+  }
+
+  @Test
+  @DisplayName("Expect entry expired after write, also after restart")
+  void expireAfterWrite() {
+    DiskCache before = cache(options().setExpireAfterWriteMs(1000L));
+    before.put("key", FIRST);
+    clock.addAndGet(999L);
+    assertEquals(FIRST, decoded(before, "key"));
+    before.close();
+
+    DiskCache tested = cache(options().setExpireAfterWriteMs(1000L));
+    assertEquals(FIRST, decoded(tested, "key"));
+
+    clock.addAndGet(1L);
+    assertNull(tested.get("key").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect cache files not bigger than maximum size")
+  void maximumSize() throws IOException {
+    DiskCache tested = cache(options().setSegmentSize(1024).setMaximumSize(4096L));
+
+    for (int i = 0; i < 200; i++) {
+      tested.put("key-" + i, BIG);
+    }
+
+    assertTrue(tested.diskUsage() <= 4096L);
+    assertTrue(segmentFiles().size() <= 4);
+    assertEquals(BIG, decoded(tested, "key-199"));
+    assertNull(tested.get("key-0").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect overwritten entries compacted")
+  void compaction() throws IOException {
+    DiskCache tested = cache(options().setSegmentSize(1024).setMaximumSize(1024L * 1024));
+
+    tested.put("stable", FIRST);
+    for (int i = 0; i < 200; i++) {
+      tested.put("key", BIG.copy().put("version", i));
+    }
+
+    assertTrue(segmentFiles().size() <= 2);
+    assertEquals(FIRST, decoded(tested, "stable"));
+    assertEquals(BIG.copy().put("version", 199), decoded(tested, "key"));
+  }
+
+  @Test
+  @DisplayName("Expect a value written after compaction newer than the compacted one after restart")
+  void newestValueAfterCompactionAndRestart() throws IOException {
+    DiskCacheOptions options = options().setSegmentSize(1024).setMaximumSize(1024L * 1024);
+    DiskCache before = cache(options);
+    before.put("stable", FIRST);
+    // the first segment is compacted after the active one was created, in the same millisecond
+    Path compacted = directory.resolve(String.format("segment-%020d-1.log", 0));
+    for (int i = 0; !Files.exists(compacted); i++) {
+      before.put("key", BIG.copy().put("version", i));
+    }
+    before.put("stable", SECOND);
+    before.close();
+
+    DiskCache tested = cache(options);
+
+    assertEquals(SECOND, decoded(tested, "stable"));
+  }
+
+  @Test
+  @DisplayName("Expect value bigger than a cache file not cached")
+  void oversizedValueNotCached() {
+    DiskCache tested = cache(options().setSegmentSize(128).setMaximumSize(1024L));
+
+    tested.put("key", FIRST);
+    tested.put("key", BIG);
+
+    assertNull(tested.get("key").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect exception when directory is used by another cache")
+  void directoryLocked() {
+    cache(options());
+
+    assertThrows(IllegalStateException.class, () -> cache(options()));
+  }
+
+  @Test
+  @DisplayName("Expect caches created for the same directory share it until the last one is closed")
+  void directorySharedByFactory() throws Exception {
+    DiskCacheFactory factory = new DiskCacheFactory();
+    Cache first = factory.create(options().toJson(), null);
+    Cache second = factory.create(options().toJson(), null);
+
+    first.put("key", FIRST);
+    assertEquals(FIRST, ((EncodedPayload) second.get("key").blockingGet()).decode());
+
+    ((AutoCloseable) first).close();
+    assertThrows(IllegalStateException.class, () -> cache(options()));
+    ((AutoCloseable) second).close();
+    cache(options()).close();
+  }
+
+  @Test
+  @DisplayName("Expect exception when directory is used by a cache with different options")
+  void directorySharedWithDifferentOptions() throws Exception {
+    DiskCacheFactory factory = new DiskCacheFactory();
+    Cache first = factory.create(options().toJson(), null);
+
+    assertThrows(IllegalArgumentException.class,
+        () -> factory.create(options().setExpireAfterWriteMs(1000L).toJson(), null));
+    ((AutoCloseable) first).close();
+  }
+
+  @Test
+  @DisplayName("Expect exception when directory is not configured")
+  void missingDirectory() {
+    JsonObject config = new DiskCacheOptions().toJson();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new DiskCacheFactory().create(config, null));
+  }
+
+  private DiskCacheOptions options() {
+    return new DiskCacheOptions()
+        .setDirectory(directory.toString())
+        .setSegmentSize(4096)
+        .setMaximumSize(64 * 1024L)
+        .setInMemoryMaximumWeight(0L);
+  }
+
+  private DiskCache cache(DiskCacheOptions options) {
+    return new DiskCache(options, Runnable::run, clock::get);
+  }
+
+  private Object decoded(DiskCache cache, String key) {
+    return ((EncodedPayload) cache.get(key).blockingGet()).decode();
+  }
+
+  private List<Path> segmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> Segment.idOf(file) >= 0).sorted().collect(Collectors.toList());
+    }
+  }
+
+  private static void flipByte(Path file, String text) throws IOException {
+    long position = indexOf(file, text);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      ByteBuffer oneByte = ByteBuffer.allocate(1);
+      channel.read(oneByte, position);
+      oneByte.put(0, (byte) (oneByte.get(0) ^ 0xFF));
+      oneByte.rewind();
+      channel.write(oneByte, position);
+    }
+  }
+
+  private static long indexOf(Path file, String text) throws IOException {
+    String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+    int index = content.indexOf(text);
+    assertTrue(index > 0);
+    return index;
+  }
+}
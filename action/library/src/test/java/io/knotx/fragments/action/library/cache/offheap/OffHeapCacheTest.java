@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.offheap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OffHeapCacheTest {
+
+  private static final JsonObject VALUE = new JsonObject()
+      .put("name", StringUtils.repeat('x', 100));
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  @DisplayName("Expect stored value returned encoded")
+  void putAndGet() {
+    OffHeapCache tested = cache(new OffHeapCacheOptions());
+
+    tested.put("key", VALUE);
+
+    Object cached = tested.get("key").blockingGet();
+    assertTrue(cached instanceof EncodedPayload);
+    assertEquals(VALUE, ((EncodedPayload) cached).decode());
+    assertNull(tested.get("other").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect stored value returned when hot set disabled")
+  void withoutHotSet() {
+    OffHeapCache tested = cache(new OffHeapCacheOptions().setHotSetMaximumWeight(0L));
+
+    tested.put("key", VALUE);
+    tested.put("key", VALUE.copy().put("version", 2));
+
+    assertEquals(VALUE.copy().put("version", 2), decoded(tested, "key"));
+  }
+
+  @Test
+  @DisplayName("Expect replaced value returned")
+  void replace() {
+    OffHeapCache tested = cache(new OffHeapCacheOptions());
+
+    tested.put("key", VALUE);
+    tested.get("key").blockingGet();
+    tested.put("key", VALUE.copy().put("version", 2));
+
+    assertEquals(VALUE.copy().put("version", 2), decoded(tested, "key"));
+    assertEquals(1L, tested.estimatedSize());
+  }
+
+  @Test
+  @DisplayName("Expect off-heap memory bounded by capacity")
+  void capacityBound() {
+    OffHeapCache tested = cache(smallArena());
+
+    for (int i = 0; i < 1000; i++) {
+      tested.put("key-" + i, VALUE);
+    }
+
+    assertEquals(4096L, tested.allocatedBytes());
+    assertTrue(tested.estimatedSize() < 1000L);
+    assertEquals(VALUE, decoded(tested, "key-999"));
+    assertNull(tested.get("key-0").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect entry read since the last recycle of its slab retained")
+  void referencedEntryRetained() {
+    OffHeapCache tested = cache(smallArena());
+
+    tested.put("hot", VALUE);
+    for (int i = 0; i < 1000; i++) {
+      tested.get("hot").blockingGet();
+      tested.put("key-" + i, VALUE);
+    }
+
+    assertEquals(VALUE, decoded(tested, "hot"));
+  }
+
+  @Test
+  @DisplayName("Expect value bigger than a slab not cached")
+  void oversizedValueNotCached() {
+    OffHeapCache tested = cache(smallArena());
+
+    tested.put("key", new JsonObject().put("name", StringUtils.repeat('x', 2000)));
+
+    assertNull(tested.get("key").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect entry expired after write")
+  void expireAfterWrite() {
+    OffHeapCache tested = cache(new OffHeapCacheOptions().setExpireAfterWriteMs(1000L));
+
+    tested.put("key", VALUE);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(999L));
+    assertEquals(VALUE, decoded(tested, "key"));
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1L));
+    assertNull(tested.get("key").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect exception when value cannot be encoded")
+  void unsupportedValue() {
+    OffHeapCache tested = cache(new OffHeapCacheOptions());
+
+    assertThrows(IllegalArgumentException.class, () -> tested.put("key", new Object()));
+  }
+
+  @Test
+  @DisplayName("Expect exception when slab is bigger than capacity")
+  void invalidSlabSize() {
+    JsonObject config = new OffHeapCacheOptions().setCapacity(1024L).setSlabSize(2048).toJson();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new OffHeapCacheFactory().create(config, null));
+  }
+
+  private OffHeapCacheOptions smallArena() {
+    return new OffHeapCacheOptions()
+        .setCapacity(4096L)
+        .setSlabSize(1024)
+        .setHotSetMaximumWeight(0L);
+  }
+
+  private OffHeapCache cache(OffHeapCacheOptions options) {
+    return new OffHeapCache(options, clock::get);
+  }
+
+  private Object decoded(OffHeapCache cache, String key) {
+    return ((EncodedPayload) cache.get(key).blockingGet()).decode();
+  }
+}
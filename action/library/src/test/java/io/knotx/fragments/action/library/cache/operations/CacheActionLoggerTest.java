@@ -15,16 +15,23 @@
  */
 package io.knotx.fragments.action.library.cache.operations;
 
+import static io.knotx.fragments.action.api.log.ActionLog.LOGS;
 import static io.knotx.fragments.action.library.TestUtils.someContext;
 import static io.knotx.fragments.action.library.TestUtils.successResult;
 import static io.knotx.fragments.action.library.cache.CacheTestUtils.CACHE_KEY;
 import static io.knotx.fragments.action.library.cache.CacheTestUtils.SOME_VALUE;
+import static io.knotx.fragments.action.library.cache.operations.CacheActionLogger.CACHED_VALUE;
+import static io.knotx.fragments.action.library.cache.operations.CacheActionLogger.CACHE_HIT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.knotx.fragments.action.api.invoker.ActionInvocation;
+import io.knotx.fragments.action.api.log.ActionLogLevel;
 import io.knotx.fragments.action.api.log.ActionLogger;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.knotx.fragments.action.library.cache.stats.CacheStats;
 import io.vertx.core.json.JsonObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -55,6 +62,17 @@ class CacheActionLoggerTest {
     verify(actionLogger, times(1)).info(any(), (JsonObject) any());
   }
 
+  @Test
+  @DisplayName("Expect encoded cache hit logged decoded")
+  void encodedCacheHit() {
+    CacheActionLogger infoLogger = CacheActionLogger.create("alias", ActionLogLevel.INFO);
+    infoLogger.onLookup(CACHE_KEY);
+    infoLogger.onHit(EncodedPayload.encode(SOME_VALUE));
+
+    JsonObject hit = infoLogger.getLogAsJson().getJsonObject(LOGS).getJsonObject(CACHE_HIT);
+    assertEquals(SOME_VALUE, hit.getJsonObject(CACHED_VALUE));
+  }
+
   @Test
   @DisplayName("Expect cache miss logged on INFO level")
   void cacheMiss() {
@@ -100,4 +118,25 @@ class CacheActionLoggerTest {
     verify(actionLogger, times(1)).error(any(ActionInvocation.class));
   }
 
+  @Test
+  @DisplayName("Expect cache events recorded in stats")
+  void statsRecorded() {
+    CacheStats stats = new CacheStats("alias", 1);
+    CacheActionLogger statsLogger = new CacheActionLogger(actionLogger, stats);
+
+    statsLogger.onLookup(CACHE_KEY);
+    statsLogger.onHit(SOME_VALUE);
+    statsLogger.onLookup(CACHE_KEY);
+    statsLogger.onInvocationFinish(ActionInvocation.resultDelivered(1000, successResult()));
+    statsLogger.onMiss(SOME_VALUE);
+
+    JsonObject snapshot = stats.toJson();
+    assertEquals(2L, snapshot.getLong("lookups"));
+    assertEquals(1L, snapshot.getLong("hits"));
+    assertEquals(1L, snapshot.getLong("misses"));
+    assertEquals(1L, snapshot.getLong("loads"));
+    assertEquals(CACHE_KEY,
+        snapshot.getJsonArray("hotKeys").getJsonObject(0).getString("key"));
+  }
+
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.library.cache.operations.CacheFreshness.State;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CacheFreshnessTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  @DisplayName("Expect freshness disabled when no TTL configured")
+  void disabled() {
+    assertFalse(CacheFreshness.DISABLED.isEnabled());
+    assertFalse(new CacheFreshness(0L, 0L, 0L).isEnabled());
+    assertTrue(new CacheFreshness(1000L, 0L, 0L).isEnabled());
+    assertTrue(new CacheFreshness(0L, 1000L, 0L).isEnabled());
+  }
+
+  @Test
+  @DisplayName("Expect states following soft TTL, hard TTL and refresh-ahead window")
+  void softAndHardTtl() {
+    CacheFreshness tested = new CacheFreshness(1000L, 5000L, 200L, clock::get);
+
+    assertEquals(State.FRESH, stateAt(tested, 799L));
+    assertEquals(State.REFRESH_AHEAD, stateAt(tested, 800L));
+    assertEquals(State.STALE, stateAt(tested, 1000L));
+    assertEquals(State.STALE, stateAt(tested, 4999L));
+    assertEquals(State.EXPIRED, stateAt(tested, 5000L));
+  }
+
+  @Test
+  @DisplayName("Expect refresh-ahead window counted from hard TTL when soft TTL not set")
+  void hardTtlOnly() {
+    CacheFreshness tested = new CacheFreshness(0L, 5000L, 200L, clock::get);
+
+    assertEquals(State.FRESH, stateAt(tested, 4799L));
+    assertEquals(State.REFRESH_AHEAD, stateAt(tested, 4800L));
+    assertEquals(State.EXPIRED, stateAt(tested, 5000L));
+  }
+
+  @Test
+  @DisplayName("Expect stale values served forever when hard TTL not set")
+  void softTtlOnly() {
+    CacheFreshness tested = new CacheFreshness(1000L, 0L, 0L, clock::get);
+
+    assertEquals(State.FRESH, stateAt(tested, 999L));
+    assertEquals(State.STALE, stateAt(tested, Long.MAX_VALUE / 2));
+  }
+
+  @Test
+  @DisplayName("Expect value without timestamp always fresh")
+  void noTimestamp() {
+    CacheFreshness tested = new CacheFreshness(1000L, 5000L, 200L, clock::get);
+    clock.set(10_000L);
+
+    assertEquals(State.FRESH, tested.stateOf(-1L));
+  }
+
+  private State stateAt(CacheFreshness tested, long age) {
+    clock.set(age);
+    return tested.stateOf(0L);
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.operations;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.server.api.context.ClientRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.MultiMap;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CacheKeyTemplateTest {
+
+  @Test
+  @DisplayName("Expect schema without placeholders returned as it is")
+  void noPlaceholders() {
+    CacheKeyTemplate tested = CacheKeyTemplate.compile("product", false);
+
+    assertEquals("product", tested.resolve(someContext("x", "y", "z")));
+  }
+
+  @Test
+  @DisplayName("Expect placeholders from all sources resolved")
+  void allSources() {
+    CacheKeyTemplate tested = CacheKeyTemplate
+        .compile("{header.x}-{param.y}-{payload.z}-{config.p}", false);
+
+    assertEquals("header-param-payload-config",
+        tested.resolve(someContext("header", "param", "payload")));
+  }
+
+  @Test
+  @DisplayName("Expect literals around placeholders kept")
+  void literalsKept() {
+    CacheKeyTemplate tested = CacheKeyTemplate.compile("product-{param.y}.json", false);
+
+    assertEquals("product-42.json", tested.resolve(someContext("x", "42", "z")));
+  }
+
+  @Test
+  @DisplayName("Expect resolved values encoded")
+  void valuesEncoded() {
+    CacheKeyTemplate tested = CacheKeyTemplate.compile("{param.y}", false);
+
+    assertEquals("a%26b", tested.resolve(someContext("x", "a&b", "z")));
+  }
+
+  @Test
+  @DisplayName("Expect placeholders not present in FragmentContext resolved to empty strings")
+  void unmatchedPlaceholders() {
+    CacheKeyTemplate tested = CacheKeyTemplate.compile("a-{payload.missing}-{param.missing}",
+        false);
+
+    assertEquals("a--", tested.resolve(someContext("x", "y", "z")));
+  }
+
+  @Test
+  @DisplayName("Expect hashed keys of fixed length, equal for equal resolved keys")
+  void hashedKeys() {
+    CacheKeyTemplate tested = CacheKeyTemplate.compile("product-{param.y}", true);
+
+    String first = tested.resolve(someContext("x", "1", "z"));
+    String same = tested.resolve(someContext("other", "1", "other"));
+    String other = tested.resolve(someContext("x", "2", "z"));
+
+    assertEquals(43, first.length());
+    assertEquals(43, other.length());
+    assertEquals(first, same);
+    assertNotEquals(first, other);
+  }
+
+  @Test
+  @DisplayName("Expect Fragment's payload not modified when resolving")
+  void payloadNotModified() {
+    CacheKeyTemplate tested = CacheKeyTemplate.compile("{payload.z}", false);
+    FragmentContext context = someContext("x", "y", "z");
+    JsonObject payload = context.getFragment().getPayload();
+
+    tested.resolve(context);
+
+    assertEquals(payload, context.getFragment().getPayload());
+  }
+
+  private FragmentContext someContext(String header, String param, String payload) {
+    return new FragmentContext(
+        new Fragment("some-id", new JsonObject().put("p", "config"), "")
+            .appendPayload("z", payload),
+        new ClientRequest()
+            .setHeaders(MultiMap.caseInsensitiveMultiMap().add("x", header))
+            .setParams(MultiMap.caseInsensitiveMultiMap().add("y", param))
+    );
+  }
+
+}
@@ -16,6 +16,7 @@
 package io.knotx.fragments.action.library.cache.operations;
 
 import static io.knotx.fragments.action.library.TestUtils.someContext;
+import static io.knotx.fragments.action.library.TestUtils.someFragment;
 import static io.knotx.fragments.action.library.cache.CacheTestUtils.EMPTY_CACHE;
 import static io.knotx.fragments.action.library.cache.CacheTestUtils.ERROR_CACHE;
 import static io.knotx.fragments.action.library.cache.CacheTestUtils.PAYLOAD_KEY;
@@ -23,10 +24,14 @@ import static io.knotx.fragments.action.library.cache.CacheTestUtils.SAMPLE_CACH
 import static io.knotx.fragments.action.library.cache.CacheTestUtils.SOME_VALUE;
 import static io.knotx.fragments.action.library.cache.CacheTestUtils.THROWING_CACHE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
 import io.knotx.fragments.api.FragmentResult;
+import io.reactivex.Maybe;
 import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
@@ -84,6 +89,107 @@ class CacheLookupTest {
     expectError(testContext, tested);
   }
 
+  @Test
+  @DisplayName("Expect fresh value returned as it is when freshness enabled")
+  void freshValue(VertxTestContext testContext) {
+    CacheLookup tested = new CacheLookup(cacheWithEntryStoredAt(0L), PAYLOAD_KEY,
+        freshnessAt(500L));
+
+    expectSuccess(testContext, tested, value -> {
+      assertEquals(EncodedPayload.encode(SOME_VALUE), value);
+      verify(logger, times(1)).onHit(EncodedPayload.encode(SOME_VALUE));
+    });
+  }
+
+  @Test
+  @DisplayName("Expect value close to soft TTL returned as refreshable")
+  void refreshAheadValue(VertxTestContext testContext) {
+    CacheLookup tested = new CacheLookup(cacheWithEntryStoredAt(0L), PAYLOAD_KEY,
+        freshnessAt(900L));
+
+    expectSuccess(testContext, tested, value -> {
+      assertTrue(value instanceof RefreshableValue);
+      assertEquals(EncodedPayload.encode(SOME_VALUE), ((RefreshableValue) value).getValue());
+      verify(logger, times(1)).onHit(EncodedPayload.encode(SOME_VALUE));
+    });
+  }
+
+  @Test
+  @DisplayName("Expect value older than soft TTL returned as refreshable and stale hit logged")
+  void staleValue(VertxTestContext testContext) {
+    CacheLookup tested = new CacheLookup(cacheWithEntryStoredAt(0L), PAYLOAD_KEY,
+        freshnessAt(2000L));
+
+    expectSuccess(testContext, tested, value -> {
+      assertTrue(value instanceof RefreshableValue);
+      verify(logger, times(1)).onStaleHit(EncodedPayload.encode(SOME_VALUE));
+    });
+  }
+
+  @Test
+  @DisplayName("Expect completed Maybe returned when value older than hard TTL")
+  void expiredValue(VertxTestContext testContext) {
+    CacheLookup tested = new CacheLookup(cacheWithEntryStoredAt(0L), PAYLOAD_KEY,
+        freshnessAt(5000L));
+
+    expectEmpty(testContext, tested);
+  }
+
+  @Test
+  @DisplayName("Expect value stored without timestamp treated as fresh")
+  void valueWithoutTimestamp(VertxTestContext testContext) {
+    CacheLookup tested = new CacheLookup(SAMPLE_CACHE.get(), PAYLOAD_KEY, freshnessAt(5000L));
+
+    expectSuccess(testContext, tested, value -> assertEquals(SOME_VALUE, value));
+  }
+
+  @Test
+  @DisplayName("Expect payload value with entry-like keys not mistaken for a timestamped entry")
+  void valueWithEntryLikeKeys(VertxTestContext testContext) {
+    JsonObject cached = new JsonObject().put("_storedAt", 0L).put("_value", "value");
+    Cache cache = new Cache() {
+      @Override
+      public Maybe<Object> get(String key) {
+        return Maybe.just(EncodedPayload.encode(cached));
+      }
+
+      @Override
+      public void put(String key, Object value) {
+        throw new IllegalStateException();
+      }
+    };
+    CacheLookup tested = new CacheLookup(cache, PAYLOAD_KEY, freshnessAt(5000L));
+
+    expectSuccess(testContext, tested,
+        value -> assertEquals(cached, EncodedPayload.unwrap(value)));
+  }
+
+  @Test
+  @DisplayName("Expect refreshable value unwrapped when put in Fragment's payload")
+  void refreshableValue() {
+    CacheLookup tested = new CacheLookup(EMPTY_CACHE.get(), PAYLOAD_KEY);
+
+    JsonObject expected = new JsonObject().put(PAYLOAD_KEY, SOME_VALUE);
+    FragmentResult result = tested.toResponse(someContext(), new RefreshableValue(SOME_VALUE));
+
+    assertEquals(expected, result.getFragment().getPayload());
+  }
+
+  @Test
+  @DisplayName("Expect negative hit logged and replayed when no value in cache")
+  void negativeHit(VertxTestContext testContext) {
+    NegativeCache negativeCache = NegativeCache.create(PAYLOAD_KEY, 60_000L, 1024L * 1024L);
+    negativeCache.save("some-key", FragmentResult.fail(someFragment(), "code", "message"));
+    CacheLookup tested = new CacheLookup(EMPTY_CACHE.get(), PAYLOAD_KEY, CacheFreshness.DISABLED,
+        negativeCache);
+
+    expectSuccess(testContext, tested, value -> {
+      verify(logger, times(1)).onNegativeHit(FragmentResult.ERROR_TRANSITION);
+      assertEquals(FragmentResult.ERROR_TRANSITION,
+          tested.toResponse(someContext(), value).getTransition());
+    });
+  }
+
   @Test
   @DisplayName("Expect value put in Fragment's payload")
   void someValue() {
@@ -95,6 +201,48 @@ class CacheLookupTest {
     assertEquals(expected, result.getFragment().getPayload());
   }
 
+  @Test
+  @DisplayName("Expect encoded value decoded when put in Fragment's payload")
+  void encodedValue() {
+    CacheLookup tested = new CacheLookup(EMPTY_CACHE.get(), PAYLOAD_KEY);
+
+    JsonObject expected = new JsonObject().put(PAYLOAD_KEY, SOME_VALUE);
+    FragmentResult result = tested.toResponse(someContext(), EncodedPayload.encode(SOME_VALUE));
+
+    assertEquals(expected, result.getFragment().getPayload());
+  }
+
+  @Test
+  @DisplayName("Expect every hit of an encoded value to get its own copy")
+  void encodedValueNotShared() {
+    CacheLookup tested = new CacheLookup(EMPTY_CACHE.get(), PAYLOAD_KEY);
+    EncodedPayload cachedValue = EncodedPayload.encode(SOME_VALUE);
+
+    FragmentResult first = tested.toResponse(someContext(), cachedValue);
+    first.getFragment().getPayload().getJsonObject(PAYLOAD_KEY).put("modified", true);
+    FragmentResult second = tested.toResponse(someContext(), cachedValue);
+
+    assertEquals(SOME_VALUE, second.getFragment().getPayload().getJsonObject(PAYLOAD_KEY));
+  }
+
+  private Cache cacheWithEntryStoredAt(long storedAt) {
+    return new Cache() {
+      @Override
+      public Maybe<Object> get(String key) {
+        return Maybe.just(CacheEntry.wrap(SOME_VALUE.copy(), storedAt));
+      }
+
+      @Override
+      public void put(String key, Object value) {
+        throw new IllegalStateException();
+      }
+    };
+  }
+
+  private CacheFreshness freshnessAt(long now) {
+    return new CacheFreshness(1000L, 5000L, 200L, () -> now);
+  }
+
   private void expectSuccess(VertxTestContext testContext, CacheLookup tested,
       Consumer<Object> assertions) {
     tested.find("some-key", logger)
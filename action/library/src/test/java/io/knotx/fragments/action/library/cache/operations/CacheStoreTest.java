@@ -26,6 +26,7 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import io.knotx.commons.cache.Cache;
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,13 +43,26 @@ class CacheStoreTest {
   private CacheActionLogger logger;
 
   @Test
-  @DisplayName("Expect appended payload stored in cache and MISS logged")
+  @DisplayName("Expect appended payload stored encoded in cache and MISS logged")
   void successWithPayload() {
     CacheStore tested = new CacheStore(cache, PAYLOAD_KEY);
 
     tested.save(logger, CACHE_KEY, successResultWithPayload(SOME_VALUE));
 
-    verify(cache, times(1)).put(CACHE_KEY, SOME_VALUE);
+    verify(cache, times(1)).put(CACHE_KEY, EncodedPayload.encode(SOME_VALUE));
+    verify(logger, times(1)).onMiss(SOME_VALUE);
+  }
+
+  @Test
+  @DisplayName("Expect payload stored with timestamp when freshness enabled")
+  void successWithPayloadAndFreshness() {
+    CacheStore tested = new CacheStore(cache, PAYLOAD_KEY,
+        new CacheFreshness(1000L, 5000L, 0L, () -> 42L));
+
+    tested.save(logger, CACHE_KEY, successResultWithPayload(SOME_VALUE));
+
+    verify(cache, times(1))
+        .put(CACHE_KEY, CacheEntry.wrap(EncodedPayload.encode(SOME_VALUE), 42L));
     verify(logger, times(1)).onMiss(SOME_VALUE);
   }
 
@@ -59,7 +73,7 @@ class CacheStoreTest {
 
     tested.save(logger, CACHE_KEY, successResultWithPayload(null));
 
-    verify(cache, times(1)).put(CACHE_KEY, null);
+    verify(cache, times(1)).put(CACHE_KEY, EncodedPayload.encode(null));
     verify(logger, times(1)).onMiss(null);
   }
 
@@ -74,6 +88,20 @@ class CacheStoreTest {
     verify(logger, times(1)).onPass();
   }
 
+  @Test
+  @DisplayName("Expect failed FragmentResult remembered in negative cache and PASS logged")
+  void failureRememberedInNegativeCache() {
+    NegativeCache negativeCache = NegativeCache.create(PAYLOAD_KEY, 60_000L, 1024L * 1024L);
+    CacheStore tested = new CacheStore(cache, PAYLOAD_KEY, CacheFreshness.DISABLED,
+        negativeCache);
+
+    tested.save(logger, CACHE_KEY, errorResultWithPayload(SOME_VALUE));
+
+    verify(cache, times(0)).put(any(), any());
+    verify(logger, times(1)).onPass();
+    negativeCache.find(CACHE_KEY).test().assertValueCount(1);
+  }
+
   @Test
   @DisplayName("Expect failed FragmentResult's payload not stored and PASS logged")
   void failureWithPayload() {
@@ -85,4 +113,25 @@ class CacheStoreTest {
     verify(logger, times(1)).onPass();
   }
 
+  @Test
+  @DisplayName("Expect cacheable value returned for successful FragmentResult with payload")
+  void cacheableValueOfSuccess() {
+    CacheStore tested = new CacheStore(cache, PAYLOAD_KEY);
+
+    tested.cacheableValue(successResultWithPayload(SOME_VALUE))
+        .test()
+        .assertValue(EncodedPayload.encode(SOME_VALUE));
+  }
+
+  @Test
+  @DisplayName("Expect no cacheable value for failed FragmentResult")
+  void cacheableValueOfFailure() {
+    CacheStore tested = new CacheStore(cache, PAYLOAD_KEY);
+
+    tested.cacheableValue(errorResultWithPayload(SOME_VALUE))
+        .test()
+        .assertNoValues()
+        .assertComplete();
+  }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.operations;
+
+import static io.knotx.fragments.action.library.TestUtils.someContext;
+import static io.knotx.fragments.action.library.TestUtils.someFragment;
+import static io.knotx.fragments.action.library.cache.CacheTestUtils.CACHE_KEY;
+import static io.knotx.fragments.action.library.cache.CacheTestUtils.PAYLOAD_KEY;
+import static io.knotx.fragments.action.library.cache.CacheTestUtils.SOME_VALUE;
+import static io.knotx.fragments.action.library.cache.CacheTestUtils.successResultWithPayload;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.library.cache.operations.NegativeCache.NegativeResult;
+import io.knotx.fragments.api.FragmentResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NegativeCacheTest {
+
+  private static final long TTL_MS = 60_000L;
+  private static final long MAXIMUM_WEIGHT = 1024L * 1024L;
+
+  @Test
+  @DisplayName("Expect negative cache disabled when no TTL configured")
+  void disabled() {
+    NegativeCache tested = NegativeCache.create(PAYLOAD_KEY, 0L, MAXIMUM_WEIGHT);
+
+    tested.save(CACHE_KEY, FragmentResult.fail(someFragment(), "code", "message"));
+
+    assertFalse(tested.isEnabled());
+    tested.find(CACHE_KEY).test().assertNoValues().assertComplete();
+  }
+
+  @Test
+  @DisplayName("Expect error transition remembered and replayed with its failure details")
+  void errorReplayed() {
+    NegativeCache tested = NegativeCache.create(PAYLOAD_KEY, TTL_MS, MAXIMUM_WEIGHT);
+
+    tested.save(CACHE_KEY, FragmentResult.fail(someFragment(), "code", "message"));
+
+    FragmentResult replayed = replay(tested);
+    assertEquals(FragmentResult.ERROR_TRANSITION, replayed.getTransition());
+    assertEquals("code", replayed.getError().getCode());
+    assertEquals("message", replayed.getError().getMessage());
+  }
+
+  @Test
+  @DisplayName("Expect successful result without payload key remembered and replayed")
+  void missingPayloadReplayed() {
+    NegativeCache tested = NegativeCache.create(PAYLOAD_KEY, TTL_MS, MAXIMUM_WEIGHT);
+
+    tested.save(CACHE_KEY, FragmentResult.success(someFragment()));
+
+    FragmentResult replayed = replay(tested);
+    assertEquals(FragmentResult.SUCCESS_TRANSITION, replayed.getTransition());
+    assertFalse(replayed.getFragment().getPayload().containsKey(PAYLOAD_KEY));
+  }
+
+  @Test
+  @DisplayName("Expect successful result with payload key not remembered")
+  void cacheableResultNotRemembered() {
+    NegativeCache tested = NegativeCache.create(PAYLOAD_KEY, TTL_MS, MAXIMUM_WEIGHT);
+
+    tested.save(CACHE_KEY, successResultWithPayload(SOME_VALUE));
+
+    tested.find(CACHE_KEY).test().assertNoValues().assertComplete();
+  }
+
+  @Test
+  @DisplayName("Expect custom transitions not remembered")
+  void customTransitionNotRemembered() {
+    NegativeCache tested = NegativeCache.create(PAYLOAD_KEY, TTL_MS, MAXIMUM_WEIGHT);
+
+    tested.save(CACHE_KEY, FragmentResult.success(someFragment(), "_fallback"));
+
+    tested.find(CACHE_KEY).test().assertNoValues().assertComplete();
+  }
+
+  private FragmentResult replay(NegativeCache tested) {
+    Object found = tested.find(CACHE_KEY).blockingGet();
+    assertTrue(found instanceof NegativeResult);
+    return ((NegativeResult) found).toResponse(someContext());
+  }
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.library.cache.codec.EncodedPayload;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class SharedCacheTest {
+
+  private static final JsonObject VALUE = new JsonObject().put("name", "value");
+  private static final JsonObject NEW_VALUE = new JsonObject().put("name", "new value");
+  private static final long WAIT_MS = 5000L;
+
+  @Test
+  @DisplayName("Expect stored value returned encoded")
+  void putAndGet(Vertx vertx) {
+    SharedCache tested = cache(vertx, "put-and-get");
+
+    tested.put("key", VALUE);
+
+    Object cached = tested.get("key").blockingGet();
+    assertTrue(cached instanceof EncodedPayload);
+    assertEquals(VALUE, ((EncodedPayload) cached).decode());
+  }
+
+  @Test
+  @DisplayName("Expect no value when key was not stored")
+  void missing(Vertx vertx) {
+    SharedCache tested = cache(vertx, "missing");
+
+    assertNull(tested.get("key").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect value stored by one instance served by another one from the shared map")
+  void sharedBetweenInstances(Vertx vertx) throws InterruptedException {
+    SharedCache first = cache(vertx, "shared-between-instances");
+    SharedCache second = cache(vertx, "shared-between-instances");
+
+    first.put("key", VALUE);
+
+    assertEquals(VALUE, awaitValue(second, "key", VALUE));
+  }
+
+  @Test
+  @DisplayName("Expect near cache entry invalidated when another instance stores a new value")
+  void nearCacheInvalidated(Vertx vertx) throws InterruptedException {
+    SharedCache first = cache(vertx, "near-cache-invalidated");
+    SharedCache second = cache(vertx, "near-cache-invalidated");
+    first.put("key", VALUE);
+    awaitValue(second, "key", VALUE);
+
+    first.put("key", NEW_VALUE);
+
+    assertEquals(NEW_VALUE, awaitValue(second, "key", NEW_VALUE));
+  }
+
+  @Test
+  @DisplayName("Expect near cache entry kept when the cache is closed")
+  void closedCacheNotInvalidated(Vertx vertx) throws InterruptedException {
+    SharedCache first = cache(vertx, "closed-cache");
+    SharedCache second = cache(vertx, "closed-cache");
+    first.put("key", VALUE);
+    awaitValue(second, "key", VALUE);
+    CountDownLatch published = new CountDownLatch(1);
+    vertx.eventBus().consumer(SharedCache.ADDRESS_PREFIX + "closed-cache",
+        message -> published.countDown());
+
+    second.close();
+    first.put("key", NEW_VALUE);
+
+    assertTrue(published.await(WAIT_MS, TimeUnit.MILLISECONDS));
+    Thread.sleep(100L);
+    assertEquals(VALUE, EncodedPayload.unwrap(second.get("key").blockingGet()));
+  }
+
+  @Test
+  @DisplayName("Expect values served from the shared map when near cache disabled")
+  void withoutNearCache(Vertx vertx) throws InterruptedException {
+    SharedCacheOptions options = new SharedCacheOptions()
+        .setName("without-near-cache")
+        .setNearCacheMaximumWeight(0L);
+    SharedCache first = new SharedCache(vertx, options);
+    SharedCache second = new SharedCache(vertx, options);
+
+    first.put("key", VALUE);
+    awaitValue(second, "key", VALUE);
+    first.put("key", NEW_VALUE);
+
+    assertEquals(NEW_VALUE, awaitValue(second, "key", NEW_VALUE));
+  }
+
+  @Test
+  @DisplayName("Expect values that are not JSON rejected")
+  void unsupportedValue(Vertx vertx) {
+    SharedCache tested = cache(vertx, "unsupported-value");
+
+    assertThrows(IllegalArgumentException.class, () -> tested.put("key", new Object()));
+  }
+
+  @Test
+  @DisplayName("Expect exception when name not configured")
+  void nameRequired(Vertx vertx) {
+    assertThrows(IllegalArgumentException.class,
+        () -> new SharedCacheFactory().create(new JsonObject(), vertx));
+  }
+
+  private SharedCache cache(Vertx vertx, String name) {
+    return new SharedCache(vertx, new SharedCacheOptions().setName(name));
+  }
+
+  private Object awaitValue(SharedCache cache, String key, Object expected)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + WAIT_MS;
+    Object value = EncodedPayload.unwrap(cache.get(key).blockingGet());
+    while (!expected.equals(value) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10L);
+      value = EncodedPayload.unwrap(cache.get(key).blockingGet());
+    }
+    return value;
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.stats;
+
+import static io.knotx.fragments.action.library.TestUtils.someContext;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.api.invoker.ActionInvocation;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCache;
+import io.knotx.fragments.action.library.cache.tinylfu.TinyLfuCacheOptions;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CacheStatsTest {
+
+  @Test
+  @DisplayName("Expect hit ratio computed from all kinds of hits")
+  void hitRatio() {
+    CacheStats tested = new CacheStats("alias", 0);
+
+    for (int i = 0; i < 4; i++) {
+      tested.recordLookup("key");
+    }
+    tested.recordHit();
+    tested.recordStaleHit();
+    tested.recordNegativeHit();
+    tested.recordMiss();
+
+    JsonObject snapshot = tested.toJson();
+    assertEquals(4L, snapshot.getLong("lookups"));
+    assertEquals(0.75d, snapshot.getDouble("hitRatio"));
+    assertEquals(0, snapshot.getJsonArray("hotKeys").size());
+  }
+
+  @Test
+  @DisplayName("Expect average load time and failed loads reported")
+  void loads() {
+    CacheStats tested = new CacheStats("alias", 0);
+
+    tested.recordLoad(ActionInvocation.timeout(100, someContext()));
+    tested.recordLoad(ActionInvocation.timeout(300, someContext()));
+
+    JsonObject snapshot = tested.toJson();
+    assertEquals(2L, snapshot.getLong("loads"));
+    assertEquals(2L, snapshot.getLong("loadFailures"));
+    assertEquals(200.0d, snapshot.getDouble("averageLoadTimeMs"));
+  }
+
+  @Test
+  @DisplayName("Expect most frequently looked up keys reported in order")
+  void hotKeys() {
+    CacheStats tested = new CacheStats("alias", 2);
+
+    for (int i = 0; i < 100; i++) {
+      tested.recordLookup("hot");
+      tested.recordLookup("one-off-" + i);
+      if (i % 2 == 0) {
+        tested.recordLookup("warm");
+      }
+    }
+
+    JsonArray hotKeys = tested.toJson().getJsonArray("hotKeys");
+    assertEquals(2, hotKeys.size());
+    assertEquals("hot", hotKeys.getJsonObject(0).getString("key"));
+    assertTrue(hotKeys.getJsonObject(0).getLong("count") >= 100L);
+    assertEquals("warm", hotKeys.getJsonObject(1).getString("key"));
+  }
+
+  @Test
+  @DisplayName("Expect size of measured caches reported")
+  void measuredCaches() {
+    CacheStats tested = new CacheStats("alias", 0);
+    assertFalse(tested.toJson().containsKey("estimatedSize"));
+
+    TinyLfuCache cache = new TinyLfuCache(new TinyLfuCacheOptions());
+    cache.put("key", "value");
+    tested.measure(cache);
+
+    JsonObject snapshot = tested.toJson();
+    assertEquals(1L, snapshot.getLong("estimatedSize"));
+    assertEquals(0L, snapshot.getLong("evictions"));
+  }
+
+  @Test
+  @DisplayName("Expect hot keys counted from concurrent lookups")
+  void concurrentHotKeys() throws InterruptedException {
+    CacheStats tested = new CacheStats("alias", 1);
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      int thread = t;
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 1000; i++) {
+          tested.recordLookup("hot");
+          tested.recordLookup("one-off-" + thread + "-" + i);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    JsonArray hotKeys = tested.toJson().getJsonArray("hotKeys");
+    assertEquals(1, hotKeys.size());
+    assertEquals("hot", hotKeys.getJsonObject(0).getString("key"));
+    assertTrue(hotKeys.getJsonObject(0).getLong("count") >= 2000L);
+  }
+
+  @Test
+  @DisplayName("Expect actions with the same alias to share statistics")
+  void registryReturnsSharedStats() {
+    CacheStats first = CacheStatsRegistry.register("shared-stats-alias", 10, null);
+    CacheStats second = CacheStatsRegistry.register("shared-stats-alias", 10, null);
+
+    assertSame(first, second);
+    assertSame(first, CacheStatsRegistry.get("shared-stats-alias").orElse(null));
+    CacheStatsRegistry.unregister("shared-stats-alias", null);
+    CacheStatsRegistry.unregister("shared-stats-alias", null);
+  }
+
+  @Test
+  @DisplayName("Expect statistics and caches removed when the last action unregisters")
+  void registryRemovesUnregisteredStats() {
+    TinyLfuCache cache = new TinyLfuCache(new TinyLfuCacheOptions());
+    cache.put("key", "value");
+    CacheStats stats = CacheStatsRegistry.register("removed-stats-alias", 10, cache);
+    CacheStatsRegistry.register("removed-stats-alias", 10, null);
+
+    CacheStatsRegistry.unregister("removed-stats-alias", cache);
+    assertFalse(stats.toJson().containsKey("estimatedSize"));
+    assertTrue(CacheStatsRegistry.get("removed-stats-alias").isPresent());
+
+    CacheStatsRegistry.unregister("removed-stats-alias", null);
+    assertFalse(CacheStatsRegistry.get("removed-stats-alias").isPresent());
+  }
+
+  @Test
+  @DisplayName("Expect alias registered with different number of top keys rejected")
+  void registryRejectsDifferentTopKeys() {
+    CacheStatsRegistry.register("top-keys-alias", 10, null);
+    try {
+      assertThrows(ActionConfigurationException.class,
+          () -> CacheStatsRegistry.register("top-keys-alias", 5, null));
+    } finally {
+      CacheStatsRegistry.unregister("top-keys-alias", null);
+    }
+  }
+
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cache.tinylfu;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuCacheTest {
+
+  private static final String VALUE = StringUtils.repeat('x', 50);
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  @DisplayName("Expect stored value returned")
+  void putAndGet() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions());
+
+    tested.put("key", VALUE);
+
+    assertEquals(VALUE, tested.get("key").blockingGet());
+    assertNull(tested.get("other").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect stored value replaced")
+  void replace() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions());
+
+    tested.put("key", VALUE);
+    tested.put("key", new JsonObject().put("a", "b"));
+
+    assertEquals(new JsonObject().put("a", "b"), tested.get("key").blockingGet());
+    assertEquals(1L, tested.estimatedSize());
+  }
+
+  @Test
+  @DisplayName("Expect invalidated value not returned")
+  void invalidate() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions());
+
+    tested.put("key", VALUE);
+    tested.invalidate("key");
+    tested.invalidate("other");
+
+    assertNull(tested.get("key").blockingGet());
+    assertEquals(0L, tested.estimatedSize());
+    assertEquals(0L, tested.weightedSize());
+  }
+
+  @Test
+  @DisplayName("Expect weighted size never exceeds maximum weight")
+  void weightBound() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions().setMaximumWeight(10_000L));
+
+    for (int i = 0; i < 1000; i++) {
+      tested.put("key-" + i, VALUE);
+      assertTrue(tested.weightedSize() <= 10_000L);
+    }
+    assertTrue(tested.estimatedSize() < 1000L);
+  }
+
+  @Test
+  @DisplayName("Expect entries evicted to stay within maximum weight counted")
+  void evictionCount() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions().setMaximumWeight(10_000L));
+
+    for (int i = 0; i < 1000; i++) {
+      tested.put("key-" + i, VALUE);
+    }
+
+    assertEquals(1000L - tested.estimatedSize(), tested.evictionCount());
+  }
+
+  @Test
+  @DisplayName("Expect value heavier than maximum weight not cached")
+  void oversizedValueNotCached() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions().setMaximumWeight(100L));
+
+    tested.put("key", StringUtils.repeat('x', 1000));
+
+    assertNull(tested.get("key").blockingGet());
+    assertEquals(0L, tested.weightedSize());
+  }
+
+  @Test
+  @DisplayName("Expect frequently read entry to survive a scan of one-off keys")
+  void hotEntrySurvivesScan() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions().setMaximumWeight(10_000L));
+
+    tested.put("hot", VALUE);
+    for (int i = 0; i < 10; i++) {
+      tested.get("hot").blockingGet();
+    }
+    for (int i = 0; i < 10_000; i++) {
+      tested.put("scan-" + i, VALUE);
+    }
+
+    assertEquals(VALUE, tested.get("hot").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect entry expired after write")
+  void expireAfterWrite() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions().setExpireAfterWriteMs(1000L));
+
+    tested.put("key", VALUE);
+    advanceMs(999L);
+    assertEquals(VALUE, tested.get("key").blockingGet());
+
+    advanceMs(1L);
+    assertNull(tested.get("key").blockingGet());
+    assertEquals(0L, tested.estimatedSize());
+  }
+
+  @Test
+  @DisplayName("Expect entry expired after access")
+  void expireAfterAccess() {
+    TinyLfuCache tested = cache(new TinyLfuCacheOptions().setExpireAfterAccessMs(1000L));
+
+    tested.put("key", VALUE);
+    advanceMs(600L);
+    assertEquals(VALUE, tested.get("key").blockingGet());
+    advanceMs(600L);
+    assertEquals(VALUE, tested.get("key").blockingGet());
+
+    advanceMs(1000L);
+    assertNull(tested.get("key").blockingGet());
+  }
+
+  @Test
+  @DisplayName("Expect exception when maximum weight is not positive")
+  void invalidMaximumWeight() {
+    JsonObject config = new TinyLfuCacheOptions().setMaximumWeight(0L).toJson();
+
+    assertThrows(IllegalArgumentException.class,
+        () -> new TinyLfuCacheFactory().create(config, null));
+  }
+
+  private TinyLfuCache cache(TinyLfuCacheOptions options) {
+    return new TinyLfuCache(options, clock::get);
+  }
+
+  private void advanceMs(long millis) {
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+}
@@ -21,7 +21,11 @@ import static io.knotx.fragments.action.library.TestUtils.verifyDeliveredResult;
 import static io.knotx.fragments.action.library.cb.CircuitBreakerAction.ERROR_LOG_KEY;
 import static io.knotx.fragments.action.library.cb.CircuitBreakerAction.INVOCATION_COUNT_LOG_KEY;
 import static io.knotx.fragments.action.library.cb.CircuitBreakerActionFactory.FALLBACK_TRANSITION;
+import static io.knotx.fragments.action.library.TestUtils.someContext;
+import static io.knotx.fragments.action.library.TestUtils.verifyTwoActionResults;
+import static io.knotx.fragments.action.library.cb.CircuitBreakerActionFactory.STALE_TRANSITION;
 import static io.knotx.fragments.action.library.cb.CircuitBreakerDoActions.CUSTOM_TRANSITION;
+import static io.knotx.fragments.action.library.cb.CircuitBreakerDoActions.PAYLOAD_KEY;
 import static io.knotx.fragments.api.FragmentResult.ERROR_TRANSITION;
 import static io.knotx.fragments.api.FragmentResult.SUCCESS_TRANSITION;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -478,6 +482,45 @@ class CircuitBreakerActionFactoryTest {
             .toJson(), vertx, action);
   }
 
+  @Test
+  @DisplayName("Expect _stale transition with the last successful payload when fallback store is enabled.")
+  void expectStaleWhenSuccessThenFailure(VertxTestContext testContext, Vertx vertx) {
+    // given
+    Action tested = newInstanceWithFallbackStore(CircuitBreakerDoActions
+        .applyOneAfterAnother(CircuitBreakerDoActions::applySuccessWithPayload,
+            CircuitBreakerDoActions::applyFailure), vertx);
+
+    // when
+    verifyTwoActionResults(testContext, tested, someContext(), someContext(),
+        (first, second) -> {
+          //then
+          assertEquals(SUCCESS_TRANSITION, first.result().getTransition());
+          assertEquals(STALE_TRANSITION, second.result().getTransition());
+          assertEquals(new JsonObject().put("id", 1),
+              second.result().getFragment().getPayload().getJsonObject(PAYLOAD_KEY));
+        });
+  }
+
+  @Test
+  @DisplayName("Expect _fallback transition when fallback store is enabled but empty.")
+  void expectFallbackWhenFallbackStoreEmpty(VertxTestContext testContext, Vertx vertx) {
+    // given
+    Action tested = newInstanceWithFallbackStore(CircuitBreakerDoActions::applyFailure, vertx);
+
+    // when, then
+    verifyDeliveredResult(testContext, tested,
+        result -> assertEquals(FALLBACK_TRANSITION, result.getTransition()));
+  }
+
+  private Action newInstanceWithFallbackStore(Action action, Vertx vertx) {
+    return new CircuitBreakerActionFactory().create("alias",
+        new CircuitBreakerActionFactoryOptions()
+            .setCircuitBreakerOptions(new CircuitBreakerOptions().setTimeout(TIMEOUT_IN_MS))
+            .setFallbackStore(new FallbackStoreOptions().setEnabled(true)).toJson(),
+        vertx,
+        action);
+  }
+
   private Action newInstanceWithRetry(Action action, Vertx vertx) {
     return new CircuitBreakerActionFactory().create("alias",
         new CircuitBreakerActionFactoryOptions()
@@ -26,12 +26,14 @@ import io.knotx.fragments.api.FragmentResult;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
 import io.vertx.rxjava.core.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 class CircuitBreakerDoActions {
 
   public static final String CUSTOM_TRANSITION = "_custom";
+  public static final String PAYLOAD_KEY = "product";
 
   static void applySuccess(FragmentContext fragmentContext,
       Handler<AsyncResult<FragmentResult>> resultHandler) {
@@ -42,6 +44,13 @@ class CircuitBreakerDoActions {
         .onComplete(resultHandler);
   }
 
+  static void applySuccessWithPayload(FragmentContext fragmentContext,
+      Handler<AsyncResult<FragmentResult>> resultHandler) {
+    fragmentContext.getFragment().appendPayload(PAYLOAD_KEY, new JsonObject().put("id", 1));
+    Future.succeededFuture(FragmentResult.success(fragmentContext.getFragment()))
+        .onComplete(resultHandler);
+  }
+
   static void applyCustomTransition(FragmentContext fragmentContext,
       Handler<AsyncResult<FragmentResult>> resultHandler) {
     ActionLogger actionLogger = ActionLogger.create("action", INFO);
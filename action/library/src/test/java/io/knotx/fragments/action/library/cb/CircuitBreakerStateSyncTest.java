@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.cb;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.vertx.circuitbreaker.CircuitBreaker;
+import io.vertx.circuitbreaker.CircuitBreakerOptions;
+import io.vertx.circuitbreaker.CircuitBreakerState;
+import io.vertx.circuitbreaker.impl.CircuitBreakerImpl;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@Timeout(value = 5, timeUnit = SECONDS)
+@ExtendWith(VertxExtension.class)
+class CircuitBreakerStateSyncTest {
+
+  private static final long PROPAGATION_MS = 200L;
+
+  @Test
+  @DisplayName("Expect peer breaker opened when a breaker with the same name opens.")
+  void expectPeerOpened(VertxTestContext testContext, Vertx vertx) {
+    // given
+    CircuitBreaker first = newSyncedBreaker(vertx, "shared");
+    CircuitBreaker second = newSyncedBreaker(vertx, "shared");
+
+    // when
+    first.open();
+
+    // then
+    vertx.setTimer(PROPAGATION_MS, id -> testContext.verify(() -> {
+      assertEquals(CircuitBreakerState.OPEN, second.state());
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect peer breaker closed when a breaker with the same name closes.")
+  void expectPeerClosed(VertxTestContext testContext, Vertx vertx) {
+    // given
+    CircuitBreaker first = newSyncedBreaker(vertx, "shared");
+    CircuitBreaker second = newSyncedBreaker(vertx, "shared");
+    first.open();
+
+    // when
+    vertx.setTimer(PROPAGATION_MS, opened -> {
+      first.reset();
+
+      // then
+      vertx.setTimer(PROPAGATION_MS, closed -> testContext.verify(() -> {
+        assertEquals(CircuitBreakerState.CLOSED, first.state());
+        assertEquals(CircuitBreakerState.CLOSED, second.state());
+        testContext.completeNow();
+      }));
+    });
+  }
+
+  @Test
+  @DisplayName("Expect breaker with another name not affected.")
+  void expectOtherNameNotAffected(VertxTestContext testContext, Vertx vertx) {
+    // given
+    CircuitBreaker first = newSyncedBreaker(vertx, "first");
+    CircuitBreaker second = newSyncedBreaker(vertx, "second");
+
+    // when
+    first.open();
+
+    // then
+    vertx.setTimer(PROPAGATION_MS, id -> testContext.verify(() -> {
+      assertEquals(CircuitBreakerState.CLOSED, second.state());
+      testContext.completeNow();
+    }));
+  }
+
+  @Test
+  @DisplayName("Expect closed breaker sync not to adopt peer transitions.")
+  void expectClosedSyncNotAffected(VertxTestContext testContext, Vertx vertx) {
+    // given
+    CircuitBreaker first = newSyncedBreaker(vertx, "shared");
+    CircuitBreaker second = newBreaker(vertx, "shared");
+    CircuitBreakerStateSync.attach(vertx, second).close();
+
+    // when
+    first.open();
+
+    // then
+    vertx.setTimer(PROPAGATION_MS, id -> testContext.verify(() -> {
+      assertEquals(CircuitBreakerState.CLOSED, second.state());
+      testContext.completeNow();
+    }));
+  }
+
+  private static CircuitBreaker newSyncedBreaker(Vertx vertx, String name) {
+    CircuitBreaker circuitBreaker = newBreaker(vertx, name);
+    CircuitBreakerStateSync.attach(vertx, circuitBreaker);
+    return circuitBreaker;
+  }
+
+  private static CircuitBreaker newBreaker(Vertx vertx, String name) {
+    return new CircuitBreakerImpl(name, vertx, new CircuitBreakerOptions().setResetTimeout(-1));
+  }
+}
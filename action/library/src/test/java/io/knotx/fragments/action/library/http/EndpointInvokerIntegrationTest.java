@@ -20,14 +20,21 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static java.util.Collections.singleton;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
 import io.knotx.fragments.action.library.http.options.EndpointOptions;
+import io.knotx.fragments.action.library.http.options.HedgingOptions;
 import io.knotx.fragments.action.library.http.options.HttpActionOptions;
+import io.knotx.fragments.action.library.http.options.ResponseOptions;
 import io.knotx.fragments.action.library.http.request.EndpointRequest;
+import io.knotx.fragments.action.library.http.upstream.Upstream;
+import io.knotx.fragments.action.library.http.upstream.UpstreamListener;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
@@ -38,6 +45,7 @@ import io.vertx.reactivex.core.MultiMap;
 import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.ext.web.client.HttpResponse;
 import io.vertx.reactivex.ext.web.client.WebClient;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
@@ -77,11 +85,13 @@ class EndpointInvokerIntegrationTest {
 
   private WireMockServer server;
 
+  private WebClient webClient;
+
   private EndpointInvoker tested;
 
   @BeforeEach
   void setUp(Vertx vertx) {
-    WebClient webClient = WebClient.create(io.vertx.reactivex.core.Vertx.newInstance(vertx));
+    webClient = WebClient.create(io.vertx.reactivex.core.Vertx.newInstance(vertx));
     server = new WireMockServer(WireMockConfiguration.options().dynamicPort());
     server.start();
     tested = new EndpointInvoker(webClient, createOptions());
@@ -151,6 +161,90 @@ class EndpointInvokerIntegrationTest {
         response -> assertEquals(404, response.statusCode()));
   }
 
+  @Test
+  @DisplayName("Expect hedged request response when the first request is slow")
+  void shouldReturnHedgedResponse(VertxTestContext testContext) {
+    // given
+    server.stubFor(get(urlEqualTo("/hedged")).inScenario("hedging")
+        .whenScenarioStateIs(Scenario.STARTED)
+        .willSetStateTo("hedged")
+        .willReturn(aResponse().withStatus(200).withBody("slow").withFixedDelay(5000)));
+    server.stubFor(get(urlEqualTo("/hedged")).inScenario("hedging")
+        .whenScenarioStateIs("hedged")
+        .willReturn(aResponse().withStatus(200).withBody("hedged")));
+
+    HttpActionOptions options = createOptions()
+        .setHedgingOptions(new HedgingOptions().setEnabled(true).setDelayMs(100));
+    tested = new EndpointInvoker(webClient, options);
+
+    EndpointRequest request = new EndpointRequest("/hedged", noHeaders());
+
+    // when, then
+    expectResponse(testContext, request,
+        response -> assertEquals("hedged", response.bodyAsString()));
+  }
+
+  @Test
+  @DisplayName("Expect hedged request response when the first request fails after the hedge")
+  void shouldReturnHedgedResponseWhenFirstRequestFails(VertxTestContext testContext) {
+    // given
+    server.stubFor(get(urlEqualTo("/hedged")).inScenario("hedging")
+        .whenScenarioStateIs(Scenario.STARTED)
+        .willSetStateTo("hedged")
+        .willReturn(aResponse().withStatus(500).withFixedDelay(500)));
+    server.stubFor(get(urlEqualTo("/hedged")).inScenario("hedging")
+        .whenScenarioStateIs("hedged")
+        .willReturn(aResponse().withStatus(200).withBody("hedged").withFixedDelay(1000)));
+
+    HttpActionOptions options = createOptions()
+        .setResponseOptions(new ResponseOptions().setPredicates(singleton("SC_SUCCESS")))
+        .setHedgingOptions(new HedgingOptions().setEnabled(true).setDelayMs(100));
+    tested = new EndpointInvoker(webClient, options);
+
+    EndpointRequest request = new EndpointRequest("/hedged", noHeaders());
+
+    // when, then
+    expectResponse(testContext, request,
+        response -> assertEquals("hedged", response.bodyAsString()));
+  }
+
+  @Test
+  @DisplayName("Expect slow request tracked until its response when the hedged request wins")
+  void shouldTrackDiscardedRequest(VertxTestContext testContext, Vertx vertx) {
+    // given
+    server.stubFor(get(urlEqualTo("/hedged")).inScenario("hedging")
+        .whenScenarioStateIs(Scenario.STARTED)
+        .willSetStateTo("hedged")
+        .willReturn(aResponse().withStatus(200).withBody("slow").withFixedDelay(1000)));
+    server.stubFor(get(urlEqualTo("/hedged")).inScenario("hedging")
+        .whenScenarioStateIs("hedged")
+        .willReturn(aResponse().withStatus(200).withBody("hedged")));
+
+    HttpActionOptions options = createOptions()
+        .setHedgingOptions(new HedgingOptions().setEnabled(true).setDelayMs(100));
+    tested = new EndpointInvoker(webClient, options);
+    AtomicReference<Upstream> upstream = new AtomicReference<>();
+    UpstreamListener listener = new UpstreamListener() {
+      @Override
+      public void onUpstreamChosen(Upstream chosen) {
+        upstream.set(chosen);
+      }
+    };
+
+    // when
+    tested.invokeEndpoint(new EndpointRequest("/hedged", noHeaders()), listener)
+        .subscribe(response -> {
+          // then
+          testContext.verify(() -> assertEquals(1, upstream.get().toJson().getInteger("inFlight")));
+          vertx.setTimer(2000, timerId -> testContext.verify(() -> {
+            JsonObject metrics = upstream.get().toJson();
+            assertEquals(0, metrics.getInteger("inFlight"));
+            assertTrue(metrics.getDouble("latencyEwmaMs") >= 1000.0d);
+            testContext.completeNow();
+          }));
+        }, testContext::failNow);
+  }
+
   private void serverRespondingOn(String path) {
     server.stubFor(get(urlEqualTo(path)).willReturn(aResponse().withStatus(200)));
   }
@@ -84,4 +84,36 @@ class HttpActionFactoryTest {
     JsonObject config = new JsonObject().put("httpMethod", method);
     assertThrows(ActionConfigurationException.class, () -> tested.create("", config, vertx, null));
   }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"POST", "PUT", "PATCH", "DELETE"})
+  @DisplayName("Http Action Factory throws when hedging enabled for not idempotent HTTP method")
+  void shouldThrowOnHedgingForNotIdempotentMethods(String method, Vertx vertx) {
+    HttpActionFactory tested = new HttpActionFactory();
+    JsonObject config = new JsonObject().put("httpMethod", method)
+        .put("hedgingOptions", new JsonObject().put("enabled", true));
+    assertThrows(ActionConfigurationException.class, () -> tested.create("", config, vertx, null));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"GET", "HEAD"})
+  @DisplayName("Http Action supports hedging for idempotent methods")
+  void shouldSupportHedging(String method, Vertx vertx) {
+    HttpActionFactory tested = new HttpActionFactory();
+    JsonObject config = new JsonObject().put("httpMethod", method)
+        .put("hedgingOptions", new JsonObject().put("enabled", true));
+    assertTrue(tested.create("", config, vertx, null) instanceof HttpAction);
+  }
+
+  @Test
+  @DisplayName("Http Action Factory throws when adaptive timeout bounds are invalid")
+  void shouldThrowOnInvalidAdaptiveTimeoutBounds(Vertx vertx) {
+    HttpActionFactory tested = new HttpActionFactory();
+    JsonObject config = new JsonObject()
+        .put("adaptiveTimeoutOptions", new JsonObject()
+            .put("enabled", true)
+            .put("minTimeoutMs", 1000)
+            .put("maxTimeoutMs", 100));
+    assertThrows(ActionConfigurationException.class, () -> tested.create("", config, vertx, null));
+  }
 }
@@ -30,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import io.knotx.fragments.api.Fragment;
+import io.knotx.fragments.action.library.http.options.AdaptiveTimeoutOptions;
 import io.knotx.fragments.action.library.http.options.EndpointOptions;
 import io.knotx.fragments.action.library.http.options.HttpActionOptions;
 import io.knotx.fragments.action.library.http.options.ResponseOptions;
@@ -52,6 +53,7 @@ import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
 import io.vertx.reactivex.core.MultiMap;
 import io.vertx.reactivex.ext.web.client.WebClient;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Optional;
@@ -261,6 +263,33 @@ class HttpActionTest {
     }, testContext);
   }
 
+  @Test
+  @DisplayName("Expect only selected response subtrees and no headers in payload when projection configured")
+  void selectedResultWithoutHeadersWhenProjectionConfigured(VertxTestContext testContext,
+      Vertx vertx) throws Throwable {
+    // given
+    String endpointPath = "/api/product";
+    HttpAction tested = setupTestingInstances(vertx, endpointPath, JSON_BODY, APPLICATION_JSON,
+        null, false, ActionLogLevel.INFO, new ResponseOptions()
+            .setSelect(Arrays.asList("id", "/label"))
+            .setCaptureHeaders(false));
+    ClientRequest clientRequest = prepareClientRequest(MultiMap.caseInsensitiveMultiMap(),
+        MultiMap.caseInsensitiveMultiMap().add("requestHeader", "request"), endpointPath);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      ActionPayload payload = new ActionPayload(
+          fragmentResult.getFragment()
+              .getPayload()
+              .getJsonObject(ACTION_ALIAS));
+      assertEquals(new JsonObject().put("id", 21762532).put("label", "Product"),
+          payload.getResult());
+      assertFalse(payload.getRequest().getMetadata().containsKey("headers"));
+      assertFalse(payload.getResponse().getMetadata().containsKey("headers"));
+      assertEquals("200", payload.getResponse().getMetadata().getString("statusCode"));
+    }, testContext);
+  }
+
   @Test
   @DisplayName("Expect response metadata in payload when endpoint returned error status code")
   void responseMetadataInPayloadWhenErrorResponse(VertxTestContext testContext,
@@ -525,6 +554,41 @@ class HttpActionTest {
         testContext);
   }
 
+  @Test
+  @DisplayName("Expect _timeout transition with effective timeout logged when adaptive timeout is enabled")
+  void timeoutTransitionWithAdaptiveTimeout(VertxTestContext testContext, Vertx vertx)
+      throws Throwable {
+    // given, when
+    long maxTimeoutMs = 500;
+    wireMockServer.stubFor(get(urlEqualTo(VALID_REQUEST_PATH))
+        .willReturn(aResponse().withFixedDelay((int) (4 * maxTimeoutMs))));
+
+    ClientRequest clientRequest = new ClientRequest();
+    clientRequest.setHeaders(MultiMap.caseInsensitiveMultiMap());
+
+    EndpointOptions endpointOptions = new EndpointOptions()
+        .setPath(VALID_REQUEST_PATH)
+        .setDomain("localhost")
+        .setPort(wireMockServer.port());
+
+    HttpAction tested = new HttpAction(createDefaultWebClient(vertx),
+        new HttpActionOptions()
+            .setEndpointOptions(endpointOptions)
+            .setAdaptiveTimeoutOptions(new AdaptiveTimeoutOptions()
+                .setEnabled(true)
+                .setMaxTimeoutMs(maxTimeoutMs))
+            .setLogLevel(actionLogLevel.getLevel()),
+        ACTION_ALIAS);
+
+    // then
+    verifyExecution(tested, clientRequest, createFragment(), fragmentResult -> {
+      assertEquals(TIMEOUT_TRANSITION, fragmentResult.getTransition());
+      JsonObject timeout = fragmentResult.getLog().getJsonObject("logs").getJsonObject("timeout");
+      assertEquals(maxTimeoutMs, timeout.getLong("timeoutMs").longValue());
+      assertTrue(timeout.getBoolean("adaptive"));
+    }, testContext);
+  }
+
   @Test
   @DisplayName("Expect error transition when calling not existing endpoint")
   void errorTransitionWhenEndpointDoesNotExist(VertxTestContext testContext,
@@ -787,6 +851,13 @@ class HttpActionTest {
 
   private HttpAction setupTestingInstances(Vertx vertx, String endpointPath, String body,
       String contentType, String jsonPredicate, boolean forceJson, ActionLogLevel logLevel) {
+    return setupTestingInstances(vertx, endpointPath, body, contentType, jsonPredicate, forceJson,
+        logLevel, new ResponseOptions());
+  }
+
+  private HttpAction setupTestingInstances(Vertx vertx, String endpointPath, String body,
+      String contentType, String jsonPredicate, boolean forceJson, ActionLogLevel logLevel,
+      ResponseOptions responseOptions) {
     Set<String> predicates = new HashSet<>();
     wireMockServer.stubFor(get(urlEqualTo(endpointPath))
         .willReturn(aResponse().withBody(body)
@@ -799,7 +870,7 @@ class HttpActionTest {
         .setAllowedRequestHeaders(ALLOW_ALL_HEADERS);
 
     Optional.ofNullable(jsonPredicate).ifPresent(predicates::add);
-    ResponseOptions responseOptions = new ResponseOptions()
+    responseOptions
         .setPredicates(predicates)
         .setForceJson(forceJson);
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.library.http.options.HedgingOptions;
+import io.knotx.fragments.action.library.http.upstream.LatencyHistogram;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RequestHedgingTest {
+
+  private final LatencyHistogram latencies = new LatencyHistogram(60_000L);
+
+  @Test
+  @DisplayName("Expect hedging disabled by default")
+  void disabledByDefault() {
+    RequestHedging tested = new RequestHedging(new HedgingOptions(), latencies);
+
+    assertFalse(tested.isEnabled());
+  }
+
+  @Test
+  @DisplayName("Expect configured delay used")
+  void fixedDelay() {
+    RequestHedging tested = new RequestHedging(enabled().setDelayMs(50L), latencies);
+
+    assertEquals(50L, tested.onRequest());
+  }
+
+  @Test
+  @DisplayName("Expect no hedge when not enough latencies observed")
+  void notEnoughSamples() {
+    RequestHedging tested = new RequestHedging(enabled(), latencies);
+
+    latencies.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+    assertEquals(RequestHedging.NO_HEDGE, tested.onRequest());
+  }
+
+  @Test
+  @DisplayName("Expect observed latency quantile used as delay")
+  void observedDelay() {
+    RequestHedging tested = new RequestHedging(enabled().setQuantile(0.5d), latencies);
+
+    for (int i = 0; i < 200; i++) {
+      latencies.record(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    long delay = tested.onRequest();
+    assertTrue(delay >= 20L && delay <= 22L);
+  }
+
+  @Test
+  @DisplayName("Expect hedges limited by the budget")
+  void budgetLimitsHedges() {
+    RequestHedging tested = new RequestHedging(enabled().setDelayMs(10L).setBudgetPercent(10),
+        latencies);
+
+    int hedges = 0;
+    for (int i = 0; i < 1000; i++) {
+      tested.onRequest();
+      if (tested.tryAcquire()) {
+        hedges++;
+      }
+    }
+
+    // initial burst of 10 hedges and 10% of requests
+    assertTrue(hedges >= 100 && hedges <= 110, "Unexpected hedges count " + hedges);
+  }
+
+  @Test
+  @DisplayName("Expect hedging disabled when budget is zero")
+  void zeroBudget() {
+    RequestHedging tested = new RequestHedging(enabled().setBudgetPercent(0), latencies);
+
+    assertFalse(tested.isEnabled());
+  }
+
+  private static HedgingOptions enabled() {
+    return new HedgingOptions().setEnabled(true);
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.library.http.options.AdaptiveTimeoutOptions;
+import io.knotx.fragments.action.library.http.options.HttpActionOptions;
+import io.knotx.fragments.action.library.http.upstream.LatencyHistogram;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RequestTimeoutTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private final LatencyHistogram latencies = new LatencyHistogram(60_000L);
+
+  @Test
+  @DisplayName("Expect static request timeout when adaptive timeout is disabled")
+  void staticTimeout() {
+    RequestTimeout tested = new RequestTimeout(new HttpActionOptions().setRequestTimeoutMs(300L),
+        latencies, clock::get);
+
+    assertFalse(tested.isAdaptive());
+    assertEquals(300L, tested.currentTimeoutMs());
+  }
+
+  @Test
+  @DisplayName("Expect timeout ceiling until enough latencies observed")
+  void ceilingWithoutSamples() {
+    RequestTimeout tested = new RequestTimeout(adaptive(new AdaptiveTimeoutOptions()
+        .setMaxTimeoutMs(2000L)), latencies, clock::get);
+
+    latencies.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+    assertTrue(tested.isAdaptive());
+    assertEquals(2000L, tested.currentTimeoutMs());
+  }
+
+  @Test
+  @DisplayName("Expect timeout derived from latency quantile and headroom")
+  void quantileWithHeadroom() {
+    RequestTimeout tested = new RequestTimeout(adaptive(new AdaptiveTimeoutOptions()
+        .setQuantile(0.99d)
+        .setHeadroomPercent(100.0d)), latencies, clock::get);
+
+    recordLatencies(200, 100L);
+
+    long timeout = tested.currentTimeoutMs();
+    assertTrue(timeout >= 200L && timeout <= 214L, "Unexpected timeout " + timeout);
+  }
+
+  @Test
+  @DisplayName("Expect timeout not lower than the floor")
+  void floor() {
+    RequestTimeout tested = new RequestTimeout(adaptive(new AdaptiveTimeoutOptions()
+        .setMinTimeoutMs(250L)), latencies, clock::get);
+
+    recordLatencies(200, 5L);
+
+    assertEquals(250L, tested.currentTimeoutMs());
+  }
+
+  @Test
+  @DisplayName("Expect timeout not higher than the ceiling")
+  void ceiling() {
+    RequestTimeout tested = new RequestTimeout(adaptive(new AdaptiveTimeoutOptions()
+        .setMaxTimeoutMs(1000L)), latencies, clock::get);
+
+    recordLatencies(200, 5000L);
+
+    assertEquals(1000L, tested.currentTimeoutMs());
+  }
+
+  @Test
+  @DisplayName("Expect timeout recomputed only after refresh interval")
+  void refreshInterval() {
+    RequestTimeout tested = new RequestTimeout(adaptive(new AdaptiveTimeoutOptions()
+        .setMaxTimeoutMs(2000L)), latencies, clock::get);
+
+    assertEquals(2000L, tested.currentTimeoutMs());
+    recordLatencies(200, 100L);
+    assertEquals(2000L, tested.currentTimeoutMs());
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertTrue(tested.currentTimeoutMs() < 2000L);
+  }
+
+  private static HttpActionOptions adaptive(AdaptiveTimeoutOptions options) {
+    return new HttpActionOptions().setAdaptiveTimeoutOptions(options.setEnabled(true));
+  }
+
+  private void recordLatencies(int count, long latencyMs) {
+    for (int i = 0; i < count; i++) {
+      latencies.record(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+    }
+  }
+
+}
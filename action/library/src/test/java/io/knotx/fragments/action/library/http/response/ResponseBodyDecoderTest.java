@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.response;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.reactivex.core.buffer.Buffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ResponseBodyDecoderTest {
+
+  private static final long NO_LIMIT = 0L;
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", " ", "\r\n\t "})
+  @DisplayName("Expect empty JSON object when body is blank")
+  void blankBody(String body) {
+    ResponseBodyDecoder tested = new ResponseBodyDecoder(NO_LIMIT);
+
+    assertEquals(new JsonObject(), tested.toJson(Buffer.buffer(body)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"{\"key\": \"value\"}", "  {\"key\": \"value\"}", "\n\t{\"key\": \"value\"}"})
+  @DisplayName("Expect JSON object decoded when body starts with an object token")
+  void jsonObject(String body) {
+    ResponseBodyDecoder tested = new ResponseBodyDecoder(NO_LIMIT);
+
+    assertEquals(new JsonObject().put("key", "value"), tested.toJson(Buffer.buffer(body)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"[\"first\", \"second\"]", "  [\"first\", \"second\"]", "\r\n[\"first\", \"second\"]"})
+  @DisplayName("Expect JSON array decoded when body starts with an array token, including leading whitespaces")
+  void jsonArray(String body) {
+    ResponseBodyDecoder tested = new ResponseBodyDecoder(NO_LIMIT);
+
+    assertEquals(new JsonArray().add("first").add("second"), tested.toJson(Buffer.buffer(body)));
+  }
+
+  @Test
+  @DisplayName("Expect DecodeException when body is not a valid JSON")
+  void invalidJson() {
+    ResponseBodyDecoder tested = new ResponseBodyDecoder(NO_LIMIT);
+
+    assertThrows(DecodeException.class, () -> tested.toJson(Buffer.buffer("<html>Hello</html>")));
+  }
+
+  @Test
+  @DisplayName("Expect body accepted when its size does not exceed the limit")
+  void bodyWithinLimit() {
+    ResponseBodyDecoder tested = new ResponseBodyDecoder(4);
+
+    assertDoesNotThrow(() -> tested.validateSize(Buffer.buffer("1234")));
+  }
+
+  @Test
+  @DisplayName("Expect body rejected when its size exceeds the limit")
+  void bodyExceedsLimit() {
+    ResponseBodyDecoder tested = new ResponseBodyDecoder(4);
+
+    assertThrows(IllegalStateException.class, () -> tested.validateSize(Buffer.buffer("12345")));
+  }
+
+  @Test
+  @DisplayName("Expect any body accepted when limit is disabled")
+  void limitDisabled() {
+    ResponseBodyDecoder tested = new ResponseBodyDecoder(NO_LIMIT);
+
+    assertDoesNotThrow(() -> tested.validateSize(Buffer.buffer("12345")));
+  }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.response;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ResponseProjectionTest {
+
+  private static final JsonObject PRODUCT = new JsonObject()
+      .put("id", "sku-01")
+      .put("details", new JsonObject()
+          .put("name", "Knot.x in Action")
+          .put("description", "long description")
+          .put("price", new JsonObject().put("amount", 10).put("currency", "EUR")))
+      .put("variants", new JsonArray()
+          .add(new JsonObject().put("id", "v-01").put("stock", 5))
+          .add(new JsonObject().put("id", "v-02").put("stock", 0)))
+      .put("a/b", "escaped");
+
+  @Test
+  @DisplayName("Expect body untouched when nothing selected")
+  void noSelection() {
+    ResponseProjection tested = new ResponseProjection(emptyList());
+
+    assertSame(PRODUCT, tested.apply(PRODUCT));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"details.name", "/details/name"})
+  @DisplayName("Expect only selected nested value kept with original structure")
+  void nestedValueSelected(String path) {
+    ResponseProjection tested = new ResponseProjection(singletonList(path));
+
+    JsonObject expected = new JsonObject()
+        .put("details", new JsonObject().put("name", "Knot.x in Action"));
+    assertEquals(expected, tested.apply(PRODUCT));
+  }
+
+  @Test
+  @DisplayName("Expect many selected subtrees merged")
+  void manySubtreesSelected() {
+    ResponseProjection tested = new ResponseProjection(
+        asList("id", "details.price", "/details/name"));
+
+    JsonObject expected = new JsonObject()
+        .put("id", "sku-01")
+        .put("details", new JsonObject()
+            .put("price", new JsonObject().put("amount", 10).put("currency", "EUR"))
+            .put("name", "Knot.x in Action"));
+    assertEquals(expected, tested.apply(PRODUCT));
+  }
+
+  @Test
+  @DisplayName("Expect path applied to each element when traversing an array")
+  void arrayElementsProjected() {
+    ResponseProjection tested = new ResponseProjection(singletonList("variants.id"));
+
+    JsonObject expected = new JsonObject()
+        .put("variants", new JsonArray()
+            .add(new JsonObject().put("id", "v-01"))
+            .add(new JsonObject().put("id", "v-02")));
+    assertEquals(expected, tested.apply(PRODUCT));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"variants.1.id", "/variants/1/id"})
+  @DisplayName("Expect numeric segment to select array element by index")
+  void arrayElementSelectedByIndex(String path) {
+    ResponseProjection tested = new ResponseProjection(singletonList(path));
+
+    JsonObject expected = new JsonObject()
+        .put("variants", new JsonArray()
+            .add(new JsonObject().put("id", "v-02")));
+    assertEquals(expected, tested.apply(PRODUCT));
+  }
+
+  @Test
+  @DisplayName("Expect element selected by index merged with paths applied to each element")
+  void arrayElementByIndexMerged() {
+    ResponseProjection tested = new ResponseProjection(
+        asList("/variants/0/stock", "variants.id", "/variants/5"));
+
+    JsonObject expected = new JsonObject()
+        .put("variants", new JsonArray()
+            .add(new JsonObject().put("stock", 5).put("id", "v-01"))
+            .add(new JsonObject().put("id", "v-02")));
+    assertEquals(expected, tested.apply(PRODUCT));
+  }
+
+  @Test
+  @DisplayName("Expect numeric segment to select object key")
+  void numericObjectKey() {
+    ResponseProjection tested = new ResponseProjection(singletonList("/codes/0"));
+
+    JsonObject body = new JsonObject()
+        .put("codes", new JsonObject().put("0", "zero").put("1", "one"));
+
+    assertEquals(new JsonObject().put("codes", new JsonObject().put("0", "zero")),
+        tested.apply(body));
+  }
+
+  @Test
+  @DisplayName("Expect array response body projected element by element")
+  void arrayBodyProjected() {
+    ResponseProjection tested = new ResponseProjection(singletonList("id"));
+
+    JsonArray body = new JsonArray()
+        .add(new JsonObject().put("id", 1).put("name", "first"))
+        .add(new JsonObject().put("id", 2).put("name", "second"));
+
+    JsonArray expected = new JsonArray()
+        .add(new JsonObject().put("id", 1))
+        .add(new JsonObject().put("id", 2));
+    assertEquals(expected, tested.apply(body));
+  }
+
+  @Test
+  @DisplayName("Expect escaped JSON pointer tokens resolved")
+  void escapedPointer() {
+    ResponseProjection tested = new ResponseProjection(singletonList("/a~1b"));
+
+    assertEquals(new JsonObject().put("a/b", "escaped"), tested.apply(PRODUCT));
+  }
+
+  @Test
+  @DisplayName("Expect empty JSON object when selected paths do not exist")
+  void notExistingPath() {
+    ResponseProjection tested = new ResponseProjection(asList("missing", "id.nested"));
+
+    assertEquals(new JsonObject(), tested.apply(PRODUCT));
+  }
+
+}
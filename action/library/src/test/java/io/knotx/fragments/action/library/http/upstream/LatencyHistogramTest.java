@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.upstream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class LatencyHistogramTest {
+
+  private static final long WINDOW_MS = 1000L;
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  @DisplayName("Expect zero quantile when nothing recorded")
+  void empty() {
+    LatencyHistogram tested = new LatencyHistogram(WINDOW_MS, clock::get);
+
+    assertEquals(0L, tested.getCount());
+    assertEquals(0L, tested.getQuantileMs(0.95d));
+  }
+
+  @Test
+  @DisplayName("Expect quantiles of recorded latencies")
+  void quantiles() {
+    LatencyHistogram tested = new LatencyHistogram(WINDOW_MS, clock::get);
+
+    for (int i = 1; i <= 100; i++) {
+      tested.record(TimeUnit.MILLISECONDS.toNanos(i));
+    }
+
+    assertEquals(100L, tested.getCount());
+    assertWithinBucketError(50L, tested.getQuantileMs(0.5d));
+    assertWithinBucketError(95L, tested.getQuantileMs(0.95d));
+    assertWithinBucketError(100L, tested.getQuantileMs(1.0d));
+  }
+
+  @Test
+  @DisplayName("Expect latencies from the previous window still counted")
+  void previousWindowCounted() {
+    LatencyHistogram tested = new LatencyHistogram(WINDOW_MS, clock::get);
+
+    tested.record(TimeUnit.MILLISECONDS.toNanos(10));
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(WINDOW_MS));
+    tested.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+    assertEquals(2L, tested.getCount());
+  }
+
+  @Test
+  @DisplayName("Expect old latencies forgotten after two windows")
+  void oldLatenciesForgotten() {
+    LatencyHistogram tested = new LatencyHistogram(WINDOW_MS, clock::get);
+
+    tested.record(TimeUnit.MILLISECONDS.toNanos(500));
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(2 * WINDOW_MS));
+    tested.record(TimeUnit.MILLISECONDS.toNanos(10));
+
+    assertEquals(1L, tested.getCount());
+    assertWithinBucketError(10L, tested.getQuantileMs(1.0d));
+  }
+
+  @ParameterizedTest
+  @ValueSource(longs = {0L, 1L, 15L, 16L, 17L, 1_000L, 123_456L, 10_000_000L})
+  @DisplayName("Expect bucket upper bound not lower than the value and within relative error")
+  void bucketBounds(long valueUs) {
+    long upperBound = LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(valueUs));
+
+    assertTrue(upperBound >= valueUs);
+    assertTrue(upperBound - valueUs <= valueUs / 16);
+  }
+
+  private static void assertWithinBucketError(long expectedMs, long actualMs) {
+    assertTrue(actualMs >= expectedMs && actualMs <= expectedMs + expectedMs / 16 + 1,
+        () -> "Expected about " + expectedMs + " ms but was " + actualMs);
+  }
+
+}
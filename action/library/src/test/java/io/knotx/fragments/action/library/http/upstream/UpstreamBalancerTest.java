@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.http.upstream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.library.http.options.EndpointInstanceOptions;
+import io.knotx.fragments.action.library.http.options.EndpointOptions;
+import io.knotx.fragments.action.library.http.options.LoadBalancerOptions;
+import io.vertx.core.json.JsonObject;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UpstreamBalancerTest {
+
+  private static final int MAX_CONSECUTIVE_FAILURES = 2;
+  private static final long EJECTION_TIME_MS = 1000L;
+
+  private AtomicLong clock;
+
+  @BeforeEach
+  void setUp() {
+    clock = new AtomicLong();
+  }
+
+  @Test
+  @DisplayName("Expect endpoint domain and port used when no instances defined")
+  void singleUpstream() {
+    UpstreamBalancer tested = UpstreamBalancer.create(new EndpointOptions()
+        .setDomain("localhost")
+        .setPort(8080), clock::get);
+
+    Upstream upstream = tested.choose();
+
+    assertEquals("localhost", upstream.getDomain());
+    assertEquals(8080, upstream.getPort());
+    assertEquals(1, tested.getUpstreams().size());
+  }
+
+  @Test
+  @DisplayName("Expect instance with lower latency chosen")
+  void lowerLatencyChosen() {
+    UpstreamBalancer tested = twoInstances();
+    Upstream slow = tested.getUpstreams().get(0);
+    Upstream fast = tested.getUpstreams().get(1);
+
+    respond(slow, 200, false);
+    respond(fast, 20, false);
+
+    assertSame(fast, tested.choose());
+  }
+
+  @Test
+  @DisplayName("Expect instance with fewer requests in progress chosen when latencies are equal")
+  void lessLoadedChosen() {
+    UpstreamBalancer tested = twoInstances();
+    Upstream busy = tested.getUpstreams().get(0);
+    Upstream idle = tested.getUpstreams().get(1);
+
+    busy.begin();
+    busy.begin();
+
+    assertSame(idle, tested.choose());
+  }
+
+  @Test
+  @DisplayName("Expect cancelled request not counted as in progress")
+  void cancelledCallReleased() {
+    UpstreamBalancer tested = twoInstances();
+    Upstream upstream = tested.getUpstreams().get(0);
+
+    Upstream.Call call = upstream.begin();
+    call.cancel();
+    call.complete(true);
+
+    JsonObject metrics = upstream.toJson();
+    assertEquals(0, metrics.getInteger("inFlight").intValue());
+    assertEquals(0L, metrics.getLong("failures").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect instance ejected after consecutive failures")
+  void failingInstanceEjected() {
+    UpstreamBalancer tested = twoInstances();
+    Upstream failing = tested.getUpstreams().get(0);
+    Upstream healthy = tested.getUpstreams().get(1);
+
+    respond(healthy, 500, false);
+    respond(failing, 10, true);
+    respond(failing, 10, true);
+
+    assertSame(healthy, tested.choose());
+    assertTrue(failing.toJson().getBoolean("ejected"));
+    assertEquals(1L, failing.toJson().getLong("ejections").longValue());
+  }
+
+  @Test
+  @DisplayName("Expect successful response resetting consecutive failures")
+  void successResetsFailures() {
+    UpstreamBalancer tested = twoInstances();
+    Upstream upstream = tested.getUpstreams().get(0);
+
+    respond(upstream, 10, true);
+    respond(upstream, 10, false);
+    respond(upstream, 10, true);
+
+    assertFalse(upstream.toJson().getBoolean("ejected"));
+    assertEquals(1, upstream.toJson().getInteger("consecutiveFailures").intValue());
+  }
+
+  @Test
+  @DisplayName("Expect ejected instance available again after ejection time")
+  void ejectedInstanceReturns() {
+    UpstreamBalancer tested = twoInstances();
+    Upstream failing = tested.getUpstreams().get(0);
+
+    respond(failing, 10, true);
+    respond(failing, 10, true);
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(EJECTION_TIME_MS));
+
+    assertFalse(failing.toJson().getBoolean("ejected"));
+  }
+
+  @Test
+  @DisplayName("Expect any instance chosen when all instances are ejected")
+  void allEjected() {
+    UpstreamBalancer tested = twoInstances();
+    tested.getUpstreams().forEach(upstream -> {
+      respond(upstream, 10, true);
+      respond(upstream, 10, true);
+    });
+
+    assertTrue(tested.getUpstreams().contains(tested.choose()));
+  }
+
+  @Test
+  @DisplayName("Expect metrics of all instances exposed")
+  void metrics() {
+    UpstreamBalancer tested = twoInstances();
+
+    respond(tested.getUpstreams().get(0), 100, false);
+
+    JsonObject metrics = tested.getMetrics().getJsonObject(0);
+    assertEquals("first", metrics.getString("domain"));
+    assertEquals(1L, metrics.getLong("requests").longValue());
+    assertEquals(100.0d, metrics.getDouble("latencyEwmaMs").doubleValue());
+    assertEquals(2, tested.getMetrics().size());
+  }
+
+  private UpstreamBalancer twoInstances() {
+    EndpointOptions options = new EndpointOptions()
+        .setInstances(Arrays.asList(
+            new EndpointInstanceOptions("first", 8080),
+            new EndpointInstanceOptions("second", 8080)))
+        .setLoadBalancerOptions(new LoadBalancerOptions()
+            .setMaxConsecutiveFailures(MAX_CONSECUTIVE_FAILURES)
+            .setEjectionTimeMs(EJECTION_TIME_MS));
+    return UpstreamBalancer.create(options, clock::get);
+  }
+
+  private void respond(Upstream upstream, long latencyMs, boolean failure) {
+    Upstream.Call call = upstream.begin();
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(latencyMs));
+    call.complete(failure);
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.ratelimit;
+
+import static io.knotx.fragments.action.library.TestUtils.ACTION_ALIAS;
+import static io.knotx.fragments.action.library.TestUtils.doActionIdle;
+import static io.knotx.fragments.action.library.TestUtils.someContext;
+import static io.knotx.fragments.action.library.TestUtils.verifyDeliveredResult;
+import static io.knotx.fragments.action.library.ratelimit.RateLimitActionFactory.RATE_LIMITED_TRANSITION;
+import static io.knotx.fragments.api.FragmentResult.SUCCESS_TRANSITION;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@Timeout(value = 5, timeUnit = SECONDS)
+@ExtendWith(VertxExtension.class)
+class RateLimitActionFactoryTest {
+
+  @Test
+  @DisplayName("Expect factory name is 'rate-limit'.")
+  void checkFactoryName() {
+    assertEquals(RateLimitActionFactory.FACTORY_NAME, new RateLimitActionFactory().getName());
+  }
+
+  @Test
+  @DisplayName("Expect exception when doAction not provided")
+  void doActionNotProvided(Vertx vertx) {
+    assertThrows(DoActionNotDefinedException.class, () ->
+        new RateLimitActionFactory().create(ACTION_ALIAS, new JsonObject(), vertx, null));
+  }
+
+  @Test
+  @DisplayName("Expect exception when refillRate is not positive")
+  void invalidRefillRate(Vertx vertx) {
+    JsonObject config = new RateLimitActionFactoryOptions().setRefillRate(0).toJson();
+
+    assertThrows(ActionConfigurationException.class, () ->
+        new RateLimitActionFactory().create(ACTION_ALIAS, config, vertx, doActionIdle()));
+  }
+
+  @Test
+  @DisplayName("Expect doAction result when a token is available")
+  void tokenAvailable(VertxTestContext testContext, Vertx vertx) {
+    Action tested = newActionInstance(vertx, new RateLimitActionFactoryOptions(), doActionIdle());
+
+    verifyDeliveredResult(testContext, tested,
+        result -> assertEquals(SUCCESS_TRANSITION, result.getTransition()));
+  }
+
+  @Test
+  @DisplayName("Expect _rate_limited transition without doAction call when the bucket is empty")
+  void rateLimited(VertxTestContext testContext, Vertx vertx) {
+    AtomicInteger calls = new AtomicInteger();
+    Action doAction = (fragmentContext, resultHandler) -> {
+      calls.incrementAndGet();
+      doActionIdle().apply(fragmentContext, resultHandler);
+    };
+    Action tested = newActionInstance(vertx, new RateLimitActionFactoryOptions()
+        .setBurstSize(1)
+        .setRefillRate(0.1), doAction);
+
+    tested.apply(someContext(), testContext.succeeding());
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(RATE_LIMITED_TRANSITION, result.getTransition());
+      assertEquals(1, calls.get());
+      assertEquals(1L, ((RateLimitAction) tested).getBucket().getRateLimitedCount());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect call delayed until the token is refilled when maxWaitMs allows it")
+  void delayedUntilRefilled(VertxTestContext testContext, Vertx vertx) {
+    Action tested = newActionInstance(vertx, new RateLimitActionFactoryOptions()
+        .setBurstSize(1)
+        .setRefillRate(10)
+        .setMaxWaitMs(1000L), doActionIdle());
+    long start = System.currentTimeMillis();
+
+    tested.apply(someContext(), testContext.succeeding());
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(SUCCESS_TRANSITION, result.getTransition());
+      assertTrue(System.currentTimeMillis() - start >= 50L);
+    });
+  }
+
+  private Action newActionInstance(Vertx vertx, RateLimitActionFactoryOptions options,
+      Action doAction) {
+    return new RateLimitActionFactory().create(ACTION_ALIAS, options.toJson(), vertx, doAction);
+  }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+  private static final long NOW = 1_000_000_000L;
+  private static final long INTERVAL = 100_000_000L;
+
+  @Test
+  @DisplayName("Expect burstSize calls allowed at once and the next one rate limited.")
+  void burstAllowed() {
+    TokenBucket tested = new TokenBucket(3, 10.0, NOW);
+
+    assertEquals(3L, tested.getAvailableTokens(NOW));
+    assertEquals(0L, tested.tryAcquire(NOW, 0L));
+    assertEquals(0L, tested.tryAcquire(NOW, 0L));
+    assertEquals(0L, tested.tryAcquire(NOW, 0L));
+    assertEquals(-1L, tested.tryAcquire(NOW, 0L));
+    assertEquals(1L, tested.getRateLimitedCount());
+  }
+
+  @Test
+  @DisplayName("Expect tokens refilled with the passing time.")
+  void refilledWithTime() {
+    TokenBucket tested = new TokenBucket(1, 10.0, NOW);
+    tested.tryAcquire(NOW, 0L);
+
+    assertEquals(0L, tested.getAvailableTokens(NOW + INTERVAL / 2));
+    assertEquals(-1L, tested.tryAcquire(NOW + INTERVAL / 2, 0L));
+    assertEquals(1L, tested.getAvailableTokens(NOW + INTERVAL));
+    assertEquals(0L, tested.tryAcquire(NOW + INTERVAL, 0L));
+  }
+
+  @Test
+  @DisplayName("Expect wait time returned when the token is refilled within maxWait.")
+  void waitForToken() {
+    TokenBucket tested = new TokenBucket(1, 10.0, NOW);
+    tested.tryAcquire(NOW, 0L);
+
+    assertEquals(INTERVAL, tested.tryAcquire(NOW, INTERVAL));
+    assertEquals(-1L, tested.tryAcquire(NOW, INTERVAL));
+    assertEquals(2 * INTERVAL, tested.tryAcquire(NOW, 2 * INTERVAL));
+  }
+
+  @Test
+  @DisplayName("Expect idle time does not accumulate more than burstSize tokens.")
+  void burstBounded() {
+    TokenBucket tested = new TokenBucket(2, 10.0, NOW);
+
+    assertEquals(2L, tested.getAvailableTokens(NOW + 100 * INTERVAL));
+  }
+}
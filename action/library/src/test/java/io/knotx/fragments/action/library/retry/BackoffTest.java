@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BackoffTest {
+
+  @Test
+  @DisplayName("Expect backoff cap grows exponentially up to maxBackoffMs and jitter within it.")
+  void exponentialBackoff() {
+    Backoff tested = new Backoff(100L, 1000L, 2.0);
+
+    assertEquals(100L, tested.capMs(1));
+    assertEquals(200L, tested.capMs(2));
+    assertEquals(800L, tested.capMs(4));
+    assertEquals(1000L, tested.capMs(5));
+    for (int i = 0; i < 100; i++) {
+      long delay = tested.delayMs(3);
+      assertTrue(delay >= 1L && delay <= 400L);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import static io.knotx.fragments.action.library.TestUtils.ACTION_ALIAS;
+import static io.knotx.fragments.action.library.TestUtils.doActionIdle;
+import static io.knotx.fragments.action.library.TestUtils.someContext;
+import static io.knotx.fragments.action.library.TestUtils.verifyDeliveredResult;
+import static io.knotx.fragments.action.library.http.response.EndpointResponseProcessor.TIMEOUT_TRANSITION;
+import static io.knotx.fragments.api.FragmentResult.ERROR_TRANSITION;
+import static io.knotx.fragments.api.FragmentResult.SUCCESS_TRANSITION;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.knotx.fragments.action.api.Action;
+import io.knotx.fragments.action.api.SyncAction;
+import io.knotx.fragments.action.library.exception.ActionConfigurationException;
+import io.knotx.fragments.action.library.exception.DoActionNotDefinedException;
+import io.knotx.fragments.api.FragmentContext;
+import io.knotx.fragments.api.FragmentResult;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.Timeout;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@Timeout(value = 5, timeUnit = SECONDS)
+@ExtendWith(VertxExtension.class)
+class RetryActionFactoryTest {
+
+  @Test
+  @DisplayName("Expect factory name is 'retry'.")
+  void checkFactoryName() {
+    assertEquals(RetryActionFactory.FACTORY_NAME, new RetryActionFactory().getName());
+  }
+
+  @Test
+  @DisplayName("Expect exception when doAction not provided")
+  void doActionNotProvided(Vertx vertx) {
+    assertThrows(DoActionNotDefinedException.class, () ->
+        new RetryActionFactory().create(ACTION_ALIAS, new JsonObject(), vertx, null));
+  }
+
+  @Test
+  @DisplayName("Expect exception when maxAttempts is not positive")
+  void invalidMaxAttempts(Vertx vertx) {
+    JsonObject config = new RetryActionFactoryOptions().setMaxAttempts(0).toJson();
+
+    assertThrows(ActionConfigurationException.class, () ->
+        new RetryActionFactory().create(ACTION_ALIAS, config, vertx, doActionIdle()));
+  }
+
+  @Test
+  @DisplayName("Expect doAction called once when it ends with not retried transition")
+  void notRetried(VertxTestContext testContext, Vertx vertx) {
+    FailingAction doAction = new FailingAction(0);
+    Action tested = newActionInstance(vertx, new RetryActionFactoryOptions(), doAction);
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(SUCCESS_TRANSITION, result.getTransition());
+      assertEquals(1, doAction.calls.get());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect doAction retried until it succeeds")
+  void retriedUntilSuccess(VertxTestContext testContext, Vertx vertx) {
+    FailingAction doAction = new FailingAction(2);
+    Action tested = newActionInstance(vertx, fastRetries(), doAction);
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(SUCCESS_TRANSITION, result.getTransition());
+      assertEquals(3, doAction.calls.get());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect doAction retried when it ends with _timeout by default")
+  void timeoutRetried(VertxTestContext testContext, Vertx vertx) {
+    FailingAction doAction = new FailingAction(1, TIMEOUT_TRANSITION);
+    Action tested = newActionInstance(vertx, fastRetries(), doAction);
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(SUCCESS_TRANSITION, result.getTransition());
+      assertEquals(2, doAction.calls.get());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect the last doAction result when maxAttempts is reached")
+  void maxAttemptsReached(VertxTestContext testContext, Vertx vertx) {
+    FailingAction doAction = new FailingAction(5);
+    Action tested = newActionInstance(vertx, fastRetries().setMaxAttempts(2), doAction);
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(ERROR_TRANSITION, result.getTransition());
+      assertEquals(2, doAction.calls.get());
+    });
+  }
+
+  @Test
+  @DisplayName("Expect no retry when the retry budget is exhausted")
+  void budgetExhausted(VertxTestContext testContext, Vertx vertx) {
+    FailingAction doAction = new FailingAction(5);
+    Action tested = newActionInstance(vertx, fastRetries()
+        .setRetryBudgetBurst(1)
+        .setRetryBudgetRatio(0), doAction);
+
+    verifyDeliveredResult(testContext, tested, result -> {
+      assertEquals(ERROR_TRANSITION, result.getTransition());
+      assertEquals(2, doAction.calls.get());
+    });
+  }
+
+  private static RetryActionFactoryOptions fastRetries() {
+    return new RetryActionFactoryOptions()
+        .setInitialBackoffMs(1L)
+        .setMaxBackoffMs(5L);
+  }
+
+  private Action newActionInstance(Vertx vertx, RetryActionFactoryOptions options,
+      Action doAction) {
+    return new RetryActionFactory().create(ACTION_ALIAS, options.toJson(), vertx, doAction);
+  }
+
+  /**
+   * Ends with the failure transition (<code>_error</code> by default) for the given number of
+   * calls, then succeeds.
+   */
+  private static class FailingAction implements SyncAction {
+
+    private final int failures;
+    private final String failureTransition;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    FailingAction(int failures) {
+      this(failures, ERROR_TRANSITION);
+    }
+
+    FailingAction(int failures, String failureTransition) {
+      this.failures = failures;
+      this.failureTransition = failureTransition;
+    }
+
+    @Override
+    public FragmentResult applySync(FragmentContext fragmentContext) {
+      if (calls.incrementAndGet() <= failures) {
+        return FragmentResult.success(fragmentContext.getFragment(), failureTransition);
+      }
+      return FragmentResult.success(fragmentContext.getFragment());
+    }
+  }
+
+}
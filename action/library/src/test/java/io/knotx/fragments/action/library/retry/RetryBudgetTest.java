@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2019 Knot.x Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.knotx.fragments.action.library.retry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+  @Test
+  @DisplayName("Expect burst retries allowed on start.")
+  void burstOnStart() {
+    RetryBudget tested = new RetryBudget(0.1, 2);
+
+    assertTrue(tested.tryRetry());
+    assertTrue(tested.tryRetry());
+    assertFalse(tested.tryRetry());
+  }
+
+  @Test
+  @DisplayName("Expect one retry allowed per ratio of calls when the burst is used.")
+  void retriesBoundedByRatio() {
+    RetryBudget tested = new RetryBudget(0.1, 1);
+    tested.tryRetry();
+
+    for (int i = 0; i < 9; i++) {
+      tested.onCall();
+    }
+    assertFalse(tested.tryRetry());
+
+    tested.onCall();
+    assertTrue(tested.tryRetry());
+  }
+
+  @Test
+  @DisplayName("Expect deposits capped at burst.")
+  void depositsCapped() {
+    RetryBudget tested = new RetryBudget(0.5, 2);
+
+    for (int i = 0; i < 100; i++) {
+      tested.onCall();
+    }
+
+    assertEquals(2.0, tested.getAvailableRetries());
+  }
+}
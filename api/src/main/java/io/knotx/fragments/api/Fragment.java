@@ -96,6 +96,17 @@ public class Fragment {
     return configuration.copy();
   }
 
+  /**
+   * Works like {@link #getConfiguration()} but returns the configuration itself instead of its
+   * copy. It is intended for reading the configuration many times (e.g. resolving placeholders) and
+   * must never be modified.
+   *
+   * @return configuration of a Fragment, not copied.
+   */
+  public JsonObject peekConfiguration() {
+    return configuration;
+  }
+
   /**
    * Contains the body of a Fragment that is the final result of the fragment processing. Body can
    * be updated and transformed many times during processing.
@@ -121,6 +132,17 @@ public class Fragment {
     return payload.copy();
   }
 
+  /**
+   * Works like {@link #getPayload()} but returns the payload itself instead of its copy. It is
+   * intended for reading the payload many times (e.g. resolving placeholders) and must never be
+   * modified, use {@link #appendPayload(String, Object)} instead.
+   *
+   * @return additional data that is associated with the Fragment, not copied.
+   */
+  public JsonObject peekPayload() {
+    return payload;
+  }
+
   /**
    * Appends new entry int the Fragment's payload. Notice, that it may overwrite any existing info
    * in the payload, if the keys are identical.
@@ -19,6 +19,7 @@ import io.knotx.fragments.action.api.Action;
 import io.knotx.fragments.action.api.ActionFactory;
 import io.knotx.fragments.action.core.ActionFactoryOptions;
 import io.knotx.fragments.action.core.ActionProvider;
+import io.knotx.fragments.action.core.ActionRegistry;
 import io.knotx.fragments.task.api.Node;
 import io.knotx.fragments.task.factory.api.metadata.NodeMetadata;
 import io.knotx.fragments.task.factory.generic.GraphNodeOptions;
@@ -51,10 +52,11 @@ public class ActionNodeFactory implements NodeFactory {
 
   @Override
   public ActionNodeFactory configure(JsonObject config, Vertx vertx) {
-    Map<String, ActionFactoryOptions> actionNameToOptions = new ActionNodeFactoryConfig(config)
-        .getActions();
+    ActionNodeFactoryConfig factoryConfig = new ActionNodeFactoryConfig(config);
+    Map<String, ActionFactoryOptions> actionNameToOptions = factoryConfig.getActions();
     this.actionNodeMetadataProvider = ActionNodeMetadataProvider.create(NAME, actionNameToOptions);
-    this.actionProvider = new ActionProvider(SPI_ACTION_SUPPLIER, actionNameToOptions, vertx);
+    this.actionProvider = new ActionProvider(SPI_ACTION_SUPPLIER, actionNameToOptions, vertx,
+        factoryConfig.isShareActions() ? ActionRegistry.shared(vertx) : new ActionRegistry());
     return this;
   }
 
@@ -33,6 +33,7 @@ import java.util.Objects;
 public class ActionNodeFactoryConfig {
 
   private Map<String, ActionFactoryOptions> actions;
+  private boolean shareActions;
 
   public ActionNodeFactoryConfig(Map<String, ActionFactoryOptions> actions) {
     this(actions, ActionLogLevel.fromConfig(new LogLevelConfig().toJson()));
@@ -79,6 +80,23 @@ public class ActionNodeFactoryConfig {
     return this;
   }
 
+  public boolean isShareActions() {
+    return shareActions;
+  }
+
+  /**
+   * Enables sharing stateful actions (e.g. circuit breakers, caches) between all verticle instances
+   * of the Vert.x instance. Actions with the same name and configuration are created once. By
+   * default, every verticle instance creates its own actions.
+   *
+   * @param shareActions share stateful actions between verticle instances
+   * @return reference to this, so the API can be used fluently
+   */
+  public ActionNodeFactoryConfig setShareActions(boolean shareActions) {
+    this.shareActions = shareActions;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -88,18 +106,20 @@ public class ActionNodeFactoryConfig {
       return false;
     }
     ActionNodeFactoryConfig that = (ActionNodeFactoryConfig) o;
-    return Objects.equals(actions, that.actions);
+    return shareActions == that.shareActions &&
+        Objects.equals(actions, that.actions);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(actions);
+    return Objects.hash(actions, shareActions);
   }
 
   @Override
   public String toString() {
     return "ActionsConfig{" +
         "actions=" + actions +
+        ", shareActions=" + shareActions +
         '}';
   }
 }